@@ -0,0 +1,161 @@
+package IU;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.swing.JProgressBar;
+import javax.swing.SwingWorker;
+
+/**
+ * Refresco de listas fuera del hilo de eventos de Swing (EDT).
+ * La fuente (que en el primer uso lee los archivos a través de los repositorios)
+ * y el formato de cada fila se ejecutan en un {@link SwingWorker}; las filas
+ * llegan al panel en trozos de {@value #TROZO}, de modo que la vista se va
+ * llenando mientras se procesa el resto y la ventana nunca se congela.
+ *
+ * <p>Cada panel tiene una sola carga: un nuevo {@link #refrescar} cancela la
+ * anterior y descarta los trozos que esta ya hubiera publicado, así un clic
+ * repetido en "Actualizar" no mezcla filas de dos recorridos.</p>
+ *
+ * <p>Todos los métodos públicos se llaman desde el EDT, y los del {@link Destino}
+ * también se ejecutan en él.</p>
+ *
+ * @param <T> tipo de los elementos que entrega la fuente
+ * @param <R> tipo de las filas que recibe el panel
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class CargaAsincrona<T, R> {
+
+    /** Número de filas por trozo publicado. */
+    public static final int TROZO = 500;
+
+    /**
+     * Receptor de las filas en el EDT.
+     * @param <R> tipo de las filas
+     */
+    public interface Destino<R> {
+        /** Se llama al empezar un refresco, antes del primer trozo (por ejemplo para vaciar la vista). */
+        void iniciar();
+
+        /** @param filas siguiente trozo de filas, en el orden de la fuente */
+        void agregar(List<R> filas);
+
+        /** @param total número de filas entregadas por el refresco que terminó */
+        default void terminar(int total) {}
+
+        /** @param causa excepción lanzada por la fuente o por el formato */
+        default void fallar(Throwable causa) {}
+    }
+
+    private final Destino<R> destino;
+    private final JProgressBar barra = new JProgressBar(0, 100);
+    private Trabajador actual;
+
+    /**
+     * @param destino receptor de las filas
+     */
+    public CargaAsincrona(Destino<R> destino) {
+        this.destino = destino;
+        barra.setStringPainted(true);
+        barra.setVisible(false);
+    }
+
+    /**
+     * Barra de progreso de esta carga; el panel la ubica donde quiera.
+     * Solo es visible mientras hay un refresco en curso.
+     * @return la barra
+     */
+    public JProgressBar getBarra() {
+        return barra;
+    }
+
+    /**
+     * Inicia un refresco, cancelando el que estuviera en curso.
+     * @param fuente produce los elementos; se ejecuta fuera del EDT
+     * @param formato convierte cada elemento en fila; se ejecuta fuera del EDT
+     */
+    public void refrescar(Supplier<? extends List<? extends T>> fuente, Function<? super T, ? extends R> formato) {
+        cancelar();
+        destino.iniciar();
+        barra.setIndeterminate(true);
+        barra.setString("Cargando...");
+        barra.setVisible(true);
+        actual = new Trabajador(fuente, formato);
+        actual.execute();
+    }
+
+    /** Cancela el refresco en curso, si lo hay. Las filas ya mostradas se conservan. */
+    public void cancelar() {
+        if (actual != null) {
+            actual.cancel(false);
+            actual = null;
+            barra.setVisible(false);
+        }
+    }
+
+    /** @return true si hay un refresco en curso */
+    public boolean enCurso() {
+        return actual != null;
+    }
+
+    private final class Trabajador extends SwingWorker<Integer, List<R>> {
+
+        private final Supplier<? extends List<? extends T>> fuente;
+        private final Function<? super T, ? extends R> formato;
+        private volatile int total;
+        private int mostradas; // solo en el EDT
+
+        Trabajador(Supplier<? extends List<? extends T>> fuente, Function<? super T, ? extends R> formato) {
+            this.fuente = fuente;
+            this.formato = formato;
+        }
+
+        @Override
+        protected Integer doInBackground() {
+            List<? extends T> elementos = fuente.get();
+            total = elementos.size();
+            int enviados = 0;
+            while (enviados < total && !isCancelled()) {
+                int fin = Math.min(total, enviados + TROZO);
+                List<R> trozo = new ArrayList<>(fin - enviados);
+                for (int i = enviados; i < fin; i++) trozo.add(formato.apply(elementos.get(i)));
+                publish(trozo);
+                enviados = fin;
+            }
+            return enviados;
+        }
+
+        @Override
+        protected void process(List<List<R>> trozos) {
+            // Trozos de un refresco reemplazado: se descartan
+            if (this != actual) return;
+            for (List<R> trozo : trozos) {
+                destino.agregar(trozo);
+                mostradas += trozo.size();
+            }
+            barra.setIndeterminate(false);
+            barra.setValue((int) (100L * mostradas / total));
+            barra.setString(mostradas + " / " + total);
+        }
+
+        @Override
+        protected void done() {
+            if (this != actual) return;
+            actual = null;
+            barra.setVisible(false);
+            try {
+                destino.terminar(get());
+            } catch (CancellationException e) {
+                // reemplazado por otro refresco
+            } catch (ExecutionException e) {
+                destino.fallar(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -2,6 +2,8 @@ package IU;
 
 import javax.swing.*;
 import java.awt.*;
+import loaders.ReporteCarga;
+import repositorio.Repositorios;
 
 /**
  * Ventana principal del sistema EPS.
@@ -23,11 +25,20 @@ public class EPS_GUI extends JFrame {
     public EPS_GUI() {
         setTitle("Sistema EPS");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        // cierre limpio: se escriben las instantáneas binarias antes de salir
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                Repositorios.cerrar();
+            }
+        });
         setSize(800, 600);
         setLocationRelativeTo(null);
 
         pestañas = new JTabbedPane();
 
+        // La carga única de los archivos ocurre en segundo plano: la primera lectura
+        // de cualquier panel la dispara y los paneles se llenan a medida que llega.
         // usar campos para poder obtener referencias desde otros paneles
         panelPaciente = new PanelPaciente();
         panelDonante = new PanelDonante();
@@ -40,6 +51,54 @@ public class EPS_GUI extends JFrame {
         pestañas.addTab("Citas", panelCita);
 
         add(pestañas, BorderLayout.CENTER);
+        add(crearBarraCarga(), BorderLayout.SOUTH);
+    }
+
+    // Barra inferior con el resultado de la carga de archivos y acceso al detalle.
+    // Los informes se piden fuera del EDT porque esperan a que termine la carga.
+    private JPanel crearBarraCarga() {
+        JPanel barra = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JLabel lblCarga = new JLabel("Cargando archivos...");
+        barra.add(lblCarga);
+        new SwingWorker<java.util.List<ReporteCarga>, Void>() {
+            @Override
+            protected java.util.List<ReporteCarga> doInBackground() {
+                return Repositorios.reportesCarga();
+            }
+
+            @Override
+            protected void done() {
+                int registros = 0;
+                int omitidas = 0;
+                try {
+                    for (ReporteCarga r : get()) {
+                        registros += r.getRegistros();
+                        omitidas += r.getOmitidas();
+                    }
+                } catch (Exception e) {
+                    lblCarga.setText("Error al cargar los archivos: " + e.getMessage());
+                    return;
+                }
+                lblCarga.setText("Carga: " + registros + " registros, " + omitidas + " líneas omitidas");
+                if (omitidas > 0) {
+                    JButton btnDetalle = new JButton("Ver informe de carga");
+                    btnDetalle.addActionListener(e -> mostrarInformeCarga());
+                    barra.add(btnDetalle);
+                    barra.revalidate();
+                }
+            }
+        }.execute();
+        return barra;
+    }
+
+    private void mostrarInformeCarga() {
+        StringBuilder sb = new StringBuilder();
+        for (ReporteCarga r : Repositorios.reportesCarga()) {
+            sb.append(r.detalle(200)).append(System.lineSeparator()).append(System.lineSeparator());
+        }
+        JTextArea area = new JTextArea(sb.toString(), 20, 70);
+        area.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(area), "Informe de carga", JOptionPane.INFORMATION_MESSAGE);
     }
 
     // getters para notificar recarga
@@ -0,0 +1,452 @@
+package IU;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import javax.swing.table.AbstractTableModel;
+import model.Identificador;
+
+/**
+ * Modelo de tabla sobre una lista en memoria. Las celdas se calculan al pintarse,
+ * así que la {@link javax.swing.JTable} solo formatea las filas visibles; no se
+ * guarda ningún texto por fila salvo la clave de búsqueda, que se arma la primera
+ * vez que se filtra.
+ *
+ * <p>El orden y el filtro no mueven los elementos: se aplican sobre un índice de
+ * posiciones ({@code int[]}). Ordenar una columna ordena ese índice una vez; las
+ * filas que llegan después se intercalan en él sin reordenar todo. Un filtro que
+ * extiende al anterior solo revisa las filas que ya coincidían.</p>
+ *
+ * <p>Si el modelo conoce el ID de sus elementos, {@link #actualizarElemento} y
+ * {@link #quitarElemento} cambian una sola fila (ver {@link VistaTabla#seguir}):
+ * la posición se ubica por ID y se reubica en el índice por búsqueda binaria.</p>
+ *
+ * <p>Se usa solo desde el hilo de eventos de Swing.</p>
+ *
+ * @param <T> tipo de los elementos
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class ModeloTabla<T> extends AbstractTableModel {
+
+    /**
+     * Columna de la tabla.
+     * @param <T> tipo de los elementos
+     */
+    public static final class Columna<T> {
+        private final String nombre;
+        private final Class<?> tipo;
+        private final Function<? super T, ?> valor;
+        private final Comparator<? super T> orden;
+
+        /**
+         * @param nombre encabezado
+         * @param tipo clase de los valores (elige el renderizador de la celda)
+         * @param valor valor mostrado; se evalúa solo para las celdas visibles
+         * @param orden criterio de orden, o null para ordenar por el valor mostrado
+         */
+        public Columna(String nombre, Class<?> tipo, Function<? super T, ?> valor, Comparator<? super T> orden) {
+            this.nombre = nombre;
+            this.tipo = tipo;
+            this.valor = valor;
+            this.orden = orden != null ? orden : Comparator.comparing(valor::apply, ModeloTabla::compararValores);
+        }
+
+        /**
+         * Columna de texto ordenada por el texto mostrado.
+         * @param nombre encabezado
+         * @param valor valor mostrado
+         */
+        public Columna(String nombre, Function<? super T, ?> valor) {
+            this(nombre, Object.class, valor, null);
+        }
+
+        public String getNombre() { return nombre; }
+    }
+
+    private final List<Columna<T>> columnas;
+    private final Function<? super T, String> id;
+    // Las bajas dejan un null en su posición para no mover las demás
+    private final List<T> elementos = new ArrayList<>();
+    private final Map<Identificador, Integer> posiciones = new HashMap<>();
+    private int eliminados;
+    // Posiciones en 'elementos': todas en el orden activo, y las que pasan el filtro
+    private int[] orden = new int[0];
+    private int[] vista = new int[0];
+    private int visibles;
+    private int columnaOrden = -1;
+    private boolean ascendente = true;
+    private String filtro = "";
+    private String[] claves = new String[0];
+
+    /**
+     * @param columnas columnas de la tabla, en orden
+     */
+    @SafeVarargs
+    public ModeloTabla(Columna<T>... columnas) {
+        this(null, columnas);
+    }
+
+    /**
+     * @param id ID de cada elemento (sin distinguir mayúsculas), o null si no se van a
+     *           aplicar cambios por elemento
+     * @param columnas columnas de la tabla, en orden
+     */
+    @SafeVarargs
+    public ModeloTabla(Function<? super T, String> id, Columna<T>... columnas) {
+        this.id = id;
+        // Se copian elemento por elemento: el arreglo de varargs no sale del constructor
+        List<Columna<T>> lista = new ArrayList<>(columnas.length);
+        for (Columna<T> c : columnas) lista.add(c);
+        this.columnas = lista;
+    }
+
+    // Nulos al final; textos sin distinguir mayúsculas
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compararValores(Object a, Object b) {
+        if (a == b) return 0;
+        if (a == null) return 1;
+        if (b == null) return -1;
+        if (a instanceof String && b instanceof String) return ((String) a).compareToIgnoreCase((String) b);
+        if (a instanceof Comparable && a.getClass() == b.getClass()) return ((Comparable) a).compareTo(b);
+        return a.toString().compareToIgnoreCase(b.toString());
+    }
+
+    @Override
+    public int getRowCount() { return visibles; }
+
+    @Override
+    public int getColumnCount() { return columnas.size(); }
+
+    @Override
+    public String getColumnName(int columna) { return columnas.get(columna).nombre; }
+
+    @Override
+    public Class<?> getColumnClass(int columna) { return columnas.get(columna).tipo; }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        return columnas.get(columna).valor.apply(getElemento(fila));
+    }
+
+    /**
+     * @param fila fila de la vista (ya ordenada y filtrada)
+     * @return el elemento mostrado en esa fila
+     */
+    public T getElemento(int fila) {
+        if (fila < 0 || fila >= visibles) throw new IndexOutOfBoundsException("Fila fuera de la vista: " + fila);
+        return elementos.get(vista[fila]);
+    }
+
+    /** @return número total de elementos, sin filtrar */
+    public int getTotal() { return elementos.size() - eliminados; }
+
+    /** @return columna por la que se ordena, o -1 si se muestra el orden de la fuente */
+    public int getColumnaOrden() { return columnaOrden; }
+
+    /** @return true si el orden activo es ascendente */
+    public boolean isAscendente() { return ascendente; }
+
+    /** @return texto del filtro activo ("" si no hay) */
+    public String getFiltro() { return filtro; }
+
+    /** Quita todos los elementos (el orden y el filtro elegidos se conservan). */
+    public void vaciar() {
+        limpiar();
+        fireTableDataChanged();
+    }
+
+    private void limpiar() {
+        elementos.clear();
+        posiciones.clear();
+        eliminados = 0;
+        orden = new int[0];
+        vista = new int[0];
+        visibles = 0;
+        claves = new String[0];
+    }
+
+    /**
+     * Reemplaza todos los elementos.
+     * @param nuevos elementos a mostrar
+     */
+    public void setElementos(List<? extends T> nuevos) {
+        limpiar();
+        agregar(nuevos);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Agrega elementos al final de la fuente. Con un orden activo se intercalan en el
+     * índice ordenando solo los nuevos. Si el modelo conoce los ID, un elemento cuyo ID
+     * ya está se trata como {@link #actualizarElemento}.
+     * @param nuevos elementos a agregar
+     */
+    public void agregar(List<? extends T> nuevos) {
+        if (id != null) {
+            List<T> distintos = new ArrayList<>(nuevos.size());
+            for (T e : nuevos) {
+                if (posiciones.containsKey(claveId(e))) actualizarElemento(e);
+                else distintos.add(e);
+            }
+            nuevos = distintos;
+        }
+        if (nuevos.isEmpty()) return;
+        int inicio = elementos.size();
+        elementos.addAll(nuevos);
+        int[] agregados = new int[nuevos.size()];
+        for (int i = 0; i < agregados.length; i++) {
+            agregados[i] = inicio + i;
+            if (id != null) posiciones.put(claveId(nuevos.get(i)), inicio + i);
+        }
+
+        if (columnaOrden < 0) {
+            orden = concatenar(orden, agregados);
+        } else {
+            agregados = ordenar(agregados);
+            orden = intercalar(orden, agregados);
+        }
+        int antes = visibles;
+        recalcularVista();
+        if (columnaOrden >= 0) {
+            fireTableDataChanged();
+        } else if (visibles > antes) {
+            // Sin orden activo las filas nuevas quedan al final de la vista
+            fireTableRowsInserted(antes, visibles - 1);
+        }
+    }
+
+    /**
+     * Reemplaza el elemento con el mismo ID (o lo agrega si no está) y avisa a la tabla
+     * solo por esa fila. Sirve también cuando el elemento se modificó en el lugar.
+     * @param elemento elemento nuevo o modificado
+     * @throws IllegalStateException si el modelo no conoce los ID
+     */
+    public void actualizarElemento(T elemento) {
+        Integer pos = posiciones.get(claveId(elemento));
+        if (pos == null) {
+            agregar(Collections.singletonList(elemento));
+            return;
+        }
+        int filaAntes = indice(vista, visibles, pos);
+        // Se busca linealmente: si el elemento cambió en el lugar, su orden ya no es válido
+        orden = quitar(orden, orden.length, indice(orden, orden.length, pos));
+        elementos.set(pos, elemento);
+        if (pos < claves.length) claves[pos] = null;
+        orden = insertar(orden, orden.length, lugarPara(orden, orden.length, pos), pos);
+        if (filtro.isEmpty()) {
+            vista = orden;
+            visibles = orden.length;
+        } else {
+            if (filaAntes >= 0) {
+                vista = quitar(vista, visibles, filaAntes);
+                visibles--;
+            }
+            if (coincide(pos)) {
+                vista = insertar(vista, visibles, lugarPara(vista, visibles, pos), pos);
+                visibles++;
+            }
+        }
+        int filaDespues = indice(vista, visibles, pos);
+        if (filaAntes >= 0 && filaAntes == filaDespues) {
+            fireTableRowsUpdated(filaAntes, filaAntes);
+        } else {
+            if (filaAntes >= 0) fireTableRowsDeleted(filaAntes, filaAntes);
+            if (filaDespues >= 0) fireTableRowsInserted(filaDespues, filaDespues);
+        }
+    }
+
+    /**
+     * Quita el elemento con el ID dado y avisa a la tabla solo por esa fila.
+     * @param idElemento ID (sin distinguir mayúsculas)
+     * @return true si estaba en el modelo
+     * @throws IllegalStateException si el modelo no conoce los ID
+     */
+    public boolean quitarElemento(String idElemento) {
+        if (id == null) throw new IllegalStateException("El modelo no conoce el ID de sus elementos");
+        Identificador clave = Identificador.buscar(idElemento);
+        Integer pos = clave == null ? null : posiciones.remove(clave);
+        if (pos == null) return false;
+        int fila = indice(vista, visibles, pos);
+        orden = quitar(orden, orden.length, indice(orden, orden.length, pos));
+        if (filtro.isEmpty()) {
+            vista = orden;
+            visibles = orden.length;
+        } else if (fila >= 0) {
+            vista = quitar(vista, visibles, fila);
+            visibles--;
+        }
+        elementos.set(pos, null);
+        if (pos < claves.length) claves[pos] = null;
+        eliminados++;
+        if (fila >= 0) fireTableRowsDeleted(fila, fila);
+        return true;
+    }
+
+    private Identificador claveId(T elemento) {
+        if (id == null) throw new IllegalStateException("El modelo no conoce el ID de sus elementos");
+        return Identificador.de(id.apply(elemento));
+    }
+
+    /**
+     * Ordena la vista por una columna.
+     * @param columna índice de la columna, o -1 para volver al orden de la fuente
+     * @param ascendente sentido del orden
+     */
+    public void ordenarPor(int columna, boolean ascendente) {
+        this.columnaOrden = columna;
+        this.ascendente = ascendente;
+        int[] todas = new int[getTotal()];
+        int n = 0;
+        for (int i = 0; i < elementos.size(); i++) {
+            if (elementos.get(i) != null) todas[n++] = i;
+        }
+        orden = columna < 0 ? todas : ordenar(todas);
+        recalcularVista();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Alterna el orden de una columna: ascendente, descendente, y luego sin orden.
+     * @param columna índice de la columna
+     */
+    public void alternarOrden(int columna) {
+        if (columna != columnaOrden) ordenarPor(columna, true);
+        else if (ascendente) ordenarPor(columna, false);
+        else ordenarPor(-1, true);
+    }
+
+    /**
+     * Muestra solo las filas que contienen el texto en alguna columna (sin distinguir mayúsculas).
+     * @param texto texto buscado; vacío o null para quitar el filtro
+     */
+    public void filtrar(String texto) {
+        String nuevo = texto == null ? "" : texto.trim().toLowerCase(Locale.ROOT);
+        if (nuevo.equals(filtro)) return;
+        // Un filtro que contiene al anterior solo puede quitar filas de la vista actual
+        boolean refina = !filtro.isEmpty() && nuevo.contains(filtro);
+        filtro = nuevo;
+        if (refina) {
+            int n = 0;
+            for (int i = 0; i < visibles; i++) {
+                if (coincide(vista[i])) vista[n++] = vista[i];
+            }
+            visibles = n;
+        } else {
+            recalcularVista();
+        }
+        fireTableDataChanged();
+    }
+
+    private void recalcularVista() {
+        if (filtro.isEmpty()) {
+            vista = orden;
+            visibles = orden.length;
+            return;
+        }
+        int[] nueva = new int[orden.length];
+        int n = 0;
+        for (int pos : orden) {
+            if (coincide(pos)) nueva[n++] = pos;
+        }
+        vista = nueva;
+        visibles = n;
+    }
+
+    private boolean coincide(int pos) {
+        return clave(pos).contains(filtro);
+    }
+
+    // Texto de búsqueda de un elemento: se arma una vez, al primer filtro que lo necesita
+    private String clave(int pos) {
+        if (claves.length < elementos.size()) claves = Arrays.copyOf(claves, Math.max(elementos.size(), claves.length * 2));
+        String c = claves[pos];
+        if (c == null) {
+            StringBuilder sb = new StringBuilder();
+            T e = elementos.get(pos);
+            for (Columna<T> col : columnas) {
+                Object v = col.valor.apply(e);
+                if (v != null) sb.append(v).append('\u0000');
+            }
+            c = sb.toString().toLowerCase(Locale.ROOT);
+            claves[pos] = c;
+        }
+        return c;
+    }
+
+    // Orden total de los índices: la columna activa y, a igual valor, la posición en la fuente
+    private int comparar(int a, int b) {
+        if (columnaOrden >= 0) {
+            int c = columnas.get(columnaOrden).orden.compare(elementos.get(a), elementos.get(b));
+            if (c != 0) return ascendente ? c : -c;
+        }
+        return Integer.compare(a, b);
+    }
+
+    private int[] ordenar(int[] posiciones) {
+        Integer[] cajas = new Integer[posiciones.length];
+        for (int i = 0; i < cajas.length; i++) cajas[i] = posiciones[i];
+        Arrays.sort(cajas, this::comparar);
+        int[] r = new int[cajas.length];
+        for (int i = 0; i < r.length; i++) r[i] = cajas[i];
+        return r;
+    }
+
+    // Mezcla dos índices ya ordenados
+    private int[] intercalar(int[] a, int[] b) {
+        int[] r = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            r[k++] = comparar(b[j], a[i]) < 0 ? b[j++] : a[i++];
+        }
+        while (i < a.length) r[k++] = a[i++];
+        while (j < b.length) r[k++] = b[j++];
+        return r;
+    }
+
+    private static int[] concatenar(int[] a, int[] b) {
+        int[] r = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, r, a.length, b.length);
+        return r;
+    }
+
+    // Lugar donde insertar 'pos' en los primeros n valores de un índice ordenado
+    private int lugarPara(int[] a, int n, int pos) {
+        int bajo = 0, alto = n;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (comparar(a[medio], pos) < 0) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    private static int indice(int[] a, int n, int valor) {
+        for (int i = 0; i < n; i++) {
+            if (a[i] == valor) return i;
+        }
+        return -1;
+    }
+
+    // Copias nuevas: 'vista' puede compartir el arreglo con 'orden'
+    private static int[] quitar(int[] a, int n, int i) {
+        int[] r = new int[Math.max(n - 1, 0)];
+        System.arraycopy(a, 0, r, 0, i);
+        System.arraycopy(a, i + 1, r, i, n - i - 1);
+        return r;
+    }
+
+    private static int[] insertar(int[] a, int n, int i, int valor) {
+        int[] r = new int[n + 1];
+        System.arraycopy(a, 0, r, 0, i);
+        r[i] = valor;
+        System.arraycopy(a, i, r, i + 1, n - i);
+        return r;
+    }
+}
@@ -1,12 +1,13 @@
 package IU;
 
 import javax.swing.*;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import model.Cita;
+import model.EstadoCita;
 import model.Paciente;
-import loaders.CitaLoader;
-import loaders.PacienteLoader;
+import agenda.Agenda;
+import repositorio.Repositorios;
+import util.Fechas;
 import java.awt.*;
 import java.util.List;
 import javax.swing.border.TitledBorder;
@@ -19,11 +20,12 @@ import javax.swing.border.TitledBorder;
 public class PanelCita extends JPanel {
 
     private JTextField txtFecha, txtHora, txtLugar, txtIdPaciente, txtDoctor, txtIdCita; 
-    private JTextArea areaCitas;
-    private List<Cita> listaCitas;
+    private VistaTabla<Cita> tablaCitas;
+    // Solo corre mientras el panel está en pantalla (ver addNotify/removeNotify)
+    private final javax.swing.Timer temporizador;
 
-    private static final SimpleDateFormat FORMATO_FECHA = new SimpleDateFormat("dd/MM/yyyy");
-    private static final SimpleDateFormat FORMATO_HORA = new SimpleDateFormat("HH:mm");
+    // Revisión periódica de citas vencidas (Pendiente -> Aprobada)
+    private static final int INTERVALO_EXPIRACION_MS = 60_000;
 
     // --- Colores y Fuentes Unificadas (Monocromático/Sutil) ---
     private static final Color COLOR_BASE = new Color(245, 245, 250); 
@@ -44,8 +46,6 @@ public class PanelCita extends JPanel {
         setLayout(new BorderLayout(15, 15)); 
         setBackground(COLOR_BASE); 
 
-        listaCitas = CitaLoader.cargarCitas();
-
         // Panel superior (Contenedor que apila Formulario y Botones)
         JPanel panelSuperior = new JPanel();
         panelSuperior.setLayout(new BoxLayout(panelSuperior, BoxLayout.Y_AXIS)); 
@@ -110,17 +110,27 @@ public class PanelCita extends JPanel {
         JPanel panelResultados = new JPanel(new GridLayout(2, 1, 10, 10));
         panelResultados.setBackground(COLOR_BASE);
         
-        areaCitas = new JTextArea(15, 80);
-        areaCitas.setEditable(false);
-        JScrollPane scrollCitas = new JScrollPane(areaCitas);
-        scrollCitas.setBorder(BorderFactory.createTitledBorder(
+        // Tabla de citas: fecha y hora se ordenan por su valor, no por el texto
+        tablaCitas = new VistaTabla<>(new ModeloTabla<>(Cita::getId,
+            new ModeloTabla.Columna<>("ID Cita", Cita::getId),
+            new ModeloTabla.Columna<>("Fecha", String.class, c -> Fechas.formatearFecha(c.getDate()),
+                    Comparator.comparing(Cita::getDate, Comparator.nullsLast(Comparator.naturalOrder()))),
+            new ModeloTabla.Columna<>("Hora", String.class, c -> Fechas.formatearHora(c.getTime()),
+                    Comparator.comparing(Cita::getTime, Comparator.nullsLast(Comparator.naturalOrder()))),
+            new ModeloTabla.Columna<>("Lugar", Cita::getLocation),
+            new ModeloTabla.Columna<>("Doctor", Cita::getDoctor),
+            new ModeloTabla.Columna<>("ID Paciente", c -> c.getPaciente().getId()),
+            new ModeloTabla.Columna<>("Estado", Cita::getEstado)));
+        tablaCitas.setBackground(COLOR_BASE);
+        tablaCitas.seguir(Repositorios.cambiosCitas());
+        tablaCitas.setBorder(BorderFactory.createTitledBorder(
             BorderFactory.createLineBorder(COLOR_BORDE, 1), 
             "Lista de Citas", 
             TitledBorder.LEFT, 
             TitledBorder.TOP,
             FUENTE_TITULO));
 
-        panelResultados.add(scrollCitas);
+        panelResultados.add(tablaCitas);
         
         add(panelSuperior, BorderLayout.NORTH); 
         add(panelResultados, BorderLayout.CENTER); 
@@ -131,16 +141,35 @@ public class PanelCita extends JPanel {
     btnAgregar.addActionListener(e -> agregarCita());
     btnEliminar.addActionListener(e -> eliminarCita());
     btnActualizar.addActionListener(e -> actualizarArea());
+
+    temporizador = new javax.swing.Timer(INTERVALO_EXPIRACION_MS, e -> revisarExpiraciones());
+    }
+
+    /** Inicia la revisión periódica de expiraciones al mostrarse el panel. */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        temporizador.start();
     }
 
+    /** Detiene la revisión periódica al quitarse el panel (o cerrarse su ventana). */
+    @Override
+    public void removeNotify() {
+        temporizador.stop();
+        super.removeNotify();
+    }
+
+    /** @return true si la revisión periódica de expiraciones está activa */
+    public boolean isRevisionActiva() { return temporizador.isRunning(); }
+
     /**
      * metodo que maneja la funcion de agregar citas a la persistencia de citas.
      */
     private void agregarCita() {
         try {
             String idCita = txtIdCita.getText().trim();
-            Date fecha = FORMATO_FECHA.parse(txtFecha.getText().trim());
-            Date hora = FORMATO_HORA.parse(txtHora.getText().trim());
+            Date fecha = Fechas.parsearFecha(txtFecha.getText().trim());
+            Date hora = Fechas.parsearHora(txtHora.getText().trim());
             String lugar = txtLugar.getText().trim();
             String idPaciente = txtIdPaciente.getText().trim();
             String doctor = txtDoctor.getText().trim(); 
@@ -150,29 +179,39 @@ public class PanelCita extends JPanel {
                 return;
             }
 
-            boolean idExiste = listaCitas.stream().anyMatch(c -> c.getId().equalsIgnoreCase(idCita));
-            if (idExiste) {
+            if (Repositorios.citas().existe(idCita)) {
                  JOptionPane.showMessageDialog(this, "Error: Ya existe una cita con ID: " + idCita + ". Debe ser único.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
 
 
-            Paciente paciente = PacienteLoader.buscarPacientePorId(idPaciente); 
-
-            if (paciente == null) {
+            if (!Repositorios.pacientes().existe(idPaciente)) {
                 JOptionPane.showMessageDialog(this, "Error: Paciente con ID " + idPaciente + " no encontrado.", "Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
+            Paciente paciente = Repositorios.pacientes().buscarPorId(idPaciente);
             
             Cita nueva = new Cita(idCita, fecha, hora, lugar, paciente, doctor); 
             // Asegurar estado inicial Pendiente y añadir en memoria
-            nueva.setEstado("Pendiente");
-            listaCitas.add(nueva);
-            CitaLoader.guardarCitas(listaCitas);
+            nueva.setEstado(EstadoCita.PENDIENTE);
+
+            // El doctor, el lugar y el paciente no pueden tener otra cita en ese horario
+            Agenda agenda = Repositorios.agenda();
+            List<Agenda.Conflicto> conflictos = agenda.conflictos(nueva);
+            if (!conflictos.isEmpty()) {
+                StringBuilder mensaje = new StringBuilder("Error: El horario no está disponible.");
+                for (Agenda.Conflicto c : conflictos) mensaje.append("\n").append(c.getMensaje()).append('.');
+                Date libre = agenda.siguienteLibre(nueva);
+                mensaje.append(libre != null
+                        ? "\nPróximo horario libre: " + Fechas.formatearFecha(libre) + " " + Fechas.formatearHora(libre)
+                        : "\nNo hay horarios libres en los próximos " + Agenda.DIAS_BUSQUEDA + " días.");
+                JOptionPane.showMessageDialog(this, mensaje.toString(), "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            Repositorios.citas().agregar(nueva);
 
+            // la fila nueva llega a la tabla por el aviso del repositorio
             limpiarCampos();
-            // Actualizar la vista usando la lista en memoria para evitar recarga inmediata
-            actualizarAreaDesdeMemoria();
             JOptionPane.showMessageDialog(this, "Cita agregada correctamente.");
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(this, "Error al agregar cita: Revise el formato de Fecha (dd/MM/yyyy) y Hora (HH:mm).\nDetalle: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
@@ -191,11 +230,9 @@ public class PanelCita extends JPanel {
             return;
         }
 
-        boolean cancelada = CitaLoader.eliminarCitaPorId(idCita);
+        boolean cancelada = Repositorios.citas().cancelar(idCita);
 
         if (cancelada) {
-            listaCitas = CitaLoader.cargarCitas();
-            actualizarArea();
             JOptionPane.showMessageDialog(this, "La cita con ID " + idCita + " ha sido marcada como Cancelada.");
         } else {
             JOptionPane.showMessageDialog(this, "No se encontró una cita con ID: " + idCita + " o ya estaba Cancelada. Asegúrese del ID.");
@@ -203,64 +240,31 @@ public class PanelCita extends JPanel {
     }
 
     /**
-     * metodo que permite modificar la informacion de una cita ya creada ya añadida a la persistencia.
+     * Muestra las citas del repositorio tras aplicar la regla de expiración.
+     * Solo se escriben en disco las citas que cambian de estado. La expiración
+     * y la lectura se hacen fuera del EDT; las celdas se formatean al pintarse.
      */
     private void actualizarArea() {
-        listaCitas = CitaLoader.cargarCitas(); 
-        areaCitas.setText("");
-
-        if (listaCitas.isEmpty()) {
-            areaCitas.append("No hay citas registradas.");
-        } else {
-            for (Cita c : listaCitas) {
-                // Formato requerido:
-                // (ID Cita: C020) 14/12/2025;15:00;Centro Médico Occidente;Dra. Sofía Mora (ID Paciente: P009)| Estado: Pendiente
-                java.text.SimpleDateFormat fFecha = new java.text.SimpleDateFormat("dd/MM/yyyy");
-                java.text.SimpleDateFormat fHora = new java.text.SimpleDateFormat("HH:mm");
-
-                String fecha = fFecha.format(c.getDate());
-                String hora = fHora.format(c.getTime());
-                String lugar = c.getLocation();
-                String doctor = c.getDoctor();
-                String idPaciente = c.getPaciente().getId();
-                String estado = c.getEstado();
-
-                areaCitas.append(String.format("(ID Cita: %s) %s;%s;%s;%s (ID Paciente: %s) | Estado: %s\n",
-                        c.getId(), fecha, hora, lugar, doctor, idPaciente, estado));
-            }
-        }
-
-        CitaLoader.guardarCitas(listaCitas);
+        tablaCitas.refrescar(() -> {
+            Repositorios.citas().aplicarExpiraciones(new Date());
+            return Repositorios.citas().listar();
+        });
     }
 
     /**
-     * Actualiza el área de citas usando la lista en memoria (no recarga desde archivo).
-     * 
+     * Revisión periódica: aplica la expiración en segundo plano. Cada cita que cambia
+     * de estado llega a la tabla por el aviso del repositorio, sin recargar la lista.
      */
-    private void actualizarAreaDesdeMemoria() {
-        areaCitas.setText("");
-
-        if (listaCitas == null || listaCitas.isEmpty()) {
-            areaCitas.append("No hay citas registradas.");
-            return;
-        }
-
-        java.text.SimpleDateFormat fFecha = new java.text.SimpleDateFormat("dd/MM/yyyy");
-        java.text.SimpleDateFormat fHora = new java.text.SimpleDateFormat("HH:mm");
-
-        for (Cita c : listaCitas) {
-            String fecha = fFecha.format(c.getDate());
-            String hora = fHora.format(c.getTime());
-            String lugar = c.getLocation();
-            String doctor = c.getDoctor();
-            String idPaciente = c.getPaciente().getId();
-            String estado = c.getEstado();
-
-            areaCitas.append(String.format("(ID Cita: %s) %s;%s;%s;%s (ID Paciente: %s) | Estado: %s\n",
-                    c.getId(), fecha, hora, lugar, doctor, idPaciente, estado));
-        }
+    private void revisarExpiraciones() {
+        if (tablaCitas.enCurso()) return;
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return Repositorios.citas().aplicarExpiraciones(new Date());
+            }
+        }.execute();
     }
-    
+
     // Eliminado: mostrarHistorialPaciente() — la UI ahora muestra la lista completa de citas en una vista única.
 
     private void limpiarCampos() {
@@ -272,6 +276,9 @@ public class PanelCita extends JPanel {
         txtDoctor.setText("");
     }
 
+    /** @return la tabla de citas */
+    public VistaTabla<Cita> getTablaCitas() { return tablaCitas; }
+
     // Métodos auxiliares usados por los tests: delegan en Cita para asegurar que
     // ubicación aparece en el resumen / formato de archivo.
     public String resumenCita(model.Cita c) {
@@ -3,11 +3,8 @@ package IU;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
-import java.util.List;
 import model.Donante;
-import loaders.DonanteLoader;
-import javax.swing.SwingUtilities;
-import java.awt.Window;
+import repositorio.Repositorios;
 
 /**
  * Panel para la gestion de los Donantes
@@ -21,8 +18,7 @@ public class PanelDonante extends JPanel {
     private JTextField txtNombre, txtEdad, txtID, txtDireccion, txtTelefono, txtTipoDonacion, txtSalud;
     private JComboBox<String> cmbTipoSangre, cmbOrgano;
     private JCheckBox chkElegible;
-    private JTextArea areaDonantes;
-    private List<Donante> listaDonantes;
+    private VistaTabla<Donante> tablaDonantes;
 
     private static final String[] TIPOS_SANGRE = {"A+", "A-", "B+", "B-", "O+", "O-", "AB+", "AB-"};
 
@@ -37,8 +33,6 @@ public class PanelDonante extends JPanel {
         setLayout(new BorderLayout(10, 10));
         setBackground(Color.LIGHT_GRAY);
 
-        listaDonantes = DonanteLoader.cargarDonantes();
-
         // --- Panel de Entrada ---
         JPanel panelEntrada = new JPanel(new GridLayout(10, 2, 10, 10));
         panelEntrada.setBorder(BorderFactory.createTitledBorder(
@@ -89,11 +83,19 @@ public class PanelDonante extends JPanel {
         panelBotones.add(btnAgregar);
         panelBotones.add(btnEliminar);
 
-        // --- Área de Donantes ---
-        areaDonantes = new JTextArea(15, 40);
-        areaDonantes.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(areaDonantes);
-        scrollPane.setBorder(BorderFactory.createTitledBorder(
+        // --- Tabla de Donantes (se llena en segundo plano) ---
+        tablaDonantes = new VistaTabla<>(new ModeloTabla<>(Donante::getId,
+            new ModeloTabla.Columna<>("ID", Donante::getId),
+            new ModeloTabla.Columna<>("Nombre", Donante::getName),
+            new ModeloTabla.Columna<>("Edad", Byte.class, Donante::getAge, null),
+            new ModeloTabla.Columna<>("Sangre", Donante::getBloodType),
+            new ModeloTabla.Columna<>("Tipo de Donación", Donante::getDonationType),
+            new ModeloTabla.Columna<>("Órgano", Donante::getOrgano),
+            new ModeloTabla.Columna<>("Salud", Donante::getHealthStatus),
+            new ModeloTabla.Columna<>("Elegible", Boolean.class, Donante::isEligibility, null)));
+        tablaDonantes.setBackground(Color.LIGHT_GRAY);
+        tablaDonantes.seguir(Repositorios.cambiosDonantes());
+        tablaDonantes.setBorder(BorderFactory.createTitledBorder(
             BorderFactory.createLineBorder(Color.DARK_GRAY, 1),
             "Lista de Donantes",
             TitledBorder.LEFT,
@@ -107,7 +109,7 @@ public class PanelDonante extends JPanel {
         panelSuperior.add(panelBotones, BorderLayout.SOUTH);
 
         add(panelSuperior, BorderLayout.NORTH);
-        add(scrollPane, BorderLayout.CENTER);
+        add(tablaDonantes, BorderLayout.CENTER);
 
         // --- Listeners ---
         btnAgregar.addActionListener(e -> agregarDonante());
@@ -152,26 +154,9 @@ public class PanelDonante extends JPanel {
             Donante nuevo = new Donante(nombre, edad, id, tipoSangre, direccion, telefono,
                     donationType, salud, elegible, organo);
 
-            // usa loader append
-            DonanteLoader.agregarDonante(nuevo);
-
-            // recargar lista local y UI
-            List<Donante> listaDonantes = DonanteLoader.cargarDonantes();
-            // actualizar areaDonantes o componentes (asegurar areaDonantes exist)
-            if (areaDonantes != null) {
-                areaDonantes.setText("");
-                for (Donante d : listaDonantes) {
-                    areaDonantes.append(d.toString());
-                    areaDonantes.append("\n");
-                }
-            }
-
-            // notificar al PanelTrasplante para recargar sus combos/listas
-            Window w = SwingUtilities.getWindowAncestor(this);
-            if (w instanceof EPS_GUI) {
-                EPS_GUI main = (EPS_GUI) w;
-                if (main.getPanelTrasplante() != null) main.getPanelTrasplante().reloadLists();
-            }
+            // el repositorio valida duplicados y persiste; su aviso agrega la fila
+            // aquí y en las listas de PanelTrasplante
+            Repositorios.donantes().agregar(nuevo);
 
             JOptionPane.showMessageDialog(this, "Donante agregado correctamente.");
 
@@ -189,10 +174,8 @@ public class PanelDonante extends JPanel {
             return;
         }
 
-        boolean eliminado = DonanteLoader.eliminarDonante(id);
+        boolean eliminado = Repositorios.donantes().eliminar(id);
         if (eliminado) {
-            listaDonantes = DonanteLoader.cargarDonantes();
-            actualizarArea();
             JOptionPane.showMessageDialog(this, "Donante eliminado correctamente.");
         } else {
             JOptionPane.showMessageDialog(this, "No se encontró un donante con ese ID.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -200,11 +183,11 @@ public class PanelDonante extends JPanel {
     }
 
     private void actualizarArea() {
-        areaDonantes.setText("");
-        for (Donante d : listaDonantes) {
-            areaDonantes.append(d.toString() + "\n");
-        }
+        tablaDonantes.refrescar(() -> Repositorios.donantes().listar());
     }
 
+    /** @return la tabla de donantes */
+    public VistaTabla<Donante> getTablaDonantes() { return tablaDonantes; }
+
 
 }
\ No newline at end of file
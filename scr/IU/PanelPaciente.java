@@ -2,9 +2,8 @@ package IU;
 
 import javax.swing.*;
 import java.awt.*;
-import loaders.PacienteLoader;
 import model.Paciente;
-import javax.swing.SwingUtilities;
+import repositorio.Repositorios;
 import java.util.*;
 import java.util.List;
 import javax.swing.border.TitledBorder;
@@ -18,12 +17,11 @@ import javax.swing.border.TitledBorder;
  */
 public class PanelPaciente extends JPanel {
 
-    private JTextArea areaPacientes;
+    private VistaTabla<Paciente> tablaPacientes;
     private JTextField txtNombre, txtEdad, txtID, txtDireccion, txtTelefono, txtAlergias;
     private JComboBox<String> cmbTipoSangre; // JComboBox para Tipo de Sangre
     private JSpinner spinnerPeso; 
     private JSpinner spinnerAltura; 
-    private ArrayList<Paciente> listaPacientes;
 
     // Tipos de sangre disponibles
     private static final String[] TIPOS_SANGRE = {"O+", "O-", "A+", "A-", "B+", "B-", "AB+", "AB-"};
@@ -40,8 +38,6 @@ public class PanelPaciente extends JPanel {
         setLayout(new BorderLayout(15, 15));
         setBackground(COLOR_BASE); 
     
-        listaPacientes = PacienteLoader.cargarPacientes();
-    
         // 🔹 Panel de entrada (Formulario)
         JPanel panelEntrada = new JPanel(new GridLayout(10, 2, 10, 10)); 
         panelEntrada.setBorder(BorderFactory.createTitledBorder(
@@ -104,10 +100,21 @@ public class PanelPaciente extends JPanel {
         panelBotones.add(btnAgregar);
         panelBotones.add(btnEliminar);
     
-        areaPacientes = new JTextArea(10, 40);
-        areaPacientes.setEditable(false);
-        JScrollPane scrollPacientes = new JScrollPane(areaPacientes);
-        scrollPacientes.setBorder(BorderFactory.createTitledBorder(
+        // tabla sobre la lista en memoria; se llena en segundo plano y después
+        // se mantiene al día con los avisos del repositorio
+        tablaPacientes = new VistaTabla<>(new ModeloTabla<>(Paciente::getId,
+            new ModeloTabla.Columna<>("ID", Paciente::getId),
+            new ModeloTabla.Columna<>("Nombre", Paciente::getName),
+            new ModeloTabla.Columna<>("Edad", Byte.class, Paciente::getAge, null),
+            new ModeloTabla.Columna<>("Sangre", Paciente::getBloodType),
+            new ModeloTabla.Columna<>("Dirección", Paciente::getAddress),
+            new ModeloTabla.Columna<>("Teléfono", Paciente::getPhone),
+            new ModeloTabla.Columna<>("Peso (kg)", Double.class, Paciente::getWeight, null),
+            new ModeloTabla.Columna<>("Altura (m)", Double.class, Paciente::getHeight, null),
+            new ModeloTabla.Columna<>("Alergias", p -> String.join(", ", p.getAllergies()))));
+        tablaPacientes.setBackground(COLOR_BASE);
+        tablaPacientes.seguir(Repositorios.cambiosPacientes());
+        tablaPacientes.setBorder(BorderFactory.createTitledBorder(
             BorderFactory.createLineBorder(COLOR_BORDE, 1), 
             "Lista de Pacientes", 
             TitledBorder.LEFT, 
@@ -115,7 +122,7 @@ public class PanelPaciente extends JPanel {
             FUENTE_TITULO));
     
         panelInferior.add(panelBotones, BorderLayout.NORTH);
-        panelInferior.add(scrollPacientes, BorderLayout.CENTER);
+        panelInferior.add(tablaPacientes, BorderLayout.CENTER);
     
         // 🔹 Organización final del Panel
         add(panelEntrada, BorderLayout.NORTH);
@@ -154,29 +161,8 @@ public class PanelPaciente extends JPanel {
             Paciente nuevo = new Paciente(nombre, edad, id, tipoSangre, direccion, telefono,
                                           peso, altura, alergiasList, new ArrayList<>());
 
-            PacienteLoader.agregarPaciente(nuevo);
-
-            // actualizar UI local
-            java.util.List<Paciente> lista = PacienteLoader.cargarPacientes();
-            if (areaPacientes != null) {
-                areaPacientes.setText("");
-                for (Paciente p : lista) {
-                    areaPacientes.append(p.getName() + " [" + p.getId() + "]\n");
-                }
-            }
-
-            // notificar PanelTrasplante en el EDT
-            java.awt.Window w = javax.swing.SwingUtilities.getWindowAncestor(this);
-            if (w instanceof EPS_GUI) {
-                EPS_GUI main = (EPS_GUI) w;
-                SwingUtilities.invokeLater(() -> {
-                    if (main.getPanelTrasplante() != null) {
-                        main.getPanelTrasplante().reloadLists();
-                        main.getPanelTrasplante().revalidate();
-                        main.getPanelTrasplante().repaint();
-                    }
-                });
-            }
+            // el aviso del repositorio agrega la fila aquí y en PanelTrasplante
+            Repositorios.pacientes().agregar(nuevo);
 
             JOptionPane.showMessageDialog(this, "Paciente agregado correctamente.");
         } catch (NumberFormatException ex) {
@@ -196,10 +182,8 @@ public class PanelPaciente extends JPanel {
             return;
         }
 
-        boolean eliminado = PacienteLoader.eliminarPaciente(id);
+        boolean eliminado = Repositorios.pacientes().eliminar(id);
         if (eliminado) {
-            listaPacientes = PacienteLoader.cargarPacientes();
-            actualizarArea();
             JOptionPane.showMessageDialog(this, "Paciente eliminado correctamente.");
         } else {
             JOptionPane.showMessageDialog(this, "No se encontró un paciente con ese ID.");
@@ -207,13 +191,15 @@ public class PanelPaciente extends JPanel {
     }
 
     /**
-     * Muestra la lista de pacientes actual en el área de texto.
+     * Muestra la lista de pacientes actual en la tabla.
+     * La lectura se hace fuera del EDT y las celdas se formatean al pintarse.
      */
     private void actualizarArea() {
-        areaPacientes.setText("");
-        for (Paciente p : listaPacientes)
-            areaPacientes.append(p.toString() + "\n");
+        tablaPacientes.refrescar(() -> Repositorios.pacientes().listar());
     }
 
+    /** @return la tabla de pacientes */
+    public VistaTabla<Paciente> getTablaPacientes() { return tablaPacientes; }
+
 
 }
\ No newline at end of file
@@ -3,19 +3,21 @@ package IU;
 import javax.swing.*;
 import java.awt.*;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
-import loaders.PacienteLoader;
-import loaders.DonanteLoader;
 import model.Trasplante;
+import model.EstadoTrasplante;
 import model.Donante;
 import model.Paciente;
-import loaders.TrasplanteLoader;
+import model.TipoSangre;
+import loaders.IndiceBusqueda;
+import repositorio.Repositorios;
+import util.Fechas;
 import excepciones.TrasplanteInvalidoException;
 import excepciones.SangreIncompatibleException;
 import excepciones.FechaInvalidaException;
 import excepciones.InvariantViolationException;
+import excepciones.InvalidDataException;
 
 /**
 
@@ -37,13 +39,12 @@ import excepciones.InvariantViolationException;
   */
   public class PanelTrasplante extends JPanel {
 
-  private JList<String> listaPacientes, listaDonantes;
+  private SelectorPersona<Paciente> selectorPacientes;
+  private SelectorPersona<Donante> selectorDonantes;
   private JTextField txtIdTrasplante, txtHistorial, txtMotivo, txtFecha;
   private JComboBox<String> cmbOrganos, cmbEstado;
-  private JTextArea areaTrasplantes;
-  private List<Trasplante> listaTrasplantes;
+  private VistaTabla<Trasplante> tablaTrasplantes;
 
-  private static final SimpleDateFormat FORMATO_FECHA = new SimpleDateFormat("dd/MM/yyyy");
   private static final String[] ESTADOS = {"Pendiente", "Aprobado", "Cancelada"};
 
 
@@ -56,17 +57,16 @@ import excepciones.InvariantViolationException;
     setLayout(new BorderLayout(10, 10));
     setBackground(Color.LIGHT_GRAY);
 
-    listaTrasplantes = TrasplanteLoader.cargarTrasplantes();
-
-    // --- Listas de Pacientes y Donantes ---
+    // --- Selectores de Pacientes y Donantes (búsqueda por nombre, ID o tipo de sangre) ---
     JPanel panelListas = new JPanel(new GridLayout(1, 2, 10, 10));
     panelListas.setBorder(BorderFactory.createTitledBorder("Pacientes y Donantes"));
 
-    listaPacientes = new JList<>(cargarNombresPacientes());
-    listaDonantes = new JList<>(cargarNombresDonantes());
+    selectorPacientes = new SelectorPersona<>("Pacientes compatibles", PanelTrasplante::etiquetaPaciente);
+    selectorDonantes = new SelectorPersona<>("Donantes", PanelTrasplante::etiquetaDonante);
+    selectorDonantes.alSeleccionar(this::filtrarReceptores);
 
-    panelListas.add(new JScrollPane(listaPacientes));
-    panelListas.add(new JScrollPane(listaDonantes));
+    panelListas.add(selectorPacientes);
+    panelListas.add(selectorDonantes);
 
     // --- Formulario de Trasplante ---
     JPanel panelFormulario = new JPanel(new GridLayout(6, 2, 10, 10));
@@ -77,7 +77,7 @@ import excepciones.InvariantViolationException;
     cmbEstado = new JComboBox<>(ESTADOS);
     txtHistorial = new JTextField();
     txtMotivo = new JTextField();
-    txtFecha = new JTextField(FORMATO_FECHA.format(new Date()));
+    txtFecha = new JTextField(Fechas.formatearFecha(new Date()));
 
     panelFormulario.add(new JLabel("ID Trasplante:"));
     panelFormulario.add(txtIdTrasplante);
@@ -104,13 +104,24 @@ import excepciones.InvariantViolationException;
     panelBotones.add(btnEliminar);
     panelBotones.add(btnActualizar);
 
-    areaTrasplantes = new JTextArea(10, 40);
-    areaTrasplantes.setEditable(false);
-    JScrollPane scrollTrasplantes = new JScrollPane(areaTrasplantes);
-    scrollTrasplantes.setBorder(BorderFactory.createTitledBorder("Lista de Trasplantes"));
+    tablaTrasplantes = new VistaTabla<>(new ModeloTabla<>(Trasplante::getId,
+        new ModeloTabla.Columna<>("ID", Trasplante::getId),
+        new ModeloTabla.Columna<>("Órgano", Trasplante::getOrganType),
+        new ModeloTabla.Columna<>("Fecha", String.class,
+                t -> t.getFecha() != null ? Fechas.formatearFecha(t.getFecha()) : "N/A",
+                java.util.Comparator.comparing(Trasplante::getFecha,
+                        java.util.Comparator.nullsLast(java.util.Comparator.naturalOrder()))),
+        new ModeloTabla.Columna<>("Estado", Trasplante::getEstado),
+        new ModeloTabla.Columna<>("Donante", t -> t.getDonor() != null ? t.getDonor().getName() + " (" + t.getDonor().getId() + ")" : "N/A"),
+        new ModeloTabla.Columna<>("Receptor", t -> t.getReceiver() != null ? t.getReceiver().getName() + " (" + t.getReceiver().getId() + ")" : "N/A"),
+        new ModeloTabla.Columna<>("Historial Clínico", t -> textoONa(t.getHistorialClinico())),
+        new ModeloTabla.Columna<>("Motivo", t -> textoONa(t.getRejectionReason()))));
+    tablaTrasplantes.setPreferredSize(new Dimension(600, 220));
+    tablaTrasplantes.setBorder(BorderFactory.createTitledBorder("Lista de Trasplantes"));
+    tablaTrasplantes.seguir(Repositorios.cambiosTrasplantes());
 
     panelInferior.add(panelBotones, BorderLayout.NORTH);
-    panelInferior.add(scrollTrasplantes, BorderLayout.CENTER);
+    panelInferior.add(tablaTrasplantes, BorderLayout.CENTER);
 
     // --- Integración en el panel principal ---
     add(panelListas, BorderLayout.WEST);
@@ -128,31 +139,12 @@ import excepciones.InvariantViolationException;
     btnEliminar.addActionListener(e -> eliminarTrasplante());
     btnActualizar.addActionListener(e -> actualizarLista());
 
-    actualizarLista();
-    }
-
-  /**
+    // altas, cambios y bajas de otros paneles llegan como avisos de los repositorios
+    selectorPacientes.seguir(Repositorios.cambiosPacientes());
+    selectorDonantes.seguir(Repositorios.cambiosDonantes());
 
-  * Carga los nombres de los pacientes desde el archivo correspondiente.
-  * @return un arreglo con los nombres formateados de los pacientes.
-    */
-    private String[] cargarNombresPacientes() {
-    List<Paciente> pacientes = PacienteLoader.cargarPacientes();
-    return pacientes.stream()
-    .map(p -> p.getName() + " (ID: " + p.getId() + ") | Sangre: " + p.getBloodType())
-    .toArray(String[]::new);
-    }
-
-  /**
-
-  * Carga los nombres de los donantes desde el archivo correspondiente.
-  * @return un arreglo con los nombres formateados de los donantes.
-    */
-    private String[] cargarNombresDonantes() {
-    List<Donante> donantes = DonanteLoader.cargarDonantes();
-    return donantes.stream()
-    .map(d -> d.getName() + " (ID: " + d.getId() + ") | Sangre: " + d.getBloodType() + " | Dona: " + d.getOrgano())
-    .toArray(String[]::new);
+    reloadLists();
+    actualizarLista();
     }
 
   // --- Getters de campos de interfaz ---
@@ -162,9 +154,9 @@ import excepciones.InvariantViolationException;
   public JTextField getTxtFecha() { return txtFecha; }
   public JComboBox<String> getCmbOrganos() { return cmbOrganos; }
   public JComboBox<String> getCmbEstado() { return cmbEstado; }
-  public JList<String> getListaPacientes() { return listaPacientes; }
-  public JList<String> getListaDonantes() { return listaDonantes; }
-  public JTextArea getAreaTrasplantes() { return areaTrasplantes; }
+  public SelectorPersona<Paciente> getSelectorPacientes() { return selectorPacientes; }
+  public SelectorPersona<Donante> getSelectorDonantes() { return selectorDonantes; }
+  public VistaTabla<Trasplante> getTablaTrasplantes() { return tablaTrasplantes; }
 
   /**
 
@@ -180,14 +172,14 @@ import excepciones.InvariantViolationException;
     throw new TrasplanteInvalidoException("El ID del trasplante no puede estar vacío");
     }
 
-    String donanteLabel = listaDonantes.getSelectedValue();
-    String pacienteLabel = listaPacientes.getSelectedValue();
-    if (donanteLabel == null || pacienteLabel == null) {
+    Donante donante = selectorDonantes.getSeleccionado();
+    Paciente paciente = selectorPacientes.getSeleccionado();
+    if (donante == null || paciente == null) {
     throw new TrasplanteInvalidoException("Debe seleccionar un donante y un paciente");
     }
 
     try {
-    FORMATO_FECHA.parse(txtFecha.getText().trim());
+    Fechas.parsearFecha(txtFecha.getText().trim());
     } catch (ParseException e) {
     throw new FechaInvalidaException("El formato de fecha debe ser dd/MM/yyyy");
     }
@@ -199,26 +191,18 @@ import excepciones.InvariantViolationException;
     String motivo = txtMotivo.getText().trim();
     Date fecha;
     try {
-    fecha = FORMATO_FECHA.parse(txtFecha.getText().trim());
+    fecha = Fechas.parsearFecha(txtFecha.getText().trim());
     } catch (ParseException e) {
     throw new FechaInvalidaException("El formato de fecha debe ser dd/MM/yyyy");
     }
 
-    String idPaciente = extraerIdDesdeLabel(pacienteLabel);
-    String idDonante = extraerIdDesdeLabel(donanteLabel);
-
-    Paciente paciente;
-    Donante donante;
-    try {
-    paciente = PacienteLoader.buscarPacientePorId(idPaciente);
-    } catch (Exception ex) {
-    JOptionPane.showMessageDialog(this, "Paciente con ID '" + idPaciente + "' no encontrado.", "Error", JOptionPane.ERROR_MESSAGE);
+    // los selectores entregan las personas; solo se confirma que sigan registradas
+    if (!Repositorios.pacientes().existe(paciente.getId())) {
+    JOptionPane.showMessageDialog(this, "Paciente con ID '" + paciente.getId() + "' no encontrado.", "Error", JOptionPane.ERROR_MESSAGE);
     return;
     }
-    try {
-    donante = DonanteLoader.buscarDonantePorId(idDonante);
-    } catch (Exception ex) {
-    JOptionPane.showMessageDialog(this, "Donante con ID '" + idDonante + "' no encontrado.", "Error", JOptionPane.ERROR_MESSAGE);
+    if (!Repositorios.donantes().existe(donante.getId())) {
+    JOptionPane.showMessageDialog(this, "Donante con ID '" + donante.getId() + "' no encontrado.", "Error", JOptionPane.ERROR_MESSAGE);
     return;
     }
 
@@ -226,29 +210,20 @@ import excepciones.InvariantViolationException;
     try {
         // delega la validación al modelo (incluye compatibilidad sanguínea)
         nuevo.checkInvariant();
-        listaTrasplantes.add(nuevo);
-        TrasplanteLoader.guardarTrasplantes(listaTrasplantes);
-    } catch (SangreIncompatibleException | InvariantViolationException ex) {
+        Repositorios.trasplantes().agregar(nuevo);
+    } catch (SangreIncompatibleException | InvariantViolationException | InvalidDataException ex) {
         // mostrar mensaje y no crear el trasplante
         JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         return;
     }
 
+    // la fila nueva llega a la tabla por el aviso del repositorio
     limpiarCampos();
-    actualizarLista();
     JOptionPane.showMessageDialog(this, "Trasplante agregado correctamente.");
     }
 
   /**
 
-  * Extrae el tipo de sangre desde una cadena con formato: "... | Sangre: T ...".
-  * @param label etiqueta de la lista.
-  * @return tipo de sangre encontrado o cadena vacía si no se detecta.
-    */
-
-
-  /**
-
   * Marca un trasplante como cancelado según el ID ingresado.
   * Si el ID no existe, se muestra un mensaje de error.
     */
@@ -259,14 +234,9 @@ import excepciones.InvariantViolationException;
     return;
     }
 
-    boolean eliminado = listaTrasplantes.stream()
-    .filter(t -> t.getId().equalsIgnoreCase(idTrasplante))
-    .peek(t -> t.setEstado("Cancelada"))
-    .count() > 0;
+    boolean eliminado = Repositorios.trasplantes().cancelar(idTrasplante);
 
     if (eliminado) {
-    TrasplanteLoader.guardarTrasplantes(listaTrasplantes);
-    actualizarLista();
     JOptionPane.showMessageDialog(this, "Trasplante eliminado correctamente.");
     } else {
     JOptionPane.showMessageDialog(this, "No se encontró un trasplante con ese ID.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -276,19 +246,21 @@ import excepciones.InvariantViolationException;
   /**
 
   * Actualiza la lista de trasplantes en pantalla y actualiza su estado si la fecha ya pasó.
+  * La revisión de estados y la lectura se hacen fuera del EDT; las celdas se formatean al pintarse.
     */
     private void actualizarLista() {
-    listaTrasplantes = TrasplanteLoader.cargarTrasplantes();
-    areaTrasplantes.setText("");
+    tablaTrasplantes.refrescar(() -> {
+    List<Trasplante> trasplantes = Repositorios.trasplantes().listar();
     Date hoy = new Date();
-    for (Trasplante t : listaTrasplantes) {
-    if (t.getFecha().before(hoy) && t.getEstado().equals("Pendiente")) {
-    t.setEstado("Aprobado");
+    for (Trasplante t : trasplantes) {
+    if (t.getFecha().before(hoy) && t.getEstadoTrasplante() == EstadoTrasplante.PENDIENTE) {
+    t.setEstado(EstadoTrasplante.APROBADO);
+    // solo se persiste cuando algún trasplante cambió de estado
+    Repositorios.trasplantes().actualizar(t);
     }
-    areaTrasplantes.append(resumenTrasplante(t));
-    areaTrasplantes.append("\n----------------------------------------\n");
     }
-    TrasplanteLoader.guardarTrasplantes(listaTrasplantes);
+    return trasplantes;
+    });
     }
 
   /** Limpia todos los campos del formulario. */
@@ -298,140 +270,41 @@ import excepciones.InvariantViolationException;
   cmbEstado.setSelectedIndex(0);
   txtHistorial.setText("");
   txtMotivo.setText("");
-  txtFecha.setText(FORMATO_FECHA.format(new Date()));
+  txtFecha.setText(Fechas.formatearFecha(new Date()));
   }
 
-  /**
-
-  * Extrae el ID de una cadena formateada como: "Nombre (ID: P015) | Sangre: AB+".
-  * @param label texto de entrada desde la lista.
-  * @return ID extraído o cadena vacía si no se encuentra.
-    */
-    private String extraerIdDesdeLabel(String label) {
-    if (label == null) return "";
-    int start = label.indexOf("(ID: ");
-    if (start >= 0) {
-    int end = label.indexOf(')', start);
-    if (end > start) {
-    return label.substring(start + 5, end).trim();
-    } else {
-    int pipe = label.indexOf('|', start);
-    if (pipe > start) return label.substring(start + 5, pipe).trim();
-    return label.substring(start + 5).trim();
-    }
-    }
-    String[] parts = label.split("\\s+");
-    for (String p : parts) {
-    if (p.matches("[A-Za-z]\\d+")) return p.trim();
-    }
-    return parts.length > 0 ? parts[0].trim() : "";
-    }
-
-  /**
-
-  * Genera un resumen legible para mostrar la información de un trasplante.
-  * @param t trasplante del cual generar el resumen.
-  * @return cadena formateada con la información relevante.
-    */
-    private String resumenTrasplante(Trasplante t) {
-    if (t == null) return "";
-    String id = t.getId() != null ? t.getId() : "N/A";
-    String organo = t.getOrganType() != null ? t.getOrganType() : "N/A";
-    String fecha = (t.getFecha() != null) ? FORMATO_FECHA.format(t.getFecha()) : "N/A";
-    String estado = t.getEstado() != null ? t.getEstado() : "N/A";
-
-    String donorName = t.getDonor() != null ? t.getDonor().getName() : "N/A";
-    String donorId = t.getDonor() != null ? t.getDonor().getId() : "N/A";
-
-    String receiverName = t.getReceiver() != null ? t.getReceiver().getName() : "N/A";
-    String receiverId = t.getReceiver() != null ? t.getReceiver().getId() : "N/A";
-
-    String historial = (t.getHistorialClinico() != null && !t.getHistorialClinico().isEmpty()) ? t.getHistorialClinico() : "N/A";
-    String motivo = (t.getRejectionReason() != null && !t.getRejectionReason().isEmpty()) ? t.getRejectionReason() : "N/A";
-
-    return String.format("TRASPLANTE ID: %s. Órgano: %s. Fecha: %s. Estado: %s\n" +
-    "  > Donante (ID): %s (%s)\n" +
-    "  > Receptor (ID): %s (%s)\n" +
-    "  > Historial Clínico: %s. Motivo: %s",
-    id, organo, fecha, estado,
-    donorName, donorId,
-    receiverName, receiverId,
-    historial, motivo);
-    }
+  private static String textoONa(String texto) {
+    return (texto != null && !texto.isEmpty()) ? texto : "N/A";
+  }
 
-    // Método público para recargar las listas desde los txt (llamado por otros paneles)
+    // Método público para recargar los selectores desde los repositorios (llamado por otros paneles).
+    // Los índices de búsqueda se reconstruyen en segundo plano; puede llamarse desde cualquier hilo.
     public void reloadLists() {
         javax.swing.SwingUtilities.invokeLater(() -> {
-            try {
-                java.util.List<Paciente> pacientes = PacienteLoader.cargarPacientes();
-                java.util.List<Donante> donantes = DonanteLoader.cargarDonantes();
-
-                javax.swing.DefaultListModel<String> modelP = new javax.swing.DefaultListModel<>();
-                for (Paciente p : pacientes) {
-                    String nombre = (p == null ? "N/A" : (safeName(p)));
-                    String id = (p == null ? "N/A" : (p.getId() != null ? p.getId() : "N/A"));
-                    String sangre = "";
-                    try { sangre = (p.getBloodType() != null ? p.getBloodType() : p.getBloodType()); } catch (Exception ex) { sangre = ""; }
-
-                    String alergias = obtenerAlergias(p);
-                    if (alergias == null || alergias.trim().isEmpty()) alergias = "Ninguna";
-
-                    modelP.addElement(nombre + " (ID: " + id + ") | Sangre: " + sangre + " | Alergias: " + alergias);
-                }
-
-                javax.swing.DefaultListModel<String> modelD = new javax.swing.DefaultListModel<>();
-                for (Donante d : donantes) {
-                    String nombre = (d == null ? "N/A" : (d.getName() != null ? d.getName() : d.getName()));
-                    String id = (d == null ? "N/A" : (d.getId() != null ? d.getId() : "N/A"));
-                    String sangre = "";
-                    try { sangre = (d.getBloodType() != null ? d.getBloodType() : d.getBloodType()); } catch (Exception ex) { sangre = ""; }
-                    String organo = "";
-                    try { organo = (d.getOrgano() != null ? d.getOrgano() : ""); } catch (Exception ex) { organo = ""; }
-                    modelD.addElement(nombre + " (ID: " + id + ") | Sangre: " + sangre + " | Dona: " + organo);
-                }
-
-                if (listaPacientes != null) listaPacientes.setModel(modelP);
-                if (listaDonantes != null) listaDonantes.setModel(modelD);
-
-                revalidate();
-                repaint();
-                System.out.println("reloadLists(): pacientes=" + modelP.getSize() + " donantes=" + modelD.getSize());
-            } catch (Exception ex) {
-                System.err.println("reloadLists error: " + ex.getMessage());
-            }
+            selectorPacientes.refrescar(() -> Repositorios.pacientes().listar());
+            selectorDonantes.refrescar(() -> Repositorios.donantes().listar());
         });
     }
 
-    // helper: intenta obtener el campo "alergias" probando varios getters por reflexión
-    private String obtenerAlergias(Paciente p) {
-        if (p == null) return "";
-        String[] candidates = {"getAlergias", "getAlergiasString", "getAllergies", "getAllergy", "getAlergia", "getAlergenos"};
-        for (String mName : candidates) {
-            try {
-                java.lang.reflect.Method m = p.getClass().getMethod(mName);
-                Object res = m.invoke(p);
-                if (res != null) return res.toString();
-            } catch (NoSuchMethodException e) {
-                // siguiente candidato
-            } catch (Exception e) {
-                // si falla la invocación, seguir intentando con otros nombres
-            }
-        }
-        // si no hay getter, intentar campo público "alergias" (raro)
-        try {
-            java.lang.reflect.Field f = p.getClass().getField("alergias");
-            Object val = f.get(p);
-            if (val != null) return val.toString();
-        } catch (Exception ex) {
-            // ignorar
+    // Con un donante elegido solo se ofrecen los pacientes que pueden recibir su sangre
+    private void filtrarReceptores(Donante donante) {
+        int mascara = IndiceBusqueda.TODOS;
+        if (donante != null) {
+            TipoSangre tipo = donante.getTipoSangre();
+            mascara = tipo != null ? tipo.mascaraReceptores() : 0;
         }
-        return "";
+        selectorPacientes.setMascara(mascara);
     }
 
-    // helper para nombre seguro (soporta getName()/getNombre())
-    private String safeName(Paciente p) {
-        try { if (p.getName() != null) return p.getName(); } catch (Throwable t) {}
-        try { if (p.getName() != null) return p.getName(); } catch (Throwable t) {}
-        return "N/A";
+    private static String etiquetaPaciente(Paciente p) {
+        String alergias = p.getAllergies() == null || p.getAllergies().isEmpty()
+                ? "Ninguna" : String.join(", ", p.getAllergies());
+        return textoONa(p.getName()) + " (ID: " + textoONa(p.getId()) + ") | Sangre: "
+                + textoONa(p.getBloodType()) + " | Alergias: " + alergias;
     }
-  }
\ No newline at end of file
+
+    private static String etiquetaDonante(Donante d) {
+        return textoONa(d.getName()) + " (ID: " + textoONa(d.getId()) + ") | Sangre: "
+                + textoONa(d.getBloodType()) + " | Dona: " + textoONa(d.getOrgano());
+    }
+  }
@@ -0,0 +1,228 @@
+package IU;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import loaders.IndiceBusqueda;
+import model.Persona;
+import repositorio.BusCambios;
+import repositorio.Cambio;
+
+/**
+ * Selector de una persona con búsqueda al escribir: un campo de texto y la lista de
+ * coincidencias de un {@link IndiceBusqueda} por nombre, ID o tipo de sangre. La
+ * lista contiene las personas mismas, de modo que {@link #getSeleccionado()} no
+ * depende del texto mostrado.
+ *
+ * <p>El índice se construye en segundo plano con {@link #refrescar}; con
+ * {@link #seguir} se mantiene al día con los avisos del repositorio. Solo se
+ * muestran las primeras {@link #LIMITE} coincidencias.</p>
+ *
+ * @param <T> tipo de persona
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class SelectorPersona<T extends Persona> extends JPanel {
+
+    /** Máximo de coincidencias mostradas. */
+    public static final int LIMITE = 200;
+
+    private final JTextField txtBuscar = new JTextField(15);
+    private final DefaultListModel<T> modelo = new DefaultListModel<>();
+    private final JList<T> lista = new JList<>(modelo);
+    private final JLabel lblEstado = new JLabel(" ");
+    // Avisos recibidos mientras se construye el índice; se aplican al terminar
+    private final List<Cambio<T>> pendientes = new ArrayList<>();
+    private final List<Consumer<? super T>> acciones = new ArrayList<>();
+    // Mientras buscar() rehace la lista no se avisan los cambios de selección intermedios
+    private boolean reconstruyendo;
+    private IndiceBusqueda<T> indice;
+    private int mascara = IndiceBusqueda.TODOS;
+    private Supplier<? extends List<? extends T>> fuente;
+    private SwingWorker<IndiceBusqueda<T>, Void> construccion;
+
+    /**
+     * @param titulo título del borde
+     * @param etiqueta texto de cada persona en la lista
+     */
+    public SelectorPersona(String titulo, Function<? super T, String> etiqueta) {
+        super(new BorderLayout(5, 5));
+        setBorder(BorderFactory.createTitledBorder(titulo));
+
+        lista.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        lista.addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting() && !reconstruyendo) avisarSeleccion();
+        });
+        lista.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> l, Object valor, int indice,
+                                                          boolean seleccionado, boolean foco) {
+                @SuppressWarnings("unchecked")
+                String texto = valor == null ? "" : etiqueta.apply((T) valor);
+                return super.getListCellRendererComponent(l, texto, indice, seleccionado, foco);
+            }
+        });
+
+        txtBuscar.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { buscar(); }
+            @Override public void removeUpdate(DocumentEvent e) { buscar(); }
+            @Override public void changedUpdate(DocumentEvent e) { buscar(); }
+        });
+
+        JPanel barraBuscar = new JPanel(new BorderLayout(5, 5));
+        barraBuscar.setOpaque(false);
+        barraBuscar.add(new JLabel("Buscar:"), BorderLayout.WEST);
+        barraBuscar.add(txtBuscar, BorderLayout.CENTER);
+
+        add(barraBuscar, BorderLayout.NORTH);
+        add(new JScrollPane(lista), BorderLayout.CENTER);
+        add(lblEstado, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Vuelve a construir el índice en segundo plano. Mientras tanto la lista queda
+     * vacía y los avisos recibidos se guardan para aplicarlos al terminar.
+     * Una construcción anterior en curso se descarta sin interrumpirla: el
+     * proveedor puede estar leyendo archivos, y una interrupción cerraría sus canales.
+     * Debe llamarse desde el EDT.
+     * @param fuente produce las personas; se ejecuta fuera del EDT
+     */
+    public void refrescar(Supplier<? extends List<? extends T>> fuente) {
+        this.fuente = fuente;
+        if (construccion != null) construccion.cancel(false);
+        indice = null;
+        pendientes.clear();
+        modelo.clear();
+        lblEstado.setText("Cargando...");
+
+        construccion = new SwingWorker<IndiceBusqueda<T>, Void>() {
+            @Override
+            protected IndiceBusqueda<T> doInBackground() {
+                return new IndiceBusqueda<>(fuente.get());
+            }
+
+            @Override
+            protected void done() {
+                if (this != construccion || isCancelled()) return;
+                construccion = null;
+                try {
+                    indice = get();
+                } catch (Exception e) {
+                    Throwable causa = e.getCause() != null ? e.getCause() : e;
+                    lblEstado.setText("Error al cargar: " + causa.getMessage());
+                    return;
+                }
+                for (Cambio<T> c : pendientes) aplicarEnIndice(c);
+                pendientes.clear();
+                buscar();
+            }
+        };
+        construccion.execute();
+    }
+
+    /**
+     * Suscribe el selector a los avisos de un repositorio. Ante
+     * {@link Cambio.Tipo#RECARGADO} se repite el último refresco.
+     * @param cambios bus de la entidad mostrada
+     */
+    public void seguir(BusCambios<T> cambios) {
+        cambios.suscribir(c -> SwingUtilities.invokeLater(() -> aplicar(c)));
+    }
+
+    private void aplicar(Cambio<T> cambio) {
+        if (cambio.getTipo() == Cambio.Tipo.RECARGADO) {
+            if (fuente != null) refrescar(fuente);
+        } else if (indice == null) {
+            pendientes.add(cambio);
+        } else {
+            aplicarEnIndice(cambio);
+            buscar();
+        }
+    }
+
+    private void aplicarEnIndice(Cambio<T> cambio) {
+        if (cambio.getTipo() == Cambio.Tipo.ELIMINADO) indice.eliminar(cambio.getId());
+        else if (cambio.getTipo() != Cambio.Tipo.RECARGADO) indice.agregar(cambio.getElemento());
+    }
+
+    /**
+     * Restringe las coincidencias a ciertos tipos de sangre y repite la búsqueda.
+     * @param mascara bits de {@link model.TipoSangre} aceptados ({@link IndiceBusqueda#TODOS} para todos)
+     */
+    public void setMascara(int mascara) {
+        if (this.mascara == mascara) return;
+        this.mascara = mascara;
+        buscar();
+    }
+
+    /**
+     * Avisa cada vez que cambia la persona seleccionada. Al repetir la búsqueda solo se
+     * avisa una vez, y solo si la selección se perdió o la persona fue reemplazada.
+     * @param accion recibe la persona o null si no queda selección
+     */
+    public void alSeleccionar(Consumer<? super T> accion) {
+        acciones.add(accion);
+    }
+
+    private void avisarSeleccion() {
+        T seleccionado = getSeleccionado();
+        for (Consumer<? super T> accion : acciones) accion.accept(seleccionado);
+    }
+
+    /** @return la persona seleccionada, o null si no hay selección */
+    public T getSeleccionado() { return lista.getSelectedValue(); }
+
+    /** @return el campo de búsqueda */
+    public JTextField getTxtBuscar() { return txtBuscar; }
+
+    /** @return la lista de coincidencias */
+    public JList<T> getLista() { return lista; }
+
+    /** @return true si el índice se está construyendo */
+    public boolean enCurso() { return indice == null && construccion != null; }
+
+    // Repite la consulta; la selección se conserva si la persona sigue entre las coincidencias
+    private void buscar() {
+        if (indice == null) return;
+        T anterior = getSeleccionado();
+        List<T> encontrados = indice.buscar(txtBuscar.getText(), mascara, LIMITE);
+        reconstruyendo = true;
+        try {
+            modelo.clear();
+            modelo.addAll(encontrados);
+            if (anterior != null) {
+                for (int i = 0; i < encontrados.size(); i++) {
+                    if (Objects.equals(encontrados.get(i).getIdentificador(), anterior.getIdentificador())) {
+                        lista.setSelectedIndex(i);
+                        break;
+                    }
+                }
+            }
+        } finally {
+            reconstruyendo = false;
+        }
+        if (getSeleccionado() != anterior) avisarSeleccion();
+        int total = indice.cantidad();
+        lblEstado.setText(encontrados.size() >= LIMITE
+                ? "Primeras " + LIMITE + " coincidencias de " + total
+                : encontrados.size() + " de " + total);
+    }
+}
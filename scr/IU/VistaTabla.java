@@ -0,0 +1,175 @@
+package IU;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.TableColumn;
+import repositorio.BusCambios;
+import repositorio.Cambio;
+
+/**
+ * Lista de un panel mostrada como tabla: un campo de filtro, la {@link JTable}
+ * sobre un {@link ModeloTabla} y la barra de progreso de su {@link CargaAsincrona}.
+ * Un clic en un encabezado alterna el orden de esa columna (ascendente,
+ * descendente, orden original).
+ *
+ * <p>Con {@link #seguir} la tabla se mantiene al día con los avisos de un
+ * {@link BusCambios}: cada alta, modificación o baja cambia solo su fila.</p>
+ *
+ * @param <T> tipo de los elementos
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class VistaTabla<T> extends JPanel {
+
+    private final ModeloTabla<T> modelo;
+    private final JTable tabla;
+    private final JTextField txtFiltro = new JTextField(20);
+    private final JLabel lblEstado = new JLabel(" ");
+    private final CargaAsincrona<T, T> carga;
+    private Supplier<? extends List<? extends T>> fuente;
+
+    /**
+     * @param modelo modelo con las columnas de la tabla
+     */
+    public VistaTabla(ModeloTabla<T> modelo) {
+        super(new BorderLayout(5, 5));
+        this.modelo = modelo;
+
+        tabla = new JTable(modelo);
+        tabla.setFillsViewportHeight(true);
+        tabla.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        tabla.getTableHeader().setReorderingAllowed(false);
+        tabla.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int columna = tabla.convertColumnIndexToModel(tabla.columnAtPoint(e.getPoint()));
+                if (columna < 0) return;
+                modelo.alternarOrden(columna);
+                marcarOrden();
+            }
+        });
+
+        txtFiltro.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { filtrar(); }
+            @Override public void removeUpdate(DocumentEvent e) { filtrar(); }
+            @Override public void changedUpdate(DocumentEvent e) { filtrar(); }
+        });
+
+        carga = new CargaAsincrona<>(new CargaAsincrona.Destino<T>() {
+            @Override
+            public void iniciar() { modelo.vaciar(); }
+
+            @Override
+            public void agregar(List<T> filas) {
+                modelo.agregar(filas);
+                actualizarEstado();
+            }
+
+            @Override
+            public void terminar(int total) { actualizarEstado(); }
+
+            @Override
+            public void fallar(Throwable causa) { lblEstado.setText("Error al cargar: " + causa.getMessage()); }
+        });
+
+        JPanel barraFiltro = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        barraFiltro.setOpaque(false);
+        barraFiltro.add(new JLabel("Filtrar:"));
+        barraFiltro.add(txtFiltro);
+        barraFiltro.add(lblEstado);
+
+        add(barraFiltro, BorderLayout.NORTH);
+        add(new JScrollPane(tabla), BorderLayout.CENTER);
+        add(carga.getBarra(), BorderLayout.SOUTH);
+    }
+
+    /**
+     * Vuelve a llenar la tabla en segundo plano (ver {@link CargaAsincrona#refrescar}).
+     * El orden y el filtro elegidos se mantienen.
+     * @param fuente produce los elementos; se ejecuta fuera del EDT
+     */
+    public void refrescar(Supplier<? extends List<? extends T>> fuente) {
+        this.fuente = fuente;
+        carga.refrescar(fuente, Function.identity());
+    }
+
+    /**
+     * Suscribe la tabla a los avisos de un repositorio. El modelo debe conocer los ID
+     * de sus elementos. Ante {@link Cambio.Tipo#RECARGADO} se repite el último refresco.
+     * @param cambios bus de la entidad mostrada
+     */
+    public void seguir(BusCambios<T> cambios) {
+        cambios.suscribir(c -> SwingUtilities.invokeLater(() -> aplicar(c)));
+    }
+
+    private void aplicar(Cambio<T> cambio) {
+        switch (cambio.getTipo()) {
+            case AGREGADO:
+            case ACTUALIZADO:
+                modelo.actualizarElemento(cambio.getElemento());
+                break;
+            case ELIMINADO:
+                modelo.quitarElemento(cambio.getId());
+                break;
+            case RECARGADO:
+                if (fuente != null) refrescar(fuente);
+                return;
+        }
+        actualizarEstado();
+    }
+
+    /** @return true si hay un refresco en curso */
+    public boolean enCurso() { return carga.enCurso(); }
+
+    /** @return el modelo de la tabla */
+    public ModeloTabla<T> getModelo() { return modelo; }
+
+    /** @return la tabla */
+    public JTable getTabla() { return tabla; }
+
+    /** @return el campo de filtro */
+    public JTextField getTxtFiltro() { return txtFiltro; }
+
+    /** @return el elemento de la fila seleccionada, o null si no hay selección */
+    public T getSeleccionado() {
+        int fila = tabla.getSelectedRow();
+        return fila < 0 ? null : modelo.getElemento(fila);
+    }
+
+    private void filtrar() {
+        modelo.filtrar(txtFiltro.getText());
+        actualizarEstado();
+    }
+
+    private void actualizarEstado() {
+        int total = modelo.getTotal();
+        int visibles = modelo.getRowCount();
+        lblEstado.setText(visibles == total ? total + " registros" : visibles + " de " + total + " registros");
+    }
+
+    // Flecha en el encabezado de la columna ordenada
+    private void marcarOrden() {
+        for (int i = 0; i < tabla.getColumnCount(); i++) {
+            TableColumn columna = tabla.getColumnModel().getColumn(i);
+            int indice = columna.getModelIndex();
+            String nombre = modelo.getColumnName(indice);
+            if (indice == modelo.getColumnaOrden()) nombre += modelo.isAscendente() ? " ▲" : " ▼";
+            columna.setHeaderValue(nombre);
+        }
+        tabla.getTableHeader().repaint();
+    }
+}
@@ -0,0 +1,136 @@
+package IU.testIU;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import IU.CargaAsincrona;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para {@link CargaAsincrona}: entrega por trozos en el EDT,
+ * cancelación de refrescos reemplazados y propagación de errores.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class CargaAsincronaTest {
+
+    /** Destino que registra lo recibido y avisa al terminar o fallar. */
+    private static class Registro implements CargaAsincrona.Destino<String> {
+        final List<String> filas = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> trozos = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch fin = new CountDownLatch(1);
+        volatile boolean enEdt = true;
+        volatile int total = -1;
+        volatile Throwable error;
+
+        @Override
+        public void iniciar() { filas.clear(); }
+
+        @Override
+        public void agregar(List<String> trozo) {
+            enEdt &= SwingUtilities.isEventDispatchThread();
+            trozos.add(trozo.size());
+            filas.addAll(trozo);
+        }
+
+        @Override
+        public void terminar(int total) {
+            this.total = total;
+            fin.countDown();
+        }
+
+        @Override
+        public void fallar(Throwable causa) {
+            error = causa;
+            fin.countDown();
+        }
+    }
+
+    private static List<Integer> numeros(int desde, int cantidad) {
+        List<Integer> lista = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) lista.add(desde + i);
+        return lista;
+    }
+
+    /**
+     * Verifica que todas las filas llegan en orden, en trozos acotados y en el EDT,
+     * y que el formato se aplica fuera de él.
+     */
+    @Test
+    public void testEntregaPorTrozos() throws Exception {
+        Registro destino = new Registro();
+        CargaAsincrona<Integer, String> carga = new CargaAsincrona<>(destino);
+        boolean[] formatoEnEdt = {false};
+        int n = CargaAsincrona.TROZO * 2 + 37;
+
+        SwingUtilities.invokeAndWait(() -> carga.refrescar(() -> numeros(0, n), i -> {
+            if (SwingUtilities.isEventDispatchThread()) formatoEnEdt[0] = true;
+            return "F" + i;
+        }));
+        assertTrue(destino.fin.await(10, TimeUnit.SECONDS), "La carga debe terminar");
+
+        assertEquals(n, destino.total);
+        assertEquals(n, destino.filas.size());
+        assertEquals("F0", destino.filas.get(0));
+        assertEquals("F" + (n - 1), destino.filas.get(n - 1));
+        for (int t : destino.trozos) assertTrue(t <= CargaAsincrona.TROZO);
+        assertTrue(destino.enEdt, "Las filas se entregan en el EDT");
+        assertFalse(formatoEnEdt[0], "El formato no debe ejecutarse en el EDT");
+        SwingUtilities.invokeAndWait(() -> {
+            assertFalse(carga.enCurso());
+            assertFalse(carga.getBarra().isVisible());
+        });
+    }
+
+    /**
+     * Verifica que un refresco nuevo reemplaza al anterior y que las filas del
+     * refresco cancelado no llegan al destino.
+     */
+    @Test
+    public void testRefrescoReemplazaAlAnterior() throws Exception {
+        Registro destino = new Registro();
+        CargaAsincrona<Integer, String> carga = new CargaAsincrona<>(destino);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        SwingUtilities.invokeAndWait(() -> carga.refrescar(() -> {
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return numeros(1000, 50);
+        }, i -> "viejo" + i));
+        SwingUtilities.invokeAndWait(() -> carga.refrescar(() -> numeros(0, 3), i -> "nuevo" + i));
+        assertTrue(destino.fin.await(10, TimeUnit.SECONDS));
+        liberar.countDown();
+        // deja que el refresco cancelado termine y que el EDT procese lo que haya quedado
+        Thread.sleep(200);
+        SwingUtilities.invokeAndWait(() -> {});
+
+        assertEquals(3, destino.total);
+        assertEquals(List.of("nuevo0", "nuevo1", "nuevo2"), new ArrayList<>(destino.filas));
+    }
+
+    /**
+     * Verifica que una excepción de la fuente llega al destino en lugar de perderse.
+     */
+    @Test
+    public void testErrorDeLaFuente() throws Exception {
+        Registro destino = new Registro();
+        CargaAsincrona<Integer, String> carga = new CargaAsincrona<>(destino);
+
+        SwingUtilities.invokeAndWait(() -> carga.refrescar(() -> {
+            throw new IllegalStateException("archivo ilegible");
+        }, String::valueOf));
+        assertTrue(destino.fin.await(10, TimeUnit.SECONDS));
+
+        assertNotNull(destino.error);
+        assertEquals("archivo ilegible", destino.error.getMessage());
+        assertEquals(-1, destino.total);
+    }
+}
@@ -0,0 +1,180 @@
+package IU.testIU;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import IU.ModeloTabla;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para {@link ModeloTabla}: valores por celda, orden por índice,
+ * filtro y llegada de filas con un orden activo.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class ModeloTablaTest {
+
+    private ModeloTabla<String[]> modelo;
+
+    /**
+     * Crea un modelo de dos columnas (nombre y edad) sobre arreglos de texto.
+     */
+    @BeforeEach
+    public void setUp() {
+        modelo = new ModeloTabla<>(
+                new ModeloTabla.Columna<>("Nombre", f -> f[0]),
+                new ModeloTabla.Columna<>("Edad", Integer.class, f -> Integer.valueOf(f[1]), null));
+    }
+
+    private static String[] fila(String nombre, int edad) {
+        return new String[] {nombre, String.valueOf(edad)};
+    }
+
+    private List<Object> columna(int c) {
+        List<Object> valores = new ArrayList<>();
+        for (int i = 0; i < modelo.getRowCount(); i++) valores.add(modelo.getValueAt(i, c));
+        return valores;
+    }
+
+    /**
+     * Verifica que las celdas se leen del elemento y que sin orden se conserva el de la fuente.
+     */
+    @Test
+    public void testValoresYOrdenOriginal() {
+        modelo.setElementos(Arrays.asList(fila("carla", 40), fila("Ana", 30), fila("beto", 25)));
+        assertEquals(3, modelo.getRowCount());
+        assertEquals(2, modelo.getColumnCount());
+        assertEquals("Edad", modelo.getColumnName(1));
+        assertEquals(Integer.class, modelo.getColumnClass(1));
+        assertEquals(Arrays.asList("carla", "Ana", "beto"), columna(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> modelo.getElemento(3));
+    }
+
+    /**
+     * Verifica el orden por texto (sin distinguir mayúsculas) y por número, y el ciclo
+     * ascendente, descendente, original.
+     */
+    @Test
+    public void testOrdenar() {
+        modelo.setElementos(Arrays.asList(fila("carla", 40), fila("Ana", 30), fila("beto", 5)));
+        modelo.alternarOrden(0);
+        assertEquals(Arrays.asList("Ana", "beto", "carla"), columna(0));
+        modelo.alternarOrden(0);
+        assertEquals(Arrays.asList("carla", "beto", "Ana"), columna(0));
+        modelo.alternarOrden(0);
+        assertEquals(-1, modelo.getColumnaOrden());
+        assertEquals(Arrays.asList("carla", "Ana", "beto"), columna(0));
+
+        modelo.ordenarPor(1, true);
+        assertEquals(Arrays.asList(5, 30, 40), columna(1), "La edad se ordena como número, no como texto");
+    }
+
+    /**
+     * Verifica que las filas que llegan con un orden activo quedan intercaladas en su lugar.
+     */
+    @Test
+    public void testAgregarConOrdenActivo() {
+        modelo.ordenarPor(1, true);
+        modelo.agregar(Arrays.asList(fila("a", 50), fila("b", 10)));
+        modelo.agregar(Arrays.asList(fila("c", 30), fila("d", 60), fila("e", 10)));
+        assertEquals(Arrays.asList(10, 10, 30, 50, 60), columna(1));
+        assertEquals("b", modelo.getElemento(0)[0], "Ante empate se conserva el orden de llegada");
+        assertEquals("e", modelo.getElemento(1)[0]);
+        assertEquals(5, modelo.getTotal());
+    }
+
+    /**
+     * Verifica el filtro por texto en cualquier columna, su refinamiento y que se quita con vacío.
+     */
+    @Test
+    public void testFiltrar() {
+        modelo.setElementos(Arrays.asList(fila("Mariana", 30), fila("Mario", 41), fila("Lucia", 30)));
+        modelo.filtrar("MAR");
+        assertEquals(Arrays.asList("Mariana", "Mario"), columna(0));
+        modelo.filtrar("mari");
+        assertEquals(Arrays.asList("Mariana", "Mario"), columna(0));
+        modelo.filtrar("maria");
+        assertEquals(Arrays.asList("Mariana"), columna(0));
+        modelo.filtrar("30");
+        assertEquals(Arrays.asList("Mariana", "Lucia"), columna(0), "El filtro también busca en columnas numéricas");
+
+        modelo.agregar(Arrays.asList(fila("Pedro", 30), fila("Juan", 22)));
+        assertEquals(Arrays.asList("Mariana", "Lucia", "Pedro"), columna(0), "Las filas nuevas pasan por el filtro activo");
+
+        modelo.filtrar("");
+        assertEquals(5, modelo.getRowCount());
+    }
+
+    /**
+     * Verifica orden y filtro combinados sobre muchas filas.
+     */
+    @Test
+    public void testMuchasFilas() {
+        int n = 100_000;
+        List<String[]> filas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) filas.add(fila("P" + (n - i), i % 100));
+        for (int i = 0; i < n; i += 500) modelo.agregar(filas.subList(i, Math.min(n, i + 500)));
+        modelo.ordenarPor(1, false);
+        modelo.filtrar("p99");
+        for (int i = 1; i < modelo.getRowCount(); i++) {
+            assertTrue((Integer) modelo.getValueAt(i - 1, 1) >= (Integer) modelo.getValueAt(i, 1));
+            assertTrue(((String) modelo.getValueAt(i, 0)).startsWith("P99"));
+        }
+        assertEquals(1111, modelo.getRowCount());
+    }
+
+    /**
+     * Verifica que con ID un cambio reemplaza o quita solo su fila, respetando el orden
+     * y el filtro activos, y que una fila repetida en una carga no se duplica.
+     */
+    @Test
+    public void testCambiosPorId() {
+        modelo = new ModeloTabla<>(f -> f[0],
+                new ModeloTabla.Columna<>("ID", f -> f[0]),
+                new ModeloTabla.Columna<>("Edad", Integer.class, f -> Integer.valueOf(f[1]), null));
+        List<int[]> eventos = new ArrayList<>();
+        modelo.addTableModelListener(e -> eventos.add(new int[] {e.getType(), e.getFirstRow()}));
+        modelo.setElementos(Arrays.asList(fila("A1", 30), fila("A2", 10), fila("A3", 20)));
+        modelo.ordenarPor(1, true);
+        assertEquals(Arrays.asList("A2", "A3", "A1"), columna(0));
+
+        eventos.clear();
+        modelo.actualizarElemento(fila("a3", 25));
+        assertEquals(Arrays.asList(25), Arrays.asList(modelo.getValueAt(1, 1)));
+        assertEquals(1, eventos.size(), "Un cambio que no mueve la fila avisa solo por ella");
+        assertEquals(javax.swing.event.TableModelEvent.UPDATE, eventos.get(0)[0]);
+        assertEquals(1, eventos.get(0)[1]);
+
+        modelo.actualizarElemento(fila("A2", 99));
+        assertEquals(Arrays.asList("a3", "A1", "A2"), columna(0), "La fila modificada se reubica");
+
+        modelo.actualizarElemento(fila("A4", 15));
+        assertEquals(Arrays.asList("A4", "a3", "A1", "A2"), columna(0), "Un ID nuevo se agrega en su lugar");
+
+        modelo.filtrar("a1");
+        assertEquals(Arrays.asList("A1"), columna(0));
+        assertTrue(modelo.quitarElemento("a1"));
+        assertFalse(modelo.quitarElemento("A1"));
+        assertEquals(0, modelo.getRowCount());
+        modelo.filtrar("");
+        assertEquals(Arrays.asList("A4", "a3", "A2"), columna(0));
+        assertEquals(3, modelo.getTotal());
+
+        modelo.agregar(Arrays.asList(fila("A4", 1), fila("A5", 50)));
+        assertEquals(Arrays.asList("A4", "a3", "A5", "A2"), columna(0), "Un ID repetido en la carga se actualiza");
+        modelo.ordenarPor(-1, true);
+        assertEquals(Arrays.asList("A2", "a3", "A4", "A5"), columna(0), "El orden original omite las bajas");
+    }
+
+    /**
+     * Verifica que sin ID no se puedan aplicar cambios por elemento.
+     */
+    @Test
+    public void testCambiosSinId() {
+        assertThrows(IllegalStateException.class, () -> modelo.actualizarElemento(fila("x", 1)));
+        assertThrows(IllegalStateException.class, () -> modelo.quitarElemento("x"));
+    }
+}
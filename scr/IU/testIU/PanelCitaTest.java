@@ -130,6 +130,19 @@ public class PanelCitaTest {
         assertNotNull(panel, "El panel no debe ser nulo");
     }
 
+    /**
+     * Verifica que la revisión periódica de expiraciones solo corra mientras el
+     * panel está en pantalla, para no dejar temporizadores vivos.
+     */
+    @Test
+    public void testRevisionSoloMientrasSeMuestra() {
+        assertFalse(panel.isRevisionActiva(), "Un panel sin mostrar no debe revisar");
+        panel.addNotify();
+        assertTrue(panel.isRevisionActiva());
+        panel.removeNotify();
+        assertFalse(panel.isRevisionActiva(), "Al quitar el panel se detiene el temporizador");
+    }
+
     /**
      * Verifica que el estado inicial de una cita sea correcto.
      */
@@ -0,0 +1,99 @@
+package IU.testIU;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import IU.SelectorPersona;
+import model.Paciente;
+import excepciones.InvalidDataException;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para {@link SelectorPersona}: avisos de selección al repetir la
+ * búsqueda y refrescos que reemplazan una construcción en curso.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class SelectorPersonaTest {
+
+    private static Paciente paciente(String nombre, String id) throws InvalidDataException {
+        return new Paciente(nombre, (byte)30, id, "O+", "Calle 1", "300",
+                70.0, 1.70, new ArrayList<>(), new ArrayList<>());
+    }
+
+    // Espera a que el índice termine de construirse y el EDT procese el resultado
+    private static void esperarIndice(SelectorPersona<?> selector) throws Exception {
+        boolean[] enCurso = {true};
+        for (int i = 0; i < 200 && enCurso[0]; i++) {
+            SwingUtilities.invokeAndWait(() -> enCurso[0] = selector.enCurso());
+            if (enCurso[0]) Thread.sleep(25);
+        }
+        assertFalse(enCurso[0], "El índice debe terminar de construirse");
+    }
+
+    /**
+     * Verifica que escribir en la búsqueda no avise selecciones intermedias: si la persona
+     * sigue entre las coincidencias no hay aviso, y si desaparece se avisa un solo null.
+     */
+    @Test
+    public void testBuscarSinAvisosIntermedios() throws Exception {
+        List<Paciente> pacientes = Arrays.asList(paciente("Ana Gómez", "P001"), paciente("Luis Díaz", "P002"));
+        List<Paciente> avisos = new ArrayList<>();
+        SelectorPersona<Paciente> selector = new SelectorPersona<>("Pacientes", Paciente::getName);
+        SwingUtilities.invokeAndWait(() -> {
+            selector.alSeleccionar(avisos::add);
+            selector.refrescar(() -> pacientes);
+        });
+        esperarIndice(selector);
+
+        SwingUtilities.invokeAndWait(() -> {
+            selector.getLista().setSelectedIndex(0);
+            assertEquals(Arrays.asList(pacientes.get(0)), avisos);
+
+            selector.getTxtBuscar().setText("an");
+            assertSame(pacientes.get(0), selector.getSeleccionado(), "La selección se conserva");
+            assertEquals(1, avisos.size(), "Sin avisos si la persona sigue en la lista");
+
+            selector.getTxtBuscar().setText("luis");
+            assertNull(selector.getSeleccionado());
+            assertEquals(Arrays.asList(pacientes.get(0), null), avisos, "Un solo aviso al perder la selección");
+        });
+    }
+
+    /**
+     * Verifica que un refresco no interrumpa la construcción anterior y que solo se use
+     * el índice del último refresco.
+     */
+    @Test
+    public void testRefrescoNoInterrumpe() throws Exception {
+        Paciente viejo = paciente("Viejo", "P100");
+        Paciente nuevo = paciente("Nuevo", "P200");
+        CountDownLatch liberar = new CountDownLatch(1);
+        boolean[] interrumpido = {false};
+        SelectorPersona<Paciente> selector = new SelectorPersona<>("Pacientes", Paciente::getName);
+
+        SwingUtilities.invokeAndWait(() -> selector.refrescar(() -> {
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrumpido[0] = true;
+            }
+            return Arrays.asList(viejo);
+        }));
+        SwingUtilities.invokeAndWait(() -> selector.refrescar(() -> Arrays.asList(nuevo)));
+        esperarIndice(selector);
+        liberar.countDown();
+        Thread.sleep(200);
+
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(1, selector.getLista().getModel().getSize());
+            assertSame(nuevo, selector.getLista().getModel().getElementAt(0));
+        });
+        assertFalse(interrumpido[0], "La construcción reemplazada no se interrumpe");
+    }
+}
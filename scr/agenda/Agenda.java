@@ -0,0 +1,298 @@
+package agenda;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import model.Cita;
+import model.EstadoCita;
+import model.Identificador;
+import model.Paciente;
+import util.Fechas;
+import util.Textos;
+
+/**
+ * Agenda de citas para detectar choques de horario y buscar el próximo hueco libre.
+ * Cada cita ocupa {@code duracion} minutos a partir de su fecha y hora, y se indexa
+ * tres veces: por doctor, por lugar y por paciente. Para cada recurso y día hay un
+ * mapa ordenado minuto -> citas, así que revisar un horario es una búsqueda
+ * logarítmica en el día de ese recurso, sin recorrer las demás citas.
+ *
+ * <p>Las citas canceladas no ocupan horario. Los choques se revisan dentro del mismo
+ * día (la jornada no cruza la medianoche). Los métodos son sincronizados: la agenda
+ * se actualiza desde los avisos del repositorio y se consulta desde la interfaz.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class Agenda {
+
+    /** Duración por defecto de una cita, en minutos. */
+    public static final int DURACION_MINUTOS = 30;
+    /** Hora de inicio de la jornada por defecto. */
+    public static final LocalTime APERTURA = LocalTime.of(7, 0);
+    /** Hora de fin de la jornada por defecto (la última cita termina a esta hora). */
+    public static final LocalTime CIERRE = LocalTime.of(19, 0);
+    /** Días que se revisan al buscar un hueco libre. */
+    public static final int DIAS_BUSQUEDA = 366;
+
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    /** Recursos que una cita ocupa. */
+    public enum Recurso {
+        DOCTOR("El doctor"), LUGAR("El lugar"), PACIENTE("El paciente");
+
+        private final String descripcion;
+
+        Recurso(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        /** @return texto para mensajes, por ejemplo "El doctor" */
+        public String getDescripcion() { return descripcion; }
+    }
+
+    /** Cita que ya ocupa un recurso en el horario pedido. */
+    public static final class Conflicto {
+        private final Recurso recurso;
+        private final Cita cita;
+
+        Conflicto(Recurso recurso, Cita cita) {
+            this.recurso = recurso;
+            this.cita = cita;
+        }
+
+        /** @return recurso ocupado */
+        public Recurso getRecurso() { return recurso; }
+
+        /** @return cita que lo ocupa */
+        public Cita getCita() { return cita; }
+
+        /** @return descripción para mostrar al usuario */
+        public String getMensaje() {
+            return recurso.getDescripcion() + " " + nombre(recurso, cita) + " ya tiene la cita " + cita.getId()
+                    + " el " + Fechas.formatearFecha(cita.getDate()) + " a las " + Fechas.formatearHora(cita.getTime());
+        }
+    }
+
+    // Dónde quedó indexada una cita, para quitarla aunque el objeto haya cambiado
+    private static final class Ubicacion {
+        final Cita cita;
+        final String[] claves;
+        final int minuto;
+
+        Ubicacion(Cita cita, String[] claves, int minuto) {
+            this.cita = cita;
+            this.claves = claves;
+            this.minuto = minuto;
+        }
+    }
+
+    private final int duracion;
+    private final int apertura;
+    private final int cierre;
+    // Recurso, nombre y día -> minuto del día -> citas que empiezan en ese minuto
+    private final Map<String, TreeMap<Integer, List<Cita>>> dias = new HashMap<>();
+    private final Map<Identificador, Ubicacion> ubicaciones = new HashMap<>();
+
+    /**
+     * Crea una agenda con la duración y la jornada por defecto.
+     * @param citas citas ya registradas
+     */
+    public Agenda(List<Cita> citas) {
+        this(DURACION_MINUTOS, APERTURA, CIERRE, citas);
+    }
+
+    /**
+     * @param duracion minutos que ocupa cada cita
+     * @param apertura hora de la primera cita posible del día
+     * @param cierre hora a la que debe haber terminado la última cita
+     * @param citas citas ya registradas
+     * @throws IllegalArgumentException si la duración no es positiva o no cabe en la jornada
+     */
+    public Agenda(int duracion, LocalTime apertura, LocalTime cierre, List<Cita> citas) {
+        this.duracion = duracion;
+        this.apertura = apertura.getHour() * 60 + apertura.getMinute();
+        this.cierre = cierre.getHour() * 60 + cierre.getMinute();
+        if (duracion <= 0 || this.apertura + duracion > this.cierre) {
+            throw new IllegalArgumentException("La duración de la cita debe ser positiva y caber en la jornada.");
+        }
+        reconstruir(citas);
+    }
+
+    /**
+     * Descarta lo indexado y vuelve a indexar las citas dadas.
+     * @param citas citas registradas
+     */
+    public synchronized void reconstruir(List<Cita> citas) {
+        dias.clear();
+        ubicaciones.clear();
+        if (citas == null) return;
+        for (Cita c : citas) agregar(c);
+    }
+
+    /**
+     * Indexa una cita o, si ya estaba (mismo ID), la reubica según sus datos actuales.
+     * Una cita cancelada solo se quita.
+     * @param cita cita registrada o modificada
+     */
+    public synchronized void agregar(Cita cita) {
+        if (cita == null) return;
+        if (cita.getIdentificador() != null) quitar(cita.getIdentificador());
+        if (cita.getEstadoCita() == EstadoCita.CANCELADA || cita.getDate() == null || cita.getTime() == null) return;
+
+        LocalDateTime inicio = inicio(cita);
+        long dia = inicio.toLocalDate().toEpochDay();
+        int minuto = inicio.getHour() * 60 + inicio.getMinute();
+        List<String> claves = new ArrayList<>(3);
+        for (Recurso r : Recurso.values()) {
+            String clave = clave(r, nombre(r, cita), dia);
+            if (clave == null) continue;
+            dias.computeIfAbsent(clave, k -> new TreeMap<>())
+                    .computeIfAbsent(minuto, k -> new ArrayList<>(1)).add(cita);
+            claves.add(clave);
+        }
+        if (cita.getIdentificador() != null) {
+            ubicaciones.put(cita.getIdentificador(), new Ubicacion(cita, claves.toArray(new String[0]), minuto));
+        }
+    }
+
+    /**
+     * Quita una cita por su ID (sin distinguir mayúsculas).
+     * @param id ID de la cita
+     * @return true si estaba indexada
+     */
+    public synchronized boolean eliminar(String id) {
+        Identificador clave = Identificador.buscar(id);
+        return clave != null && quitar(clave);
+    }
+
+    /**
+     * Citas que ocupan el doctor, el lugar o el paciente de la cita propuesta en su
+     * horario. La cita con el mismo ID que la propuesta no cuenta.
+     * @param propuesta cita que se quiere registrar
+     * @return un conflicto por recurso ocupado (vacía si el horario está libre)
+     */
+    public synchronized List<Conflicto> conflictos(Cita propuesta) {
+        if (propuesta.getDate() == null || propuesta.getTime() == null) return Collections.emptyList();
+        LocalDateTime inicio = inicio(propuesta);
+        long dia = inicio.toLocalDate().toEpochDay();
+        int minuto = inicio.getHour() * 60 + inicio.getMinute();
+        List<Conflicto> resultado = new ArrayList<>(0);
+        for (Recurso r : Recurso.values()) {
+            Cita ocupante = ocupante(clave(r, nombre(r, propuesta), dia), minuto, propuesta.getIdentificador());
+            if (ocupante != null) resultado.add(new Conflicto(r, ocupante));
+        }
+        return resultado;
+    }
+
+    /**
+     * Primer horario, desde el de la cita propuesta, en que su doctor, su lugar y su
+     * paciente están libres dentro de la jornada. Los horarios se alinean a la
+     * duración contando desde la apertura.
+     * @param propuesta cita que se quiere registrar
+     * @return fecha y hora del hueco, o null si no hay ninguno en {@link #DIAS_BUSQUEDA} días
+     */
+    public synchronized Date siguienteLibre(Cita propuesta) {
+        LocalDateTime desde = inicio(propuesta);
+        long dia = desde.toLocalDate().toEpochDay();
+        int minuto = alinear(desde.getHour() * 60 + desde.getMinute());
+        Identificador propia = propuesta.getIdentificador();
+
+        for (int d = 0; d < DIAS_BUSQUEDA; d++, dia++, minuto = apertura) {
+            String[] claves = new String[Recurso.values().length];
+            for (Recurso r : Recurso.values()) claves[r.ordinal()] = clave(r, nombre(r, propuesta), dia);
+            while (minuto + duracion <= cierre) {
+                // si algún recurso está ocupado se salta hasta que termine esa cita
+                int libreDesde = -1;
+                for (String clave : claves) {
+                    Cita ocupante = ocupante(clave, minuto, propia);
+                    if (ocupante != null) libreDesde = Math.max(libreDesde, minutoDe(ocupante) + duracion);
+                }
+                if (libreDesde < 0) {
+                    return Date.from(LocalDate.ofEpochDay(dia).atStartOfDay()
+                            .plusMinutes(minuto).atZone(ZONA).toInstant());
+                }
+                minuto = alinear(libreDesde);
+            }
+        }
+        return null;
+    }
+
+    /** @return número de citas que ocupan horario */
+    public synchronized int tamaño() { return ubicaciones.size(); }
+
+    /** @return minutos que ocupa cada cita */
+    public int getDuracion() { return duracion; }
+
+    // Primera cita del recurso y día que se cruza con [minuto, minuto + duracion), sin contar la excluida
+    private Cita ocupante(String clave, int minuto, Identificador excluida) {
+        if (clave == null) return null;
+        TreeMap<Integer, List<Cita>> dia = dias.get(clave);
+        if (dia == null) return null;
+        for (Map.Entry<Integer, List<Cita>> e = dia.ceilingEntry(minuto - duracion + 1);
+             e != null && e.getKey() < minuto + duracion;
+             e = dia.higherEntry(e.getKey())) {
+            for (Cita c : e.getValue()) {
+                if (excluida == null || !excluida.equals(c.getIdentificador())) return c;
+            }
+        }
+        return null;
+    }
+
+    private boolean quitar(Identificador id) {
+        Ubicacion u = ubicaciones.remove(id);
+        if (u == null) return false;
+        for (String clave : u.claves) {
+            TreeMap<Integer, List<Cita>> dia = dias.get(clave);
+            List<Cita> enMinuto = dia.get(u.minuto);
+            enMinuto.remove(u.cita);
+            if (enMinuto.isEmpty()) dia.remove(u.minuto);
+            if (dia.isEmpty()) dias.remove(clave);
+        }
+        return true;
+    }
+
+    // Minuto de inicio según el índice (la cita pudo cambiar después de indexarse)
+    private int minutoDe(Cita c) {
+        Ubicacion u = c.getIdentificador() != null ? ubicaciones.get(c.getIdentificador()) : null;
+        if (u != null) return u.minuto;
+        LocalDateTime inicio = inicio(c);
+        return inicio.getHour() * 60 + inicio.getMinute();
+    }
+
+    // Primer inicio de la rejilla (apertura + k * duracion) que no es anterior al minuto
+    private int alinear(int minuto) {
+        if (minuto <= apertura) return apertura;
+        int desplazamiento = minuto - apertura;
+        return apertura + (desplazamiento + duracion - 1) / duracion * duracion;
+    }
+
+    private static LocalDateTime inicio(Cita c) {
+        return LocalDateTime.ofInstant(c.getFechaHora().toInstant(), ZONA);
+    }
+
+    private static String nombre(Recurso r, Cita c) {
+        switch (r) {
+            case DOCTOR: return c.getDoctor();
+            case LUGAR: return c.getLocation();
+            default:
+                Paciente p = c.getPaciente();
+                return p != null ? p.getId() : null;
+        }
+    }
+
+    // Clave del día de un recurso; null si la cita no tiene ese recurso
+    private static String clave(Recurso r, String nombre, long dia) {
+        String normalizado = r == Recurso.PACIENTE ? Identificador.normalizar(nombre) : Textos.normalizar(nombre);
+        if (normalizado == null || normalizado.isEmpty()) return null;
+        return r.ordinal() + "|" + dia + "|" + normalizado;
+    }
+}
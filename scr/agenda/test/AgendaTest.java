@@ -0,0 +1,157 @@
+package agenda.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.text.ParseException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import agenda.Agenda;
+import model.Cita;
+import model.EstadoCita;
+import model.Paciente;
+import util.Fechas;
+import excepciones.InvalidDataException;
+
+/**
+ * Clase de pruebas unitarias para Agenda.
+ * Verifica los choques por doctor, lugar y paciente, los cambios de citas ya
+ * indexadas y la búsqueda del próximo horario libre.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class AgendaTest {
+
+    private Paciente ana;
+    private Paciente luis;
+    private Agenda agenda;
+
+    private static Paciente paciente(String nombre, String id) throws InvalidDataException {
+        return new Paciente(nombre, (byte)30, id, "O+", "Calle 1", "300",
+                70.0, 1.70, new ArrayList<>(), new ArrayList<>());
+    }
+
+    private static Cita cita(String id, String fecha, String hora, String lugar, Paciente p, String doctor)
+            throws InvalidDataException, ParseException {
+        return new Cita(id, Fechas.parsearFecha(fecha), Fechas.parsearHora(hora), lugar, p, doctor);
+    }
+
+    private static String texto(Date d) {
+        return Fechas.formatearFecha(d) + " " + Fechas.formatearHora(d);
+    }
+
+    /**
+     * Crea una agenda de citas de 30 minutos entre las 08:00 y las 12:00 con una cita registrada.
+     */
+    @BeforeEach
+    public void setUp() throws Exception {
+        ana = paciente("Ana Gómez", "P001");
+        luis = paciente("Luis Díaz", "P002");
+        agenda = new Agenda(30, LocalTime.of(8, 0), LocalTime.of(12, 0),
+                Arrays.asList(cita("C001", "10/03/2031", "09:00", "Consultorio 1", ana, "Dr. Pérez")));
+    }
+
+    /**
+     * Verifica que cada recurso compartido en un horario que se cruza produzca su conflicto.
+     */
+    @Test
+    public void testConflictosPorRecurso() throws Exception {
+        List<Agenda.Conflicto> mismoDoctor = agenda.conflictos(
+                cita("C002", "10/03/2031", "09:15", "Consultorio 2", luis, "dr. pérez"));
+        assertEquals(1, mismoDoctor.size(), "El doctor se compara sin tildes ni mayúsculas");
+        assertEquals(Agenda.Recurso.DOCTOR, mismoDoctor.get(0).getRecurso());
+        assertEquals("C001", mismoDoctor.get(0).getCita().getId());
+        assertTrue(mismoDoctor.get(0).getMensaje().contains("09:00"));
+
+        assertEquals(3, agenda.conflictos(cita("C003", "10/03/2031", "08:45", "Consultorio 1", ana, "Dr. Pérez")).size());
+        assertEquals(Agenda.Recurso.PACIENTE, agenda.conflictos(
+                cita("C004", "10/03/2031", "09:00", "Consultorio 2", ana, "Dra. Ruiz")).get(0).getRecurso());
+    }
+
+    /**
+     * Verifica que los horarios contiguos, otros días o la misma cita no cuenten como choque.
+     */
+    @Test
+    public void testSinConflicto() throws Exception {
+        assertTrue(agenda.conflictos(cita("C005", "10/03/2031", "09:30", "Consultorio 1", ana, "Dr. Pérez")).isEmpty());
+        assertTrue(agenda.conflictos(cita("C006", "10/03/2031", "08:30", "Consultorio 1", ana, "Dr. Pérez")).isEmpty());
+        assertTrue(agenda.conflictos(cita("C007", "11/03/2031", "09:00", "Consultorio 1", ana, "Dr. Pérez")).isEmpty());
+        assertTrue(agenda.conflictos(cita("c001", "10/03/2031", "09:00", "Consultorio 1", ana, "Dr. Pérez")).isEmpty(),
+                "Una cita no choca consigo misma");
+    }
+
+    /**
+     * Verifica que una cita modificada se reubique y que las canceladas o eliminadas liberen su horario.
+     */
+    @Test
+    public void testCambiosDeCitas() throws Exception {
+        Cita segunda = cita("C010", "10/03/2031", "10:00", "Consultorio 2", luis, "Dra. Ruiz");
+        agenda.agregar(segunda);
+        assertEquals(2, agenda.tamaño());
+
+        segunda.setTime(Fechas.parsearHora("11:00"));
+        agenda.agregar(segunda);
+        assertEquals(2, agenda.tamaño());
+        assertTrue(agenda.conflictos(cita("C011", "10/03/2031", "10:00", "Consultorio 2", luis, "Dra. Ruiz")).isEmpty(),
+                "El horario anterior queda libre");
+        assertFalse(agenda.conflictos(cita("C011", "10/03/2031", "11:00", "Consultorio 2", luis, "Dra. Ruiz")).isEmpty());
+
+        segunda.setEstado(EstadoCita.CANCELADA);
+        agenda.agregar(segunda);
+        assertEquals(1, agenda.tamaño());
+        assertTrue(agenda.eliminar("c001"));
+        assertFalse(agenda.eliminar("C001"));
+        assertEquals(0, agenda.tamaño());
+    }
+
+    /**
+     * Verifica que el próximo horario libre salte las citas de cualquier recurso y pase al
+     * día siguiente cuando la jornada se llena.
+     */
+    @Test
+    public void testSiguienteLibre() throws Exception {
+        agenda.agregar(cita("C020", "10/03/2031", "09:30", "Consultorio 2", luis, "Dr. Pérez"));
+        agenda.agregar(cita("C021", "10/03/2031", "10:00", "Consultorio 1", luis, "Dra. Ruiz"));
+        Cita propuesta = cita("C022", "10/03/2031", "09:10", "Consultorio 1", ana, "Dr. Pérez");
+        assertEquals("10/03/2031 10:30", texto(agenda.siguienteLibre(propuesta)),
+                "Se saltan la cita del doctor (09:30) y la del lugar (10:00)");
+
+        assertEquals("10/03/2031 08:00", texto(agenda.siguienteLibre(
+                cita("C023", "10/03/2031", "06:00", "Consultorio 3", luis, "Dr. Soto"))),
+                "Antes de la apertura se busca desde la apertura");
+        assertEquals("11/03/2031 08:00", texto(agenda.siguienteLibre(
+                cita("C024", "10/03/2031", "11:45", "Consultorio 3", luis, "Dr. Soto"))),
+                "Si la cita no termina antes del cierre se pasa al día siguiente");
+    }
+
+    /**
+     * Verifica consultas sobre muchas citas futuras con la jornada casi llena.
+     */
+    @Test
+    public void testMuchasCitas() throws Exception {
+        List<Cita> citas = new ArrayList<>();
+        Date primerDia = Fechas.parsearFecha("01/01/2031");
+        int dias = 2_500;
+        // 25 doctores; cada uno con la jornada de 8 turnos llena salvo el último turno del día
+        for (int d = 0; d < dias; d++) {
+            Date fecha = new Date(primerDia.getTime() + d * 86_400_000L + 3_600_000L);
+            for (int doctor = 0; doctor < 25; doctor++) {
+                for (int turno = 0; turno < 7; turno++) {
+                    Date hora = Fechas.parsearHora(String.format("%02d:%02d", 8 + turno / 2, turno % 2 * 30));
+                    citas.add(new Cita("C" + d + "-" + doctor + "-" + turno, fecha, hora,
+                            "Sala " + doctor, paciente("P", "P" + d + "-" + doctor), "Doctor " + doctor));
+                }
+            }
+        }
+        agenda.reconstruir(citas);
+        assertEquals(citas.size(), agenda.tamaño());
+
+        Cita propuesta = cita("X", "15/06/2035", "08:00", "Sala 7", luis, "Doctor 7");
+        assertEquals(Agenda.Recurso.DOCTOR, agenda.conflictos(propuesta).get(0).getRecurso());
+        assertEquals("15/06/2035 11:30", texto(agenda.siguienteLibre(propuesta)));
+    }
+}
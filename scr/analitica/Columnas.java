@@ -0,0 +1,95 @@
+package analitica;
+
+/**
+ * Filtros y agregados comunes sobre arreglos primitivos, usados por
+ * {@link ColumnasPacientes} y {@link ColumnasDonantes}. Cada filtro es un ciclo
+ * contado sobre un solo arreglo, sin saltos dentro del cuerpo, para que el JIT
+ * pueda desenrollarlo o vectorizarlo.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+final class Columnas {
+
+    /** Código de las filas sin valor reconocido en una columna de códigos. */
+    static final byte SIN_CODIGO = -1;
+
+    private Columnas() {}
+
+    static Seleccion entre(byte[] columna, int min, int max) {
+        Seleccion s = new Seleccion(columna.length);
+        for (int i = 0; i < columna.length; i++) s.marcar(i, columna[i] >= min & columna[i] <= max);
+        return s;
+    }
+
+    static Seleccion entre(double[] columna, double min, double maxExclusivo) {
+        Seleccion s = new Seleccion(columna.length);
+        for (int i = 0; i < columna.length; i++) s.marcar(i, columna[i] >= min & columna[i] < maxExclusivo);
+        return s;
+    }
+
+    // Filas cuyo código (0-30) está en la máscara; SIN_CODIGO desplaza 31 bits y nunca coincide
+    static Seleccion codigoEn(byte[] columna, int mascara) {
+        Seleccion s = new Seleccion(columna.length);
+        int m = mascara & 0x7FFF_FFFF;
+        for (int i = 0; i < columna.length; i++) s.marcar(i, ((m >>> columna[i]) & 1) != 0);
+        return s;
+    }
+
+    static Seleccion igual(int[] columna, int codigo) {
+        Seleccion s = new Seleccion(columna.length);
+        if (codigo == Diccionario.SIN_VALOR) return s;
+        for (int i = 0; i < columna.length; i++) s.marcar(i, columna[i] == codigo);
+        return s;
+    }
+
+    // Conteo por código (0..codigos-1) de las filas seleccionadas
+    static int[] contarPorCodigo(byte[] columna, int codigos, Seleccion sel) {
+        int[] conteo = new int[codigos];
+        for (int w = 0; w < sel.palabras(); w++) {
+            long palabra = sel.palabra(w);
+            while (palabra != 0) {
+                int c = columna[(w << 6) + Long.numberOfTrailingZeros(palabra)];
+                if (c >= 0 && c < codigos) conteo[c]++;
+                palabra &= palabra - 1;
+            }
+        }
+        return conteo;
+    }
+
+    static double promedio(byte[] columna, Seleccion sel) {
+        long suma = 0;
+        int n = 0;
+        for (int w = 0; w < sel.palabras(); w++) {
+            long palabra = sel.palabra(w);
+            n += Long.bitCount(palabra);
+            while (palabra != 0) {
+                suma += columna[(w << 6) + Long.numberOfTrailingZeros(palabra)];
+                palabra &= palabra - 1;
+            }
+        }
+        return n == 0 ? Double.NaN : (double) suma / n;
+    }
+
+    // Promedio ignorando los NaN
+    static double promedio(double[] columna, Seleccion sel) {
+        double suma = 0;
+        int n = 0;
+        for (int w = 0; w < sel.palabras(); w++) {
+            long palabra = sel.palabra(w);
+            while (palabra != 0) {
+                double v = columna[(w << 6) + Long.numberOfTrailingZeros(palabra)];
+                if (!Double.isNaN(v)) {
+                    suma += v;
+                    n++;
+                }
+                palabra &= palabra - 1;
+            }
+        }
+        return n == 0 ? Double.NaN : suma / n;
+    }
+
+    static void comprobar(Seleccion sel, int filas) {
+        if (sel.getFilas() != filas) throw new IllegalArgumentException("La selección es de otro almacén.");
+    }
+}
@@ -0,0 +1,154 @@
+package analitica;
+
+import java.util.List;
+import loaders.DonanteLoader;
+import model.Donante;
+import model.Organo;
+import model.TipoDonacion;
+import model.TipoSangre;
+
+/**
+ * Instantánea columnar de los donantes para reportes: edad, tipo de sangre, órgano
+ * y tipo de donación como códigos de un byte, la elegibilidad como mapa de bits y
+ * el estado de salud codificado por diccionario.
+ *
+ * <p>La instantánea no se actualiza: si cambian los donantes hay que construirla de nuevo.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class ColumnasDonantes {
+
+    private final int filas;
+    private final String[] id;
+    private final byte[] edad;
+    private final byte[] tipoSangre;
+    private final byte[] organo;
+    private final byte[] tipoDonacion;
+    private final Seleccion elegibles;
+    private final int[] estadoSalud;
+    private final Diccionario estadosSalud = new Diccionario();
+
+    private ColumnasDonantes(List<Donante> donantes) {
+        filas = donantes.size();
+        id = new String[filas];
+        edad = new byte[filas];
+        tipoSangre = new byte[filas];
+        organo = new byte[filas];
+        tipoDonacion = new byte[filas];
+        elegibles = new Seleccion(filas);
+        estadoSalud = new int[filas];
+        for (int i = 0; i < filas; i++) {
+            Donante d = donantes.get(i);
+            id[i] = d.getId();
+            edad[i] = d.getAge();
+            tipoSangre[i] = codigo(d.getTipoSangre());
+            organo[i] = codigo(d.getOrganoTipo());
+            tipoDonacion[i] = codigo(d.getTipoDonacion());
+            elegibles.marcar(i, d.isEligibility());
+            estadoSalud[i] = estadosSalud.codificar(d.getHealthStatus());
+        }
+    }
+
+    private static byte codigo(Enum<?> valor) {
+        return valor != null ? (byte) valor.ordinal() : Columnas.SIN_CODIGO;
+    }
+
+    /**
+     * @param donantes donantes ya cargados (se copian sus valores)
+     * @return la instantánea columnar
+     */
+    public static ColumnasDonantes desde(List<Donante> donantes) {
+        return new ColumnasDonantes(donantes);
+    }
+
+    /**
+     * Construye la instantánea leyendo Donante.txt con {@link DonanteLoader}.
+     * @return la instantánea columnar
+     */
+    public static ColumnasDonantes cargar() {
+        return new ColumnasDonantes(DonanteLoader.cargarDonantes());
+    }
+
+    /** @return número de filas */
+    public int tamaño() { return filas; }
+
+    public String getId(int fila) { return id[fila]; }
+    public byte getEdad(int fila) { return edad[fila]; }
+    /** @return tipo de sangre o null si no se reconoce */
+    public TipoSangre getTipoSangre(int fila) {
+        return tipoSangre[fila] == Columnas.SIN_CODIGO ? null : TipoSangre.deBit(tipoSangre[fila]);
+    }
+    /** @return órgano o null si no tiene o no se reconoce */
+    public Organo getOrgano(int fila) {
+        return organo[fila] == Columnas.SIN_CODIGO ? null : Organo.values()[organo[fila]];
+    }
+    public String getEstadoSalud(int fila) { return estadosSalud.valor(estadoSalud[fila]); }
+    /** @return diccionario de la columna de estado de salud */
+    public Diccionario getEstadosSalud() { return estadosSalud; }
+
+    // --- Filtros ---
+
+    /** @return todas las filas */
+    public Seleccion todas() { return Seleccion.todas(filas); }
+
+    /** @return filas de donantes marcados como elegibles */
+    public Seleccion elegibles() { return elegibles.copia(); }
+
+    /**
+     * @param min edad mínima (inclusive)
+     * @param max edad máxima (inclusive)
+     * @return filas con la edad en el rango
+     */
+    public Seleccion edadEntre(int min, int max) { return Columnas.entre(edad, min, max); }
+
+    /**
+     * @param mascara máscara de tipos (ver {@link TipoSangre#bit()})
+     * @return filas cuyo tipo de sangre está en la máscara
+     */
+    public Seleccion tipoSangreEn(int mascara) { return Columnas.codigoEn(tipoSangre, mascara & 0xFF); }
+
+    /**
+     * @param o órgano
+     * @return filas que donan ese órgano
+     */
+    public Seleccion organo(Organo o) { return Columnas.codigoEn(organo, 1 << o.ordinal()); }
+
+    /**
+     * @param t tipo de donación
+     * @return filas con ese tipo de donación
+     */
+    public Seleccion tipoDonacion(TipoDonacion t) { return Columnas.codigoEn(tipoDonacion, 1 << t.ordinal()); }
+
+    /**
+     * @param valor estado de salud exacto
+     * @return filas con ese estado (comparando códigos del diccionario)
+     */
+    public Seleccion estadoSaludIgual(String valor) { return Columnas.igual(estadoSalud, estadosSalud.codigo(valor)); }
+
+    // --- Agregados ---
+
+    /**
+     * @param sel filas a considerar
+     * @return conteo por tipo de sangre, indexado por {@link TipoSangre#ordinal()}
+     */
+    public int[] distribucionTipoSangre(Seleccion sel) {
+        Columnas.comprobar(sel, filas);
+        return Columnas.contarPorCodigo(tipoSangre, TipoSangre.values().length, sel);
+    }
+
+    /**
+     * @param sel filas a considerar
+     * @return conteo por órgano, indexado por {@link Organo#ordinal()}
+     */
+    public int[] distribucionOrgano(Seleccion sel) {
+        Columnas.comprobar(sel, filas);
+        return Columnas.contarPorCodigo(organo, Organo.values().length, sel);
+    }
+
+    /** @return edad promedio de las filas seleccionadas */
+    public double promedioEdad(Seleccion sel) {
+        Columnas.comprobar(sel, filas);
+        return Columnas.promedio(edad, sel);
+    }
+}
@@ -0,0 +1,161 @@
+package analitica;
+
+import java.util.List;
+import loaders.PacienteLoader;
+import model.Paciente;
+import model.TipoSangre;
+
+/**
+ * Instantánea columnar de los pacientes para reportes: cada atributo se guarda en
+ * su propio arreglo primitivo (edad, peso, altura, IMC y código de tipo de sangre)
+ * y la dirección se codifica por diccionario. Los filtros recorren un solo arreglo
+ * en un ciclo simple y devuelven una {@link Seleccion}; los agregados suman sobre
+ * las filas seleccionadas sin tocar los objetos {@link Paciente}.
+ *
+ * <p>La instantánea no se actualiza: si cambian los pacientes hay que construirla de nuevo.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class ColumnasPacientes {
+
+    private final int filas;
+    private final String[] id;
+    private final byte[] edad;
+    private final double[] peso;
+    private final double[] altura;
+    private final double[] imc;
+    private final byte[] tipoSangre;
+    private final int[] direccion;
+    private final Diccionario direcciones = new Diccionario();
+
+    private ColumnasPacientes(List<Paciente> pacientes) {
+        filas = pacientes.size();
+        id = new String[filas];
+        edad = new byte[filas];
+        peso = new double[filas];
+        altura = new double[filas];
+        imc = new double[filas];
+        tipoSangre = new byte[filas];
+        direccion = new int[filas];
+        for (int i = 0; i < filas; i++) {
+            Paciente p = pacientes.get(i);
+            id[i] = p.getId();
+            edad[i] = p.getAge();
+            peso[i] = p.getWeight();
+            altura[i] = p.getHeight();
+            imc[i] = altura[i] > 0 ? peso[i] / (altura[i] * altura[i]) : Double.NaN;
+            TipoSangre t = p.getTipoSangre();
+            tipoSangre[i] = t != null ? (byte) t.ordinal() : Columnas.SIN_CODIGO;
+            direccion[i] = direcciones.codificar(p.getAddress());
+        }
+    }
+
+    /**
+     * @param pacientes pacientes ya cargados (se copian sus valores)
+     * @return la instantánea columnar
+     */
+    public static ColumnasPacientes desde(List<Paciente> pacientes) {
+        return new ColumnasPacientes(pacientes);
+    }
+
+    /**
+     * Construye la instantánea leyendo Paciente.txt con {@link PacienteLoader}.
+     * @return la instantánea columnar
+     */
+    public static ColumnasPacientes cargar() {
+        return new ColumnasPacientes(PacienteLoader.cargarPacientes());
+    }
+
+    /** @return número de filas */
+    public int tamaño() { return filas; }
+
+    public String getId(int fila) { return id[fila]; }
+    public byte getEdad(int fila) { return edad[fila]; }
+    public double getPeso(int fila) { return peso[fila]; }
+    public double getAltura(int fila) { return altura[fila]; }
+    /** @return IMC (peso / altura²), NaN si la altura no es positiva */
+    public double getImc(int fila) { return imc[fila]; }
+    /** @return tipo de sangre o null si no se reconoce */
+    public TipoSangre getTipoSangre(int fila) {
+        return tipoSangre[fila] == Columnas.SIN_CODIGO ? null : TipoSangre.deBit(tipoSangre[fila]);
+    }
+    public String getDireccion(int fila) { return direcciones.valor(direccion[fila]); }
+    /** @return diccionario de la columna de direcciones */
+    public Diccionario getDirecciones() { return direcciones; }
+
+    // --- Filtros ---
+
+    /** @return todas las filas */
+    public Seleccion todas() { return Seleccion.todas(filas); }
+
+    /**
+     * @param min edad mínima (inclusive)
+     * @param max edad máxima (inclusive)
+     * @return filas con la edad en el rango
+     */
+    public Seleccion edadEntre(int min, int max) { return Columnas.entre(edad, min, max); }
+
+    /**
+     * @param mascara máscara de tipos (ver {@link TipoSangre#bit()})
+     * @return filas cuyo tipo de sangre está en la máscara
+     */
+    public Seleccion tipoSangreEn(int mascara) { return Columnas.codigoEn(tipoSangre, mascara & 0xFF); }
+
+    /**
+     * @param min IMC mínimo (inclusive)
+     * @param max IMC máximo (exclusivo)
+     * @return filas con el IMC en el rango (nunca las de IMC indefinido)
+     */
+    public Seleccion imcEntre(double min, double max) { return Columnas.entre(imc, min, max); }
+
+    /**
+     * @param valor dirección exacta
+     * @return filas con esa dirección (comparando códigos del diccionario)
+     */
+    public Seleccion direccionIgual(String valor) { return Columnas.igual(direccion, direcciones.codigo(valor)); }
+
+    // --- Agregados ---
+
+    /**
+     * @param sel filas a considerar
+     * @return conteo por tipo de sangre, indexado por {@link TipoSangre#ordinal()}
+     */
+    public int[] distribucionTipoSangre(Seleccion sel) {
+        Columnas.comprobar(sel, filas);
+        return Columnas.contarPorCodigo(tipoSangre, TipoSangre.values().length, sel);
+    }
+
+    /**
+     * @param ancho ancho de cada franja de edad en años (por ejemplo 10)
+     * @param sel filas a considerar
+     * @return conteo por franja: la posición k cuenta las edades [k*ancho, (k+1)*ancho)
+     */
+    public int[] histogramaEdad(int ancho, Seleccion sel) {
+        if (ancho <= 0) throw new IllegalArgumentException("El ancho de la franja debe ser positivo.");
+        Columnas.comprobar(sel, filas);
+        int[] conteo = new int[Byte.MAX_VALUE / ancho + 1];
+        for (int i : sel.posiciones()) {
+            if (edad[i] >= 0) conteo[edad[i] / ancho]++;
+        }
+        return conteo;
+    }
+
+    /** @return IMC promedio de las filas seleccionadas (NaN si ninguna tiene IMC) */
+    public double promedioImc(Seleccion sel) {
+        Columnas.comprobar(sel, filas);
+        return Columnas.promedio(imc, sel);
+    }
+
+    /** @return peso promedio de las filas seleccionadas */
+    public double promedioPeso(Seleccion sel) {
+        Columnas.comprobar(sel, filas);
+        return Columnas.promedio(peso, sel);
+    }
+
+    /** @return edad promedio de las filas seleccionadas */
+    public double promedioEdad(Seleccion sel) {
+        Columnas.comprobar(sel, filas);
+        return Columnas.promedio(edad, sel);
+    }
+}
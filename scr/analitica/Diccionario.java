@@ -0,0 +1,58 @@
+package analitica;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codificación por diccionario de una columna de texto: cada valor distinto recibe
+ * un código entero (en orden de aparición) y la columna guarda solo los códigos.
+ * Filtrar por valor se reduce a comparar enteros.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class Diccionario {
+
+    /** Código de los valores null. */
+    public static final int SIN_VALOR = -1;
+
+    private final Map<String, Integer> codigos = new HashMap<>();
+    private final List<String> valores = new ArrayList<>();
+
+    /**
+     * Obtiene el código de un valor, asignándole uno nuevo si no existía.
+     * @param valor texto
+     * @return código (o {@link #SIN_VALOR} si es null)
+     */
+    int codificar(String valor) {
+        if (valor == null) return SIN_VALOR;
+        Integer c = codigos.get(valor);
+        if (c != null) return c;
+        int nuevo = valores.size();
+        codigos.put(valor, nuevo);
+        valores.add(valor);
+        return nuevo;
+    }
+
+    /**
+     * @param valor texto
+     * @return su código, o {@link #SIN_VALOR} si no aparece en la columna
+     */
+    public int codigo(String valor) {
+        Integer c = valor == null ? null : codigos.get(valor);
+        return c != null ? c : SIN_VALOR;
+    }
+
+    /**
+     * @param codigo código de la columna
+     * @return el texto (null para {@link #SIN_VALOR})
+     */
+    public String valor(int codigo) {
+        return codigo == SIN_VALOR ? null : valores.get(codigo);
+    }
+
+    /** @return número de valores distintos */
+    public int tamaño() { return valores.size(); }
+}
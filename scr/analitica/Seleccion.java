@@ -0,0 +1,133 @@
+package analitica;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de filas de un almacén columnar, guardado como mapa de bits
+ * (bit {@code i} del long {@code i / 64}). Los filtros de las columnas producen
+ * selecciones que se combinan con {@link #y}, {@link #o} y {@link #no} palabra a
+ * palabra, sin recorrer los objetos del modelo.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class Seleccion {
+
+    private final long[] bits;
+    private final int filas;
+
+    Seleccion(int filas) {
+        this.filas = filas;
+        this.bits = new long[(filas + 63) >>> 6];
+    }
+
+    /**
+     * @param filas número de filas del almacén
+     * @return selección con todas las filas
+     */
+    public static Seleccion todas(int filas) {
+        Seleccion s = new Seleccion(filas);
+        Arrays.fill(s.bits, -1L);
+        s.limpiarSobrante();
+        return s;
+    }
+
+    /**
+     * @param filas número de filas del almacén
+     * @return selección vacía
+     */
+    public static Seleccion ninguna(int filas) {
+        return new Seleccion(filas);
+    }
+
+    // Marca la fila i si la condición se cumple, sin saltos
+    void marcar(int i, boolean condicion) {
+        bits[i >>> 6] |= (condicion ? 1L : 0L) << i;
+    }
+
+    /** @return número de filas del almacén al que pertenece */
+    public int getFilas() { return filas; }
+
+    /**
+     * @param fila posición
+     * @return true si la fila está seleccionada
+     */
+    public boolean contiene(int fila) {
+        return (bits[fila >>> 6] & (1L << fila)) != 0;
+    }
+
+    /** @return número de filas seleccionadas */
+    public int contar() {
+        int total = 0;
+        for (long palabra : bits) total += Long.bitCount(palabra);
+        return total;
+    }
+
+    /**
+     * @param otra selección sobre el mismo almacén
+     * @return intersección (nueva selección)
+     */
+    public Seleccion y(Seleccion otra) {
+        comprobar(otra);
+        Seleccion r = new Seleccion(filas);
+        for (int i = 0; i < bits.length; i++) r.bits[i] = bits[i] & otra.bits[i];
+        return r;
+    }
+
+    /**
+     * @param otra selección sobre el mismo almacén
+     * @return unión (nueva selección)
+     */
+    public Seleccion o(Seleccion otra) {
+        comprobar(otra);
+        Seleccion r = new Seleccion(filas);
+        for (int i = 0; i < bits.length; i++) r.bits[i] = bits[i] | otra.bits[i];
+        return r;
+    }
+
+    /** @return copia independiente de esta selección */
+    public Seleccion copia() {
+        Seleccion r = new Seleccion(filas);
+        System.arraycopy(bits, 0, r.bits, 0, bits.length);
+        return r;
+    }
+
+    /** @return complemento (nueva selección) */
+    public Seleccion no() {
+        Seleccion r = new Seleccion(filas);
+        for (int i = 0; i < bits.length; i++) r.bits[i] = ~bits[i];
+        r.limpiarSobrante();
+        return r;
+    }
+
+    /** @return posiciones seleccionadas en orden creciente */
+    public int[] posiciones() {
+        int[] resultado = new int[contar()];
+        int k = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long palabra = bits[w];
+            while (palabra != 0) {
+                resultado[k++] = (w << 6) + Long.numberOfTrailingZeros(palabra);
+                palabra &= palabra - 1;
+            }
+        }
+        return resultado;
+    }
+
+    // Palabra w del mapa de bits, para los agregados de las columnas
+    long palabra(int w) { return bits[w]; }
+
+    int palabras() { return bits.length; }
+
+    private void limpiarSobrante() {
+        int resto = filas & 63;
+        if (resto != 0) bits[bits.length - 1] &= (1L << resto) - 1;
+    }
+
+    private void comprobar(Seleccion otra) {
+        if (otra.filas != filas) throw new IllegalArgumentException("Las selecciones son de almacenes distintos.");
+    }
+
+    @Override
+    public String toString() { return contar() + "/" + filas + " filas"; }
+}
@@ -0,0 +1,51 @@
+package analitica.test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import analitica.ColumnasDonantes;
+import analitica.Seleccion;
+import model.Donante;
+import model.Organo;
+import model.TipoDonacion;
+import model.TipoSangre;
+
+/**
+ * Clase de pruebas unitarias para ColumnasDonantes.
+ * Verifica elegibilidad, órganos y la columna codificada por diccionario.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class ColumnasDonantesTest {
+
+    /**
+     * Verifica filtros y conteos sobre donantes de órganos y de sangre.
+     */
+    @Test
+    public void testFiltrosYConteos() throws Exception {
+        List<Donante> donantes = new ArrayList<>();
+        donantes.add(new Donante("A", (byte) 30, "D1", "O+", "C", "1", "Órganos", "Bueno", true, "Riñón"));
+        donantes.add(new Donante("B", (byte) 40, "D2", "A-", "C", "1", "Órganos", "Regular", false, "Riñón"));
+        donantes.add(new Donante("C", (byte) 50, "D3", "AB+", "C", "1", "Sangre", "Bueno", true, ""));
+        donantes.add(new Donante("D", (byte) 25, "D4", "O+", "C", "1", "Órganos", "Bueno", true, "Hígado"));
+        ColumnasDonantes columnas = ColumnasDonantes.desde(donantes);
+
+        Seleccion elegibles = columnas.elegibles();
+        assertEquals(3, elegibles.contar());
+        assertEquals(1, elegibles.y(columnas.organo(Organo.RINON)).contar());
+        assertEquals(1, columnas.tipoDonacion(TipoDonacion.SANGRE).contar());
+        assertNull(columnas.getOrgano(2), "Sin órgano no hay código");
+
+        int[] porOrgano = columnas.distribucionOrgano(columnas.todas());
+        assertEquals(2, porOrgano[Organo.RINON.ordinal()]);
+        assertEquals(1, porOrgano[Organo.HIGADO.ordinal()]);
+        assertEquals(2, columnas.distribucionTipoSangre(elegibles)[TipoSangre.O_POS.ordinal()]);
+
+        assertEquals(2, columnas.getEstadosSalud().tamaño(), "Dos valores distintos de estado de salud");
+        assertEquals(3, columnas.estadoSaludIgual("Bueno").contar());
+        assertEquals(35.0, columnas.promedioEdad(elegibles), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> columnas.promedioEdad(Seleccion.todas(7)));
+    }
+}
@@ -0,0 +1,87 @@
+package analitica.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import analitica.ColumnasPacientes;
+import analitica.Seleccion;
+import excepciones.InvalidDataException;
+import model.Paciente;
+import model.TipoSangre;
+
+/**
+ * Clase de pruebas unitarias para ColumnasPacientes y Seleccion.
+ * Compara los filtros y agregados columnares con el recorrido de la lista.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class ColumnasPacientesTest {
+
+    private List<Paciente> pacientes;
+    private ColumnasPacientes columnas;
+
+    /**
+     * Crea 200 pacientes con edades, tipos y medidas variadas.
+     */
+    @BeforeEach
+    public void setUp() throws InvalidDataException {
+        String[] tipos = {"O-", "O+", "A-", "A+", "B-", "B+", "AB-", "AB+", "a"};
+        pacientes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            pacientes.add(new Paciente("Paciente " + i, (byte) (i % 90), "P" + i, tipos[i % tipos.length],
+                    i % 3 == 0 ? "Bogotá" : "Cali", "300", 50 + i % 40, i % 50 == 0 ? 0 : 1.5 + (i % 5) / 10.0,
+                    new ArrayList<>(), new ArrayList<>()));
+        }
+        columnas = ColumnasPacientes.desde(pacientes);
+    }
+
+    /**
+     * Verifica los filtros combinados contra un recorrido de la lista.
+     */
+    @Test
+    public void testFiltrosCombinados() {
+        int mascara = TipoSangre.O_NEG.bit() | TipoSangre.A_POS.bit();
+        Seleccion sel = columnas.edadEntre(18, 60).y(columnas.tipoSangreEn(mascara));
+        long esperado = pacientes.stream()
+                .filter(p -> p.getAge() >= 18 && p.getAge() <= 60)
+                .filter(p -> p.getTipoSangre() == TipoSangre.O_NEG || p.getTipoSangre() == TipoSangre.A_POS)
+                .count();
+        assertEquals(esperado, sel.contar());
+        for (int i : sel.posiciones()) assertTrue(columnas.getEdad(i) >= 18 && columnas.getEdad(i) <= 60);
+
+        assertEquals(200, sel.o(sel.no()).contar(), "La unión con el complemento son todas las filas");
+        assertEquals(pacientes.stream().filter(p -> p.getAddress().equals("Bogotá")).count(),
+                columnas.direccionIgual("Bogotá").contar());
+        assertEquals(0, columnas.direccionIgual("Medellín").contar());
+    }
+
+    /**
+     * Verifica distribución por tipo de sangre, histograma de edad y promedios.
+     */
+    @Test
+    public void testAgregados() {
+        Seleccion todas = columnas.todas();
+        int[] distribucion = columnas.distribucionTipoSangre(todas);
+        int total = 0;
+        for (int c : distribucion) total += c;
+        assertEquals(200, total, "Los tipos no reconocidos se leen por prefijo (\"a\" es A+)");
+
+        int[] franjas = columnas.histogramaEdad(10, todas);
+        assertEquals(pacientes.stream().filter(p -> p.getAge() < 10).count(), franjas[0]);
+
+        double suma = 0;
+        int n = 0;
+        for (Paciente p : pacientes) {
+            if (p.getHeight() > 0) {
+                suma += p.getWeight() / (p.getHeight() * p.getHeight());
+                n++;
+            }
+        }
+        assertEquals(suma / n, columnas.promedioImc(todas), 1e-9, "El IMC indefinido no cuenta en el promedio");
+        assertEquals(0, columnas.imcEntre(0, 1000).y(columnas.imcEntre(0, 1000).no()).contar());
+        assertTrue(Double.isNaN(columnas.promedioEdad(Seleccion.ninguna(200))));
+    }
+}
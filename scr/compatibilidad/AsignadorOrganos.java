@@ -0,0 +1,283 @@
+package compatibilidad;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import model.Donante;
+import model.Paciente;
+import model.TipoSangre;
+import util.Textos;
+
+/**
+ * Asignación óptima de un lote de órganos donados a la lista de espera.
+ * Maximiza primero el número de trasplantes compatibles (regla ABO de
+ * {@link TipoSangre}); entre las asignaciones máximas prefiere la mayor prioridad
+ * de los pacientes y, a igual prioridad, el mismo tipo de sangre.
+ *
+ * <p>Se resuelve como flujo de costo mínimo (caminos más cortos sucesivos con
+ * Dijkstra y potenciales) sobre un grafo comprimido: los donantes y los pacientes
+ * intercambiables (mismo órgano y tipo de sangre) se agrupan en un solo nodo, y
+ * dentro de cada grupo de pacientes se atiende primero a los de mayor prioridad
+ * (costo marginal convexo). Así el grafo tiene decenas de nodos aunque haya miles
+ * de donantes y decenas de miles de pacientes.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class AsignadorOrganos {
+
+    /** Fase de agrupación de donantes y pacientes. */
+    public static final String FASE_GRAFO = "grafo";
+    /** Fase de cálculo del flujo de costo mínimo. */
+    public static final String FASE_FLUJO = "flujo";
+    /** Fase de reparto de los pares concretos. */
+    public static final String FASE_ASIGNACION = "asignación";
+
+    private static final long INF = Long.MAX_VALUE / 4;
+    // La prioridad domina al ajuste de tipo de sangre (0, 1 o 2)
+    private static final int PESO_PRIORIDAD = 3;
+
+    private final ToIntFunction<Paciente> prioridad;
+    private final Function<Paciente, String> organoRequerido;
+
+    /**
+     * Asignador sin prioridades: todos los pacientes pesan igual y cualquier órgano
+     * sirve a cualquier paciente.
+     */
+    public AsignadorOrganos() {
+        this(p -> 0, null);
+    }
+
+    /**
+     * @param prioridad peso de cada paciente (mayor es más urgente; los negativos cuentan como 0)
+     * @param organoRequerido órgano que necesita cada paciente, o null si no se distingue
+     */
+    public AsignadorOrganos(ToIntFunction<Paciente> prioridad, Function<Paciente, String> organoRequerido) {
+        this.prioridad = prioridad;
+        this.organoRequerido = organoRequerido;
+    }
+
+    /**
+     * Calcula la asignación. Solo se consideran los donantes elegibles con órgano
+     * ({@link MotorCompatibilidad#esDonanteElegible}); cada paciente recibe a lo sumo un órgano.
+     * @param donantes órganos disponibles
+     * @param pacientes lista de espera
+     * @return pares asignados y tiempos por fase
+     */
+    public ResultadoAsignacion asignar(List<Donante> donantes, List<Paciente> pacientes) {
+        ResultadoAsignacion resultado = new ResultadoAsignacion();
+        long t0 = System.nanoTime();
+
+        // --- Grupos de donantes (órgano, tipo) y de pacientes (órgano requerido, tipo)
+        Map<String, Integer> idxDonantes = new HashMap<>();
+        List<List<Donante>> gruposDonantes = new ArrayList<>();
+        List<String> organoDonantes = new ArrayList<>();
+        List<TipoSangre> tipoDonantes = new ArrayList<>();
+        for (Donante d : donantes) {
+            if (!MotorCompatibilidad.esDonanteElegible(d)) continue;
+            TipoSangre tipo = d.getTipoSangre();
+            if (tipo == null) continue;
+            String organo = MotorCompatibilidad.claveOrgano(d);
+            Integer i = idxDonantes.get(organo + ";" + tipo);
+            if (i == null) {
+                i = gruposDonantes.size();
+                idxDonantes.put(organo + ";" + tipo, i);
+                gruposDonantes.add(new ArrayList<>());
+                organoDonantes.add(organo);
+                tipoDonantes.add(tipo);
+            }
+            gruposDonantes.get(i).add(d);
+        }
+
+        Map<String, String> organosNormalizados = new HashMap<>(); // pocos valores distintos
+        Map<String, Integer> idxPacientes = new HashMap<>();
+        List<List<Paciente>> gruposPacientes = new ArrayList<>();
+        List<String> organoPacientes = new ArrayList<>(); // null: acepta cualquier órgano
+        List<TipoSangre> tipoPacientes = new ArrayList<>();
+        for (Paciente p : pacientes) {
+            TipoSangre tipo = p.getTipoSangre();
+            if (tipo == null) continue;
+            String organo = organoRequerido != null
+                    ? organosNormalizados.computeIfAbsent(String.valueOf(organoRequerido.apply(p)), Textos::normalizar)
+                    : null;
+            Integer i = idxPacientes.get(organo + ";" + tipo);
+            if (i == null) {
+                i = gruposPacientes.size();
+                idxPacientes.put(organo + ";" + tipo, i);
+                gruposPacientes.add(new ArrayList<>());
+                organoPacientes.add(organo);
+                tipoPacientes.add(tipo);
+            }
+            gruposPacientes.get(i).add(p);
+        }
+
+        // Dentro de cada grupo, mayor prioridad primero (orden estable: a igual prioridad, orden de llegada)
+        int nd = gruposDonantes.size();
+        int np = gruposPacientes.size();
+        int[][] prioridades = new int[np][];
+        List<List<Paciente>> ordenados = new ArrayList<>(np);
+        int maxPrioridad = 0;
+        for (int g = 0; g < np; g++) {
+            List<Paciente> grupo = gruposPacientes.get(g);
+            // Clave (prioridad descendente, posición) en un long para ordenar sin comparadores
+            long[] claves = new long[grupo.size()];
+            for (int k = 0; k < claves.length; k++) {
+                claves[k] = ((long) (Integer.MAX_VALUE - prioridadDe(grupo.get(k))) << 32) | k;
+            }
+            Arrays.sort(claves);
+            List<Paciente> orden = new ArrayList<>(claves.length);
+            prioridades[g] = new int[claves.length];
+            for (int k = 0; k < claves.length; k++) {
+                orden.add(grupo.get((int) claves[k]));
+                prioridades[g][k] = Integer.MAX_VALUE - (int) (claves[k] >>> 32);
+                maxPrioridad = Math.max(maxPrioridad, prioridades[g][k]);
+            }
+            ordenados.add(orden);
+        }
+
+        // --- Red: 0 = fuente, 1..nd = donantes, nd+1..nd+np = pacientes, último = sumidero
+        int n = nd + np + 2;
+        int fuente = 0;
+        int sumidero = n - 1;
+        long[][] capacidad = new long[n][n];
+        long[][] costo = new long[n][n];
+        long[][] flujo = new long[n][n];
+        for (int d = 0; d < nd; d++) {
+            capacidad[fuente][1 + d] = gruposDonantes.get(d).size();
+            for (int g = 0; g < np; g++) {
+                String organo = organoPacientes.get(g);
+                if (organo != null && !organo.equals(organoDonantes.get(d))) continue;
+                TipoSangre td = tipoDonantes.get(d);
+                TipoSangre tp = tipoPacientes.get(g);
+                if (!td.puedeDonarA(tp)) continue;
+                capacidad[1 + d][1 + nd + g] = gruposDonantes.get(d).size();
+                costo[1 + d][1 + nd + g] = td == tp ? 0 : (td.grupo() == tp.grupo() ? 1 : 2);
+            }
+        }
+        int[] usados = new int[np];
+        // Límites del tramo de prioridad igual que contiene cada posición
+        int[][] inicioTramo = new int[np][];
+        int[][] finTramo = new int[np][];
+        for (int g = 0; g < np; g++) {
+            int[] pr = prioridades[g];
+            inicioTramo[g] = new int[pr.length];
+            finTramo[g] = new int[pr.length];
+            for (int k = 0; k < pr.length; k++) {
+                inicioTramo[g][k] = k > 0 && pr[k] == pr[k - 1] ? inicioTramo[g][k - 1] : k;
+            }
+            for (int k = pr.length - 1; k >= 0; k--) {
+                finTramo[g][k] = k + 1 < pr.length && pr[k] == pr[k + 1] ? finTramo[g][k + 1] : k + 1;
+            }
+        }
+        long t1 = System.nanoTime();
+        resultado.registrarFase(FASE_GRAFO, t1 - t0);
+
+        // --- Caminos más cortos sucesivos (Dijkstra denso con potenciales)
+        long[] potencial = new long[n];
+        long[] dist = new long[n];
+        int[] previo = new int[n];
+        boolean[] visitado = new boolean[n];
+        while (true) {
+            Arrays.fill(dist, INF);
+            Arrays.fill(visitado, false);
+            dist[fuente] = 0;
+            for (int it = 0; it < n; it++) {
+                int u = -1;
+                for (int v = 0; v < n; v++) {
+                    if (!visitado[v] && dist[v] < INF && (u < 0 || dist[v] < dist[u])) u = v;
+                }
+                if (u < 0) break;
+                visitado[u] = true;
+                for (int v = 0; v < n; v++) {
+                    if (visitado[v]) continue;
+                    long c = costoResidual(u, v, nd, sumidero, capacidad, costo, flujo, usados, prioridades, maxPrioridad);
+                    if (c >= INF) continue;
+                    long alt = dist[u] + c + potencial[u] - potencial[v];
+                    if (alt < dist[v]) {
+                        dist[v] = alt;
+                        previo[v] = u;
+                    }
+                }
+            }
+            if (dist[sumidero] >= INF) break;
+            // Los nodos no alcanzados avanzan como el sumidero para que los costos reducidos sigan >= 0
+            for (int v = 0; v < n; v++) {
+                potencial[v] += Math.min(dist[v], dist[sumidero]);
+            }
+            // Se aumenta lo que permita el camino mientras el costo marginal de los grupos
+            // de pacientes no cambie (pacientes consecutivos con la misma prioridad)
+            long delta = INF;
+            for (int v = sumidero; v != fuente; v = previo[v]) {
+                int u = previo[v];
+                if (v == sumidero) {
+                    int g = u - 1 - nd;
+                    delta = Math.min(delta, finTramo[g][usados[g]] - usados[g]);
+                } else if (u == sumidero) {
+                    int g = v - 1 - nd;
+                    delta = Math.min(delta, usados[g] - inicioTramo[g][usados[g] - 1]);
+                } else if (flujo[u][v] < capacidad[u][v]) {
+                    delta = Math.min(delta, capacidad[u][v] - flujo[u][v]);
+                } else {
+                    delta = Math.min(delta, flujo[v][u]);
+                }
+            }
+            for (int v = sumidero; v != fuente; v = previo[v]) {
+                int u = previo[v];
+                if (v == sumidero) {
+                    usados[u - 1 - nd] += (int) delta;
+                } else if (u == sumidero) {
+                    usados[v - 1 - nd] -= (int) delta;
+                } else if (flujo[u][v] < capacidad[u][v]) {
+                    flujo[u][v] += delta;
+                } else {
+                    flujo[v][u] -= delta;
+                }
+            }
+        }
+        long t2 = System.nanoTime();
+        resultado.registrarFase(FASE_FLUJO, t2 - t1);
+
+        // --- Reparto: cada grupo de pacientes recibe de sus grupos de donantes en orden
+        int[] siguienteDonante = new int[nd];
+        int[] siguientePaciente = new int[np];
+        for (int d = 0; d < nd; d++) {
+            for (int g = 0; g < np; g++) {
+                for (long k = flujo[1 + d][1 + nd + g]; k > 0; k--) {
+                    Donante don = gruposDonantes.get(d).get(siguienteDonante[d]++);
+                    int pos = siguientePaciente[g]++;
+                    resultado.agregar(don, ordenados.get(g).get(pos), prioridades[g][pos],
+                            tipoDonantes.get(d) == tipoPacientes.get(g));
+                }
+            }
+        }
+        resultado.registrarFase(FASE_ASIGNACION, System.nanoTime() - t2);
+        return resultado;
+    }
+
+    private int prioridadDe(Paciente p) {
+        return Math.max(0, prioridad.applyAsInt(p));
+    }
+
+    // Costo del arco residual u -> v, o INF si no existe
+    private static long costoResidual(int u, int v, int nd, int sumidero, long[][] capacidad, long[][] costo,
+                                      long[][] flujo, int[] usados, int[][] prioridades, int maxPrioridad) {
+        if (v == sumidero && u > nd) {
+            int g = u - 1 - nd;
+            if (usados[g] >= prioridades[g].length) return INF;
+            return (long) PESO_PRIORIDAD * (maxPrioridad - prioridades[g][usados[g]]);
+        }
+        if (u == sumidero && v > nd && v < sumidero) {
+            int g = v - 1 - nd;
+            if (usados[g] == 0) return INF;
+            return -(long) PESO_PRIORIDAD * (maxPrioridad - prioridades[g][usados[g] - 1]);
+        }
+        if (u == sumidero || v == sumidero) return INF;
+        if (flujo[u][v] < capacidad[u][v]) return costo[u][v];
+        if (flujo[v][u] > 0) return -costo[v][u];
+        return INF;
+    }
+}
@@ -0,0 +1,203 @@
+package compatibilidad;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import model.Donante;
+import model.Paciente;
+import model.TipoSangre;
+
+/**
+ * Matriz de compatibilidad donantes x pacientes calculada en bloque.
+ * Cada fila es un bitset de pacientes ({@code long[]}); se construye combinando con OR
+ * los bitsets precalculados de cada tipo de sangre incluido en la máscara del donante,
+ * por bloques de filas en paralelo. No se crean objetos Trasplante ni excepciones.
+ *
+ * <p>Las filas de donantes no elegibles (ver {@link MotorCompatibilidad#esDonanteElegible})
+ * o con tipo de sangre no reconocido quedan vacías.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class MatrizCompatibilidad {
+
+    /** Receptor de pares (donante, paciente) por índice, sin crear objetos por par. */
+    @FunctionalInterface
+    public interface ConsumidorPar {
+        void aceptar(int donante, int paciente);
+    }
+
+    private static final int FILAS_POR_BLOQUE = 256;
+
+    private final List<Donante> donantes;
+    private final List<Paciente> pacientes;
+    private final int palabras; // longs por fila
+    private final long[] bits;  // filas consecutivas
+    private final int[] porDonante;
+    private final int[] porPaciente;
+    private final long total;
+
+    private MatrizCompatibilidad(List<Donante> donantes, List<Paciente> pacientes) {
+        this.donantes = donantes;
+        this.pacientes = pacientes;
+        this.palabras = (pacientes.size() + 63) >>> 6;
+        this.bits = new long[Math.multiplyExact(donantes.size(), palabras)];
+        this.porDonante = new int[donantes.size()];
+        this.porPaciente = new int[pacientes.size()];
+
+        int tipos = TipoSangre.values().length;
+        long[][] bitsPorTipo = new long[tipos][palabras];
+        byte[] tipoPaciente = new byte[pacientes.size()];
+        for (int p = 0; p < pacientes.size(); p++) {
+            TipoSangre t = pacientes.get(p).getTipoSangre();
+            tipoPaciente[p] = (byte) (t == null ? -1 : t.ordinal());
+            if (t != null) bitsPorTipo[t.ordinal()][p >>> 6] |= 1L << p;
+        }
+
+        int[] mascaraDonante = new int[donantes.size()];
+        int[] donantesPorTipo = new int[tipos];
+        for (int d = 0; d < donantes.size(); d++) {
+            Donante don = donantes.get(d);
+            TipoSangre t = MotorCompatibilidad.esDonanteElegible(don) ? don.getTipoSangre() : null;
+            if (t == null) continue;
+            mascaraDonante[d] = t.mascaraReceptores();
+            donantesPorTipo[t.ordinal()]++;
+        }
+
+        int bloques = (donantes.size() + FILAS_POR_BLOQUE - 1) / FILAS_POR_BLOQUE;
+        IntStream.range(0, bloques).parallel().forEach(b -> {
+            int hasta = Math.min(donantes.size(), (b + 1) * FILAS_POR_BLOQUE);
+            for (int d = b * FILAS_POR_BLOQUE; d < hasta; d++) {
+                int base = d * palabras;
+                int cuenta = 0;
+                for (int m = mascaraDonante[d]; m != 0; m &= m - 1) {
+                    long[] fuente = bitsPorTipo[Integer.numberOfTrailingZeros(m)];
+                    for (int w = 0; w < palabras; w++) bits[base + w] |= fuente[w];
+                }
+                for (int w = 0; w < palabras; w++) cuenta += Long.bitCount(bits[base + w]);
+                porDonante[d] = cuenta;
+            }
+        });
+
+        // Por paciente basta sumar los donantes de los tipos que le pueden donar
+        long suma = 0;
+        for (int p = 0; p < pacientes.size(); p++) {
+            if (tipoPaciente[p] < 0) continue;
+            int n = 0;
+            for (int m = TipoSangre.deBit(tipoPaciente[p]).mascaraDonantes(); m != 0; m &= m - 1) {
+                n += donantesPorTipo[Integer.numberOfTrailingZeros(m)];
+            }
+            porPaciente[p] = n;
+            suma += n;
+        }
+        this.total = suma;
+    }
+
+    /**
+     * Calcula la matriz completa.
+     * @param donantes filas (en este orden)
+     * @param pacientes columnas (en este orden), normalmente los pacientes en espera
+     * @return la matriz calculada
+     */
+    public static MatrizCompatibilidad calcular(List<Donante> donantes, List<Paciente> pacientes) {
+        return new MatrizCompatibilidad(
+                donantes != null ? new ArrayList<>(donantes) : Collections.emptyList(),
+                pacientes != null ? new ArrayList<>(pacientes) : Collections.emptyList());
+    }
+
+    /** @return número de donantes (filas) */
+    public int getFilas() { return donantes.size(); }
+
+    /** @return número de pacientes (columnas) */
+    public int getColumnas() { return pacientes.size(); }
+
+    /** @return donante de la fila indicada */
+    public Donante getDonante(int fila) { return donantes.get(fila); }
+
+    /** @return paciente de la columna indicada */
+    public Paciente getPaciente(int columna) { return pacientes.get(columna); }
+
+    /**
+     * @param donante fila
+     * @param paciente columna
+     * @return true si el par es compatible
+     */
+    public boolean esCompatible(int donante, int paciente) {
+        return (bits[donante * palabras + (paciente >>> 6)] & (1L << paciente)) != 0;
+    }
+
+    /**
+     * @param donante fila
+     * @return copia del bitset de pacientes compatibles con el donante
+     */
+    public long[] getFila(int donante) {
+        long[] fila = new long[palabras];
+        System.arraycopy(bits, donante * palabras, fila, 0, palabras);
+        return fila;
+    }
+
+    /** @return número total de pares compatibles */
+    public long getTotalPares() { return total; }
+
+    /** @return pacientes compatibles con el donante de la fila indicada */
+    public int contarPorDonante(int donante) { return porDonante[donante]; }
+
+    /** @return donantes compatibles con el paciente de la columna indicada */
+    public int contarPorPaciente(int paciente) { return porPaciente[paciente]; }
+
+    /** @return número de pacientes sin ningún donante compatible */
+    public int contarPacientesSinDonante() {
+        int n = 0;
+        for (int c : porPaciente) if (c == 0) n++;
+        return n;
+    }
+
+    /**
+     * @return pares compatibles agrupados por órgano del donante, en orden de aparición
+     */
+    public Map<String, Long> paresPorOrgano() {
+        Map<String, Long> resultado = new LinkedHashMap<>();
+        for (int d = 0; d < donantes.size(); d++) {
+            if (porDonante[d] == 0) continue;
+            resultado.merge(donantes.get(d).getOrgano().trim(), (long) porDonante[d], Long::sum);
+        }
+        return resultado;
+    }
+
+    /**
+     * Recorre los pares compatibles fila por fila.
+     * @param consumidor receptor de cada par (índices de fila y columna)
+     */
+    public void recorrerPares(ConsumidorPar consumidor) {
+        for (int d = 0; d < donantes.size(); d++) {
+            if (porDonante[d] == 0) continue;
+            int base = d * palabras;
+            for (int w = 0; w < palabras; w++) {
+                for (long word = bits[base + w]; word != 0; word &= word - 1) {
+                    consumidor.aceptar(d, (w << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+    }
+
+    /**
+     * Lista dispersa de pares: posiciones pares con el índice de donante, impares con el de paciente.
+     * @return arreglo de tamaño 2 x {@link #getTotalPares()}
+     * @throws IllegalStateException si hay demasiados pares para un arreglo
+     */
+    public int[] getPares() {
+        if (total > (Integer.MAX_VALUE - 8) / 2) {
+            throw new IllegalStateException("Demasiados pares para una lista: " + total);
+        }
+        int[] pares = new int[(int) total * 2];
+        int[] pos = {0};
+        recorrerPares((d, p) -> {
+            pares[pos[0]++] = d;
+            pares[pos[0]++] = p;
+        });
+        return pares;
+    }
+}
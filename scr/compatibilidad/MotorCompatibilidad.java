@@ -0,0 +1,184 @@
+package compatibilidad;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import model.Donante;
+import model.Organo;
+import model.Paciente;
+import model.TipoSangre;
+import util.Textos;
+
+/**
+ * Motor de compatibilidad donante-receptor.
+ * Los pacientes se agrupan por tipo de sangre y los donantes por órgano y tipo de
+ * sangre al construir el motor; cada consulta solo recorre los grupos cuyo bit está
+ * en la máscara de compatibilidad, sin comparar texto.
+ *
+ * <p>Orden de los resultados: primero el mismo tipo (grupo y Rh), después el mismo
+ * grupo ABO con el otro Rh y por último el resto de grupos compatibles. Dentro de
+ * cada grupo se respeta el orden de carga.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class MotorCompatibilidad {
+
+    private static final int TIPOS = TipoSangre.values().length;
+
+    private final List<List<Paciente>> pacientesPorTipo = grupos();
+    // Órgano normalizado -> donantes elegibles agrupados por tipo de sangre
+    private final Map<String, List<List<Donante>>> donantesPorOrgano = new HashMap<>();
+    private int mascaraPacientes; // tipos con al menos un paciente
+
+    /**
+     * Construye el motor a partir de listas ya cargadas.
+     * Los pacientes o donantes con tipo de sangre no reconocido se ignoran, y de
+     * los donantes solo se indexan los elegibles que tienen órgano.
+     * @param pacientes posibles receptores
+     * @param donantes donantes registrados
+     */
+    public MotorCompatibilidad(List<Paciente> pacientes, List<Donante> donantes) {
+        if (pacientes != null) {
+            for (Paciente p : pacientes) agregarPaciente(p);
+        }
+        if (donantes != null) {
+            for (Donante d : donantes) agregarDonante(d);
+        }
+    }
+
+    /**
+     * Añade un paciente al grupo de su tipo de sangre.
+     * @param p paciente
+     */
+    public void agregarPaciente(Paciente p) {
+        TipoSangre tipo = p != null ? p.getTipoSangre() : null;
+        if (tipo == null) return;
+        pacientesPorTipo.get(tipo.ordinal()).add(p);
+        mascaraPacientes |= tipo.bit();
+    }
+
+    /**
+     * Añade un donante al grupo de su órgano y tipo de sangre si es elegible.
+     * @param d donante
+     */
+    public void agregarDonante(Donante d) {
+        if (!esDonanteElegible(d)) return;
+        TipoSangre tipo = d.getTipoSangre();
+        if (tipo == null) return;
+        donantesPorOrgano.computeIfAbsent(claveOrgano(d), k -> grupos())
+                .get(tipo.ordinal()).add(d);
+    }
+
+    /**
+     * Pacientes compatibles con el órgano de un donante, ordenados por prioridad.
+     * @param donante donante con órgano asignado
+     * @return lista nueva (vacía si el donante no es elegible)
+     */
+    public List<Paciente> pacientesCompatibles(Donante donante) {
+        return pacientesCompatibles(donante, p -> true);
+    }
+
+    /**
+     * Pacientes compatibles que además cumplen un criterio de elegibilidad
+     * (por ejemplo, no tener ya un trasplante activo).
+     * @param donante donante con órgano asignado
+     * @param elegible filtro de pacientes
+     * @return lista nueva ordenada por prioridad
+     */
+    public List<Paciente> pacientesCompatibles(Donante donante, Predicate<Paciente> elegible) {
+        if (!esDonanteElegible(donante)) return Collections.emptyList();
+        TipoSangre tipo = donante.getTipoSangre();
+        if (tipo == null) return Collections.emptyList();
+
+        int mascara = tipo.mascaraReceptores() & mascaraPacientes;
+        List<Paciente> resultado = new ArrayList<>(contar(pacientesPorTipo, mascara));
+        for (int bit : ordenPrioridad(tipo, mascara)) {
+            for (Paciente p : pacientesPorTipo.get(bit)) {
+                if (elegible.test(p)) resultado.add(p);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * @param donante donante con órgano asignado
+     * @return número de pacientes compatibles, sin crear la lista
+     */
+    public int contarPacientesCompatibles(Donante donante) {
+        if (!esDonanteElegible(donante)) return 0;
+        TipoSangre tipo = donante.getTipoSangre();
+        return tipo == null ? 0 : contar(pacientesPorTipo, tipo.mascaraReceptores());
+    }
+
+    /**
+     * Donantes elegibles de un órgano compatibles con un paciente, ordenados por prioridad.
+     * @param paciente receptor
+     * @param organo órgano requerido (sin distinguir tildes ni mayúsculas)
+     * @return lista nueva (vacía si no hay donantes del órgano)
+     */
+    public List<Donante> donantesCompatibles(Paciente paciente, String organo) {
+        TipoSangre tipo = paciente != null ? paciente.getTipoSangre() : null;
+        List<List<Donante>> porTipo = donantesPorOrgano.get(claveOrgano(organo));
+        if (tipo == null || porTipo == null) return Collections.emptyList();
+
+        int mascara = tipo.mascaraDonantes();
+        List<Donante> resultado = new ArrayList<>(contar(porTipo, mascara));
+        for (int bit : ordenPrioridad(tipo, mascara)) resultado.addAll(porTipo.get(bit));
+        return resultado;
+    }
+
+    /**
+     * @param d donante
+     * @return true si el donante está marcado como elegible y tiene órgano
+     */
+    public static boolean esDonanteElegible(Donante d) {
+        if (d == null || !d.isEligibility()) return false;
+        if (d.getOrganoTipo() != null) return true;
+        return d.getOrgano() != null && !d.getOrgano().trim().isEmpty();
+    }
+
+    // Bits de la máscara en orden: mismo tipo, mismo grupo ABO, resto en orden de enum
+    private static int[] ordenPrioridad(TipoSangre tipo, int mascara) {
+        int[] orden = new int[Integer.bitCount(mascara)];
+        int n = 0;
+        int propio = tipo.bit() & mascara;
+        if (propio != 0) orden[n++] = tipo.ordinal();
+        int grupo = tipo.grupo() & mascara & ~propio;
+        if (grupo != 0) orden[n++] = Integer.numberOfTrailingZeros(grupo);
+        int resto = mascara & ~tipo.grupo();
+        while (resto != 0) {
+            orden[n++] = Integer.numberOfTrailingZeros(resto);
+            resto &= resto - 1;
+        }
+        return orden;
+    }
+
+    private static <T> int contar(List<List<T>> porTipo, int mascara) {
+        int total = 0;
+        for (int m = mascara; m != 0; m &= m - 1) {
+            total += porTipo.get(Integer.numberOfTrailingZeros(m)).size();
+        }
+        return total;
+    }
+
+    private static <T> List<List<T>> grupos() {
+        List<List<T>> lista = new ArrayList<>(TIPOS);
+        for (int i = 0; i < TIPOS; i++) lista.add(new ArrayList<>());
+        return lista;
+    }
+
+    // Órganos conocidos: clave precalculada en el enum; el resto se normaliza
+    static String claveOrgano(Donante d) {
+        Organo organo = d.getOrganoTipo();
+        return organo != null ? organo.clave() : Textos.normalizar(d.getOrgano());
+    }
+
+    private static String claveOrgano(String organo) {
+        Organo conocido = Organo.desde(organo);
+        return conocido != null ? conocido.clave() : Textos.normalizar(organo);
+    }
+}
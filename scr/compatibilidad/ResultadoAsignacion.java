@@ -0,0 +1,66 @@
+package compatibilidad;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import model.Donante;
+import model.Paciente;
+
+/**
+ * Resultado de {@link AsignadorOrganos}: pares donante-paciente asignados, la
+ * prioridad total cubierta y el tiempo empleado en cada fase.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class ResultadoAsignacion {
+
+    private final List<Donante> donantes = new ArrayList<>();
+    private final List<Paciente> pacientes = new ArrayList<>();
+    private final Map<String, Long> tiempos = new LinkedHashMap<>();
+    private long prioridadTotal;
+    private int mismoTipo;
+
+    void agregar(Donante d, Paciente p, int prioridad, boolean mismoTipoSangre) {
+        donantes.add(d);
+        pacientes.add(p);
+        prioridadTotal += prioridad;
+        if (mismoTipoSangre) mismoTipo++;
+    }
+
+    void registrarFase(String fase, long nanos) {
+        tiempos.put(fase, nanos);
+    }
+
+    /** @return número de órganos asignados */
+    public int getAsignados() { return donantes.size(); }
+
+    /** @return donante del par i */
+    public Donante getDonante(int i) { return donantes.get(i); }
+
+    /** @return paciente del par i */
+    public Paciente getPaciente(int i) { return pacientes.get(i); }
+
+    /** @return suma de prioridades de los pacientes asignados */
+    public long getPrioridadTotal() { return prioridadTotal; }
+
+    /** @return pares en los que donante y paciente tienen exactamente el mismo tipo */
+    public int getMismoTipo() { return mismoTipo; }
+
+    /** @return tiempo en nanosegundos por fase, en orden de ejecución */
+    public Map<String, Long> getTiemposNanos() { return Collections.unmodifiableMap(tiempos); }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Asignados: ").append(getAsignados())
+          .append(" | Mismo tipo: ").append(mismoTipo)
+          .append(" | Prioridad total: ").append(prioridadTotal);
+        for (Map.Entry<String, Long> e : tiempos.entrySet()) {
+            sb.append(String.format(" | %s: %.2f ms", e.getKey(), e.getValue() / 1_000_000.0));
+        }
+        return sb.toString();
+    }
+}
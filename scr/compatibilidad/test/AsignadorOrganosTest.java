@@ -0,0 +1,143 @@
+package compatibilidad.test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import compatibilidad.AsignadorOrganos;
+import compatibilidad.ResultadoAsignacion;
+import model.Donante;
+import model.Paciente;
+import model.TipoSangre;
+import excepciones.DonanteMenorEdadException;
+import excepciones.InvalidDataException;
+
+/**
+ * Clase de pruebas unitarias para AsignadorOrganos.
+ * Compara el número de asignaciones con un emparejamiento máximo por fuerza bruta.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class AsignadorOrganosTest {
+
+    private static final String[] TIPOS = {"O-", "O+", "A-", "A+", "B-", "B+", "AB-", "AB+"};
+
+    /**
+     * Verifica que el número de asignaciones sea máximo y que todos los pares sean válidos.
+     */
+    @Test
+    public void testAsignacionMaxima() throws Exception {
+        Random r = new Random(7);
+        for (int caso = 0; caso < 20; caso++) {
+            List<Donante> donantes = new ArrayList<>();
+            for (int i = 0; i < 1 + r.nextInt(12); i++) donantes.add(donante("D" + i, TIPOS[r.nextInt(8)], "Riñón"));
+            List<Paciente> pacientes = new ArrayList<>();
+            for (int i = 0; i < 1 + r.nextInt(12); i++) pacientes.add(paciente("P" + i, TIPOS[r.nextInt(8)]));
+
+            ResultadoAsignacion res = new AsignadorOrganos().asignar(donantes, pacientes);
+            validar(res);
+            assertEquals(emparejamientoMaximo(donantes, pacientes), res.getAsignados(), "Caso " + caso);
+        }
+    }
+
+    /**
+     * Verifica que, con menos órganos que pacientes, se atienda primero a los de mayor prioridad.
+     */
+    @Test
+    public void testPrioridad() throws Exception {
+        List<Donante> donantes = new ArrayList<>();
+        donantes.add(donante("D1", "O-", "Riñón"));
+        donantes.add(donante("D2", "A+", "Riñón"));
+        List<Paciente> pacientes = new ArrayList<>();
+        pacientes.add(paciente("P1", "A+"));
+        pacientes.add(paciente("P2", "B+"));
+        pacientes.add(paciente("P3", "A+"));
+
+        // P3 es el más urgente; P1 no tiene prioridad
+        AsignadorOrganos asignador = new AsignadorOrganos(p -> p.getId().equals("P3") ? 10 : p.getId().equals("P2") ? 5 : 0, null);
+        ResultadoAsignacion res = asignador.asignar(donantes, pacientes);
+        Set<String> asignados = new HashSet<>();
+        for (int i = 0; i < res.getAsignados(); i++) asignados.add(res.getPaciente(i).getId());
+        assertEquals(Set.of("P2", "P3"), asignados, "Con dos órganos deben recibirlos P3 y P2");
+        assertEquals(15, res.getPrioridadTotal());
+        assertEquals(1, res.getMismoTipo(), "A+ debe ir al paciente A+ y O- al B+");
+    }
+
+    /**
+     * Verifica que se respete el órgano requerido y que se reporten las fases.
+     */
+    @Test
+    public void testOrganoRequeridoYFases() throws Exception {
+        List<Donante> donantes = new ArrayList<>();
+        donantes.add(donante("D1", "O+", "Hígado"));
+        List<Paciente> pacientes = new ArrayList<>();
+        pacientes.add(paciente("P1", "O+"));
+        AsignadorOrganos asignador = new AsignadorOrganos(p -> 0, p -> "Riñón");
+        ResultadoAsignacion res = asignador.asignar(donantes, pacientes);
+        assertEquals(0, res.getAsignados(), "Un hígado no debe asignarse a quien necesita riñón");
+        assertEquals(List.of(AsignadorOrganos.FASE_GRAFO, AsignadorOrganos.FASE_FLUJO, AsignadorOrganos.FASE_ASIGNACION),
+                new ArrayList<>(res.getTiemposNanos().keySet()));
+    }
+
+    /**
+     * Verifica que un lote grande (2.000 donantes, 20.000 pacientes) se resuelva y sea válido.
+     */
+    @Test
+    public void testLoteGrande() throws Exception {
+        Random r = new Random(3);
+        List<Donante> donantes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) donantes.add(donante("D" + i, TIPOS[r.nextInt(8)], i % 2 == 0 ? "Riñón" : "Hígado"));
+        List<Paciente> pacientes = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) pacientes.add(paciente("P" + i, TIPOS[r.nextInt(8)]));
+
+        ResultadoAsignacion res = new AsignadorOrganos(p -> p.getAge(), null).asignar(donantes, pacientes);
+        validar(res);
+        assertEquals(2000, res.getAsignados(), "Sobran pacientes de todos los tipos: todo órgano debe asignarse");
+    }
+
+    private static void validar(ResultadoAsignacion res) {
+        Set<String> donantes = new HashSet<>();
+        Set<String> pacientes = new HashSet<>();
+        for (int i = 0; i < res.getAsignados(); i++) {
+            assertTrue(donantes.add(res.getDonante(i).getId()), "Un donante no puede repetirse");
+            assertTrue(pacientes.add(res.getPaciente(i).getId()), "Un paciente no puede repetirse");
+            assertTrue(TipoSangre.compatibles(res.getDonante(i).getBloodType(), res.getPaciente(i).getBloodType()));
+        }
+    }
+
+    // Emparejamiento bipartito máximo por caminos aumentantes (Kuhn)
+    private static int emparejamientoMaximo(List<Donante> donantes, List<Paciente> pacientes) {
+        int[] pareja = new int[pacientes.size()];
+        java.util.Arrays.fill(pareja, -1);
+        int total = 0;
+        for (int d = 0; d < donantes.size(); d++) {
+            if (aumentar(d, donantes, pacientes, pareja, new boolean[pacientes.size()])) total++;
+        }
+        return total;
+    }
+
+    private static boolean aumentar(int d, List<Donante> donantes, List<Paciente> pacientes, int[] pareja, boolean[] visto) {
+        for (int p = 0; p < pacientes.size(); p++) {
+            if (visto[p] || !TipoSangre.compatibles(donantes.get(d).getBloodType(), pacientes.get(p).getBloodType())) continue;
+            visto[p] = true;
+            if (pareja[p] < 0 || aumentar(pareja[p], donantes, pacientes, pareja, visto)) {
+                pareja[p] = d;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Donante donante(String id, String tipo, String organo) throws InvalidDataException, DonanteMenorEdadException {
+        return new Donante("Donante " + id, (byte) 35, id, tipo, "Calle", "300", "Órganos", "Buena", true, organo);
+    }
+
+    private static Paciente paciente(String id, String tipo) throws InvalidDataException {
+        return new Paciente("Paciente " + id, (byte) (20 + Math.abs(id.hashCode() % 60)), id, tipo, "Calle", "300",
+                70.0, 1.70, new ArrayList<>(), new ArrayList<>());
+    }
+}
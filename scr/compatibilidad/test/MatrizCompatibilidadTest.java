@@ -0,0 +1,104 @@
+package compatibilidad.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import compatibilidad.MatrizCompatibilidad;
+import compatibilidad.MotorCompatibilidad;
+import model.Donante;
+import model.Paciente;
+import model.TipoSangre;
+import excepciones.DonanteMenorEdadException;
+import excepciones.InvalidDataException;
+
+/**
+ * Clase de pruebas unitarias para MatrizCompatibilidad.
+ * Compara la matriz calculada en bloque con la comprobación par a par.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class MatrizCompatibilidadTest {
+
+    private static final String[] TIPOS = {"O-", "O+", "A-", "A+", "B-", "B+", "AB-", "AB+"};
+
+    private List<Donante> donantes;
+    private List<Paciente> pacientes;
+
+    /**
+     * Crea 600 donantes (varios bloques) y 130 pacientes (tres palabras por fila).
+     */
+    @BeforeEach
+    public void setUp() throws InvalidDataException, DonanteMenorEdadException {
+        donantes = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            String organo = i % 3 == 0 ? "Riñón" : "Hígado";
+            donantes.add(new Donante("Donante " + i, (byte) 30, "D" + i, TIPOS[(i * 5) % 8], "Calle", "300",
+                    "Órganos", "Buena", i % 7 != 0, organo));
+        }
+        pacientes = new ArrayList<>();
+        for (int i = 0; i < 130; i++) {
+            pacientes.add(new Paciente("Paciente " + i, (byte) 40, "P" + i, TIPOS[(i * 3) % 8], "Calle", "300",
+                    70.0, 1.70, new ArrayList<>(), new ArrayList<>()));
+        }
+    }
+
+    /**
+     * Verifica cada celda y los conteos contra la regla par a par.
+     */
+    @Test
+    public void testMatrizCoincideConReglaParAPar() {
+        MatrizCompatibilidad m = MatrizCompatibilidad.calcular(donantes, pacientes);
+        long total = 0;
+        int[] porPaciente = new int[pacientes.size()];
+        for (int d = 0; d < donantes.size(); d++) {
+            Donante don = donantes.get(d);
+            int fila = 0;
+            for (int p = 0; p < pacientes.size(); p++) {
+                boolean esperado = MotorCompatibilidad.esDonanteElegible(don)
+                        && TipoSangre.compatibles(don.getBloodType(), pacientes.get(p).getBloodType());
+                assertEquals(esperado, m.esCompatible(d, p), "Celda " + d + "," + p);
+                if (esperado) {
+                    fila++;
+                    porPaciente[p]++;
+                }
+            }
+            assertEquals(fila, m.contarPorDonante(d), "Conteo de la fila " + d);
+            total += fila;
+        }
+        assertEquals(total, m.getTotalPares(), "Total de pares");
+        for (int p = 0; p < pacientes.size(); p++) {
+            assertEquals(porPaciente[p], m.contarPorPaciente(p), "Conteo de la columna " + p);
+        }
+    }
+
+    /**
+     * Verifica la lista dispersa de pares y el resumen por órgano.
+     */
+    @Test
+    public void testParesYResumenPorOrgano() {
+        MatrizCompatibilidad m = MatrizCompatibilidad.calcular(donantes, pacientes);
+        int[] pares = m.getPares();
+        assertEquals(m.getTotalPares() * 2, pares.length);
+        for (int i = 0; i < pares.length; i += 2) {
+            assertTrue(m.esCompatible(pares[i], pares[i + 1]), "Cada par listado debe ser compatible");
+        }
+        Map<String, Long> porOrgano = m.paresPorOrgano();
+        assertEquals(m.getTotalPares(), porOrgano.values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(porOrgano.containsKey("Riñón"));
+    }
+
+    /**
+     * Verifica que listas vacías produzcan una matriz vacía.
+     */
+    @Test
+    public void testMatrizVacia() {
+        MatrizCompatibilidad m = MatrizCompatibilidad.calcular(null, pacientes);
+        assertEquals(0, m.getFilas());
+        assertEquals(0, m.getTotalPares());
+        assertEquals(pacientes.size(), m.contarPacientesSinDonante());
+    }
+}
@@ -0,0 +1,101 @@
+package compatibilidad.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import compatibilidad.MotorCompatibilidad;
+import model.Donante;
+import model.Paciente;
+import model.TipoSangre;
+import excepciones.DonanteMenorEdadException;
+import excepciones.InvalidDataException;
+
+/**
+ * Clase de pruebas unitarias para MotorCompatibilidad y las máscaras de TipoSangre.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class MotorCompatibilidadTest {
+
+    private List<Paciente> pacientes;
+    private List<Donante> donantes;
+    private MotorCompatibilidad motor;
+
+    /**
+     * Crea un paciente por cada tipo de sangre y algunos donantes de riñón.
+     */
+    @BeforeEach
+    public void setUp() throws InvalidDataException, DonanteMenorEdadException {
+        pacientes = new ArrayList<>();
+        String[] tipos = {"AB+", "A-", "O+", "A+", "B-", "AB-", "O-", "B+"};
+        for (int i = 0; i < tipos.length; i++) {
+            pacientes.add(new Paciente("Paciente " + i, (byte) 40, "P" + i, tipos[i], "Calle", "300",
+                    70.0, 1.70, new ArrayList<>(), new ArrayList<>()));
+        }
+        donantes = new ArrayList<>();
+        donantes.add(donante("D1", "A+", true, "Riñón"));
+        donantes.add(donante("D2", "O-", true, "Riñón"));
+        donantes.add(donante("D3", "A-", false, "Riñón"));
+        donantes.add(donante("D4", "AB+", true, "Hígado"));
+        motor = new MotorCompatibilidad(pacientes, donantes);
+    }
+
+    /**
+     * Verifica que las máscaras coincidan con la regla ABO (Rh ignorado).
+     */
+    @Test
+    public void testMascarasTipoSangre() {
+        assertEquals(0xFF, TipoSangre.O_NEG.mascaraReceptores(), "O es donante universal");
+        assertEquals(0xFF, TipoSangre.AB_POS.mascaraDonantes(), "AB es receptor universal");
+        assertTrue(TipoSangre.compatibles("A-", "AB+"));
+        assertFalse(TipoSangre.compatibles("A+", "B+"));
+        assertFalse(TipoSangre.compatibles("X", "A+"), "Un tipo no reconocido no es compatible");
+        assertEquals(TipoSangre.AB_NEG, TipoSangre.desde(" ab- "));
+    }
+
+    /**
+     * Verifica los pacientes compatibles y su orden de prioridad.
+     */
+    @Test
+    public void testPacientesCompatiblesOrdenados() {
+        List<Paciente> resultado = motor.pacientesCompatibles(donantes.get(0)); // A+
+        List<String> ids = new ArrayList<>();
+        for (Paciente p : resultado) ids.add(p.getBloodType());
+        assertEquals(List.of("A+", "A-", "AB-", "AB+"), ids,
+                "Primero el mismo tipo, luego el mismo grupo y después el resto");
+        assertEquals(4, motor.contarPacientesCompatibles(donantes.get(0)));
+        assertEquals(8, motor.pacientesCompatibles(donantes.get(1)).size(), "O- puede donar a todos");
+    }
+
+    /**
+     * Verifica que se excluyan donantes no elegibles y pacientes filtrados.
+     */
+    @Test
+    public void testElegibilidad() {
+        assertTrue(motor.pacientesCompatibles(donantes.get(2)).isEmpty(), "Un donante no elegible no tiene candidatos");
+        List<Paciente> filtrados = motor.pacientesCompatibles(donantes.get(1), p -> !p.getId().equals("P6"));
+        assertEquals(7, filtrados.size(), "El filtro debe excluir al paciente indicado");
+        assertEquals("P2", filtrados.get(0).getId(), "El primer candidato de O- filtrado es O+");
+    }
+
+    /**
+     * Verifica la búsqueda de donantes por órgano y tipo de sangre del paciente.
+     */
+    @Test
+    public void testDonantesCompatibles() {
+        Paciente abPos = pacientes.get(0);
+        List<Donante> rinon = motor.donantesCompatibles(abPos, "riñon");
+        assertEquals(2, rinon.size(), "Solo los donantes elegibles de riñón");
+        assertTrue(motor.donantesCompatibles(pacientes.get(6), "Hígado").isEmpty(), "O- no recibe de AB+");
+        assertTrue(motor.donantesCompatibles(abPos, "Corazón").isEmpty());
+    }
+
+    private static Donante donante(String id, String tipo, boolean elegible, String organo)
+            throws InvalidDataException, DonanteMenorEdadException {
+        return new Donante("Donante " + id, (byte) 35, id, tipo, "Calle", "300",
+                "Órganos", "Buena", elegible, organo);
+    }
+}
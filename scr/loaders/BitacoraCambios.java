@@ -0,0 +1,214 @@
+package loaders;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import model.Identificador;
+
+/**
+ * Bitácora de cambios (write-ahead journal) asociada a un archivo de datos.
+ * Cada alta, modificación o baja se anota como una línea al final de la bitácora
+ * en lugar de reescribir el archivo completo. Al cargar, el archivo base (snapshot)
+ * se completa reproduciendo la bitácora; al guardar el snapshot la bitácora se vacía.
+ *
+ * <p>Formato: la primera línea guarda la huella del snapshot sobre el que se
+ * escribió la bitácora ({@code #snapshot;tamaño;fecha}). Si el snapshot cambia por
+ * fuera (se borra o se reescribe), la bitácora se considera obsoleta y se ignora.
+ * Las demás líneas son {@code A;registro}, {@code U;registro} o {@code D;id}.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class BitacoraCambios {
+
+    /** Número de entradas a partir del cual conviene compactar en el snapshot. */
+    public static final int UMBRAL_COMPACTACION = 500;
+
+    private static final String CABECERA = "#snapshot;";
+
+    private final File snapshot;
+    private final File archivo;
+    private int entradas = -1; // -1: aún no contadas
+
+    /**
+     * @param rutaSnapshot ruta del archivo de datos (por ejemplo "Paciente.txt")
+     */
+    public BitacoraCambios(String rutaSnapshot) {
+        this.snapshot = new File(rutaSnapshot);
+        this.archivo = archivoDe(rutaSnapshot);
+    }
+
+    // Paciente.txt -> Paciente.journal
+    static File archivoDe(String rutaSnapshot) {
+        return new File(rutaSnapshot.replaceFirst("\\.txt$", "") + ".journal");
+    }
+
+    /** Anota el alta de un registro (línea completa en formato de archivo). */
+    public synchronized void registrarAlta(String registro) { anotar('A', registro); }
+
+    /** Anota la modificación de un registro (línea completa en formato de archivo). */
+    public synchronized void registrarCambio(String registro) { anotar('U', registro); }
+
+    /** Anota la baja del registro con el ID dado. */
+    public synchronized void registrarBaja(String id) { anotar('D', id); }
+
+    /**
+     * Anota la modificación de varios registros con una sola escritura.
+     * @param registros líneas completas en formato de archivo
+     */
+    public synchronized void registrarCambios(List<String> registros) {
+        if (registros.isEmpty()) return;
+        StringBuilder sb = new StringBuilder();
+        for (String r : registros) sb.append("U;").append(r).append(System.lineSeparator());
+        escribir(sb.toString(), registros.size());
+    }
+
+    /**
+     * @return true si la bitácora acumuló suficientes entradas para compactar
+     */
+    public synchronized boolean requiereCompactacion() {
+        return contarEntradas() >= UMBRAL_COMPACTACION;
+    }
+
+    /**
+     * @return true si no hay una bitácora vigente con entradas, es decir, si el snapshot
+     *         ya refleja todos los cambios
+     */
+    public synchronized boolean vacia() {
+        return contarEntradas() == 0;
+    }
+
+    /**
+     * Busca la última entrada de un ID sin interpretar los registros.
+     * @param id ID buscado (sin distinguir mayúsculas)
+     * @param idDe obtiene el ID de una línea en formato de archivo
+     * @return true si la última entrada es un alta o un cambio, false si es una baja, o
+     *         null si el ID no aparece o no hay bitácora vigente (decide el snapshot)
+     */
+    public synchronized Boolean ultimaEntrada(String id, Function<String, String> idDe) {
+        String clave = Identificador.normalizar(id);
+        if (clave == null || !vigente()) return null;
+        Boolean resultado = null;
+        try (BufferedReader br = Files.newBufferedReader(archivo.toPath(), StandardCharsets.UTF_8)) {
+            br.readLine(); // cabecera
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                if (linea.length() < 2 || linea.charAt(1) != ';') continue;
+                String dato = linea.substring(2);
+                boolean baja = linea.charAt(0) == 'D';
+                if (clave.equals(Identificador.normalizar(baja ? dato : idDe.apply(dato)))) resultado = !baja;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return resultado;
+    }
+
+    /**
+     * Aplica la bitácora sobre los registros leídos del snapshot.
+     * @param base registros del snapshot en orden de archivo
+     * @param parser convierte una línea en registro (null si es inválida)
+     * @param idDe obtiene el ID de un registro
+     * @return la lista resultante; {@code base} sin cambios si no hay bitácora vigente
+     */
+    public synchronized <T> List<T> aplicar(List<T> base, Function<String, T> parser, Function<T, String> idDe) {
+        if (!vigente()) return base;
+
+        Map<Identificador, T> registros = new LinkedHashMap<>();
+        for (T r : base) registros.putIfAbsent(clave(idDe.apply(r)), r);
+
+        int leidas = 0;
+        try (BufferedReader br = Files.newBufferedReader(archivo.toPath(), StandardCharsets.UTF_8)) {
+            br.readLine(); // cabecera
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                if (linea.length() < 2 || linea.charAt(1) != ';') continue;
+                leidas++;
+                char op = linea.charAt(0);
+                String dato = linea.substring(2);
+                if (op == 'D') {
+                    registros.remove(clave(dato));
+                    continue;
+                }
+                T r = parser.apply(dato);
+                if (r == null) continue;
+                // put conserva la posición original cuando el ID ya existía
+                registros.put(clave(idDe.apply(r)), r);
+            }
+        } catch (IOException e) {
+            System.err.println("Error al leer bitácora " + archivo.getName() + ": " + e.getMessage());
+            return base;
+        }
+        entradas = leidas;
+        return new ArrayList<>(registros.values());
+    }
+
+    /**
+     * Descarta la bitácora. Se invoca después de reescribir el snapshot completo.
+     */
+    public synchronized void reiniciar() {
+        if (archivo.exists() && !archivo.delete()) {
+            System.err.println("No se pudo eliminar la bitácora " + archivo.getName());
+        }
+        entradas = 0;
+    }
+
+    private void anotar(char op, String dato) {
+        escribir(op + ";" + dato + System.lineSeparator(), 1);
+    }
+
+    private void escribir(String lineas, int cantidad) {
+        try {
+            if (!vigente()) iniciar();
+            Files.write(archivo.toPath(), lineas.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (entradas >= 0) entradas += cantidad;
+        } catch (IOException e) {
+            System.err.println("Error al escribir bitácora " + archivo.getName() + ": " + e.getMessage());
+        }
+    }
+
+    // Crea una bitácora vacía ligada al estado actual del snapshot
+    private void iniciar() throws IOException {
+        if (!snapshot.exists()) snapshot.createNewFile();
+        Files.write(archivo.toPath(), (huella() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        entradas = 0;
+    }
+
+    private boolean vigente() {
+        if (!archivo.exists() || !snapshot.exists()) return false;
+        try (BufferedReader br = Files.newBufferedReader(archivo.toPath(), StandardCharsets.UTF_8)) {
+            return huella().equals(br.readLine());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private int contarEntradas() {
+        if (entradas >= 0) return entradas;
+        if (!vigente()) return entradas = 0;
+        try (BufferedReader br = Files.newBufferedReader(archivo.toPath(), StandardCharsets.UTF_8)) {
+            int n = -1; // sin contar la cabecera
+            while (br.readLine() != null) n++;
+            return entradas = Math.max(n, 0);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private String huella() {
+        return CABECERA + snapshot.length() + ";" + snapshot.lastModified();
+    }
+
+    private static Identificador clave(String id) {
+        return Identificador.de(id);
+    }
+}
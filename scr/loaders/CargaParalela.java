@@ -0,0 +1,183 @@
+package loaders;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import model.Validacion;
+
+/**
+ * Lectura en paralelo de archivos de datos grandes (un registro por línea).
+ * El archivo se divide en trozos que terminan en un salto de línea y cada trozo se
+ * lee con lecturas posicionales (sin mapear el archivo, que así puede reescribirse
+ * enseguida), se decodifica (UTF-8) e interpreta en el pool fork-join común.
+ * Los resultados se unen en el orden del archivo.
+ *
+ * <p>Con {@link #cargar(File, BiFunction, ReporteCarga)} cada trozo llena su propio
+ * {@link ReporteCarga} sin sincronización y los informes se combinan al final en el
+ * orden del archivo, con los números de línea ya desplazados.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class CargaParalela {
+
+    /** Tamaño de archivo a partir del cual los loaders usan la carga en paralelo. */
+    public static final long UMBRAL_BYTES = 4L * 1024 * 1024;
+
+    private static final int TROZO_MINIMO = 1024 * 1024;
+    private static final int TROZO_MAXIMO = 256 * 1024 * 1024;
+
+    private CargaParalela() {}
+
+    /**
+     * Lee el archivo en paralelo.
+     * @param archivo archivo de texto UTF-8 con un registro por línea
+     * @param parser convierte una línea en registro (null si es inválida)
+     * @param <T> tipo de registro
+     * @return registros válidos en orden de archivo
+     * @throws IOException si el archivo no se puede leer
+     */
+    public static <T> List<T> cargar(File archivo, Function<String, T> parser) throws IOException {
+        return cargar(archivo, (linea, v) -> parser.apply(linea), new ReporteCarga(archivo.getName()));
+    }
+
+    /**
+     * Lee el archivo en paralelo anotando las líneas inválidas en un informe.
+     * @param archivo archivo de texto UTF-8 con un registro por línea
+     * @param parser interpreta una línea sin lanzar excepciones (null si es inválida)
+     * @param reporte informe al que se agregan las líneas leídas y sus violaciones
+     * @param <T> tipo de registro
+     * @return registros válidos en orden de archivo
+     * @throws IOException si el archivo no se puede leer
+     */
+    public static <T> List<T> cargar(File archivo, BiFunction<String, Validacion, T> parser,
+                                     ReporteCarga reporte) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long tamaño = canal.size();
+            List<Trozo<T>> trozos = new ArrayList<>();
+            long inicio = 0;
+            long objetivo = tamañoTrozo(tamaño);
+            while (inicio < tamaño) {
+                long fin = finDeLinea(canal, Math.min(inicio + objetivo, tamaño), tamaño);
+                Trozo<T> t = new Trozo<>(canal, inicio, fin, parser);
+                t.fork();
+                trozos.add(t);
+                inicio = fin;
+            }
+
+            List<T> lista = new ArrayList<>();
+            for (Trozo<T> t : trozos) {
+                lista.addAll(t.join());
+                reporte.combinar(t.reporte);
+            }
+            return lista;
+        } catch (RuntimeException e) {
+            // join puede envolver de nuevo la excepción lanzada en otro hilo
+            for (Throwable c = e; c != null; c = c.getCause()) {
+                if (c instanceof UncheckedIOException) throw ((UncheckedIOException) c).getCause();
+            }
+            throw e;
+        }
+    }
+
+    // Unos cuatro trozos por hilo para repartir bien la carga
+    private static long tamañoTrozo(long tamaño) {
+        long porHilo = tamaño / (ForkJoinPool.getCommonPoolParallelism() * 4L);
+        return Math.max(TROZO_MINIMO, Math.min(TROZO_MAXIMO, porHilo));
+    }
+
+    // Posición justo después del primer '\n' desde 'desde' (o el final del archivo)
+    private static long finDeLinea(FileChannel canal, long desde, long tamaño) throws IOException {
+        if (desde >= tamaño) return tamaño;
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        long pos = desde;
+        while (pos < tamaño) {
+            buf.clear();
+            int leidos = canal.read(buf, pos);
+            if (leidos <= 0) break;
+            for (int i = 0; i < leidos; i++) {
+                // En UTF-8 el byte '\n' nunca forma parte de un carácter multibyte
+                if (buf.get(i) == '\n') return pos + i + 1;
+            }
+            pos += leidos;
+        }
+        return tamaño;
+    }
+
+    /**
+     * Tarea que decodifica e interpreta un trozo del archivo.
+     */
+    private static final class Trozo<T> extends RecursiveTask<List<T>> {
+        private final FileChannel canal;
+        private final long inicio;
+        private final long fin;
+        private final BiFunction<String, Validacion, T> parser;
+        // Informe propio del trozo: solo lo escribe el hilo que ejecuta la tarea
+        private final ReporteCarga reporte = new ReporteCarga("");
+
+        Trozo(FileChannel canal, long inicio, long fin, BiFunction<String, Validacion, T> parser) {
+            this.canal = canal;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.parser = parser;
+        }
+
+        @Override
+        protected List<T> compute() {
+            CharBuffer texto;
+            try {
+                ByteBuffer bytes = leer();
+                CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                texto = decoder.decode(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            List<T> registros = new ArrayList<>();
+            int n = texto.length();
+            int desde = 0;
+            for (int i = 0; i <= n; i++) {
+                char c = i < n ? texto.charAt(i) : '\n';
+                if (c != '\n' && c != '\r') continue;
+                if (i == n && desde == n) break; // el trozo terminó en salto de línea
+                procesar(texto, desde, i, registros);
+                // "\r\n" cuenta como un solo salto, igual que BufferedReader.readLine
+                if (c == '\r' && i + 1 < n && texto.charAt(i + 1) == '\n') i++;
+                desde = i + 1;
+            }
+            return registros;
+        }
+
+        // La lectura posicional no mueve la posición del canal: es segura entre hilos
+        private ByteBuffer leer() throws IOException {
+            ByteBuffer bytes = ByteBuffer.allocate((int) (fin - inicio));
+            while (bytes.hasRemaining()) {
+                int leidos = canal.read(bytes, inicio + bytes.position());
+                if (leidos < 0) break; // el archivo se acortó mientras se leía
+            }
+            bytes.flip();
+            return bytes;
+        }
+
+        private void procesar(CharBuffer texto, int desde, int hasta, List<T> registros) {
+            String linea = texto.subSequence(desde, hasta).toString();
+            T r = reporte.interpretar(linea, parser);
+            if (r != null) registros.add(r);
+        }
+    }
+}
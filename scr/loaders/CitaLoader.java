@@ -1,11 +1,20 @@
 package loaders;
 
 import model.Cita;
+import model.EstadoCita;
+import model.Identificador;
 import model.Paciente;
+import model.Validacion;
+import excepciones.InvalidDataException;
 import java.io.*;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import util.Fechas;
+import util.LectorCampos;
 
 /**
  * Clase encargada de la persistencia de citas médicas.
@@ -15,21 +24,64 @@ import java.util.*;
 public class CitaLoader {
 
     private static final String RUTA_ARCHIVO = "Cita.txt";
-    private static final SimpleDateFormat FORMATO_FECHA = new SimpleDateFormat("dd/MM/yyyy");
-    private static final SimpleDateFormat FORMATO_HORA = new SimpleDateFormat("HH:mm");
+    private static final BitacoraCambios BITACORA = new BitacoraCambios(RUTA_ARCHIVO);
+    private static final String RUTA_PACIENTES = "Paciente.txt";
+
+    // La instantánea depende de Paciente.txt: las citas se resuelven contra los pacientes,
+    // así que se leen con un FormatoCita sobre el índice de cada carga. Una sola instancia
+    // para que sus métodos sincronizados no dejen leer y reemplazar el .snap a la vez.
+    private static final Instantanea<Cita> INSTANTANEA =
+            new Instantanea<>(RUTA_ARCHIVO, new FormatoCita(null), RUTA_PACIENTES);
 
     // Normaliza los estados leídos desde archivo o proporcionados por la UI
     private static String normalizeEstado(String estado) {
         if (estado == null) return "Pendiente";
+        EstadoCita conocido = EstadoCita.desde(estado);
+        if (conocido != null) return conocido.toString();
         estado = estado.trim();
-        if (estado.equalsIgnoreCase("PENDIENTE") || estado.equalsIgnoreCase("Pendiente")) return "Pendiente";
-        if (estado.equalsIgnoreCase("COMPLETADA") || estado.equalsIgnoreCase("Aprobada") || estado.equalsIgnoreCase("APROBADA")) return "Aprobada";
-        if (estado.equalsIgnoreCase("CANCELADA") || estado.equalsIgnoreCase("Cancelada")) return "Cancelada";
         // Valor por defecto si no se reconoce
         return Character.toUpperCase(estado.charAt(0)) + estado.substring(1).toLowerCase();
     }
 
+    // Los estados conocidos ya están interpretados: basta con quitar el texto original
+    private static void normalizarEstado(Cita c) {
+        if (c.getEstadoCita() != null) c.setEstado(c.getEstadoCita());
+        else c.setEstado(normalizeEstado(c.getEstado()));
+    }
+
+    /**
+     * Carga todas las citas. Paciente.txt se lee una sola vez y todas las citas
+     * del mismo paciente comparten la misma instancia.
+     * @return lista de citas cargadas
+     */
     public static List<Cita> cargarCitas() {
+        File archivo = new File(RUTA_ARCHIVO);
+        if (!archivo.exists()) {
+            System.err.println("Archivo de citas no encontrado. Se creará uno nuevo al guardar.");
+            return new ArrayList<>();
+        }
+        return cargarCitas(new IndicePersonas<>(PacienteLoader.cargarPacientes()));
+    }
+
+    /**
+     * Carga todas las citas resolviendo el paciente en un índice ya construido.
+     * @param pacientes índice de pacientes por ID (sin distinguir mayúsculas)
+     * @return lista de citas cargadas
+     */
+    public static List<Cita> cargarCitas(IndicePersonas<Paciente> pacientes) {
+        ReporteCarga reporte = new ReporteCarga(RUTA_ARCHIVO);
+        List<Cita> citas = cargarCitas(pacientes, reporte);
+        reporte.avisar();
+        return citas;
+    }
+
+    /**
+     * Carga todas las citas anotando las líneas inválidas en el informe, sin imprimir nada.
+     * @param pacientes índice de pacientes por ID (sin distinguir mayúsculas)
+     * @param reporte informe de la carga
+     * @return lista de citas cargadas
+     */
+    public static List<Cita> cargarCitas(IndicePersonas<Paciente> pacientes, ReporteCarga reporte) {
         List<Cita> citas = new ArrayList<>();
         File archivo = new File(RUTA_ARCHIVO);
         Date hoy = new Date();
@@ -39,99 +91,257 @@ public class CitaLoader {
             return citas;
         }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            while ((linea = br.readLine()) != null) {
-                if (linea.trim().isEmpty()) continue;
-                Cita c = fromArchivo(linea);
-                if (c != null) {
-                    // Lógica de expiración: si la fecha y hora de la cita ya pasaron y no está cancelada
-                    Calendar calCita = Calendar.getInstance();
-                    calCita.setTime(c.getDate());
-                    Calendar calHora = Calendar.getInstance();
-                    calHora.setTime(c.getTime());
-
-                    calCita.set(Calendar.HOUR_OF_DAY, calHora.get(Calendar.HOUR_OF_DAY));
-                    calCita.set(Calendar.MINUTE, calHora.get(Calendar.MINUTE));
-                    calCita.set(Calendar.SECOND, 0);
-                    calCita.set(Calendar.MILLISECOND, 0);
-
-                    Date fechaHoraCita = calCita.getTime();
-                    if (c.getEstado().equalsIgnoreCase("Pendiente") && fechaHoraCita.before(hoy)) {
-                        c.setEstado("Aprobada");
-                    }
-                    citas.add(c);
+        List<Cita> instantanea = INSTANTANEA.leer(reporte, new FormatoCita(pacientes));
+        if (instantanea != null) {
+            citas.addAll(instantanea);
+        } else {
+            try (BufferedReader br = new BufferedReader(new FileReader(archivo, StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = br.readLine()) != null) {
+                    Cita c = reporte.interpretar(linea, (l, v) -> fromArchivo(l, pacientes, v));
+                    if (c != null) citas.add(c);
                 }
+            } catch (IOException e) {
+                System.err.println("Error al cargar citas: " + e.getMessage());
             }
-        } catch (IOException e) {
-            System.err.println("Error al cargar citas: " + e.getMessage());
         }
+        citas = BITACORA.aplicar(citas,
+                l -> reporte.interpretarBitacora(l, (x, v) -> fromArchivo(x, pacientes, v)), Cita::getId);
+        reporte.registrarCargados(citas.size());
 
-        // Guardar normalizando estados
-        guardarCitas(citas);
+        // Expiración: solo se persisten (en la bitácora) las citas que cambian de estado
+        List<Cita> expiradas = new ArrayList<>();
+        for (Cita c : citas) {
+            if (c.aplicarExpiracion(hoy)) expiradas.add(c);
+        }
+        List<Cita> cargadas = citas;
+        anotarCambios(expiradas, () -> cargadas);
         return citas;
     }
 
+    /**
+     * Crea una cita desde una línea del archivo buscando el paciente en Paciente.txt.
+     * Devuelve null sin informar el motivo; para conocerlo usar
+     * {@link #fromArchivo(String, IndicePersonas, Validacion)}.
+     * Para cargas masivas usar {@link #fromArchivo(String, IndicePersonas)}.
+     */
     public static Cita fromArchivo(String linea) {
-        try {
-            String[] parts = linea.split(";");
-            if (parts.length < 7) return null;
-
-            String id = parts[0];
-            Date fecha = FORMATO_FECHA.parse(parts[1]);
-            Date hora = FORMATO_HORA.parse(parts[2]);
-            String lugar = parts[3];
-            String idPaciente = parts[4];
-            String doctor = parts[5];
-            String estado = parts[6];
-
+        return fromArchivo(linea, idPaciente -> {
             try {
-                Paciente paciente = PacienteLoader.buscarPacientePorId(idPaciente);
-                Cita cita = new Cita(id, fecha, hora, lugar, paciente, doctor);
-                cita.setEstado(normalizeEstado(estado));
-                return cita;
+                return PacienteLoader.buscarPacientePorId(idPaciente);
             } catch (excepciones.NotFoundException nf) {
-                System.err.println("Paciente no encontrado al parsear cita: " + nf.getMessage() + " Cita omitida: " + id);
                 return null;
             }
+        });
+    }
+
+    /**
+     * Crea una cita desde una línea del archivo resolviendo el paciente en el índice dado.
+     * @param linea línea del archivo
+     * @param pacientes índice de pacientes compartido por toda la carga
+     * @return la cita o null si la línea es inválida o el paciente no existe
+     */
+    public static Cita fromArchivo(String linea, IndicePersonas<Paciente> pacientes) {
+        return fromArchivo(linea, pacientes::buscarPorId);
+    }
+
+    /**
+     * Interpreta una línea del archivo sin lanzar excepciones.
+     * @param linea línea en formato de archivo
+     * @param pacientes índice de pacientes cargados
+     * @param v validación donde se acumulan todas las violaciones de la línea
+     * @return la cita o null si la línea es inválida
+     */
+    public static Cita fromArchivo(String linea, IndicePersonas<Paciente> pacientes, Validacion v) {
+        return fromArchivo(linea, pacientes::buscarPorId, v);
+    }
 
-        } catch (ParseException e) {
-            System.err.println("Error de formato de fecha/hora en cita: " + e.getMessage());
+    // Sin informar el motivo del rechazo; la carga usa la variante con Validacion y ReporteCarga
+    private static Cita fromArchivo(String linea, Function<String, Paciente> buscarPaciente) {
+        return fromArchivo(linea, buscarPaciente, new Validacion());
+    }
+
+    private static Cita fromArchivo(String linea, Function<String, Paciente> buscarPaciente, Validacion v) {
+        if (linea == null) {
+            v.agregar(Validacion.Codigo.CAMPO_VACIO, "linea", "Línea vacía.");
             return null;
-        } catch (Exception e) {
-            System.err.println("Error al procesar cita: " + e.getMessage());
+        }
+        LectorCampos campos = new LectorCampos(linea);
+        if (campos.contarCampos() < 7) {
+            v.agregar(Validacion.Codigo.CAMPOS_INSUFICIENTES, "linea", "Se esperaban al menos 7 campos.");
             return null;
         }
+
+        String id = campos.siguiente();
+        String fechaStr = campos.siguiente();
+        String horaStr = campos.siguiente();
+        String lugar = campos.siguiente();
+        String idPaciente = campos.siguiente();
+        String doctor = campos.siguiente();
+        String estado = campos.siguiente();
+
+        LocalDate fecha = Fechas.fechaSegura(fechaStr);
+        if (fecha == null) v.agregar(Validacion.Codigo.FECHA_INVALIDA, "fecha", "Unparseable date: \"" + fechaStr + "\"");
+        LocalTime hora = Fechas.horaSegura(horaStr);
+        if (hora == null) v.agregar(Validacion.Codigo.FECHA_INVALIDA, "hora", "Unparseable date: \"" + horaStr + "\"");
+
+        return crear(id, fecha != null ? Fechas.aDate(fecha) : null, hora != null ? Fechas.aDate(hora) : null,
+                lugar, idPaciente, doctor, estado, buscarPaciente, v);
     }
 
+    // Resuelve el paciente, valida y construye la cita (común al texto y a la instantánea)
+    private static Cita crear(String id, Date fechaDate, Date horaDate, String lugar, String idPaciente,
+                              String doctor, String estado, Function<String, Paciente> buscarPaciente, Validacion v) {
+        Paciente paciente = buscarPaciente.apply(idPaciente);
+        if (paciente == null) {
+            v.agregar(Validacion.Codigo.REFERENCIA_NO_ENCONTRADA, "paciente",
+                    "Paciente con ID '" + idPaciente + "' no encontrado. Cita omitida: " + id);
+        }
+        if (!v.esValida()) return null;
+
+        if (!Cita.validar(id, fechaDate, horaDate, lugar, paciente, doctor, v).esValida()) return null;
+        try {
+            Cita cita = new Cita(id, fechaDate, horaDate, lugar, paciente, doctor);
+            cita.setEstado(normalizeEstado(estado));
+            return cita;
+        } catch (InvalidDataException e) {
+            // No ocurre: los mismos datos ya se validaron
+            v.agregar(Validacion.Codigo.CAMPO_VACIO, "cita", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Guarda la lista completa de citas en Cita.txt y, si se escribió, vacía la bitácora.
+     * @param citas citas a guardar
+     */
     public static void guardarCitas(List<Cita> citas) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(RUTA_ARCHIVO))) {
+        boolean guardado;
+        try (PrintWriter pw = new PrintWriter(new FileWriter(RUTA_ARCHIVO, StandardCharsets.UTF_8))) {
             for (Cita c : citas) {
-                c.setEstado(normalizeEstado(c.getEstado()));
+                normalizarEstado(c);
                 pw.println(c.toArchivo());
             }
+            guardado = !pw.checkError();
         } catch (IOException e) {
             System.err.println("Error al guardar citas: " + e.getMessage());
+            guardado = false;
+        }
+        // Si la escritura falló, la bitácora conserva los cambios que el archivo no tiene
+        if (guardado) {
+            BITACORA.reiniciar();
+            INSTANTANEA.escribir(citas);
+        }
+    }
+
+    /**
+     * Escribe la instantánea binaria de Cita.txt si cambió desde la última (o si cambiaron
+     * los pacientes). Se invoca al cerrar la aplicación.
+     * @param pacientes índice de los pacientes vigentes (Paciente.txt con su bitácora aplicada)
+     * @return true si se escribió una instantánea nueva
+     */
+    public static boolean escribirInstantanea(IndicePersonas<Paciente> pacientes) {
+        return INSTANTANEA.escribirDesdeTexto((l, v) -> fromArchivo(l, pacientes, v));
+    }
+
+    /** Anota el alta de una cita en la bitácora, sin validar duplicados. */
+    public static void anotarAlta(Cita c) {
+        normalizarEstado(c);
+        BITACORA.registrarAlta(c.toArchivo());
+        compactarSiNecesario();
+    }
+
+    /** Anota la modificación de una cita existente en la bitácora. */
+    public static void anotarCambio(Cita c) {
+        normalizarEstado(c);
+        BITACORA.registrarCambio(c.toArchivo());
+        compactarSiNecesario();
+    }
+
+    /**
+     * Anota varias modificaciones con una sola escritura en la bitácora. Si hace falta
+     * compactar, se guarda la lista completa dada en lugar de volver a cargar el archivo,
+     * así anotar durante una carga no dispara otra carga.
+     * @param cambiadas citas modificadas
+     * @param vigentes todas las citas, ya con los cambios aplicados
+     */
+    public static void anotarCambios(List<Cita> cambiadas, Supplier<List<Cita>> vigentes) {
+        if (cambiadas.isEmpty()) return;
+        List<String> registros = new ArrayList<>(cambiadas.size());
+        for (Cita c : cambiadas) {
+            normalizarEstado(c);
+            registros.add(c.toArchivo());
         }
+        BITACORA.registrarCambios(registros);
+        if (BITACORA.requiereCompactacion()) guardarCitas(vigentes.get());
+    }
+
+    /** Anota la baja de una cita en la bitácora, sin comprobar que exista. */
+    public static void anotarBaja(String id) {
+        BITACORA.registrarBaja(id);
+        compactarSiNecesario();
+    }
+
+    /**
+     * Vuelca la bitácora en Cita.txt y la vacía.
+     */
+    public static void compactar() {
+        guardarCitas(cargarCitas());
+    }
+
+    private static void compactarSiNecesario() {
+        if (BITACORA.requiereCompactacion()) compactar();
     }
 
     public static boolean eliminarCitaPorId(String idCita) {
-        List<Cita> citas = cargarCitas();
-        boolean encontradaYCancelada = false;
+        Identificador buscado = Identificador.buscar(idCita);
+        if (buscado == null) return false;
 
-        for (Cita c : citas) {
-            if (c.getId().equalsIgnoreCase(idCita)) {
-                if (!c.getEstado().equalsIgnoreCase("Cancelada")) {
-                    c.setEstado("Cancelada");
-                    encontradaYCancelada = true;
-                }
-                break;
+        for (Cita c : cargarCitas()) {
+            if (c.getIdentificador() == buscado) {
+                if (c.getEstadoCita() == EstadoCita.CANCELADA) return false;
+                c.setEstado(EstadoCita.CANCELADA);
+                anotarCambio(c);
+                return true;
             }
         }
+        return false;
+    }
+
+    // Registro fijo: ID, día, minuto del día, lugar, ID del paciente, doctor y estado.
+    // La fecha y la hora se guardan con la misma precisión que en Cita.txt
+    private static final class FormatoCita implements Instantanea.Formato<Cita> {
+        private final IndicePersonas<Paciente> pacientes;
+
+        FormatoCita(IndicePersonas<Paciente> pacientes) {
+            this.pacientes = pacientes;
+        }
+
+        @Override public int version() { return 1; }
+        @Override public int ancho() { return 4 + 8 + 4 + 4 * 4; }
+        @Override public String id(Cita c) { return c.getId(); }
+
+        @Override
+        public void escribir(Cita c, Instantanea.Escritor e) {
+            e.texto(c.getId() != null ? c.getId() : "");
+            e.largo(Fechas.aFechaLocal(c.getDate()).toEpochDay());
+            e.entero(Fechas.aHoraLocal(c.getTime()).toSecondOfDay() / 60);
+            e.texto(c.getLocation() != null ? c.getLocation() : "");
+            e.texto(c.getPaciente() != null ? c.getPaciente().getId() : "");
+            e.texto(c.getDoctor() != null ? c.getDoctor() : "");
+            e.texto(c.getEstado() != null ? c.getEstado() : "");
+        }
 
-        if (encontradaYCancelada) {
-            guardarCitas(citas);
+        @Override
+        public Cita leer(Instantanea.Lector l, Validacion v) {
+            String id = l.texto();
+            Date fecha = Fechas.aDate(LocalDate.ofEpochDay(l.largo()));
+            Date hora = Fechas.aDate(LocalTime.ofSecondOfDay(l.entero() * 60L));
+            String lugar = l.texto();
+            String idPaciente = l.texto();
+            String doctor = l.texto();
+            String estado = l.texto();
+            return crear(id, fecha, hora, lugar, idPaciente, doctor, estado, pacientes::buscarPorId, v);
         }
-        return encontradaYCancelada;
     }
-}
\ No newline at end of file
+}
@@ -2,8 +2,14 @@ package loaders;
 
 import java.io.*;
 import java.util.*;
+import java.nio.charset.StandardCharsets;
 import model.Donante;
+import model.Identificador;
+import model.Validacion;
+import excepciones.DonanteMenorEdadException;
+import excepciones.InvalidDataException;
 import excepciones.NotFoundException;
+import util.LectorCampos;
 
 /**
  * Clase encargada de manejar la persistencia de los datos de donantes desde y hacia el archivo Donante.txt.
@@ -14,8 +20,43 @@ import excepciones.NotFoundException;
 public class DonanteLoader {
 
     private static final String RUTA = "Donante.txt";
+    private static final BitacoraCambios BITACORA = new BitacoraCambios(RUTA);
+    private static final Instantanea<Donante> INSTANTANEA = new Instantanea<>(RUTA, new FormatoDonante());
 
+    /**
+     * Carga los donantes desde la instantánea binaria, o desde Donante.txt si no está vigente,
+     * y aplica la bitácora de cambios pendiente.
+     * Si hay líneas inválidas se imprime un solo resumen al final.
+     * @return Lista de donantes
+     */
     public static ArrayList<Donante> cargarDonantes() {
+        ReporteCarga reporte = new ReporteCarga(RUTA);
+        ArrayList<Donante> lista = cargarDonantes(reporte);
+        reporte.avisar();
+        return lista;
+    }
+
+    /**
+     * Carga los donantes anotando las líneas inválidas en el informe, sin imprimir nada.
+     * @param reporte informe de la carga
+     * @return Lista de donantes
+     */
+    public static ArrayList<Donante> cargarDonantes(ReporteCarga reporte) {
+        return cargarDonantes(new File(RUTA).length() >= CargaParalela.UMBRAL_BYTES, reporte);
+    }
+
+    /**
+     * Carga los donantes leyendo el archivo en paralelo (ver {@link CargaParalela}).
+     * @return Lista de donantes en el orden del archivo
+     */
+    public static ArrayList<Donante> cargarDonantesParalelo() {
+        ReporteCarga reporte = new ReporteCarga(RUTA);
+        ArrayList<Donante> lista = cargarDonantes(true, reporte);
+        reporte.avisar();
+        return lista;
+    }
+
+    private static ArrayList<Donante> cargarDonantes(boolean paralelo, ReporteCarga reporte) {
         ArrayList<Donante> lista = new ArrayList<>();
         File archivo = new File(RUTA);
 
@@ -24,54 +65,64 @@ public class DonanteLoader {
             return lista;
         }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            while ((linea = br.readLine()) != null) {
-                if (linea.trim().isEmpty()) continue;
-                String[] datos = linea.split(";");
-                // Verifica que haya 10 campos en el archivo (asumiendo que la fecha no se guarda)
-                if (datos.length >= 10) { 
-                    try {
-                        Donante d = new Donante(
-                            datos[0], // Nombre
-                            Byte.parseByte(datos[1]), // Edad
-                            datos[2], // ID
-                            datos[3], // Tipo de sangre
-                            datos[4], // Dirección
-                            datos[5], // Teléfono
-                            datos[6], // Tipo de donación
-                            datos[7], // Estado de salud
-                            datos[8].equals("1"), // Elegibilidad
-                            datos[9] // Órgano
-                        );
-                        lista.add(d);
-                    } catch (Exception e) {
-                        System.err.println("Error al procesar línea de donante: " + linea + ". Error: " + e.getMessage());
-                    }
+        List<Donante> instantanea = INSTANTANEA.leer(reporte);
+        if (instantanea != null) {
+            lista.addAll(instantanea);
+        } else if (paralelo) {
+            try {
+                lista.addAll(CargaParalela.cargar(archivo, Donante::fromArchivo, reporte));
+            } catch (IOException e) {
+                System.err.println("Error al cargar donantes: " + e.getMessage());
+            }
+        } else {
+            try (BufferedReader br = new BufferedReader(new FileReader(archivo, StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = br.readLine()) != null) {
+                    Donante d = reporte.interpretar(linea, Donante::fromArchivo);
+                    if (d != null) lista.add(d);
                 }
+            } catch (IOException e) {
+                System.err.println("Error al cargar donantes: " + e.getMessage());
             }
-        } catch (IOException e) {
-            System.err.println("Error al cargar donantes: " + e.getMessage());
         }
 
+        lista = new ArrayList<>(BITACORA.aplicar(lista,
+                l -> reporte.interpretarBitacora(l, Donante::fromArchivo), Donante::getId));
+        reporte.registrarCargados(lista.size());
         return lista;
     }
 
     /**
-     * agrega la lista de donantes al archivo Donante.txt
+     * agrega la lista de donantes al archivo Donante.txt y, si se escribió, vacía la bitácora.
      * @param lista
      */
     public static void guardarDonantes(List<Donante> lista) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(RUTA))) {
+        boolean guardado;
+        try (PrintWriter pw = new PrintWriter(new FileWriter(RUTA, StandardCharsets.UTF_8))) {
             for (Donante d : lista) {
                 // usar el serializador común
                 pw.println(toArchivo(d));
             }
+            guardado = !pw.checkError();
         } catch (IOException e) {
             System.err.println("Error al guardar donantes: " + e.getMessage());
+            guardado = false;
+        }
+        // Si la escritura falló, la bitácora conserva los cambios que el archivo no tiene
+        if (guardado) {
+            BITACORA.reiniciar();
+            INSTANTANEA.escribir(lista);
         }
     }
 
+    /**
+     * Escribe la instantánea binaria de Donante.txt si cambió desde la última.
+     * @return true si se escribió una instantánea nueva
+     */
+    public static boolean escribirInstantanea() {
+        return INSTANTANEA.escribirDesdeTexto(Donante::fromArchivo);
+    }
+
     /**
      * agrega los donantes al archivo, verificando que no haya duplicados por ID(apoyo para la el funcionamiento del test {@linkplain test.AgregarDonanteTest#testAgregarDonanteDuplicado() }).
      * @param d
@@ -85,23 +136,13 @@ public class DonanteLoader {
 
         // Verificar duplicado por ID
         for (Donante existente : lista) {
-            if (existente.getId().equalsIgnoreCase(d.getId())) {
+            if (existente.getIdentificador() == d.getIdentificador()) {
                 throw new excepciones.InvalidDataException("Ya existe un donante con el ID: " + d.getId());
             }
         }
 
-        // Si no existe, agregar normalmente
-        String linea = toArchivo(d);
-        try {
-            java.nio.file.Files.write(
-                java.nio.file.Paths.get(RUTA),
-                (linea + System.lineSeparator()).getBytes(java.nio.charset.StandardCharsets.UTF_8),
-                java.nio.file.StandardOpenOption.CREATE,
-                java.nio.file.StandardOpenOption.APPEND
-            );
-        } catch (java.io.IOException e) {
-            System.err.println("Error al agregar donante (append): " + e.getMessage());
-        }
+        // Si no existe, anotar el alta en la bitácora
+        anotarAlta(d);
     }
 
 
@@ -111,30 +152,81 @@ public class DonanteLoader {
      * @throws NotFoundException
      */
     public static boolean eliminarDonante(String id) throws NotFoundException {
-        ArrayList<Donante> lista = cargarDonantes();
-        boolean eliminado = lista.removeIf(d -> d.getId().equalsIgnoreCase(id));
-        if (eliminado) {
-            guardarDonantes(lista);
+        if (existe(id)) {
+            anotarBaja(id);
             return true;
         } else {
             throw new NotFoundException("Donante con ID '" + id + "' no encontrado.");
         }
     }
     
+    // La última entrada del ID en la bitácora decide; si no aparece, basta el índice de la
+    // instantánea. Solo sin instantánea vigente se carga la lista completa.
+    private static boolean existe(String id) {
+        Boolean enBitacora = BITACORA.ultimaEntrada(id, DonanteLoader::idDeLinea);
+        if (enBitacora != null) return enBitacora;
+        if (INSTANTANEA.vigente()) return INSTANTANEA.buscar(id, new Validacion()) != null;
+        List<Donante> donantes = cargarDonantes();
+        Identificador buscado = Identificador.buscar(id);
+        return buscado != null && donantes.stream().anyMatch(d -> d.getIdentificador() == buscado);
+    }
+
+    // El ID es el tercer campo de la línea
+    private static String idDeLinea(String linea) {
+        LectorCampos campos = new LectorCampos(linea);
+        if (campos.contarCampos() < 3) return null;
+        campos.saltar();
+        campos.saltar();
+        return campos.siguiente();
+    }
+
     /**busca un donante por su ID.
      * @param id
      * @return
      */
     public static Donante buscarDonantePorId(String id) {
-        ArrayList<Donante> lista = cargarDonantes();
-        for (Donante d : lista) {
-            if (d.getId().equalsIgnoreCase(id)) {
-                return d;
+        if (BITACORA.vacia()) {
+            Donante d = INSTANTANEA.buscar(id, new Validacion());
+            if (d != null) return d;
+        }
+        Identificador buscado = Identificador.buscar(id);
+        if (buscado != null) {
+            for (Donante d : cargarDonantes()) {
+                if (d.getIdentificador() == buscado) return d;
             }
         }
         throw new excepciones.NotFoundException("Donante con ID '" + id + "' no encontrado.");
     }
 
+    /** Anota el alta de un donante en la bitácora, sin validar duplicados. */
+    public static void anotarAlta(Donante d) {
+        BITACORA.registrarAlta(toArchivo(d));
+        compactarSiNecesario();
+    }
+
+    /** Anota la modificación de un donante existente en la bitácora. */
+    public static void anotarCambio(Donante d) {
+        BITACORA.registrarCambio(toArchivo(d));
+        compactarSiNecesario();
+    }
+
+    /** Anota la baja de un donante en la bitácora, sin comprobar que exista. */
+    public static void anotarBaja(String id) {
+        BITACORA.registrarBaja(id);
+        compactarSiNecesario();
+    }
+
+    /**
+     * Vuelca la bitácora en Donante.txt y la vacía.
+     */
+    public static void compactar() {
+        guardarDonantes(cargarDonantes());
+    }
+
+    private static void compactarSiNecesario() {
+        if (BITACORA.requiereCompactacion()) compactar();
+    }
+
     // --- Serialización auxiliar ---
     private static String toArchivo(Donante d) {
         if (d == null) return "";
@@ -155,4 +247,46 @@ public class DonanteLoader {
     private static String safe(String s) {
         return s == null ? "" : s;
     }
+
+    // Registro fijo con los mismos campos que toArchivo (los null se guardan como "")
+    private static final class FormatoDonante implements Instantanea.Formato<Donante> {
+        @Override public int version() { return 1; }
+        @Override public int ancho() { return 4 + 1 + 4 * 7 + 1; }
+        @Override public String id(Donante d) { return d.getId(); }
+
+        @Override
+        public void escribir(Donante d, Instantanea.Escritor e) {
+            e.texto(safe(d.getName()));
+            e.octeto(d.getAge());
+            e.texto(safe(d.getId()));
+            e.texto(safe(d.getBloodType()));
+            e.texto(safe(d.getAddress()));
+            e.texto(safe(d.getPhone()));
+            e.texto(safe(d.getDonationType()));
+            e.texto(safe(d.getHealthStatus()));
+            e.logico(d.isEligibility());
+            e.texto(safe(d.getOrgano()));
+        }
+
+        @Override
+        public Donante leer(Instantanea.Lector l, Validacion v) {
+            String name = l.texto();
+            byte age = l.octeto();
+            String id = l.texto();
+            String bloodType = l.texto();
+            String address = l.texto();
+            String phone = l.texto();
+            String donationType = l.texto();
+            String healthStatus = l.texto();
+            boolean eligibility = l.logico();
+            String organo = l.texto();
+            if (!Donante.validar(name, age, id, bloodType, donationType, healthStatus, v).esValida()) return null;
+            try {
+                return new Donante(name, age, id, bloodType, address, phone, donationType, healthStatus, eligibility, organo);
+            } catch (InvalidDataException | DonanteMenorEdadException e) {
+                v.agregar(Validacion.Codigo.CAMPO_VACIO, "donante", e.getMessage());
+                return null;
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,302 @@
+package loaders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import model.Identificador;
+import model.Persona;
+import model.TipoSangre;
+import util.Textos;
+
+/**
+ * Índice de búsqueda incremental para los selectores de personas: cada palabra
+ * del nombre, el ID y el tipo de sangre se indexan por sus prefijos de hasta
+ * {@link #GRAMA} letras. Una consulta cruza las listas de posiciones de sus
+ * palabras empezando por la más corta, de modo que el costo depende de los
+ * candidatos y no del total indexado. Para las palabras más largas que la grama se
+ * juntan las posiciones de las palabras del nombre (y los ID) que empiezan por
+ * ellas, guardadas en mapas ordenados; solo si eso sale más caro se verifica el
+ * texto de cada candidato.
+ *
+ * <p>El tipo de sangre de cada posición se guarda como el bit de {@link TipoSangre},
+ * así una búsqueda puede restringirse con {@link TipoSangre#mascaraReceptores()}
+ * sin mirar a la persona. A diferencia de {@link IndicePersonas}, este índice admite
+ * altas, cambios y bajas después de construido; una persona modificada pasa al
+ * final del orden de carga.</p>
+ *
+ * <p>No es seguro para hilos: se construye en segundo plano y luego se consulta y
+ * modifica desde un solo hilo.</p>
+ *
+ * @param <T> tipo de persona indexada
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class IndiceBusqueda<T extends Persona> {
+
+    /** Longitud máxima de los prefijos indexados. */
+    public static final int GRAMA = 3;
+    /** Bit de las personas sin un tipo de sangre reconocido. */
+    public static final int SIN_TIPO = 1 << TipoSangre.values().length;
+    /** Máscara que acepta cualquier tipo de sangre, incluso desconocido. */
+    public static final int TODOS = -1;
+
+    // Posiciones en orden creciente; pueden incluir bajas, que se descartan por su tipo 0
+    private static final class Posiciones {
+        int[] datos = new int[2];
+        int cantidad;
+
+        void agregar(int pos) {
+            if (cantidad > 0 && datos[cantidad - 1] == pos) return;
+            if (cantidad == datos.length) datos = Arrays.copyOf(datos, cantidad * 2);
+            datos[cantidad++] = pos;
+        }
+    }
+
+    private final Map<String, Posiciones> porPrefijo = new HashMap<>();
+    // Palabra del nombre -> posiciones, para resolver prefijos largos sin comparar texto
+    private final TreeMap<String, Posiciones> porPalabra = new TreeMap<>();
+    // ID canónico -> posición; ordenado para resolver también prefijos de ID
+    private final TreeMap<String, Integer> porId = new TreeMap<>();
+    // Comparte las palabras de nombre y tipos repetidos entre personas
+    private final Map<String, String> vocabulario = new HashMap<>();
+    private final List<T> personas = new ArrayList<>();
+    private final List<String[]> palabras = new ArrayList<>();
+    // Bit del tipo de sangre por posición; 0 en las bajas
+    private int[] tipos = new int[16];
+    private int bajas;
+
+    /**
+     * Construye el índice a partir de una lista ya cargada.
+     * @param lista personas a indexar (se ignoran los null)
+     */
+    public IndiceBusqueda(List<? extends T> lista) {
+        if (lista == null) return;
+        for (T p : lista) agregar(p);
+    }
+
+    /**
+     * Añade una persona o, si ya hay una con su ID, la reemplaza.
+     * @param persona persona a indexar (se ignora null)
+     */
+    public void agregar(T persona) {
+        if (persona == null) return;
+        String id = Identificador.normalizar(persona.getId());
+        if (id != null) eliminarClave(id);
+
+        int pos = personas.size();
+        String[] partes = palabrasDe(persona);
+        for (int i = 0; i < partes.length; i++) {
+            String palabra = partes[i];
+            for (int n = 1; n <= Math.min(GRAMA, palabra.length()); n++) {
+                porPrefijo.computeIfAbsent(palabra.substring(0, n), k -> new Posiciones()).agregar(pos);
+            }
+            // las dos últimas partes son el ID y el tipo de sangre
+            if (i < partes.length - 2) porPalabra.computeIfAbsent(palabra, k -> new Posiciones()).agregar(pos);
+        }
+        if (pos == tipos.length) tipos = Arrays.copyOf(tipos, pos * 2);
+        tipos[pos] = bitTipo(persona);
+        personas.add(persona);
+        palabras.add(partes);
+        if (id != null) porId.put(id, pos);
+    }
+
+    /**
+     * Quita una persona por su ID (sin distinguir mayúsculas).
+     * @param id identificación
+     * @return true si estaba indexada
+     */
+    public boolean eliminar(String id) {
+        String clave = Identificador.normalizar(id);
+        return clave != null && eliminarClave(clave);
+    }
+
+    private boolean eliminarClave(String id) {
+        Integer pos = porId.remove(id);
+        if (pos == null) return false;
+        tipos[pos] = 0;
+        personas.set(pos, null);
+        palabras.set(pos, null);
+        bajas++;
+        if (bajas > 1024 && bajas > cantidad()) compactar();
+        return true;
+    }
+
+    /**
+     * Busca las personas que tienen, para cada palabra de la consulta, una palabra
+     * (del nombre, el ID o el tipo de sangre) que empieza por ella. Una consulta
+     * vacía devuelve las primeras personas en orden de carga.
+     * @param consulta texto escrito (se normaliza)
+     * @param mascara bits de tipo de sangre aceptados ({@link #TODOS} para no filtrar)
+     * @param limite máximo de resultados
+     * @return coincidencias en orden de carga
+     */
+    public List<T> buscar(String consulta, int mascara, int limite) {
+        List<T> resultado = new ArrayList<>(Math.max(0, Math.min(limite, 64)));
+        if (limite <= 0 || mascara == 0) return resultado;
+        String[] terminos = Textos.palabras(Textos.normalizar(consulta));
+        int total = personas.size();
+
+        if (terminos.length == 0) {
+            for (int pos = 0; pos < total && resultado.size() < limite; pos++) {
+                if ((tipos[pos] & mascara) != 0) resultado.add(personas.get(pos));
+            }
+            return resultado;
+        }
+
+        // Listas de posiciones de cada término, de la más corta a la más larga
+        Posiciones[] listas = new Posiciones[terminos.length];
+        List<String> largos = new ArrayList<>();
+        for (int t = 0; t < terminos.length; t++) {
+            String termino = terminos[t];
+            Posiciones grama = porPrefijo.get(termino.length() > GRAMA ? termino.substring(0, GRAMA) : termino);
+            if (grama == null) return resultado;
+            listas[t] = grama;
+            if (termino.length() > GRAMA) {
+                Posiciones exactas = exactas(termino, grama.cantidad / 2);
+                if (exactas == null) largos.add(termino);
+                else listas[t] = exactas;
+            }
+            if (listas[t].cantidad == 0) return resultado;
+        }
+        Arrays.sort(listas, (a, b) -> Integer.compare(a.cantidad, b.cantidad));
+        String[] porVerificar = largos.toArray(new String[0]);
+
+        // La lista más corta guía; en las demás se avanza con búsqueda exponencial.
+        // Solo los términos largos sin lista exacta se comparan con las palabras de la persona.
+        int[] cursores = new int[listas.length];
+        Posiciones guia = listas[0];
+        for (int i = 0; i < guia.cantidad && resultado.size() < limite; i++) {
+            int pos = guia.datos[i];
+            if ((tipos[pos] & mascara) == 0) continue;
+            boolean enTodas = true;
+            for (int t = 1; t < listas.length && enTodas; t++) {
+                cursores[t] = avanzar(listas[t], cursores[t], pos);
+                enTodas = cursores[t] < listas[t].cantidad && listas[t].datos[cursores[t]] == pos;
+            }
+            if (enTodas && contienePrefijos(palabras.get(pos), porVerificar)) resultado.add(personas.get(pos));
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca por ID sin distinguir mayúsculas.
+     * @param id identificación
+     * @return la persona o null si no está indexada
+     */
+    public T buscarPorId(String id) {
+        String clave = Identificador.normalizar(id);
+        Integer pos = clave == null ? null : porId.get(clave);
+        return pos == null ? null : personas.get(pos);
+    }
+
+    /** @return número de personas indexadas */
+    public int cantidad() { return personas.size() - bajas; }
+
+    /**
+     * @param persona persona indexada
+     * @return el bit de su tipo de sangre, o {@link #SIN_TIPO} si no se reconoce
+     */
+    public static int bitTipo(Persona persona) {
+        TipoSangre tipo = persona.getTipoSangre();
+        return tipo != null ? tipo.bit() : SIN_TIPO;
+    }
+
+    // Palabras del nombre, el ID y el tipo de sangre, ya normalizadas
+    private String[] palabrasDe(T persona) {
+        String[] nombre = Textos.palabras(persona.getNombreNormalizado());
+        String id = Textos.normalizar(persona.getId());
+        String sangre = Textos.normalizar(persona.getBloodType());
+        String[] partes = Arrays.copyOf(nombre, nombre.length + 2);
+        for (int i = 0; i < nombre.length; i++) partes[i] = compartida(nombre[i]);
+        partes[nombre.length] = id;
+        partes[nombre.length + 1] = compartida(sangre);
+        return partes;
+    }
+
+    private String compartida(String palabra) {
+        String previa = vocabulario.putIfAbsent(palabra, palabra);
+        return previa != null ? previa : palabra;
+    }
+
+    // Vuelve a indexar solo las personas vigentes cuando las bajas superan a las altas
+    private void compactar() {
+        List<T> vigentes = new ArrayList<>(cantidad());
+        for (T p : personas) if (p != null) vigentes.add(p);
+        porPrefijo.clear();
+        porPalabra.clear();
+        porId.clear();
+        personas.clear();
+        palabras.clear();
+        tipos = new int[Math.max(16, vigentes.size())];
+        bajas = 0;
+        for (T p : vigentes) agregar(p);
+    }
+
+    // Posiciones de las palabras del nombre y los ID que empiezan por el término, o null
+    // si pasan del tope (en ese caso conviene verificar los candidatos de su grama)
+    private Posiciones exactas(String termino, int tope) {
+        Posiciones union = new Posiciones();
+        for (Posiciones p : porPalabra.subMap(termino, true, termino + Character.MAX_VALUE, false).values()) {
+            if (union.cantidad + p.cantidad > tope) return null;
+            if (union.cantidad + p.cantidad > union.datos.length) {
+                union.datos = Arrays.copyOf(union.datos, Math.max(union.datos.length * 2, union.cantidad + p.cantidad));
+            }
+            System.arraycopy(p.datos, 0, union.datos, union.cantidad, p.cantidad);
+            union.cantidad += p.cantidad;
+        }
+        String prefijoId = termino.toUpperCase(Locale.ROOT);
+        for (int pos : porId.subMap(prefijoId, true, prefijoId + Character.MAX_VALUE, false).values()) {
+            if (union.cantidad >= tope) return null;
+            if (union.cantidad == union.datos.length) union.datos = Arrays.copyOf(union.datos, union.cantidad * 2);
+            union.datos[union.cantidad++] = pos;
+        }
+        Arrays.sort(union.datos, 0, union.cantidad);
+        int distintos = 0;
+        for (int i = 0; i < union.cantidad; i++) {
+            if (distintos == 0 || union.datos[distintos - 1] != union.datos[i]) union.datos[distintos++] = union.datos[i];
+        }
+        union.cantidad = distintos;
+        return union;
+    }
+
+    // Primer índice desde 'desde' cuyo valor es >= pos (búsqueda exponencial y luego binaria)
+    private static int avanzar(Posiciones lista, int desde, int pos) {
+        int[] datos = lista.datos;
+        int fin = lista.cantidad;
+        if (desde >= fin || datos[desde] >= pos) return desde;
+        int paso = 1;
+        int bajo = desde;
+        int alto = desde + 1;
+        while (alto < fin && datos[alto] < pos) {
+            bajo = alto;
+            paso <<= 1;
+            alto = desde + paso;
+        }
+        alto = Math.min(alto, fin);
+        // datos[bajo] < pos; el resultado está en (bajo, alto]
+        while (bajo + 1 < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (datos[medio] < pos) bajo = medio;
+            else alto = medio;
+        }
+        return alto;
+    }
+
+    private static boolean contienePrefijos(String[] palabras, String[] prefijos) {
+        for (String pref : prefijos) {
+            boolean encontrado = false;
+            for (String palabra : palabras) {
+                if (palabra.startsWith(pref)) {
+                    encontrado = true;
+                    break;
+                }
+            }
+            if (!encontrado) return false;
+        }
+        return true;
+    }
+}
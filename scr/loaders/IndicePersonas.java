@@ -0,0 +1,188 @@
+package loaders;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import model.Identificador;
+import model.Persona;
+import util.Textos;
+
+/**
+ * Índice en memoria de personas (pacientes o donantes) por ID y por nombre normalizado.
+ * Se construye una sola vez por carga para resolver las referencias de cada línea
+ * sin volver a leer los archivos.
+ *
+ * <p>Además del nombre completo, cada palabra del nombre se guarda en un mapa
+ * ordenado, de modo que las búsquedas por prefijo de palabra ("juan p") no
+ * recorren todas las personas. El nombre normalizado lo calcula {@link Persona}
+ * una sola vez; si se cambia el nombre de una persona ya indexada hay que
+ * reconstruir el índice.</p>
+ *
+ * @param <T> tipo de persona indexada
+ * @author Juan Cogua
+ * @version 1.1
+ */
+public class IndicePersonas<T extends Persona> {
+
+    private final Map<Identificador, T> porId = new HashMap<>();
+    // Nombre normalizado -> posición de la primera persona con ese nombre
+    private final Map<String, Integer> porNombre = new HashMap<>();
+    // Palabra -> posiciones (en orden de carga) de las personas cuyo nombre la contiene
+    private final TreeMap<String, List<Integer>> porPalabra = new TreeMap<>();
+    private final List<T> personas = new ArrayList<>();
+    private final List<String[]> palabras = new ArrayList<>();
+
+    /**
+     * Construye el índice a partir de una lista ya cargada.
+     * @param lista personas a indexar (se ignoran los null)
+     */
+    public IndicePersonas(List<T> lista) {
+        if (lista == null) return;
+        for (T p : lista) agregar(p);
+    }
+
+    /**
+     * Añade una persona al índice. Si ya existe otra con el mismo ID o nombre,
+     * se conserva la primera, igual que el recorrido secuencial original.
+     * @param persona persona a indexar
+     */
+    public void agregar(T persona) {
+        if (persona == null) return;
+        int pos = personas.size();
+        Identificador id = persona.getIdentificador();
+        if (id != null) porId.putIfAbsent(id, persona);
+        String nombre = persona.getNombreNormalizado();
+        porNombre.putIfAbsent(nombre, pos);
+
+        String[] partes = Textos.palabras(nombre);
+        for (String palabra : partes) {
+            List<Integer> posiciones = porPalabra.computeIfAbsent(palabra, k -> new ArrayList<>(1));
+            if (posiciones.isEmpty() || posiciones.get(posiciones.size() - 1) != pos) posiciones.add(pos);
+        }
+        personas.add(persona);
+        palabras.add(partes);
+    }
+
+    /**
+     * Busca por ID sin distinguir mayúsculas.
+     * @param id identificación
+     * @return la persona o null si no existe
+     */
+    public T buscarPorId(String id) {
+        Identificador clave = Identificador.buscar(id);
+        return clave == null ? null : porId.get(clave);
+    }
+
+    /**
+     * Busca por identificador canónico.
+     * @param id identificador
+     * @return la persona o null si no existe
+     */
+    public T buscarPorId(Identificador id) {
+        return id == null ? null : porId.get(id);
+    }
+
+    /**
+     * Resuelve una referencia que puede ser un ID o un nombre (con o sin tildes).
+     * Orden: ID exacto, nombre normalizado exacto y, por último, coincidencia parcial:
+     * cada palabra de la referencia es prefijo de una palabra del nombre ("maria r"),
+     * o el nombre completo aparece dentro de la referencia ("Sr. Juan Pérez").
+     * Si varias personas coinciden se devuelve la primera en orden de carga.
+     * @param referencia texto leído del archivo
+     * @return la persona encontrada o null
+     */
+    public T resolver(String referencia) {
+        if (referencia == null) return null;
+        T p = buscarPorId(referencia);
+        if (p != null) return p;
+
+        String ref = Textos.normalizar(referencia);
+        Integer exacto = porNombre.get(ref);
+        if (exacto != null) return personas.get(exacto);
+
+        String[] refPalabras = Textos.palabras(ref);
+        if (refPalabras.length == 0) return null;
+        int mejor = Math.min(porPrefijos(refPalabras), nombreContenido(refPalabras));
+        return mejor == Integer.MAX_VALUE ? null : personas.get(mejor);
+    }
+
+    /**
+     * Busca las personas con alguna palabra del nombre que empiece por el prefijo dado.
+     * @param prefijo texto (se normaliza)
+     * @return personas coincidentes en orden de carga, sin repetidos
+     */
+    public List<T> buscarPorPrefijo(String prefijo) {
+        List<T> resultado = new ArrayList<>();
+        String pref = Textos.normalizar(prefijo);
+        if (pref.isEmpty()) return resultado;
+        TreeMap<Integer, T> orden = new TreeMap<>();
+        for (List<Integer> posiciones : rango(pref).values()) {
+            for (int pos : posiciones) orden.putIfAbsent(pos, personas.get(pos));
+        }
+        resultado.addAll(orden.values());
+        return resultado;
+    }
+
+    /** @return número de personas indexadas */
+    public int tamaño() { return personas.size(); }
+
+    /** @return las personas indexadas en orden de carga */
+    public List<T> getPersonas() { return personas; }
+
+    /**
+     * Normaliza un texto para comparar: sin tildes, en minúsculas y sin espacios extremos.
+     * @param s texto original
+     * @return texto normalizado ("" si es null)
+     */
+    public static String normalizar(String s) {
+        return Textos.normalizar(s);
+    }
+
+    // Primera posición cuyo nombre tiene, para cada palabra de la referencia, una palabra que empieza por ella
+    private int porPrefijos(String[] refPalabras) {
+        int mejor = Integer.MAX_VALUE;
+        for (List<Integer> posiciones : rango(refPalabras[0]).values()) {
+            for (int pos : posiciones) {
+                if (pos >= mejor) break; // las posiciones están en orden creciente
+                if (contienePrefijos(palabras.get(pos), refPalabras)) mejor = pos;
+            }
+        }
+        return mejor;
+    }
+
+    // Primera posición cuyo nombre completo coincide con una secuencia de palabras de la referencia
+    private int nombreContenido(String[] refPalabras) {
+        int mejor = Integer.MAX_VALUE;
+        for (int i = 0; i < refPalabras.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = i; j < refPalabras.length; j++) {
+                if (j > i) sb.append(' ');
+                sb.append(refPalabras[j]);
+                Integer pos = porNombre.get(sb.toString());
+                if (pos != null && pos < mejor) mejor = pos;
+            }
+        }
+        return mejor;
+    }
+
+    private NavigableMap<String, List<Integer>> rango(String prefijo) {
+        return porPalabra.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false);
+    }
+
+    private static boolean contienePrefijos(String[] nombre, String[] prefijos) {
+        for (String pref : prefijos) {
+            boolean encontrado = false;
+            for (String palabra : nombre) {
+                if (palabra.startsWith(pref)) {
+                    encontrado = true;
+                    break;
+                }
+            }
+            if (!encontrado) return false;
+        }
+        return true;
+    }
+}
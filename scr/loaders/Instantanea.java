@@ -0,0 +1,500 @@
+package loaders;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.zip.CRC32;
+import model.Identificador;
+import model.Validacion;
+
+/**
+ * Instantánea binaria de un archivo de datos (Paciente.txt, Donante.txt, ...), escrita
+ * al compactar o al cerrar la aplicación y leída de una vez al iniciar.
+ * Evita volver a interpretar el texto: cada registro tiene un ancho fijo, los textos
+ * se guardan una sola vez en una tabla y las fechas como números.
+ *
+ * <p>Estructura del archivo {@code <nombre>.snap}:</p>
+ * <ul>
+ *   <li>Cabecera de {@value #CABECERA} bytes: marca, versión del formato y del esquema,
+ *       huella del .txt, cantidad de registros, líneas y omitidas, y posiciones de las secciones.</li>
+ *   <li>Registros: número de línea en el .txt (int) seguido de los campos del {@link Formato}.</li>
+ *   <li>Tabla de textos: desplazamientos acumulados (int) y los textos en UTF-8.</li>
+ *   <li>Índice: pares (ID normalizado en la tabla de textos, número de registro) ordenados
+ *       por ID, para buscar un registro sin leer los demás.</li>
+ * </ul>
+ *
+ * <p>La instantánea representa solo el .txt; la {@link BitacoraCambios} se aplica encima
+ * igual que con el texto. Se considera vigente mientras la huella del .txt (tamaño, fecha
+ * de modificación y CRC de su inicio y su final) coincida; si no, los loaders leen el .txt.
+ * Los registros que referencian a otros archivos (citas y trasplantes) declaran esos
+ * archivos como dependencias: si cambia uno de ellos o su bitácora, también se lee el .txt.</p>
+ *
+ * <p>El .snap se lee con {@link FileChannel#read} y nunca se mapea: en Windows un archivo
+ * mapeado no puede reemplazarse hasta que el recolector libera el mapeo, y la escritura
+ * reemplaza el archivo al final. Los métodos son sincronizados, así que cada loader debe
+ * usar una sola instancia por archivo.</p>
+ *
+ * @param <T> tipo de registro
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class Instantanea<T> {
+
+    /** Tamaño de la cabecera en bytes. */
+    public static final int CABECERA = 96;
+
+    private static final int MAGIA = 0x45505342; // "EPSB"
+    private static final short VERSION = 1;
+    private static final int MUESTRA_CRC = 64 * 1024;
+    private static final int SIN_TEXTO = -1;
+    // leer() carga el archivo completo en un solo arreglo: cabecera, registros, textos e índice
+    private static final long LARGO_MAXIMO = Integer.MAX_VALUE / 2;
+
+    /**
+     * Distribución fija de los campos de un tipo de registro.
+     * @param <T> tipo de registro
+     */
+    public interface Formato<T> {
+        /** @return versión del esquema; cambiarla invalida las instantáneas anteriores */
+        int version();
+
+        /** @return bytes que ocupan los campos de un registro */
+        int ancho();
+
+        /** @return ID del registro, para el índice */
+        String id(T registro);
+
+        /** Escribe los campos en el orden del esquema. */
+        void escribir(T registro, Escritor e);
+
+        /**
+         * Reconstruye el registro validándolo como al leer el .txt.
+         * @return el registro o null si es inválido (las violaciones quedan en v)
+         */
+        T leer(Lector l, Validacion v);
+    }
+
+    /** Escribe los campos de un registro en su posición fija. */
+    public static final class Escritor {
+        private final ByteBuffer registro;
+        private final Map<String, Integer> codigos = new HashMap<>();
+        private final List<String> textos = new ArrayList<>();
+
+        private Escritor(int ancho) {
+            registro = ByteBuffer.allocate(ancho);
+        }
+
+        /** Guarda un texto como referencia a la tabla (los textos repetidos se guardan una vez). */
+        public void texto(String s) {
+            registro.putInt(s == null ? SIN_TEXTO : codigo(s));
+        }
+
+        private int codigo(String s) {
+            Integer codigo = codigos.get(s);
+            if (codigo == null) {
+                codigo = textos.size();
+                codigos.put(s, codigo);
+                textos.add(s);
+            }
+            return codigo;
+        }
+
+        public void octeto(byte b) { registro.put(b); }
+        public void entero(int i) { registro.putInt(i); }
+        public void largo(long l) { registro.putLong(l); }
+        public void decimal(double d) { registro.putDouble(d); }
+        public void logico(boolean b) { registro.put(b ? (byte) 1 : 0); }
+    }
+
+    /** Lee los campos de un registro en el mismo orden en que se escribieron. */
+    public static final class Lector {
+        private final ByteBuffer datos;
+        private final long tablaTextos;
+        private final int cantidadTextos;
+        // Si no es null, los textos se leen del archivo en lugar de datos
+        private final FileChannel canal;
+        private final String[] textos; // se decodifican una vez y se comparten entre registros
+        private int pos;
+
+        // Con el archivo completo en datos
+        private Lector(ByteBuffer datos, long tablaTextos, int cantidadTextos) {
+            this(datos, tablaTextos, cantidadTextos, null);
+        }
+
+        // Con solo un registro en datos; los textos se leen del canal sin guardarlos
+        private Lector(ByteBuffer datos, long tablaTextos, int cantidadTextos, FileChannel canal) {
+            this.datos = datos;
+            this.tablaTextos = tablaTextos;
+            this.cantidadTextos = cantidadTextos;
+            this.canal = canal;
+            this.textos = canal == null ? new String[cantidadTextos] : null;
+        }
+
+        private void ir(int posicion) { this.pos = posicion; }
+
+        public String texto() {
+            int codigo = entero();
+            return codigo == SIN_TEXTO ? null : textoDeTabla(codigo);
+        }
+
+        public byte octeto() { return datos.get(pos++); }
+        public int entero() { int v = datos.getInt(pos); pos += 4; return v; }
+        public long largo() { long v = datos.getLong(pos); pos += 8; return v; }
+        public double decimal() { double v = datos.getDouble(pos); pos += 8; return v; }
+        public boolean logico() { return octeto() != 0; }
+
+        private String textoDeTabla(int codigo) {
+            if (textos != null && textos[codigo] != null) return textos[codigo];
+            long blob = tablaTextos + 4L * (cantidadTextos + 1);
+            ByteBuffer limites = bloque(tablaTextos + 4L * codigo, 8);
+            int desde = limites.getInt(0);
+            int hasta = limites.getInt(4);
+            String s = new String(bloque(blob + desde, hasta - desde).array(), StandardCharsets.UTF_8);
+            if (textos != null) textos[codigo] = s;
+            return s;
+        }
+
+        private ByteBuffer bloque(long desde, int largo) {
+            if (canal == null) {
+                byte[] bytes = new byte[largo];
+                ByteBuffer b = datos.duplicate();
+                b.position((int) desde);
+                b.get(bytes);
+                return ByteBuffer.wrap(bytes);
+            }
+            try {
+                return leerBloque(canal, desde, largo);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private final File texto;
+    private final File archivo;
+    private final Formato<T> formato;
+    private final File[] dependencias;
+
+    /**
+     * @param rutaTexto ruta del archivo de datos (por ejemplo "Paciente.txt")
+     * @param formato distribución de los campos
+     * @param dependencias archivos de datos cuyos registros se referencian (por ejemplo
+     *                     "Paciente.txt" para las citas); se vigilan junto con su bitácora
+     */
+    public Instantanea(String rutaTexto, Formato<T> formato, String... dependencias) {
+        this.texto = new File(rutaTexto);
+        this.archivo = new File(rutaTexto.replaceFirst("\\.txt$", "") + ".snap");
+        this.formato = formato;
+        this.dependencias = new File[dependencias.length * 2];
+        for (int i = 0; i < dependencias.length; i++) {
+            this.dependencias[2 * i] = new File(dependencias[i]);
+            this.dependencias[2 * i + 1] = BitacoraCambios.archivoDe(dependencias[i]);
+        }
+    }
+
+    /** @return el archivo .snap */
+    public File getArchivo() { return archivo; }
+
+    /**
+     * @return true si existe una instantánea que corresponde al estado actual del .txt
+     */
+    public synchronized boolean vigente() {
+        if (!archivo.exists() || !texto.exists()) return false;
+        try (RandomAccessFile raf = new RandomAccessFile(archivo, "r")) {
+            return cabeceraVigente(raf) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Lee solo la cabecera; la devuelve si la instantánea está vigente, si no null
+    private ByteBuffer cabeceraVigente(RandomAccessFile raf) throws IOException {
+        long largoArchivo = raf.length();
+        if (largoArchivo < CABECERA) return null;
+        byte[] cabecera = new byte[CABECERA];
+        raf.seek(0);
+        raf.readFully(cabecera);
+        ByteBuffer c = ByteBuffer.wrap(cabecera);
+        if (c.getInt(0) != MAGIA || c.getShort(4) != VERSION || c.getShort(6) != formato.version()) return null;
+        if (c.getLong(56) != largoArchivo) return null; // escritura incompleta
+        if (c.getInt(28) != formato.ancho() + 4) return null;
+        long[] huella = huella();
+        boolean vigente = c.getLong(8) == huella[0] && c.getLong(16) == huella[1]
+                && c.getLong(64) == huella[2] && c.getLong(80) == huella[3];
+        return vigente ? c : null;
+    }
+
+    // Lee 'largo' bytes desde la posición dada sin mover la posición del canal
+    private static ByteBuffer leerBloque(FileChannel canal, long desde, int largo) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(largo);
+        while (b.hasRemaining()) {
+            if (canal.read(b, desde + b.position()) < 0) throw new IOException("Fin de archivo inesperado");
+        }
+        return b;
+    }
+
+    // Tamaño, fecha de modificación y CRC32 del primer y último bloque del .txt,
+    // más un CRC del tamaño y la fecha de las dependencias
+    private long[] huella() throws IOException {
+        long largo = texto.length();
+        long fecha = texto.lastModified();
+        CRC32 crc = new CRC32();
+        try (RandomAccessFile raf = new RandomAccessFile(texto, "r")) {
+            byte[] bloque = new byte[(int) Math.min(MUESTRA_CRC, largo)];
+            raf.readFully(bloque);
+            crc.update(bloque);
+            if (largo > MUESTRA_CRC) {
+                raf.seek(Math.max(MUESTRA_CRC, largo - MUESTRA_CRC));
+                bloque = new byte[(int) (largo - raf.getFilePointer())];
+                raf.readFully(bloque);
+                crc.update(bloque);
+            }
+        }
+        CRC32 deps = new CRC32();
+        ByteBuffer b = ByteBuffer.allocate(16);
+        for (File f : dependencias) {
+            b.clear();
+            b.putLong(f.exists() ? f.length() : -1).putLong(f.lastModified());
+            deps.update(b.array());
+        }
+        return new long[] {largo, fecha, crc.getValue(), deps.getValue()};
+    }
+
+    /**
+     * Lee todos los registros si la instantánea está vigente.
+     * @param reporte informe donde se fijan las líneas y omitidas del .txt y se anotan
+     *                los registros que ya no validan (por ejemplo, referencias perdidas)
+     * @return los registros en el orden del .txt, o null si hay que leer el .txt
+     */
+    public List<T> leer(ReporteCarga reporte) {
+        return leer(reporte, formato);
+    }
+
+    /**
+     * Lee todos los registros si la instantánea está vigente, reconstruyéndolos con otro
+     * formato del mismo esquema; sirve a los formatos que resuelven referencias contra
+     * índices cargados en cada llamada.
+     * @param reporte informe donde se fijan las líneas y omitidas del .txt
+     * @param lectura formato con la misma versión y ancho que el de la instantánea
+     * @return los registros en el orden del .txt, o null si hay que leer el .txt
+     */
+    public synchronized List<T> leer(ReporteCarga reporte, Formato<T> lectura) {
+        if (lectura.version() != formato.version() || lectura.ancho() != formato.ancho()) {
+            throw new IllegalArgumentException("El formato de lectura no corresponde al de la instantánea.");
+        }
+        if (!archivo.exists() || !texto.exists()) return null;
+        try (RandomAccessFile raf = new RandomAccessFile(archivo, "r")) {
+            ByteBuffer cabecera = cabeceraVigente(raf);
+            if (cabecera == null) return null;
+
+            // El escritor no pasa de LARGO_MAXIMO; un archivo mayor se ignora y se lee el .txt
+            long largo = raf.length();
+            if (largo > LARGO_MAXIMO) return null;
+            ByteBuffer datos = leerBloque(raf.getChannel(), 0, (int) largo);
+            int registros = cabecera.getInt(24);
+            int ancho = cabecera.getInt(28);
+            reporte.registrarInstantanea(cabecera.getInt(32), cabecera.getInt(36));
+            Lector lector = new Lector(datos, cabecera.getLong(40), cabecera.getInt(72));
+            List<T> lista = new ArrayList<>(registros);
+            for (int i = 0; i < registros; i++) {
+                lector.ir(CABECERA + i * ancho);
+                int linea = lector.entero();
+                T r = reporte.interpretarRegistro(linea, v -> lectura.leer(lector, v));
+                if (r != null) lista.add(r);
+            }
+            return lista;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Instantánea " + archivo.getName() + " ilegible, se leerá el texto: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Busca un registro por ID con el índice de la instantánea, sin leer los demás.
+     * Devuelve el primero en orden de archivo, como un recorrido de la lista.
+     * Solo se leen del archivo el índice, los textos comparados y el registro encontrado.
+     * @param id ID a buscar (sin distinguir mayúsculas)
+     * @param v validación del registro encontrado
+     * @return el registro, o null si no existe, no valida o la instantánea no está vigente
+     */
+    public synchronized T buscar(String id, Validacion v) {
+        String clave = Identificador.normalizar(id);
+        if (clave == null || !archivo.exists() || !texto.exists()) return null;
+        try (RandomAccessFile raf = new RandomAccessFile(archivo, "r")) {
+            ByteBuffer cabecera = cabeceraVigente(raf);
+            if (cabecera == null) return null;
+
+            FileChannel canal = raf.getChannel();
+            int registros = cabecera.getInt(24);
+            int ancho = cabecera.getInt(28);
+            ByteBuffer indice = leerBloque(canal, cabecera.getLong(48), 8 * registros);
+            Lector textos = new Lector(null, cabecera.getLong(40), cabecera.getInt(72), canal);
+            int bajo = 0;
+            int alto = registros;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (textos.textoDeTabla(indice.getInt(8 * medio)).compareTo(clave) < 0) bajo = medio + 1;
+                else alto = medio;
+            }
+            if (bajo == registros || !textos.textoDeTabla(indice.getInt(8 * bajo)).equals(clave)) return null;
+            long registro = CABECERA + (long) indice.getInt(8 * bajo + 4) * ancho + 4;
+            Lector lector = new Lector(leerBloque(canal, registro, ancho - 4), cabecera.getLong(40),
+                    cabecera.getInt(72), canal);
+            return formato.leer(lector, v);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Escribe la instantánea de registros que acaban de guardarse en el .txt, uno por línea.
+     * @param registros registros en el orden del .txt
+     */
+    public synchronized void escribir(List<T> registros) {
+        int[] lineas = new int[registros.size()];
+        for (int i = 0; i < lineas.length; i++) lineas[i] = i + 1;
+        try {
+            escribir(registros, lineas, registros.size(), 0, huella());
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir la instantánea " + archivo.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lee el .txt línea a línea y escribe su instantánea, si no hay una vigente.
+     * Se usa al cerrar la aplicación, cuando el .txt cambió desde la última instantánea.
+     * @param parser interpreta una línea del .txt, igual que en la carga
+     * @return true si se escribió una instantánea nueva; false si ya había una vigente,
+     *         falló la escritura o la instantánea superaría el tamaño máximo
+     */
+    public synchronized boolean escribirDesdeTexto(BiFunction<String, Validacion, T> parser) {
+        if (!texto.exists() || vigente()) return false;
+        try {
+            long[] huella = huella(); // antes de leer: si el .txt cambia mientras tanto, queda obsoleta
+            ReporteCarga reporte = new ReporteCarga(texto.getName());
+            List<T> registros = new ArrayList<>();
+            int[] lineas = new int[16];
+            try (BufferedReader br = new BufferedReader(new FileReader(texto, StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = br.readLine()) != null) {
+                    T r = reporte.interpretar(linea, parser);
+                    if (r == null) continue;
+                    if (registros.size() == lineas.length) lineas = Arrays.copyOf(lineas, lineas.length * 2);
+                    lineas[registros.size()] = reporte.getLineas();
+                    registros.add(r);
+                }
+            }
+            return escribir(registros, lineas, reporte.getLineas(), reporte.getOmitidas(), huella);
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir la instantánea " + archivo.getName() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Escribe en un archivo temporal y lo reemplaza al final, para no dejar instantáneas a medias.
+    // Devuelve false, sin tocar la instantánea anterior, si el archivo superaría LARGO_MAXIMO.
+    private boolean escribir(List<T> registros, int[] lineas, int totalLineas, int omitidas, long[] huella)
+            throws IOException {
+        int n = registros.size();
+        int ancho = formato.ancho() + 4;
+        if (CABECERA + (long) n * ancho > LARGO_MAXIMO) return false;
+        Escritor escritor = new Escritor(formato.ancho());
+        int[] ids = new int[n];
+        File temporal = File.createTempFile(archivo.getName(), ".tmp", archivo.getAbsoluteFile().getParentFile());
+        ByteBuffer c = ByteBuffer.allocate(CABECERA);
+        boolean cabe = true;
+
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporal)))) {
+                out.write(c.array()); // la cabecera se completa al final
+                for (int i = 0; i < n; i++) {
+                    T r = registros.get(i);
+                    escritor.registro.clear();
+                    formato.escribir(r, escritor);
+                    if (escritor.registro.position() != formato.ancho()) {
+                        throw new IllegalStateException("El formato escribió " + escritor.registro.position()
+                                + " bytes en lugar de " + formato.ancho());
+                    }
+                    out.writeInt(lineas[i]);
+                    out.write(escritor.registro.array());
+                    String id = Identificador.normalizar(formato.id(r));
+                    ids[i] = escritor.codigo(id == null ? "" : id);
+                }
+
+                long tablaTextos = CABECERA + (long) n * ancho;
+                List<byte[]> bytes = new ArrayList<>(escritor.textos.size());
+                long totalTextos = 0;
+                for (String s : escritor.textos) {
+                    byte[] b = s.getBytes(StandardCharsets.UTF_8);
+                    bytes.add(b);
+                    totalTextos += b.length;
+                }
+                long indice = tablaTextos + 4L * (escritor.textos.size() + 1) + totalTextos;
+                cabe = indice + 8L * n <= LARGO_MAXIMO;
+                if (cabe) {
+                    int acumulado = 0;
+                    out.writeInt(0);
+                    for (byte[] b : bytes) {
+                        acumulado += b.length;
+                        out.writeInt(acumulado);
+                    }
+                    for (byte[] b : bytes) out.write(b);
+
+                    Integer[] orden = new Integer[n];
+                    for (int i = 0; i < n; i++) orden[i] = i;
+                    // Orden estable: los IDs repetidos quedan en orden de archivo
+                    Arrays.sort(orden, (a, b) -> escritor.textos.get(ids[a]).compareTo(escritor.textos.get(ids[b])));
+                    for (Integer i : orden) {
+                        out.writeInt(ids[i]);
+                        out.writeInt(i);
+                    }
+
+                    c.putInt(0, MAGIA);
+                    c.putShort(4, VERSION);
+                    c.putShort(6, (short) formato.version());
+                    c.putLong(8, huella[0]);
+                    c.putLong(16, huella[1]);
+                    c.putInt(24, n);
+                    c.putInt(28, ancho);
+                    c.putInt(32, totalLineas);
+                    c.putInt(36, omitidas);
+                    c.putLong(40, tablaTextos);
+                    c.putLong(48, indice);
+                    c.putLong(56, indice + 8L * n);
+                    c.putLong(64, huella[2]);
+                    c.putInt(72, escritor.textos.size());
+                    c.putLong(80, huella[3]);
+                }
+            }
+            if (!cabe) {
+                temporal.delete();
+                return false;
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(temporal, "rw")) {
+                raf.write(c.array());
+            }
+        } catch (IOException | RuntimeException e) {
+            temporal.delete();
+            throw e instanceof IOException ? (IOException) e : new IOException(e.getMessage(), e);
+        }
+        Files.move(temporal.toPath(), archivo.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+}
@@ -2,7 +2,12 @@ package loaders;
 
 import java.io.*;
 import java.util.*;
+import java.nio.charset.StandardCharsets;
+import excepciones.InvalidDataException;
+import model.Identificador;
 import model.Paciente;
+import model.Validacion;
+import util.LectorCampos;
 
 
 /**
@@ -14,13 +19,44 @@ import model.Paciente;
 public class PacienteLoader {
 
     private static final String RUTA = "Paciente.txt";
+    private static final BitacoraCambios BITACORA = new BitacoraCambios(RUTA);
+    private static final Instantanea<Paciente> INSTANTANEA = new Instantanea<>(RUTA, new FormatoPaciente());
 
     /**
-     * Carga los pacientes desde el archivo Paciente.txt
+     * Carga los pacientes desde la instantánea binaria, o desde Paciente.txt si no está vigente,
+     * y aplica la bitácora de cambios pendiente.
+     * Si hay líneas inválidas se imprime un solo resumen al final.
      * @return Lista de pacientes cargada del archivo
      */
     public static ArrayList<Paciente> cargarPacientes() {
-        // ... (código existente)
+        ReporteCarga reporte = new ReporteCarga(RUTA);
+        ArrayList<Paciente> lista = cargarPacientes(reporte);
+        reporte.avisar();
+        return lista;
+    }
+
+    /**
+     * Carga los pacientes anotando las líneas inválidas en el informe, sin imprimir nada.
+     * @param reporte informe de la carga
+     * @return Lista de pacientes cargada del archivo
+     */
+    public static ArrayList<Paciente> cargarPacientes(ReporteCarga reporte) {
+        return cargarPacientes(new File(RUTA).length() >= CargaParalela.UMBRAL_BYTES, reporte);
+    }
+
+    /**
+     * Carga los pacientes leyendo el archivo en paralelo (ver {@link CargaParalela}),
+     * pensado para importaciones masivas, y aplica la bitácora de cambios pendiente.
+     * @return Lista de pacientes en el orden del archivo
+     */
+    public static ArrayList<Paciente> cargarPacientesParalelo() {
+        ReporteCarga reporte = new ReporteCarga(RUTA);
+        ArrayList<Paciente> lista = cargarPacientes(true, reporte);
+        reporte.avisar();
+        return lista;
+    }
+
+    private static ArrayList<Paciente> cargarPacientes(boolean paralelo, ReporteCarga reporte) {
         ArrayList<Paciente> lista = new ArrayList<>();
         File archivo = new File(RUTA);
 
@@ -29,17 +65,30 @@ public class PacienteLoader {
             return lista;
         }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            while ((linea = br.readLine()) != null) {
-                if (linea.trim().isEmpty()) continue;
-                Paciente p = Paciente.fromArchivo(linea);
-                if (p != null) lista.add(p);
+        List<Paciente> instantanea = INSTANTANEA.leer(reporte);
+        if (instantanea != null) {
+            lista.addAll(instantanea);
+        } else if (paralelo) {
+            try {
+                lista.addAll(CargaParalela.cargar(archivo, Paciente::fromArchivo, reporte));
+            } catch (IOException e) {
+                System.err.println(" Error al cargar pacientes: " + e.getMessage());
+            }
+        } else {
+            try (BufferedReader br = new BufferedReader(new FileReader(archivo, StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = br.readLine()) != null) {
+                    Paciente p = reporte.interpretar(linea, Paciente::fromArchivo);
+                    if (p != null) lista.add(p);
+                }
+            } catch (IOException e) {
+                System.err.println(" Error al cargar pacientes: " + e.getMessage());
             }
-        } catch (IOException e) {
-            System.err.println(" Error al cargar pacientes: " + e.getMessage());
         }
 
+        lista = new ArrayList<>(BITACORA.aplicar(lista,
+                l -> reporte.interpretarBitacora(l, Paciente::fromArchivo), Paciente::getId));
+        reporte.registrarCargados(lista.size());
         return lista;
     }
 
@@ -49,49 +98,158 @@ public class PacienteLoader {
      * @return El paciente encontrado o null si no existe.
      */
     public static Paciente buscarPacientePorId(String id) {
-        // Se carga la lista fresca para asegurar que siempre se busque en la versión actualizada
-        ArrayList<Paciente> lista = cargarPacientes(); 
-        for (Paciente p : lista) {
-            if (p.getId().equalsIgnoreCase(id)) {
-                return p;
+        // Sin cambios pendientes basta el índice de la instantánea; si no, se carga la lista fresca
+        if (BITACORA.vacia()) {
+            Paciente p = INSTANTANEA.buscar(id, new Validacion());
+            if (p != null) return p;
+        }
+        Identificador buscado = Identificador.buscar(id);
+        if (buscado != null) {
+            for (Paciente p : cargarPacientes()) {
+                if (p.getIdentificador() == buscado) return p;
             }
         }
         throw new excepciones.NotFoundException("Paciente con ID '" + id + "' no encontrado.");
     }
     
     /**
-     * Guarda la lista de pacientes en el archivo Paciente.txt
+     * Guarda la lista completa de pacientes en el archivo Paciente.txt y, si se escribió, vacía la bitácora.
      * @param lista lista de pacientes a guardar
      */
     public static void guardarPacientes(List<Paciente> lista) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(RUTA))) {
+        boolean guardado;
+        try (PrintWriter pw = new PrintWriter(new FileWriter(RUTA, StandardCharsets.UTF_8))) {
             for (Paciente p : lista) {
                 pw.println(p.toArchivo());
             }
+            guardado = !pw.checkError();
         } catch (IOException e) {
             System.err.println("Error al guardar pacientes: " + e.getMessage());
+            guardado = false;
+        }
+        // Si la escritura falló, la bitácora conserva los cambios que el archivo no tiene
+        if (guardado) {
+            BITACORA.reiniciar();
+            INSTANTANEA.escribir(lista);
         }
     }
 
     /**
-     * Agrega un nuevo paciente al archivo.
+     * Escribe la instantánea binaria de Paciente.txt si cambió desde la última.
+     * Se invoca al cerrar la aplicación para que el siguiente inicio no interprete el texto.
+     * @return true si se escribió una instantánea nueva
+     */
+    public static boolean escribirInstantanea() {
+        return INSTANTANEA.escribirDesdeTexto(Paciente::fromArchivo);
+    }
+
+    /**
+     * Agrega un nuevo paciente anotándolo en la bitácora (sin reescribir el archivo).
      * @param nuevo Paciente a agregar
      */
     public static void agregarPaciente(Paciente nuevo) {
-        ArrayList<Paciente> lista = cargarPacientes();
-        lista.add(nuevo);
-        guardarPacientes(lista);
+        anotarAlta(nuevo);
     }
 
     /**
-     * Elimina un paciente por su ID y actualiza el archivo.
+     * Elimina un paciente por su ID anotando la baja en la bitácora.
      * @param id Identificación del paciente
      * @return true si se eliminó correctamente, false si no se encontró
      */
     public static boolean eliminarPaciente(String id) {
-        ArrayList<Paciente> lista = cargarPacientes();
-        boolean eliminado = lista.removeIf(p -> p.getId().equalsIgnoreCase(id));
-        if (eliminado) guardarPacientes(lista);
-        return eliminado;
+        boolean existe = existe(id);
+        if (existe) anotarBaja(id);
+        return existe;
+    }
+
+    // La última entrada del ID en la bitácora decide; si no aparece, basta el índice de la
+    // instantánea. Solo sin instantánea vigente se carga la lista completa.
+    private static boolean existe(String id) {
+        Boolean enBitacora = BITACORA.ultimaEntrada(id, PacienteLoader::idDeLinea);
+        if (enBitacora != null) return enBitacora;
+        if (INSTANTANEA.vigente()) return INSTANTANEA.buscar(id, new Validacion()) != null;
+        List<Paciente> pacientes = cargarPacientes();
+        Identificador buscado = Identificador.buscar(id);
+        return buscado != null && pacientes.stream().anyMatch(p -> p.getIdentificador() == buscado);
+    }
+
+    // El ID es el tercer campo de la línea
+    private static String idDeLinea(String linea) {
+        LectorCampos campos = new LectorCampos(linea);
+        if (campos.contarCampos() < 3) return null;
+        campos.saltar();
+        campos.saltar();
+        return campos.siguiente();
+    }
+
+    /** Anota el alta de un paciente en la bitácora, sin validar duplicados. */
+    public static void anotarAlta(Paciente p) {
+        BITACORA.registrarAlta(p.toArchivo());
+        compactarSiNecesario();
+    }
+
+    /** Anota la modificación de un paciente existente en la bitácora. */
+    public static void anotarCambio(Paciente p) {
+        BITACORA.registrarCambio(p.toArchivo());
+        compactarSiNecesario();
+    }
+
+    /** Anota la baja de un paciente en la bitácora, sin comprobar que exista. */
+    public static void anotarBaja(String id) {
+        BITACORA.registrarBaja(id);
+        compactarSiNecesario();
+    }
+
+    /**
+     * Vuelca la bitácora en Paciente.txt y la vacía.
+     */
+    public static void compactar() {
+        guardarPacientes(cargarPacientes());
+    }
+
+    private static void compactarSiNecesario() {
+        if (BITACORA.requiereCompactacion()) compactar();
+    }
+
+    // Registro fijo: nombre, edad, ID, tipo de sangre, dirección, teléfono, peso, altura y alergias
+    private static final class FormatoPaciente implements Instantanea.Formato<Paciente> {
+        @Override public int version() { return 1; }
+        @Override public int ancho() { return 4 + 1 + 4 * 4 + 8 + 8 + 4; }
+        @Override public String id(Paciente p) { return p.getId(); }
+
+        @Override
+        public void escribir(Paciente p, Instantanea.Escritor e) {
+            e.texto(p.getName());
+            e.octeto(p.getAge());
+            e.texto(p.getId());
+            e.texto(p.getBloodType());
+            e.texto(p.getAddress());
+            e.texto(p.getPhone());
+            e.decimal(p.getWeight());
+            e.decimal(p.getHeight());
+            e.texto(p.getAllergies().isEmpty() ? null : String.join(",", p.getAllergies()));
+        }
+
+        @Override
+        public Paciente leer(Instantanea.Lector l, Validacion v) {
+            String name = l.texto();
+            byte age = l.octeto();
+            String id = l.texto();
+            String bloodType = l.texto();
+            String address = l.texto();
+            String phone = l.texto();
+            double weight = l.decimal();
+            double height = l.decimal();
+            String alergias = l.texto();
+            if (!Paciente.validar(name, age, id, bloodType, weight, height, v).esValida()) return null;
+            // Misma separación que al leer el último campo de Paciente.txt
+            List<String> allergies = alergias == null ? new ArrayList<>() : new LectorCampos(alergias).siguienteLista(',');
+            try {
+                return new Paciente(name, age, id, bloodType, address, phone, weight, height, allergies, new ArrayList<>());
+            } catch (InvalidDataException e) {
+                v.agregar(Validacion.Codigo.CAMPO_VACIO, "paciente", e.getMessage());
+                return null;
+            }
+        }
     }
 }
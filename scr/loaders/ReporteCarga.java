@@ -0,0 +1,237 @@
+package loaders;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import model.Validacion;
+
+/**
+ * Informe de calidad de la carga de un archivo: líneas leídas, registros cargados,
+ * líneas omitidas y, para cada violación, la línea, el campo y el código de error.
+ *
+ * <p>Reemplaza la impresión por {@code System.err} dentro del ciclo de lectura. No
+ * usa sincronización: cada hilo llena su propio informe (ver {@link CargaParalela})
+ * y al final se combinan en el orden del archivo con {@link #combinar(ReporteCarga)}.
+ * Los contadores son exactos; el detalle se limita a {@link #MAX_DETALLES} entradas.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class ReporteCarga {
+
+    /** Máximo de entradas de detalle que se conservan por informe. */
+    public static final int MAX_DETALLES = 1000;
+
+    /** Número de línea usado para las entradas que provienen de la bitácora de cambios. */
+    public static final int LINEA_BITACORA = 0;
+
+    /** Una violación encontrada al interpretar una línea. */
+    public static final class Entrada {
+        private final int linea;
+        private final String campo;
+        private final Validacion.Codigo codigo;
+        private final String mensaje;
+
+        Entrada(int linea, String campo, Validacion.Codigo codigo, String mensaje) {
+            this.linea = linea;
+            this.campo = campo;
+            this.codigo = codigo;
+            this.mensaje = mensaje;
+        }
+
+        /** @return número de línea (desde 1), o {@link #LINEA_BITACORA} si viene de la bitácora */
+        public int getLinea() { return linea; }
+        public String getCampo() { return campo; }
+        public Validacion.Codigo getCodigo() { return codigo; }
+        public String getMensaje() { return mensaje; }
+
+        @Override
+        public String toString() {
+            String donde = linea == LINEA_BITACORA ? "bitácora" : "línea " + linea;
+            return donde + " [" + campo + "] " + codigo + ": " + mensaje;
+        }
+    }
+
+    private final String origen;
+    private final int[] porCodigo = new int[Validacion.Codigo.values().length];
+    private final List<Entrada> entradas = new ArrayList<>();
+    private final Validacion validacion = new Validacion(); // reutilizada entre líneas
+    private int lineas;
+    private int omitidas;
+    private int registros;
+    private boolean desdeInstantanea;
+
+    /**
+     * @param origen nombre del archivo o fuente que se carga
+     */
+    public ReporteCarga(String origen) {
+        this.origen = origen;
+    }
+
+    /**
+     * Cuenta una línea del archivo y la interpreta. Las líneas en blanco se cuentan
+     * pero no se interpretan; si el parser devuelve null, sus violaciones se anotan
+     * con el número de línea.
+     * @param linea línea leída
+     * @param parser interpreta la línea acumulando las violaciones en la validación
+     * @param <T> tipo de registro
+     * @return el registro o null si la línea está en blanco o es inválida
+     */
+    public <T> T interpretar(String linea, BiFunction<String, Validacion, T> parser) {
+        lineas++;
+        return interpretar(linea, parser, lineas);
+    }
+
+    /**
+     * Interpreta una línea de la bitácora de cambios. No cuenta como línea del archivo;
+     * sus violaciones se anotan con {@link #LINEA_BITACORA}.
+     * @param linea registro anotado en la bitácora
+     * @param parser interpreta la línea acumulando las violaciones en la validación
+     * @param <T> tipo de registro
+     * @return el registro o null si es inválido
+     */
+    public <T> T interpretarBitacora(String linea, BiFunction<String, Validacion, T> parser) {
+        return interpretar(linea, parser, LINEA_BITACORA);
+    }
+
+    private <T> T interpretar(String linea, BiFunction<String, Validacion, T> parser, int numero) {
+        if (linea == null || linea.trim().isEmpty()) return null;
+        validacion.limpiar();
+        T r = parser.apply(linea, validacion);
+        if (r == null) anotarOmitida(numero);
+        return r;
+    }
+
+    // Registro de una instantánea binaria: ya no hay texto, pero conserva su número de línea
+    <T> T interpretarRegistro(int linea, Function<Validacion, T> lector) {
+        validacion.limpiar();
+        T r = lector.apply(validacion);
+        if (r == null) anotarOmitida(linea);
+        return r;
+    }
+
+    private void anotarOmitida(int numero) {
+        omitidas++;
+        if (validacion.esValida()) {
+            anotar(numero, "linea", Validacion.Codigo.CAMPO_VACIO, "Registro descartado sin detalle.");
+        } else {
+            for (Validacion.Violacion v : validacion.getViolaciones()) {
+                anotar(numero, v.getCampo(), v.getCodigo(), v.getMensaje());
+            }
+        }
+    }
+
+    /**
+     * Agrega al final de este informe un informe parcial de las líneas siguientes,
+     * desplazando sus números de línea.
+     * @param parcial informe de un trozo posterior del mismo archivo
+     */
+    public void combinar(ReporteCarga parcial) {
+        int desplazamiento = lineas;
+        for (Entrada e : parcial.entradas) {
+            if (entradas.size() >= MAX_DETALLES) break;
+            int linea = e.linea == LINEA_BITACORA ? LINEA_BITACORA : e.linea + desplazamiento;
+            entradas.add(new Entrada(linea, e.campo, e.codigo, e.mensaje));
+        }
+        for (int i = 0; i < porCodigo.length; i++) porCodigo[i] += parcial.porCodigo[i];
+        lineas += parcial.lineas;
+        omitidas += parcial.omitidas;
+    }
+
+    // Una sola línea por carga en lugar de un mensaje por cada línea inválida
+    void avisar() {
+        if (hayErrores()) System.err.println("Carga con errores: " + resumen());
+    }
+
+    // Líneas y omitidas del .txt tal como se contaron al escribir la instantánea;
+    // el detalle de esas líneas no se conserva
+    void registrarInstantanea(int lineas, int omitidas) {
+        this.lineas = lineas;
+        this.omitidas = omitidas;
+        this.desdeInstantanea = true;
+    }
+
+    // Fija el número de registros resultantes (tras aplicar la bitácora)
+    void registrarCargados(int cantidad) {
+        this.registros = cantidad;
+    }
+
+    private void anotar(int linea, String campo, Validacion.Codigo codigo, String mensaje) {
+        porCodigo[codigo.ordinal()]++;
+        if (entradas.size() < MAX_DETALLES) entradas.add(new Entrada(linea, campo, codigo, mensaje));
+    }
+
+    /** @return nombre del archivo o fuente */
+    public String getOrigen() { return origen; }
+
+    /** @return líneas leídas del archivo, incluidas las que están en blanco */
+    public int getLineas() { return lineas; }
+
+    /** @return registros cargados después de aplicar la bitácora */
+    public int getRegistros() { return registros; }
+
+    /** @return líneas (o entradas de bitácora) descartadas por inválidas */
+    public int getOmitidas() { return omitidas; }
+
+    /** @return true si los registros se leyeron de la instantánea binaria en lugar del .txt */
+    public boolean esDesdeInstantanea() { return desdeInstantanea; }
+
+    /** @return true si se descartó alguna línea */
+    public boolean hayErrores() { return omitidas > 0; }
+
+    /**
+     * @param codigo tipo de violación
+     * @return cuántas violaciones de ese tipo se encontraron
+     */
+    public int contar(Validacion.Codigo codigo) { return porCodigo[codigo.ordinal()]; }
+
+    /** @return detalle de las violaciones (como máximo {@link #MAX_DETALLES}) */
+    public List<Entrada> getEntradas() { return Collections.unmodifiableList(entradas); }
+
+    /**
+     * @return una línea con los contadores, por ejemplo
+     *         "Paciente.txt: 120 líneas, 118 registros, 2 omitidas (NUMERO_INVALIDO=2)"
+     */
+    public String resumen() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(origen).append(": ").append(lineas).append(" líneas, ")
+          .append(registros).append(" registros, ").append(omitidas).append(" omitidas");
+        if (desdeInstantanea) sb.append(" [instantánea]");
+        if (porCodigoTotal() > 0) {
+            sb.append(" (");
+            boolean primero = true;
+            for (Validacion.Codigo c : Validacion.Codigo.values()) {
+                if (porCodigo[c.ordinal()] == 0) continue;
+                if (!primero) sb.append(", ");
+                sb.append(c).append('=').append(porCodigo[c.ordinal()]);
+                primero = false;
+            }
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param max máximo de entradas a incluir
+     * @return el resumen seguido de una entrada por línea
+     */
+    public String detalle(int max) {
+        StringBuilder sb = new StringBuilder(resumen());
+        int n = Math.min(max, entradas.size());
+        for (int i = 0; i < n; i++) sb.append(System.lineSeparator()).append("  ").append(entradas.get(i));
+        int restantes = porCodigoTotal() - n;
+        if (restantes > 0) sb.append(System.lineSeparator()).append("  ... y ").append(restantes).append(" más");
+        return sb.toString();
+    }
+
+    private int porCodigoTotal() {
+        int total = 0;
+        for (int c : porCodigo) total += c;
+        return total;
+    }
+
+    @Override
+    public String toString() { return resumen(); }
+}
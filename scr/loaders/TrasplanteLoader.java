@@ -3,6 +3,7 @@ package loaders;
 import model.Trasplante;
 import model.Donante;
 import model.Paciente;
+import model.Validacion;
 
 
 import java.io.BufferedReader;
@@ -11,163 +12,391 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.text.Normalizer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.function.BiFunction;
+import util.Fechas;
+import util.LectorCampos;
 
 /**
  * Clase encargada de la persistencia de trasplantes.
+ * Escribe el formato v2 (campos separados por ';' y referencias por ID) y sigue
+ * leyendo el formato anterior ("Órgano: ... | Paciente: ...") durante la migración.
  */
 public class TrasplanteLoader {
 
     public static final String RUTA = "Trasplante.txt";
-    public static final SimpleDateFormat FORMATO_FECHA = new SimpleDateFormat("dd/MM/yyyy");
+    /** Prefijo que identifica las líneas en formato v2. */
+    public static final String PREFIJO_V2 = "TX2";
+    public static final DateTimeFormatter FORMATO_FECHA = Fechas.FECHA;
+    private static final BitacoraCambios BITACORA = new BitacoraCambios(RUTA);
 
+    // La instantánea depende de Donante.txt y Paciente.txt: donante y receptor se resuelven por ID
+    // con un FormatoTrasplante sobre los índices de cada carga. Una sola instancia para que sus
+    // métodos sincronizados no dejen leer y reemplazar el .snap a la vez.
+    private static final Instantanea<Trasplante> INSTANTANEA =
+            new Instantanea<>(RUTA, new FormatoTrasplante(null, null), "Donante.txt", "Paciente.txt");
+
+    /**
+     * Carga todos los trasplantes. Donante.txt y Paciente.txt se leen una sola vez
+     * y cada línea se resuelve contra los índices construidos.
+     * @return lista de trasplantes válidos
+     */
     public static ArrayList<Trasplante> cargarTrasplantes() {
+        File archivo = new File(RUTA);
+        if (!archivo.exists()) {
+            return new ArrayList<>();
+        }
+        return cargarTrasplantes(new IndicePersonas<>(DonanteLoader.cargarDonantes()),
+                new IndicePersonas<>(PacienteLoader.cargarPacientes()));
+    }
+
+    /**
+     * Carga todos los trasplantes resolviendo donante y receptor contra índices ya construidos.
+     * @param donantes índice de donantes
+     * @param pacientes índice de pacientes
+     * @return lista de trasplantes válidos
+     */
+    public static ArrayList<Trasplante> cargarTrasplantes(IndicePersonas<Donante> donantes,
+                                                         IndicePersonas<Paciente> pacientes) {
+        ReporteCarga reporte = new ReporteCarga(RUTA);
+        ArrayList<Trasplante> lista = cargarTrasplantes(donantes, pacientes, reporte);
+        reporte.avisar();
+        return lista;
+    }
+
+    /**
+     * Carga todos los trasplantes anotando las líneas inválidas en el informe, sin imprimir nada.
+     * @param donantes índice de donantes
+     * @param pacientes índice de pacientes
+     * @param reporte informe de la carga
+     * @return lista de trasplantes válidos
+     */
+    public static ArrayList<Trasplante> cargarTrasplantes(IndicePersonas<Donante> donantes,
+                                                         IndicePersonas<Paciente> pacientes,
+                                                         ReporteCarga reporte) {
         ArrayList<Trasplante> lista = new ArrayList<>();
+        BiFunction<String, Validacion, Trasplante> parser =
+                (l, v) -> fromArchivo(l.trim(), donantes, pacientes, v);
         File archivo = new File(RUTA);
         if (!archivo.exists()) {
             return lista;
         }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(archivo))) {
-            String linea;
-            while ((linea = br.readLine()) != null) {
-                linea = linea.trim();
-                if (linea.isEmpty()) continue;
-                Trasplante t = fromArchivo(linea);
-                if (t != null) lista.add(t);
+        List<Trasplante> instantanea = INSTANTANEA.leer(reporte, new FormatoTrasplante(donantes, pacientes));
+        if (instantanea != null) {
+            lista.addAll(instantanea);
+        } else {
+            try (BufferedReader br = new BufferedReader(new FileReader(archivo, StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = br.readLine()) != null) {
+                    Trasplante t = reporte.interpretar(linea, parser);
+                    if (t != null) lista.add(t);
+                }
+            } catch (IOException e) {
+                System.err.println("Error leyendo archivo de trasplantes: " + e.getMessage());
             }
-        } catch (IOException e) {
-            System.err.println("Error leyendo archivo de trasplantes: " + e.getMessage());
         }
 
+        lista = new ArrayList<>(BITACORA.aplicar(lista, l -> reporte.interpretarBitacora(l, parser), Trasplante::getId));
+        reporte.registrarCargados(lista.size());
         return lista;
     }
 
     public static void guardarTrasplantes(List<Trasplante> lista) {
         File archivo = new File(RUTA);
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(archivo))) {
+        List<Trasplante> escritos = new ArrayList<>(lista.size());
+        boolean guardado = true;
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(archivo, StandardCharsets.UTF_8))) {
             for (Trasplante t : lista) {
                 String linea = toArchivo(t);
                 if (linea != null && !linea.isEmpty()) {
                     bw.write(linea);
                     bw.newLine();
+                    escritos.add(t);
                 }
             }
         } catch (IOException e) {
             System.err.println("Error escribiendo archivo de trasplantes: " + e.getMessage());
+            guardado = false;
+        }
+        // Si la escritura falló, la bitácora conserva los cambios que el archivo no tiene
+        if (guardado) {
+            BITACORA.reiniciar();
+            INSTANTANEA.escribir(escritos);
         }
     }
 
     /**
-     * Serializa un Trasplante a la línea de archivo.
-     * Formato: Órgano: {organType} | Paciente: {NombrePaciente} | Donante: {NombreDonante} | Estado: {Estado} | ID: {ID} | Fecha: {dd/MM/yyyy}
+     * Escribe la instantánea binaria de Trasplante.txt si cambió desde la última (o si
+     * cambiaron donantes o pacientes). Se invoca al cerrar la aplicación.
+     * @param donantes índice de los donantes vigentes
+     * @param pacientes índice de los pacientes vigentes
+     * @return true si se escribió una instantánea nueva
+     */
+    public static boolean escribirInstantanea(IndicePersonas<Donante> donantes, IndicePersonas<Paciente> pacientes) {
+        return INSTANTANEA.escribirDesdeTexto((l, v) -> fromArchivo(l.trim(), donantes, pacientes, v));
+    }
+
+    /** Anota el alta de un trasplante en la bitácora, sin validar duplicados. */
+    public static void anotarAlta(Trasplante t) {
+        BITACORA.registrarAlta(toArchivo(t));
+        compactarSiNecesario();
+    }
+
+    /** Anota la modificación de un trasplante existente en la bitácora. */
+    public static void anotarCambio(Trasplante t) {
+        BITACORA.registrarCambio(toArchivo(t));
+        compactarSiNecesario();
+    }
+
+    /** Anota la baja de un trasplante en la bitácora, sin comprobar que exista. */
+    public static void anotarBaja(String id) {
+        BITACORA.registrarBaja(id);
+        compactarSiNecesario();
+    }
+
+    /**
+     * Vuelca la bitácora en Trasplante.txt y la vacía.
+     */
+    public static void compactar() {
+        guardarTrasplantes(cargarTrasplantes());
+    }
+
+    private static void compactarSiNecesario() {
+        if (BITACORA.requiereCompactacion()) compactar();
+    }
+
+    /**
+     * Serializa un Trasplante a la línea de archivo (formato v2).
+     * Formato: TX2;{ID};{Órgano};{ID Donante};{ID Paciente};{Estado};{dd/MM/yyyy};{Historial};{Motivo rechazo};{Nombre Donante};{Nombre Paciente}
+     * Los nombres se guardan solo para lectura humana; al cargar se resuelve por ID.
      */
     public static String toArchivo(Trasplante t) {
+        if (t == null) return "";
+        Donante donante = t.getDonor();
+        Paciente paciente = t.getReceiver();
+        return String.join(";",
+                PREFIJO_V2,
+                LectorCampos.escapar(t.getId()),
+                LectorCampos.escapar(t.getOrganType()),
+                donante != null ? LectorCampos.escapar(donante.getId()) : "",
+                paciente != null ? LectorCampos.escapar(paciente.getId()) : "",
+                LectorCampos.escapar(t.getEstado()),
+                t.getFecha() != null ? Fechas.formatearFecha(t.getFecha()) : "",
+                LectorCampos.escapar(t.getHistorialClinico()),
+                LectorCampos.escapar(t.getRejectionReason()),
+                donante != null ? LectorCampos.escapar(donante.getName()) : "",
+                paciente != null ? LectorCampos.escapar(paciente.getName()) : "");
+    }
+
+    /**
+     * Serializa un Trasplante en el formato anterior, basado en nombres.
+     * Formato: Órgano: {organType} | Paciente: {NombrePaciente} | Donante: {NombreDonante} | Estado: {Estado} | ID: {ID} | Fecha: {dd/MM/yyyy}
+     */
+    public static String toArchivoLegado(Trasplante t) {
         if (t == null) return "";
         String organo = t.getOrganType() != null ? t.getOrganType() : "";
         String paciente = t.getReceiver() != null ? t.getReceiver().getName() : "";
         String donante = t.getDonor() != null ? t.getDonor().getName() : "";
         String estado = t.getEstado() != null ? t.getEstado() : "";
         String id = t.getId() != null ? t.getId() : "";
-        String fechaStr = t.getFecha() != null ? FORMATO_FECHA.format(t.getFecha()) : "";
+        String fechaStr = t.getFecha() != null ? Fechas.formatearFecha(t.getFecha()) : "";
 
         return String.format("Órgano: %s | Paciente: %s | Donante: %s | Estado: %s | ID: %s | Fecha: %s",
                 organo, paciente, donante, estado, id, fechaStr);
     }
 
     /**
-     * Crea un objeto Trasplante desde una línea del archivo.
+     * Crea un objeto Trasplante desde una línea del archivo (v2 o formato anterior).
      * Maneja líneas con o sin campo "Órgano:" para compatibilidad.
      * Requiere al menos: Paciente, Donante, ID y Fecha -> devuelve null si faltan.
+     * Para cargas masivas usar {@link #fromArchivo(String, IndicePersonas, IndicePersonas)}.
      */
     public static Trasplante fromArchivo(String linea) {
         if (linea == null || linea.trim().isEmpty()) return null;
-        try {
-            // separar por '|' y mapear clave:valor normalizando la clave (sin tildes, en minúsculas)
-            String[] partes = linea.split("\\|");
-            Map<String,String> valores = new HashMap<>();
-            for (String p : partes) {
-                String[] kv = p.split(":", 2);
-                if (kv.length != 2) continue;
-                String clave = Normalizer.normalize(kv[0], Normalizer.Form.NFD)
-                        .replaceAll("\\p{M}", "")
-                        .toLowerCase()
-                        .trim();
-                String valor = kv[1].trim();
-                valores.put(clave, valor);
-            }
+        return fromArchivo(linea, new IndicePersonas<>(DonanteLoader.cargarDonantes()),
+                new IndicePersonas<>(PacienteLoader.cargarPacientes()));
+    }
 
-            // Validar campos mínimos
-            if (!valores.containsKey("paciente") || !valores.containsKey("donante")
-                    || !valores.containsKey("id") || !valores.containsKey("fecha")) {
-                return null;
-            }
+    /**
+     * Crea un objeto Trasplante desde una línea resolviendo donante y receptor en los índices dados.
+     * El formato se detecta por el prefijo {@value #PREFIJO_V2}.
+     * @param linea línea del archivo
+     * @param donantes índice de donantes
+     * @param pacientes índice de pacientes
+     * @return el trasplante o null si la línea es inválida o no se resuelven las referencias;
+     *         el motivo se obtiene con la variante que recibe una {@link Validacion}
+     */
+    public static Trasplante fromArchivo(String linea, IndicePersonas<Donante> donantes,
+                                         IndicePersonas<Paciente> pacientes) {
+        if (linea == null || linea.trim().isEmpty()) return null;
+        return fromArchivo(linea, donantes, pacientes, new Validacion());
+    }
 
-            String organo = valores.getOrDefault("organo", "");
-            String pacientePart = valores.get("paciente");
-            String donantePart = valores.get("donante");
-            String estado = valores.getOrDefault("estado", "");
-            String id = valores.get("id");
-            String fechaStr = valores.get("fecha");
+    /**
+     * Interpreta una línea (v2 o formato anterior) sin lanzar excepciones.
+     * @param linea línea del archivo
+     * @param donantes índice de donantes
+     * @param pacientes índice de pacientes
+     * @param v validación donde se acumulan todas las violaciones de la línea
+     * @return el trasplante o null si la línea es inválida
+     */
+    public static Trasplante fromArchivo(String linea, IndicePersonas<Donante> donantes,
+                                         IndicePersonas<Paciente> pacientes, Validacion v) {
+        if (linea == null || linea.trim().isEmpty()) {
+            v.agregar(Validacion.Codigo.CAMPO_VACIO, "linea", "Línea vacía.");
+            return null;
+        }
+        if (linea.startsWith(PREFIJO_V2 + ";")) return fromArchivoV2(linea, donantes, pacientes, v);
+        return fromArchivoLegado(linea, donantes, pacientes, v);
+    }
 
-            Date fecha = null;
-            if (fechaStr != null && !fechaStr.isEmpty()) {
-                fecha = FORMATO_FECHA.parse(fechaStr);
-            }
+    // Formato v2: donante y receptor se resuelven solo por ID
+    private static Trasplante fromArchivoV2(String linea, IndicePersonas<Donante> donantes,
+                                            IndicePersonas<Paciente> pacientes, Validacion v) {
+        LectorCampos campos = new LectorCampos(linea);
+        if (campos.contarCampos() < 9) {
+            v.agregar(Validacion.Codigo.CAMPOS_INSUFICIENTES, "linea", "Se esperaban al menos 9 campos.");
+            return null;
+        }
+        campos.saltar(); // prefijo
 
-            // Normalizador para comparar nombres/ids sin tildes/minúsculas
-            java.util.function.Function<String,String> normalize = s -> {
-                if (s == null) return "";
-                return Normalizer.normalize(s, Normalizer.Form.NFD)
-                        .replaceAll("\\p{M}", "")
-                        .toLowerCase()
-                        .trim();
-            };
-
-            Donante donor = null;
-            for (Donante d : DonanteLoader.cargarDonantes()) {
-                if (d == null) continue;
-                String dnId = d.getId() != null ? d.getId().trim() : "";
-                String dnName = d.getName() != null ? d.getName() : "";
-                if (!dnId.isEmpty() && dnId.equalsIgnoreCase(donantePart)) { donor = d; break; }
-                if (normalize.apply(dnName).equals(normalize.apply(donantePart))) { donor = d; break; }
-                if (normalize.apply(dnName).contains(normalize.apply(donantePart)) || normalize.apply(donantePart).contains(normalize.apply(dnName))) { donor = d; break; }
-            }
+        String id = LectorCampos.desescapar(campos.siguiente());
+        String organo = LectorCampos.desescapar(campos.siguiente());
+        String idDonante = LectorCampos.desescapar(campos.siguiente());
+        String idPaciente = LectorCampos.desescapar(campos.siguiente());
+        String estado = LectorCampos.desescapar(campos.siguiente());
+        String fechaStr = campos.siguiente();
+        String historial = LectorCampos.desescapar(campos.siguiente());
+        String motivo = LectorCampos.desescapar(campos.siguiente());
 
-            Paciente receiver = null;
-            for (Paciente p : PacienteLoader.cargarPacientes()) {
-                if (p == null) continue;
-                String pnId = p.getId() != null ? p.getId().trim() : "";
-                String pnName = p.getName() != null ? p.getName() : "";
-                if (!pnId.isEmpty() && pnId.equalsIgnoreCase(pacientePart)) { receiver = p; break; }
-                if (normalize.apply(pnName).equals(normalize.apply(pacientePart))) { receiver = p; break; }
-                if (normalize.apply(pnName).contains(normalize.apply(pacientePart)) || normalize.apply(pacientePart).contains(normalize.apply(pnName))) { receiver = p; break; }
-            }
+        Date fecha = leerFecha(fechaStr, v);
+        return crear(id, organo, idDonante, idPaciente, estado, fecha, historial, motivo, donantes, pacientes, v);
+    }
 
-            // Si no se encontraron donante o receptor, consideramos la línea inválida para las pruebas
-            if (donor == null || receiver == null) {
-                return null;
-            }
+    // Resuelve donante y receptor por ID y construye el trasplante (común a v2 y a la instantánea)
+    private static Trasplante crear(String id, String organo, String idDonante, String idPaciente, String estado,
+                                    Date fecha, String historial, String motivo, IndicePersonas<Donante> donantes,
+                                    IndicePersonas<Paciente> pacientes, Validacion v) {
+        v.requerir(id, "id", "El ID del trasplante no puede estar vacío.");
+        Donante donor = donantes.buscarPorId(idDonante);
+        Paciente receiver = pacientes.buscarPorId(idPaciente);
+        if (donor == null || receiver == null) {
+            v.agregar(Validacion.Codigo.REFERENCIA_NO_ENCONTRADA, donor == null ? "donante" : "paciente",
+                    "Trasplante " + id + " omitido: donante '" + idDonante
+                    + "' o paciente '" + idPaciente + "' no encontrado.");
+        }
+        if (!v.esValida()) return null;
+        return new Trasplante(id, organo, donor, receiver, estado, historial, motivo, fecha);
+    }
 
-            // Si falta organo en la línea, tratar de obtenerlo desde el donante
-            if ((organo == null || organo.isBlank()) && donor != null) {
-                organo = donor.getOrgano() != null ? donor.getOrgano() : "";
-            }
+    // Formato anterior: referencias por nombre, resueltas con IndicePersonas.resolver
+    private static Trasplante fromArchivoLegado(String linea, IndicePersonas<Donante> donantes,
+                                                IndicePersonas<Paciente> pacientes, Validacion v) {
+        // separar por '|' y mapear clave:valor normalizando la clave (sin tildes, en minúsculas)
+        Map<String,String> valores = new HashMap<>();
+        LectorCampos partes = new LectorCampos(linea, '|');
+        while (partes.hayMas()) {
+            String p = partes.siguiente();
+            int dosPuntos = p.indexOf(':');
+            if (dosPuntos < 0) continue;
+            valores.put(IndicePersonas.normalizar(p.substring(0, dosPuntos)), p.substring(dosPuntos + 1).trim());
+        }
 
-            // Crear trasplante (constructor: id, organType, donor, receiver, estado, historial, rejection, fecha)
-            return new Trasplante(id, organo, donor, receiver, estado, "", "", fecha);
-        } catch (java.text.ParseException e) {
-            System.err.println("Error parseando fecha de trasplante: " + e.getMessage());
+        // Validar campos mínimos
+        if (!valores.containsKey("paciente") || !valores.containsKey("donante")
+                || !valores.containsKey("id") || !valores.containsKey("fecha")) {
+            v.agregar(Validacion.Codigo.CAMPOS_INSUFICIENTES, "linea", "Faltan Paciente, Donante, ID o Fecha.");
             return null;
-        } catch (Exception e) {
-            System.err.println("Error al parsear trasplante: " + e.getMessage());
+        }
+
+        String organo = valores.getOrDefault("organo", "");
+        String pacientePart = valores.get("paciente");
+        String donantePart = valores.get("donante");
+        String estado = valores.getOrDefault("estado", "");
+        String id = valores.get("id");
+        Date fecha = leerFecha(valores.get("fecha"), v);
+
+        Donante donor = donantes.resolver(donantePart);
+        Paciente receiver = pacientes.resolver(pacientePart);
+
+        // Si no se encontraron donante o receptor, consideramos la línea inválida para las pruebas
+        if (donor == null || receiver == null) {
+            v.agregar(Validacion.Codigo.REFERENCIA_NO_ENCONTRADA, donor == null ? "donante" : "paciente",
+                    "Donante '" + donantePart + "' o paciente '" + pacientePart + "' no encontrado.");
+        }
+        if (!v.esValida()) return null;
+
+        // Si falta organo en la línea, tratar de obtenerlo desde el donante
+        if (organo == null || organo.isBlank()) {
+            organo = donor.getOrgano() != null ? donor.getOrgano() : "";
+        }
+
+        // Crear trasplante (constructor: id, organType, donor, receiver, estado, historial, rejection, fecha)
+        return new Trasplante(id, organo, donor, receiver, estado, "", "", fecha);
+    }
+
+    // Fecha opcional: vacía -> null; inválida -> violación FECHA_INVALIDA
+    private static Date leerFecha(String fechaStr, Validacion v) {
+        if (fechaStr == null || fechaStr.isEmpty()) return null;
+        LocalDate fecha = Fechas.fechaSegura(fechaStr);
+        if (fecha == null) {
+            v.agregar(Validacion.Codigo.FECHA_INVALIDA, "fecha", "Unparseable date: \"" + fechaStr + "\"");
             return null;
         }
+        return Fechas.aDate(fecha);
+    }
+
+    // Registro fijo con los campos de la línea v2; la fecha es el día (Long.MIN_VALUE si no hay)
+    private static final class FormatoTrasplante implements Instantanea.Formato<Trasplante> {
+        private static final long SIN_FECHA = Long.MIN_VALUE;
+        private final IndicePersonas<Donante> donantes;
+        private final IndicePersonas<Paciente> pacientes;
+
+        FormatoTrasplante(IndicePersonas<Donante> donantes, IndicePersonas<Paciente> pacientes) {
+            this.donantes = donantes;
+            this.pacientes = pacientes;
+        }
+
+        @Override public int version() { return 1; }
+        @Override public int ancho() { return 4 * 5 + 8 + 4 * 2; }
+        @Override public String id(Trasplante t) { return t.getId(); }
+
+        @Override
+        public void escribir(Trasplante t, Instantanea.Escritor e) {
+            e.texto(vacioSiNulo(t.getId()));
+            e.texto(vacioSiNulo(t.getOrganType()));
+            e.texto(t.getDonor() != null ? vacioSiNulo(t.getDonor().getId()) : "");
+            e.texto(t.getReceiver() != null ? vacioSiNulo(t.getReceiver().getId()) : "");
+            e.texto(vacioSiNulo(t.getEstado()));
+            e.largo(t.getFecha() != null ? Fechas.aFechaLocal(t.getFecha()).toEpochDay() : SIN_FECHA);
+            e.texto(vacioSiNulo(t.getHistorialClinico()));
+            e.texto(vacioSiNulo(t.getRejectionReason()));
+        }
+
+        @Override
+        public Trasplante leer(Instantanea.Lector l, Validacion v) {
+            String id = l.texto();
+            String organo = l.texto();
+            String idDonante = l.texto();
+            String idPaciente = l.texto();
+            String estado = l.texto();
+            long dia = l.largo();
+            String historial = l.texto();
+            String motivo = l.texto();
+            Date fecha = dia == SIN_FECHA ? null : Fechas.aDate(LocalDate.ofEpochDay(dia));
+            return crear(id, organo, idDonante, idPaciente, estado, fecha, historial, motivo, donantes, pacientes, v);
+        }
+
+        private static String vacioSiNulo(String s) {
+            return s == null ? "" : s;
+        }
     }
 }
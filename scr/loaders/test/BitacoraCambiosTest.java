@@ -0,0 +1,107 @@
+package loaders.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import loaders.BitacoraCambios;
+
+/**
+ * Clase de pruebas unitarias para BitacoraCambios.
+ * Usa registros de texto "id;valor" para verificar la reproducción de altas,
+ * modificaciones y bajas sobre el snapshot.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class BitacoraCambiosTest {
+
+    private static final String RUTA_TEST = "BitacoraTest.txt";
+    private static final Function<String, String> ID = r -> r.split(";")[0];
+
+    private BitacoraCambios bitacora;
+    private List<String> snapshot;
+
+    /**
+     * Crea un snapshot con dos registros.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        try (FileWriter fw = new FileWriter(RUTA_TEST, StandardCharsets.UTF_8)) {
+            fw.write("X1;uno\nX2;dos\n");
+        }
+        snapshot = new ArrayList<>();
+        snapshot.add("X1;uno");
+        snapshot.add("X2;dos");
+        bitacora = new BitacoraCambios(RUTA_TEST);
+    }
+
+    /**
+     * Verifica que altas, cambios y bajas se reproduzcan en orden.
+     */
+    @Test
+    public void testAplicarCambios() {
+        bitacora.registrarAlta("X3;tres");
+        bitacora.registrarCambio("x1;UNO");
+        bitacora.registrarBaja("X2");
+
+        List<String> resultado = bitacora.aplicar(snapshot, r -> r, ID);
+        assertEquals(2, resultado.size(), "Deben quedar dos registros");
+        assertEquals("x1;UNO", resultado.get(0), "El cambio debe conservar la posición original");
+        assertEquals("X3;tres", resultado.get(1), "El alta debe ir al final");
+    }
+
+    /**
+     * Verifica que la última entrada de un ID decida si existe, sin interpretar registros.
+     */
+    @Test
+    public void testUltimaEntrada() {
+        assertNull(bitacora.ultimaEntrada("X1", ID), "Sin bitácora decide el snapshot");
+        bitacora.registrarBaja("x1");
+        bitacora.registrarAlta("X3;tres");
+        assertFalse(bitacora.ultimaEntrada("X1", ID));
+        assertTrue(bitacora.ultimaEntrada(" x3 ", ID));
+        assertNull(bitacora.ultimaEntrada("X2", ID), "Un ID sin entradas lo decide el snapshot");
+
+        bitacora.registrarCambio("X1;de nuevo");
+        assertTrue(bitacora.ultimaEntrada("X1", ID));
+    }
+
+    /**
+     * Verifica que reiniciar descarte las entradas anotadas.
+     */
+    @Test
+    public void testReiniciar() {
+        bitacora.registrarBaja("X1");
+        bitacora.reiniciar();
+        assertSame(snapshot, bitacora.aplicar(snapshot, r -> r, ID), "Sin bitácora el snapshot no cambia");
+    }
+
+    /**
+     * Verifica que la bitácora se ignore si el snapshot se reescribe por fuera.
+     */
+    @Test
+    public void testSnapshotModificadoInvalidaBitacora() throws IOException {
+        bitacora.registrarBaja("X1");
+        try (FileWriter fw = new FileWriter(RUTA_TEST, StandardCharsets.UTF_8)) {
+            fw.write("X1;uno\nX2;dos\nX9;nuevo\n");
+        }
+        assertSame(snapshot, bitacora.aplicar(snapshot, r -> r, ID), "Una bitácora obsoleta no debe aplicarse");
+    }
+
+    /**
+     * Limpieza de los archivos de prueba.
+     */
+    @AfterEach
+    public void tearDown() {
+        bitacora.reiniciar();
+        new File(RUTA_TEST).delete();
+    }
+}
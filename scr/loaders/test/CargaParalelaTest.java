@@ -0,0 +1,73 @@
+package loaders.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import loaders.CargaParalela;
+import model.Paciente;
+
+/**
+ * Clase de pruebas unitarias para CargaParalela.
+ * Verifica que la carga en paralelo conserve el orden y el contenido del archivo.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class CargaParalelaTest {
+
+    private final File archivo = new File("CargaParalelaTest.txt");
+
+    /**
+     * Elimina el archivo temporal.
+     */
+    @AfterEach
+    public void tearDown() {
+        archivo.delete();
+    }
+
+    /**
+     * Verifica orden, saltos \r\n, líneas vacías y líneas inválidas en un archivo de varios trozos.
+     */
+    @Test
+    public void testCargarEnOrdenConVariosTrozos() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        List<String> esperadas = new ArrayList<>();
+        for (int i = 0; i < 60000; i++) {
+            String linea = "Línea ñ número " + i + ";" + "x".repeat(i % 40);
+            if (i % 1000 == 7) {
+                sb.append("INVALIDA\n");
+            } else if (i % 500 == 3) {
+                sb.append("   \r\n");
+            }
+            esperadas.add(linea);
+            sb.append(linea).append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        Files.write(archivo.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        assertTrue(archivo.length() > 2 * 1024 * 1024, "El archivo debe ocupar varios trozos");
+
+        List<String> leidas = CargaParalela.cargar(archivo, l -> l.equals("INVALIDA") ? null : l);
+        assertEquals(esperadas, leidas, "Debe conservar el orden y omitir líneas vacías o inválidas");
+    }
+
+    /**
+     * Verifica que los pacientes leídos en paralelo coincidan con el parser secuencial.
+     */
+    @Test
+    public void testCargarPacientes() throws IOException {
+        String contenido = "Juan Pérez;30;P001;O+;Calle 1;300;70.5;1.75;Polen\n"
+                + "Malo;abc;P002;O+;Calle 2;301;60;1.6;\n"
+                + "Ana Gómez;28;P003;A+;Calle 3;302;62.0;1.66;";
+        Files.write(archivo.toPath(), contenido.getBytes(StandardCharsets.UTF_8));
+
+        List<Paciente> lista = CargaParalela.cargar(archivo, Paciente::fromArchivo);
+        assertEquals(2, lista.size(), "La línea inválida debe omitirse");
+        assertEquals("P001", lista.get(0).getId());
+        assertEquals("Ana Gómez", lista.get(1).getName(), "Debe decodificar UTF-8 y leer la última línea sin salto");
+    }
+}
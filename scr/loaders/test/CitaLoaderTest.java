@@ -236,6 +236,72 @@ public class CitaLoaderTest {
         assertFalse(resultado, "No debe cancelar una cita ya cancelada");
     }
 
+    /**
+     * Verifica que la carga masiva resuelva el paciente una sola vez y que
+     * todas sus citas compartan la misma instancia.
+     */
+    @Test
+    public void testCargarCitasComparteInstanciaPaciente() throws InvalidDataException {
+        Cita otra = new Cita("C002", new Date(), new Date(), "Hospital Norte", paciente, "Dr. Test");
+        List<Cita> citas = new ArrayList<>();
+        citas.add(citaPrueba);
+        citas.add(otra);
+        CitaLoader.guardarCitas(citas);
+
+        List<Cita> cargadas = CitaLoader.cargarCitas();
+        assertEquals(2, cargadas.size(), "Deben cargarse las dos citas");
+        assertSame(cargadas.get(0).getPaciente(), cargadas.get(1).getPaciente(),
+                "Las citas del mismo paciente deben compartir la instancia");
+    }
+
+    /**
+     * Verifica que cargar citas sin cambios de estado no reescriba Cita.txt.
+     */
+    @Test
+    public void testCargarCitasNoReescribeArchivo() throws Exception {
+        java.util.Calendar cal = java.util.Calendar.getInstance();
+        cal.set(2030, 11, 31);
+        Cita futura = new Cita("C003", cal.getTime(), cal.getTime(), "Hospital", paciente, "Dr. Test");
+        List<Cita> citas = new ArrayList<>();
+        citas.add(futura);
+        CitaLoader.guardarCitas(citas);
+
+        File archivo = new File("Cita.txt");
+        long modificado = archivo.lastModified();
+        byte[] antes = java.nio.file.Files.readAllBytes(archivo.toPath());
+        CitaLoader.cargarCitas();
+
+        assertEquals(modificado, archivo.lastModified(), "La lectura no debe reescribir el archivo");
+        assertArrayEquals(antes, java.nio.file.Files.readAllBytes(archivo.toPath()), "El contenido no debe cambiar");
+        assertFalse(new File("Cita.journal").exists(), "Sin cambios de estado no debe anotarse nada");
+    }
+
+    /**
+     * Verifica que expirar muchas citas al cargar compacte una sola vez con la lista
+     * cargada, sin volver a cargar el archivo por cada cita anotada.
+     */
+    @Test
+    public void testCargarMuchasCitasExpiradas() throws Exception {
+        java.util.Calendar cal = java.util.Calendar.getInstance();
+        cal.set(2020, 0, 15, 9, 0);
+        int n = 1500;
+        List<Cita> pasadas = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            pasadas.add(new Cita("E" + i, cal.getTime(), cal.getTime(), "Hospital", paciente, "Dr. Test"));
+        }
+        CitaLoader.guardarCitas(pasadas);
+
+        List<Cita> cargadas = CitaLoader.cargarCitas();
+        assertEquals(n, cargadas.size());
+        for (Cita c : cargadas) assertEquals(model.EstadoCita.APROBADA, c.getEstadoCita());
+        assertFalse(new File("Cita.journal").exists(), "Las expiraciones se compactan en Cita.txt");
+
+        String contenido = new String(java.nio.file.Files.readAllBytes(new File("Cita.txt").toPath()),
+                java.nio.charset.StandardCharsets.UTF_8);
+        assertFalse(contenido.contains("Pendiente"), "Cita.txt debe quedar con las citas aprobadas");
+        assertEquals(n, CitaLoader.cargarCitas().size());
+    }
+
     // ========== 4. PRUEBAS AUTOMÁTICAS PARA EL MANEJO DE EXCEPCIONES ==========
     
     /**
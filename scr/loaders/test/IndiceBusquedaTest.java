@@ -0,0 +1,122 @@
+package loaders.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import loaders.IndiceBusqueda;
+import model.Paciente;
+import model.TipoSangre;
+import excepciones.InvalidDataException;
+
+/**
+ * Clase de pruebas unitarias para IndiceBusqueda.
+ * Verifica la búsqueda por prefijos de nombre, ID y tipo de sangre, el filtro por
+ * compatibilidad y los cambios después de construido.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class IndiceBusquedaTest {
+
+    private IndiceBusqueda<Paciente> indice;
+    private Paciente juan;
+    private Paciente maria;
+    private Paciente mariana;
+
+    private static Paciente paciente(String nombre, String id, String sangre) throws InvalidDataException {
+        return new Paciente(nombre, (byte)30, id, sangre, "Calle 1", "300",
+                70.0, 1.70, new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Crea un índice con tres pacientes de prueba.
+     */
+    @BeforeEach
+    public void setUp() throws InvalidDataException {
+        juan = paciente("Juan Pérez", "P001", "O+");
+        maria = paciente("María Ruiz", "P004", "AB-");
+        mariana = paciente("Mariana Gómez", "P010", "A+");
+        indice = new IndiceBusqueda<>(Arrays.asList(juan, maria, mariana));
+    }
+
+    /**
+     * Verifica la búsqueda por prefijo de nombre (sin tildes), de ID y de tipo de sangre.
+     */
+    @Test
+    public void testBuscarPorPrefijos() {
+        assertEquals(Arrays.asList(maria, mariana), indice.buscar("MAR", IndiceBusqueda.TODOS, 10));
+        assertEquals(Arrays.asList(mariana), indice.buscar("mariana", IndiceBusqueda.TODOS, 10),
+                "Los prefijos más largos que la grama se verifican palabra por palabra");
+        assertEquals(Arrays.asList(maria), indice.buscar("ruíz ma", IndiceBusqueda.TODOS, 10),
+                "Cada palabra de la consulta debe coincidir con alguna palabra");
+        assertEquals(Arrays.asList(mariana), indice.buscar("p01", IndiceBusqueda.TODOS, 10));
+        assertEquals(Arrays.asList(maria), indice.buscar("p004 maria", IndiceBusqueda.TODOS, 10),
+                "Los prefijos largos también se resuelven contra el ID");
+        assertEquals(Arrays.asList(maria), indice.buscar("ab-", IndiceBusqueda.TODOS, 10));
+        assertTrue(indice.buscar("zzz", IndiceBusqueda.TODOS, 10).isEmpty());
+        assertEquals(Arrays.asList(juan, maria), indice.buscar("  ", IndiceBusqueda.TODOS, 2),
+                "Una consulta vacía devuelve las primeras personas");
+    }
+
+    /**
+     * Verifica que la máscara deje solo los receptores compatibles con un donante.
+     */
+    @Test
+    public void testFiltrarPorCompatibilidad() {
+        int receptoresDeB = TipoSangre.B_POS.mascaraReceptores();
+        assertEquals(Arrays.asList(maria), indice.buscar("", receptoresDeB, 10), "Solo AB recibe de B");
+        assertEquals(Arrays.asList(maria, mariana), indice.buscar("", TipoSangre.A_POS.mascaraReceptores(), 10));
+        assertEquals(Arrays.asList(juan, maria, mariana), indice.buscar("", TipoSangre.O_NEG.mascaraReceptores(), 10));
+        assertTrue(indice.buscar("mar", 0, 10).isEmpty());
+    }
+
+    /**
+     * Verifica altas, reemplazos por ID y bajas después de construido el índice.
+     */
+    @Test
+    public void testCambios() throws InvalidDataException {
+        Paciente renombrado = paciente("Juana Pérez", "p001", "O+");
+        indice.agregar(renombrado);
+        assertEquals(3, indice.cantidad(), "Un ID repetido reemplaza a la persona");
+        assertSame(renombrado, indice.buscarPorId("P001"));
+        assertEquals(Arrays.asList(renombrado), indice.buscar("juana", IndiceBusqueda.TODOS, 10));
+        assertEquals(Arrays.asList(maria, mariana, renombrado), indice.buscar("", IndiceBusqueda.TODOS, 10),
+                "La persona modificada pasa al final");
+
+        assertTrue(indice.eliminar("p004"));
+        assertFalse(indice.eliminar("P004"));
+        assertEquals(Arrays.asList(mariana), indice.buscar("mar", IndiceBusqueda.TODOS, 10));
+        assertEquals(2, indice.cantidad());
+    }
+
+    /**
+     * Verifica búsquedas sobre muchas personas, incluidas muchas bajas que obligan a compactar.
+     */
+    @Test
+    public void testMuchasPersonas() throws InvalidDataException {
+        String[] nombres = {"Ana", "Beto", "Carla", "Diego", "Elena"};
+        String[] tipos = {"O+", "A+", "B-", "AB+"};
+        List<Paciente> lista = new ArrayList<>();
+        int n = 50_000;
+        for (int i = 0; i < n; i++) {
+            lista.add(paciente(nombres[i % 5] + " Apellido" + (i % 997), "P" + i, tipos[i % 4]));
+        }
+        indice = new IndiceBusqueda<>(lista);
+
+        List<Paciente> encontrados = indice.buscar("car apellido99", TipoSangre.B_NEG.mascaraReceptores(), 1000);
+        assertFalse(encontrados.isEmpty());
+        for (Paciente p : encontrados) {
+            assertTrue(p.getName().startsWith("Carla Apellido99"));
+            assertTrue(TipoSangre.compatibles("B-", p.getBloodType()));
+        }
+        assertEquals(25, indice.buscar("", IndiceBusqueda.TODOS, 25).size(), "Se respeta el límite");
+
+        for (int i = 0; i < n - 10; i++) indice.eliminar("P" + i);
+        assertEquals(10, indice.cantidad());
+        assertEquals(2, indice.buscar("ana", IndiceBusqueda.TODOS, 100).size());
+        assertSame(lista.get(n - 1), indice.buscarPorId("P" + (n - 1)));
+    }
+}
@@ -0,0 +1,91 @@
+package loaders.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import loaders.IndicePersonas;
+import model.Paciente;
+import excepciones.InvalidDataException;
+
+/**
+ * Clase de pruebas unitarias para IndicePersonas.
+ * Verifica la resolución de referencias por ID y por nombre normalizado.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class IndicePersonasTest {
+
+    private IndicePersonas<Paciente> indice;
+    private Paciente juan;
+    private Paciente maria;
+
+    /**
+     * Crea un índice con dos pacientes de prueba.
+     */
+    @BeforeEach
+    public void setUp() throws InvalidDataException {
+        juan = new Paciente("Juan Pérez", (byte)30, "P001", "O+", "Calle 1", "300",
+                70.0, 1.75, new ArrayList<>(), new ArrayList<>());
+        maria = new Paciente("María Ruiz", (byte)52, "P004", "O-", "Calle 5", "311",
+                68.0, 1.62, new ArrayList<>(), new ArrayList<>());
+        List<Paciente> lista = new ArrayList<>();
+        lista.add(juan);
+        lista.add(maria);
+        indice = new IndicePersonas<>(lista);
+    }
+
+    /**
+     * Verifica la búsqueda por ID sin distinguir mayúsculas.
+     */
+    @Test
+    public void testBuscarPorId() {
+        assertSame(juan, indice.buscarPorId("p001"), "Debe encontrar el paciente por ID");
+        assertNull(indice.buscarPorId("P999"), "Un ID inexistente debe retornar null");
+    }
+
+    /**
+     * Verifica que el nombre se resuelva ignorando tildes y mayúsculas.
+     */
+    @Test
+    public void testResolverPorNombreSinTildes() {
+        assertSame(maria, indice.resolver("maria ruiz"), "Debe resolver el nombre sin tildes");
+        assertSame(juan, indice.resolver("Juan"), "Debe resolver una coincidencia parcial");
+    }
+
+    /**
+     * Verifica que referencias nulas o desconocidas no lancen excepción.
+     */
+    @Test
+    public void testResolverReferenciaInvalida() {
+        assertNull(indice.resolver(null), "Referencia nula debe retornar null");
+        assertNull(indice.resolver("Pedro Gómez"), "Nombre desconocido debe retornar null");
+        assertEquals("jose", IndicePersonas.normalizar("  José "), "Debe normalizar tildes y espacios");
+        assertNull(indice.resolver("   "), "Una referencia en blanco no debe resolver a nadie");
+    }
+
+    /**
+     * Verifica la resolución por prefijos de palabra y por nombre contenido en la referencia.
+     */
+    @Test
+    public void testResolverCoincidenciaParcial() {
+        assertSame(maria, indice.resolver("mar ru"), "Cada palabra debe ser prefijo de una palabra del nombre");
+        assertSame(juan, indice.resolver("Sr. Juan Perez (P001)"), "El nombre completo puede venir dentro de la referencia");
+    }
+
+    /**
+     * Verifica la búsqueda por prefijo y que el nombre normalizado se actualice al cambiar el nombre.
+     */
+    @Test
+    public void testBuscarPorPrefijo() {
+        List<Paciente> resultado = indice.buscarPorPrefijo("RU");
+        assertEquals(1, resultado.size(), "Solo María Ruiz tiene una palabra que empieza por 'ru'");
+        assertSame(maria, resultado.get(0));
+        assertTrue(indice.buscarPorPrefijo("").isEmpty(), "Un prefijo vacío no devuelve resultados");
+
+        juan.setName("Juan Pérez Ñúñez");
+        assertEquals("juan perez nunez", juan.getNombreNormalizado(), "El nombre normalizado debe recalcularse");
+    }
+}
@@ -0,0 +1,225 @@
+package loaders.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import loaders.Instantanea;
+import loaders.PacienteLoader;
+import loaders.ReporteCarga;
+import model.Paciente;
+import model.Validacion;
+
+/**
+ * Clase de pruebas unitarias para Instantanea.
+ * Usa registros "id;valor;número" para verificar la lectura, la vigencia según la huella
+ * del .txt y de sus dependencias, y la búsqueda con el índice.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class InstantaneaTest {
+
+    private static final String RUTA_TEST = "InstantaneaTest.txt";
+    private static final String RUTA_DEPENDENCIA = "InstantaneaDependencia.txt";
+
+    /** Registro de prueba: ID, valor y número. */
+    private static class Formato implements Instantanea.Formato<String[]> {
+        @Override public int version() { return 1; }
+        @Override public int ancho() { return 4 + 4 + 8; }
+        @Override public String id(String[] r) { return r[0]; }
+
+        @Override
+        public void escribir(String[] r, Instantanea.Escritor e) {
+            e.texto(r[0]);
+            e.texto(r[1]);
+            e.largo(Long.parseLong(r[2]));
+        }
+
+        @Override
+        public String[] leer(Instantanea.Lector l, Validacion v) {
+            return new String[] {l.texto(), l.texto(), String.valueOf(l.largo())};
+        }
+    }
+
+    private static String[] interpretar(String linea, Validacion v) {
+        String[] campos = linea.split(";");
+        if (campos.length != 3 || !campos[2].matches("-?\\d+")) {
+            v.agregar(Validacion.Codigo.NUMERO_INVALIDO, "numero", linea);
+            return null;
+        }
+        return campos;
+    }
+
+    private final Instantanea<String[]> instantanea = new Instantanea<>(RUTA_TEST, new Formato(), RUTA_DEPENDENCIA);
+    private byte[] pacientesOriginales;
+
+    /**
+     * Elimina los archivos temporales y restaura Paciente.txt si se modificó.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        new File(RUTA_TEST).delete();
+        new File(RUTA_DEPENDENCIA).delete();
+        instantanea.getArchivo().delete();
+        if (pacientesOriginales != null) {
+            Files.write(new File("Paciente.txt").toPath(), pacientesOriginales);
+            new File("Paciente.snap").delete();
+        }
+    }
+
+    private static void escribirTexto(String ruta, String contenido) throws IOException {
+        Files.write(new File(ruta).toPath(), contenido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifica que la instantánea devuelva los registros del texto con sus números de línea.
+     */
+    @Test
+    public void testEscribirYLeerDesdeTexto() throws IOException {
+        escribirTexto(RUTA_TEST, "A1;uno;1\n\nA2;dos;x\nA3;uno;-3\n");
+        assertNull(instantanea.leer(new ReporteCarga(RUTA_TEST)), "Sin instantánea se debe leer el texto");
+        assertTrue(instantanea.escribirDesdeTexto(InstantaneaTest::interpretar));
+        assertTrue(instantanea.vigente());
+        assertFalse(instantanea.escribirDesdeTexto(InstantaneaTest::interpretar), "Vigente: no se reescribe");
+
+        ReporteCarga reporte = new ReporteCarga(RUTA_TEST);
+        List<String[]> leidos = instantanea.leer(reporte);
+        assertNotNull(leidos);
+        assertEquals(2, leidos.size());
+        assertEquals(Arrays.asList("A3", "uno", "-3"), Arrays.asList(leidos.get(1)));
+        assertSame(leidos.get(0)[1], leidos.get(1)[1], "Los textos repetidos se comparten");
+        assertTrue(reporte.esDesdeInstantanea());
+        assertEquals(4, reporte.getLineas());
+        assertEquals(1, reporte.getOmitidas(), "Las omitidas del texto se conservan");
+    }
+
+    /**
+     * Verifica que cambiar el .txt o una dependencia invalide la instantánea.
+     */
+    @Test
+    public void testObsoletaSiCambiaElTextoOUnaDependencia() throws IOException {
+        escribirTexto(RUTA_TEST, "A1;uno;1\n");
+        escribirTexto(RUTA_DEPENDENCIA, "X\n");
+        instantanea.escribirDesdeTexto(InstantaneaTest::interpretar);
+        assertTrue(instantanea.vigente());
+
+        escribirTexto(RUTA_DEPENDENCIA, "XY\n");
+        assertFalse(instantanea.vigente(), "Cambió una dependencia");
+        assertTrue(instantanea.escribirDesdeTexto(InstantaneaTest::interpretar));
+
+        escribirTexto(RUTA_TEST, "A1;uno;2\n"); // mismo tamaño, distinto contenido
+        assertFalse(instantanea.vigente(), "Cambió el contenido del .txt");
+        assertNull(instantanea.leer(new ReporteCarga(RUTA_TEST)));
+    }
+
+    /**
+     * Verifica que una instantánea mayor que el límite del lector (un archivo disperso con
+     * la cabecera ajustada) se ignore sin error y se lea el texto, mientras la búsqueda por
+     * índice, que lee solo lo necesario, sigue funcionando.
+     */
+    @Test
+    public void testInstantaneaDemasiadoGrandeSeIgnora() throws IOException {
+        escribirTexto(RUTA_TEST, "A1;uno;1\n");
+        assertTrue(instantanea.escribirDesdeTexto(InstantaneaTest::interpretar));
+        long largo = 3L * 1024 * 1024 * 1024;
+        try (RandomAccessFile raf = new RandomAccessFile(instantanea.getArchivo(), "rw")) {
+            raf.setLength(largo);
+            raf.seek(56);
+            raf.writeLong(largo);
+        }
+        assertTrue(instantanea.vigente());
+
+        PrintStream original = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        try {
+            assertNull(instantanea.leer(new ReporteCarga(RUTA_TEST)), "Se debe leer el texto");
+        } finally {
+            System.setErr(original);
+        }
+        assertEquals("", err.toString(StandardCharsets.UTF_8), "No es un error de lectura");
+        assertEquals("uno", instantanea.buscar("a1", new Validacion())[1]);
+    }
+
+    /**
+     * Verifica la búsqueda por ID con el índice: sin distinguir mayúsculas y, con IDs
+     * repetidos, el primero en orden de archivo.
+     */
+    @Test
+    public void testBuscarConIndice() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++) sb.append("id").append(i).append(";v").append(i).append(';').append(i).append('\n');
+        sb.append("ID7;repetido;0\n");
+        escribirTexto(RUTA_TEST, sb.toString());
+        instantanea.escribirDesdeTexto(InstantaneaTest::interpretar);
+
+        assertEquals(Arrays.asList("id7", "v7", "7"), Arrays.asList(instantanea.buscar(" ID7 ", new Validacion())));
+        assertEquals("v499", instantanea.buscar("Id499", new Validacion())[1]);
+        assertNull(instantanea.buscar("id500", new Validacion()));
+    }
+
+    /**
+     * Verifica la lectura con otro formato del mismo esquema, que la instantánea pueda
+     * reemplazarse justo después de leerla y que un formato de otro esquema se rechace.
+     */
+    @Test
+    public void testLeerConOtroFormatoYReemplazar() throws IOException {
+        escribirTexto(RUTA_TEST, "A1;uno;1\nA2;dos;2\n");
+        instantanea.escribirDesdeTexto(InstantaneaTest::interpretar);
+
+        Formato mayusculas = new Formato() {
+            @Override
+            public String[] leer(Instantanea.Lector l, Validacion v) {
+                String[] r = super.leer(l, v);
+                r[1] = r[1].toUpperCase();
+                return r;
+            }
+        };
+        List<String[]> leidos = instantanea.leer(new ReporteCarga(RUTA_TEST), mayusculas);
+        assertEquals("DOS", leidos.get(1)[1]);
+        assertEquals("uno", instantanea.buscar("a1", new Validacion())[1]);
+
+        instantanea.escribir(List.<String[]>of(new String[] {"B1", "tres", "3"}));
+        assertEquals("tres", instantanea.buscar("B1", new Validacion())[1], "La instantánea leída se reemplaza");
+
+        Formato otraVersion = new Formato() {
+            @Override public int version() { return 2; }
+        };
+        assertThrows(IllegalArgumentException.class,
+                () -> instantanea.leer(new ReporteCarga(RUTA_TEST), otraVersion));
+    }
+
+    /**
+     * Verifica que al guardar pacientes se escriba la instantánea y que la siguiente carga
+     * la use con los mismos datos que el texto.
+     */
+    @Test
+    public void testGuardarPacientesEscribeInstantanea() throws Exception {
+        File archivo = new File("Paciente.txt");
+        pacientesOriginales = archivo.exists() ? Files.readAllBytes(archivo.toPath()) : new byte[0];
+        List<Paciente> pacientes = new ArrayList<>();
+        pacientes.add(new Paciente("Ana Pérez", (byte) 30, "P9001", "o+", "Calle 1", "300", 60.5, 1.6,
+                Arrays.asList("Polen", "Maní"), new ArrayList<>()));
+        pacientes.add(new Paciente("Luis", (byte) 40, "P9002", "AB-", "Calle 2", "301", 80, 1.8,
+                new ArrayList<>(), new ArrayList<>()));
+        PacienteLoader.guardarPacientes(pacientes);
+        assertTrue(new File("Paciente.snap").exists());
+
+        ReporteCarga reporte = new ReporteCarga("Paciente.txt");
+        List<Paciente> cargados = PacienteLoader.cargarPacientes(reporte);
+        assertTrue(reporte.esDesdeInstantanea());
+        assertEquals(2, cargados.size());
+        for (int i = 0; i < 2; i++) assertEquals(pacientes.get(i).toArchivo(), cargados.get(i).toArchivo());
+        assertEquals("Luis", PacienteLoader.buscarPacientePorId("p9002").getName());
+    }
+}
@@ -5,6 +5,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import loaders.PacienteLoader;
@@ -168,6 +171,70 @@ public class PacienteLoaderTest {
         assertEquals(pacientePrueba.getWeight(), cargado.getWeight(), 0.01, "El peso debe mantenerse");
     }
 
+    /**
+     * Verifica que el archivo se escriba en UTF-8 sin importar el juego de caracteres
+     * de la plataforma, de modo que las tildes se conserven al volver a cargarlo.
+     */
+    @Test
+    public void testGuardarYCargarEnUtf8() throws Exception {
+        PacienteLoader.guardarPacientes(List.of(pacientePrueba));
+
+        String contenido = new String(Files.readAllBytes(Paths.get("Paciente.txt")), StandardCharsets.UTF_8);
+        assertTrue(contenido.contains("Sofía Ramírez"), "El nombre debe escribirse en UTF-8");
+        assertTrue(contenido.contains("Maní"), "Las alergias deben escribirse en UTF-8");
+
+        Paciente cargado = PacienteLoader.cargarPacientes().get(0);
+        assertEquals("Sofía Ramírez", cargado.getName(), "La carga secuencial debe leer UTF-8");
+        assertEquals("Maní", cargado.getAllergies().get(0));
+    }
+
+    /**
+     * Verifica que si no se puede escribir Paciente.txt la bitácora se conserve, porque
+     * guarda la única copia de los cambios pendientes.
+     */
+    @Test
+    public void testGuardadoFallidoConservaBitacora() throws Exception {
+        PacienteLoader.guardarPacientes(List.of(pacientePrueba));
+        Paciente pendiente = new Paciente("Luis Díaz", (byte)40, "P002", "A+", "Calle 2", "301",
+                80.0, 1.80, new ArrayList<>(), new ArrayList<>());
+        PacienteLoader.anotarAlta(pendiente);
+
+        File archivo = new File("Paciente.txt");
+        byte[] contenido = Files.readAllBytes(archivo.toPath());
+        long modificado = archivo.lastModified();
+        // Un directorio en lugar del archivo hace fallar la escritura
+        assertTrue(archivo.delete() && archivo.mkdir());
+        try {
+            PacienteLoader.guardarPacientes(List.of(pacientePrueba));
+            assertTrue(new File("Paciente.journal").exists(), "La bitácora no debe borrarse si falló la escritura");
+        } finally {
+            archivo.delete();
+            Files.write(archivo.toPath(), contenido);
+            archivo.setLastModified(modificado);
+        }
+
+        assertNotNull(PacienteLoader.buscarPacientePorId("P002"), "El alta pendiente sigue en la bitácora");
+        PacienteLoader.guardarPacientes(new ArrayList<>());
+    }
+
+    /**
+     * Verifica que la baja decida la existencia con la bitácora y la instantánea: un ID
+     * guardado se elimina una sola vez y un alta pendiente también puede eliminarse.
+     */
+    @Test
+    public void testEliminarSinCargarLista() throws InvalidDataException {
+        PacienteLoader.guardarPacientes(List.of(pacientePrueba));
+        assertTrue(PacienteLoader.eliminarPaciente("p001"), "El ID se encuentra en la instantánea");
+        assertFalse(PacienteLoader.eliminarPaciente("P001"), "La baja anotada en la bitácora decide");
+        assertFalse(PacienteLoader.eliminarPaciente("P404"));
+
+        PacienteLoader.agregarPaciente(new Paciente("Luis Díaz", (byte)40, "P002", "A+", "Calle 2", "301",
+                80.0, 1.80, new ArrayList<>(), new ArrayList<>()));
+        assertTrue(PacienteLoader.eliminarPaciente("P002"));
+        assertTrue(PacienteLoader.cargarPacientes().isEmpty());
+        PacienteLoader.guardarPacientes(new ArrayList<>());
+    }
+
     /**
      * Verifica que se pueda agregar un nuevo paciente correctamente.
      */
@@ -0,0 +1,104 @@
+package loaders.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import loaders.CargaParalela;
+import loaders.ReporteCarga;
+import model.Paciente;
+import model.Validacion;
+
+/**
+ * Clase de pruebas unitarias para ReporteCarga.
+ * Verifica contadores, números de línea y la combinación de informes parciales.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class ReporteCargaTest {
+
+    private final File archivo = new File("ReporteCargaTest.txt");
+
+    /**
+     * Elimina el archivo temporal.
+     */
+    @AfterEach
+    public void tearDown() {
+        archivo.delete();
+    }
+
+    /**
+     * Verifica que cada violación quede con su línea, campo y código.
+     */
+    @Test
+    public void testInterpretarAnotaViolaciones() {
+        ReporteCarga reporte = new ReporteCarga("Paciente.txt");
+        assertNotNull(reporte.interpretar("Ana;30;P001;O+;Calle;300;70;1.65;", Paciente::fromArchivo));
+        assertNull(reporte.interpretar("", Paciente::fromArchivo), "Las líneas en blanco se cuentan pero no se interpretan");
+        assertNull(reporte.interpretar("Ana;x;P002;O+;Calle;300;-1;1.65;", Paciente::fromArchivo));
+        assertNull(reporte.interpretar("corta;1", Paciente::fromArchivo));
+
+        assertEquals(4, reporte.getLineas());
+        assertEquals(2, reporte.getOmitidas());
+        assertEquals(1, reporte.contar(Validacion.Codigo.NUMERO_INVALIDO));
+        assertEquals(1, reporte.contar(Validacion.Codigo.VALOR_NEGATIVO));
+        assertEquals(1, reporte.contar(Validacion.Codigo.CAMPOS_INSUFICIENTES));
+
+        List<ReporteCarga.Entrada> entradas = reporte.getEntradas();
+        assertEquals(3, entradas.size());
+        assertEquals(3, entradas.get(0).getLinea());
+        assertEquals("edad", entradas.get(0).getCampo());
+        assertEquals(4, entradas.get(2).getLinea());
+        assertTrue(reporte.resumen().contains("2 omitidas"), reporte.resumen());
+    }
+
+    /**
+     * Verifica que al combinar informes se desplacen los números de línea.
+     */
+    @Test
+    public void testCombinarDesplazaLineas() {
+        ReporteCarga total = new ReporteCarga("Paciente.txt");
+        total.interpretar("a;b", Paciente::fromArchivo);
+        ReporteCarga parcial = new ReporteCarga("");
+        parcial.interpretar("Ana;30;P001;O+;Calle;300;70;1.65;", Paciente::fromArchivo);
+        parcial.interpretar("a;b", Paciente::fromArchivo);
+        total.combinar(parcial);
+
+        assertEquals(3, total.getLineas());
+        assertEquals(2, total.getOmitidas());
+        assertEquals(3, total.getEntradas().get(1).getLinea(), "La línea 2 del parcial es la 3 del total");
+    }
+
+    /**
+     * Verifica que la carga en paralelo reporte los mismos números de línea que la secuencial.
+     */
+    @Test
+    public void testCargaParalelaNumeraLineas() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= 60000; i++) {
+            if (i % 10000 == 0) sb.append("INVALIDA").append(i).append('\n');
+            else if (i % 7 == 0) sb.append("\r\n");
+            else sb.append("Paciente ").append(i).append(";").append("x".repeat(i % 40)).append('\n');
+        }
+        Files.write(archivo.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+
+        ReporteCarga reporte = new ReporteCarga(archivo.getName());
+        List<String> leidas = CargaParalela.cargar(archivo, (l, v) -> {
+            if (!l.startsWith("INVALIDA")) return l;
+            v.agregar(Validacion.Codigo.CAMPO_VACIO, "nombre", l);
+            return null;
+        }, reporte);
+
+        assertEquals(60000, reporte.getLineas());
+        assertEquals(6, reporte.getOmitidas());
+        assertEquals(60000 - 6 - 60000 / 7 + 60000 / 70000, leidas.size());
+        for (ReporteCarga.Entrada e : reporte.getEntradas()) {
+            assertEquals("INVALIDA" + e.getLinea(), e.getMensaje(), "El número de línea debe ser el del archivo");
+        }
+    }
+}
@@ -8,6 +8,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import loaders.IndicePersonas;
 import loaders.TrasplanteLoader;
 import model.Trasplante;
 import model.Donante;
@@ -192,6 +193,59 @@ public class TrasplanteLoaderTest {
         assertEquals("", TrasplanteLoader.toArchivo(null), "Trasplante nulo debe retornar cadena vacía");
     }
 
+    /**
+     * Verifica que el formato v2 conserve historial y motivo, aunque contengan ';' o saltos de línea.
+     */
+    @Test
+    public void testFormatoV2ConservaTextoLibre() {
+        Trasplante t = new Trasplante("T010", "Riñón", donante, paciente, "Rechazado",
+                "Control 1; sin novedad\nControl 2", "Rechazo \\ agudo", new Date());
+        String linea = TrasplanteLoader.toArchivo(t);
+        assertTrue(linea.startsWith(TrasplanteLoader.PREFIJO_V2 + ";"), "Debe escribirse en formato v2");
+        assertFalse(linea.contains("\n"), "La línea no debe contener saltos de línea");
+
+        Trasplante leido = TrasplanteLoader.fromArchivo(linea, indiceDonantes(), indicePacientes());
+        assertNotNull(leido, "La línea v2 debe poder leerse");
+        assertSame(donante, leido.getDonor(), "El donante debe resolverse por ID");
+        assertSame(paciente, leido.getReceiver(), "El paciente debe resolverse por ID");
+        assertEquals(t.getHistorialClinico(), leido.getHistorialClinico(), "El historial debe mantenerse");
+        assertEquals(t.getRejectionReason(), leido.getRejectionReason(), "El motivo debe mantenerse");
+    }
+
+    /**
+     * Verifica que el formato anterior, basado en nombres, se siga leyendo.
+     */
+    @Test
+    public void testLeerFormatoLegado() {
+        String linea = TrasplanteLoader.toArchivoLegado(trasplantePrueba);
+        Trasplante leido = TrasplanteLoader.fromArchivo(linea, indiceDonantes(), indicePacientes());
+        assertNotNull(leido, "La línea en formato anterior debe poder leerse");
+        assertEquals("T001", leido.getId(), "El ID debe mantenerse");
+        assertSame(paciente, leido.getReceiver(), "El paciente debe resolverse por nombre");
+    }
+
+    /**
+     * Verifica que en v2 un ID de donante desconocido invalide la línea.
+     */
+    @Test
+    public void testFormatoV2IdDesconocido() {
+        String linea = TrasplanteLoader.toArchivo(trasplantePrueba).replace(";D001;", ";D999;");
+        assertNull(TrasplanteLoader.fromArchivo(linea, indiceDonantes(), indicePacientes()),
+                "Un ID de donante inexistente debe retornar null");
+    }
+
+    private IndicePersonas<Donante> indiceDonantes() {
+        List<Donante> lista = new ArrayList<>();
+        lista.add(donante);
+        return new IndicePersonas<>(lista);
+    }
+
+    private IndicePersonas<Paciente> indicePacientes() {
+        List<Paciente> lista = new ArrayList<>();
+        lista.add(paciente);
+        return new IndicePersonas<>(lista);
+    }
+
     /**
      * Limpieza después de cada prueba.
      * Elimina los archivos temporales creados.
@@ -2,8 +2,9 @@ package model;
 
 import excepciones.InvalidDataException;
 import excepciones.InvariantViolationException;
+import java.util.Calendar;
 import java.util.Date;
-import java.text.SimpleDateFormat;
+import util.Fechas;
 
 
 /**
@@ -15,12 +16,14 @@ import java.text.SimpleDateFormat;
  */
 public class Cita {
     private String id; // NUEVO CAMPO: ID de la Cita (Ej: C001)
+    private Identificador identificador; // ID canónico, sin distinguir mayúsculas
     private Date date;
     private Date time; 
     private String location;
     private Paciente paciente;
     private String doctor; 
-    private String estado = "Pendiente";
+    private EstadoCita estado = EstadoCita.PENDIENTE;
+    private String estadoTexto; // solo si el estado no coincide con la etiqueta del enum
     private boolean confirmada = false;
     private boolean cancelada = false;
 
@@ -34,23 +37,13 @@ public class Cita {
      * @param doctor Doctor/Especialista de la cita
      */
     public Cita(String id, Date date, Date time, String location, Paciente paciente, String doctor) throws InvalidDataException {
-        if (id == null || id.trim().isEmpty()) {
-            throw new InvalidDataException("El ID de la cita no puede ser nulo o vacío.");
-        }
-        if (date == null || time == null) {
-            throw new InvalidDataException("La fecha y hora de la cita no pueden ser null.");
-        }
-        if (location == null || location.trim().isEmpty()) {
-            throw new InvalidDataException("La ubicación de la cita no puede estar vacía.");
-        }
-        if (paciente == null) {
-            throw new InvalidDataException("La cita debe estar asociada a un paciente.");
-        }
-        if (doctor == null || doctor.trim().isEmpty()) {
-            throw new InvalidDataException("El nombre del doctor no puede estar vacío.");
+        Validacion v = validar(id, date, time, location, paciente, doctor, new Validacion());
+        if (!v.esValida()) {
+            throw new InvalidDataException(v.primera().getMensaje());
         }
 
         this.id = id;
+        this.identificador = Identificador.de(id);
         this.date = date;
         this.time = time;
         this.location = location;
@@ -58,14 +51,37 @@ public class Cita {
         this.doctor = doctor;
     }
 
+    /**
+     * Valida los datos de una cita sin lanzar excepciones.
+     * @return La misma validación recibida, con todas las violaciones encontradas.
+     */
+    public static Validacion validar(String id, Date date, Date time, String location, Paciente paciente,
+                                     String doctor, Validacion v) {
+        v.requerir(id, "id", "El ID de la cita no puede ser nulo o vacío.");
+        if (date == null || time == null) {
+            v.agregar(Validacion.Codigo.FECHA_INVALIDA, "fecha", "La fecha y hora de la cita no pueden ser null.");
+        }
+        v.requerir(location, "lugar", "La ubicación de la cita no puede estar vacía.");
+        if (paciente == null) {
+            v.agregar(Validacion.Codigo.REFERENCIA_NO_ENCONTRADA, "paciente", "La cita debe estar asociada a un paciente.");
+        }
+        v.requerir(doctor, "doctor", "El nombre del doctor no puede estar vacío.");
+        return v;
+    }
+
     // --- Getters ---
     public String getId() { return id; }
+    public Identificador getIdentificador() { return identificador; }
     public Date getDate() { return date; }
     public Date getTime() { return time; }
     public String getLocation() { return location; }
     public Paciente getPaciente() { return paciente; }
     public String getDoctor() { return doctor; }
-    public String getEstado() { return estado; }
+    public String getEstado() {
+        return estadoTexto != null || estado == null ? estadoTexto : estado.toString();
+    }
+    /** @return el estado interpretado, o null si el texto no se reconoce */
+    public EstadoCita getEstadoCita() { return estado; }
     public boolean isConfirmada() { return confirmada; }
     public boolean isCancelada() { return cancelada; }
 
@@ -74,11 +90,47 @@ public class Cita {
     public void setTime(Date time) { this.time = time; }
     public void setLocation(String location) { this.location = location; }
     public void setDoctor(String doctor) { this.doctor = doctor; }
-    public void setEstado(String estado) { this.estado = estado; }
+    public void setEstado(String estado) {
+        this.estado = EstadoCita.desde(estado);
+        this.estadoTexto = this.estado != null && this.estado.toString().equals(estado) ? null : estado;
+    }
+    public void setEstado(EstadoCita estado) {
+        this.estado = estado;
+        this.estadoTexto = null;
+    }
 
     // --- Lógica ---
-    public void confirmar() { this.confirmada = true; this.estado = "Aprobada"; }
-    public void cancelar() { this.cancelada = true; this.estado = "Cancelada"; }
+    public void confirmar() { this.confirmada = true; setEstado(EstadoCita.APROBADA); }
+    public void cancelar() { this.cancelada = true; setEstado(EstadoCita.CANCELADA); }
+
+    /**
+     * Combina el día de {@code date} con la hora y minutos de {@code time}.
+     * @return instante de la cita (segundos en cero)
+     */
+    public Date getFechaHora() {
+        Calendar calCita = Calendar.getInstance();
+        calCita.setTime(date);
+        Calendar calHora = Calendar.getInstance();
+        calHora.setTime(time);
+
+        calCita.set(Calendar.HOUR_OF_DAY, calHora.get(Calendar.HOUR_OF_DAY));
+        calCita.set(Calendar.MINUTE, calHora.get(Calendar.MINUTE));
+        calCita.set(Calendar.SECOND, 0);
+        calCita.set(Calendar.MILLISECOND, 0);
+        return calCita.getTime();
+    }
+
+    /**
+     * Regla de expiración: una cita Pendiente cuya fecha y hora ya pasaron pasa a Aprobada.
+     * @param ahora instante de referencia
+     * @return true si la cita cambió de estado
+     */
+    public boolean aplicarExpiracion(Date ahora) {
+        if (estado != EstadoCita.PENDIENTE) return false;
+        if (!getFechaHora().before(ahora)) return false;
+        setEstado(EstadoCita.APROBADA);
+        return true;
+    }
 
     // utilidad mínima para normalizar tildes comunes usadas en tests
     private String aplicarTildesComunes(String s) {
@@ -92,12 +144,9 @@ public class Cita {
      * ID;Fecha;Hora;Lugar;Doctor [ESTADO]
      */
     public String resumen() {
-        SimpleDateFormat formatoFecha = new SimpleDateFormat("dd/MM/yyyy");
-        SimpleDateFormat formatoHora = new SimpleDateFormat("HH:mm");
-
         String estadoStr = "";
-        if (estado != null && !estado.equalsIgnoreCase("Pendiente")) {
-            estadoStr = " | Estado: " + estado;
+        if (getEstado() != null && estado != EstadoCita.PENDIENTE) {
+            estadoStr = " | Estado: " + getEstado();
         }
 
         String loc = aplicarTildesComunes(location);
@@ -105,8 +154,8 @@ public class Cita {
 
         return String.format("%s;%s;%s;%s;%s%s",
             id != null ? id : "N/A",
-            formatoFecha.format(date),
-            formatoHora.format(time),
+            Fechas.formatearFecha(date),
+            Fechas.formatearHora(time),
             loc != null ? loc : "N/A",
             doc != null ? doc : "N/A",
             estadoStr);
@@ -116,21 +165,18 @@ public class Cita {
      * Convierte la cita al formato de archivo: ID;Fecha;Hora;Lugar;ID_Paciente;Doctor;Estado
      */
     public String toArchivo() {
-        SimpleDateFormat formatoFecha = new SimpleDateFormat("dd/MM/yyyy");
-        SimpleDateFormat formatoHora = new SimpleDateFormat("HH:mm");
-
         String loc = aplicarTildesComunes(location);
         String doc = aplicarTildesComunes(doctor);
         String idPaciente = paciente != null ? paciente.getId() : "";
 
         return String.join(";",
                 id != null ? id : "",
-                formatoFecha.format(date),
-                formatoHora.format(time),
+                Fechas.formatearFecha(date),
+                Fechas.formatearHora(time),
                 loc != null ? loc : "",
                 idPaciente,
                 doc != null ? doc : "",
-                estado != null ? estado : "");
+                getEstado() != null ? getEstado() : "");
     }
 
     /**
@@ -143,4 +189,20 @@ public class Cita {
         if (paciente == null) throw new InvariantViolationException("Paciente null");
         if (doctor == null || doctor.trim().isEmpty()) throw new InvariantViolationException("Doctor inválido");
     }
-}
\ No newline at end of file
+
+    /**
+     * Dos citas son iguales si tienen el mismo ID, sin distinguir mayúsculas.
+     * Sin ID se comparan por referencia.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        return identificador != null && identificador == ((Cita) obj).identificador;
+    }
+
+    @Override
+    public int hashCode() {
+        return identificador != null ? identificador.hashCode() : System.identityHashCode(this);
+    }
+}
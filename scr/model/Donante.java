@@ -4,6 +4,7 @@ import excepciones.InvalidDataException;
 import excepciones.DonanteMenorEdadException;
 import excepciones.InvariantViolationException;
 import java.util.List;
+import util.LectorCampos;
 
 /**
  * Clase que representa a un donante en el sistema.
@@ -12,12 +13,16 @@ import java.util.List;
  * @author Juan Cogua
  */
 public class Donante  extends Persona {
-    private String donationType;
+    // Tipo de donación y órgano como enum; el texto solo se guarda si no coincide con la etiqueta
+    private TipoDonacion tipoDonacion;
+    private String donationTypeTexto;
     private String healthStatus;
     private boolean eligibility;
-    private String organo; // Órgano donado
+    private Organo organo; // Órgano donado
+    private String organoTexto;
 
-    private static final List<String> ORGANOS_DISPONIBLES = List.of("Corazón", "Riñón", "Hígado", "Pulmón", "Páncreas");
+    private static final String MENSAJE_MENOR_DE_EDAD = "El donante debe ser mayor de 18 años.";
+    private static final List<String> ORGANOS_DISPONIBLES = Organo.etiquetas();
 
     /**
      * Constructor de Donante.
@@ -27,33 +32,52 @@ public class Donante  extends Persona {
             throws InvalidDataException, DonanteMenorEdadException {
         super(name, checkEdadValida(age), id, bloodType, address, phone);
 
-        if (donationType == null || donationType.trim().isEmpty())
-            throw new InvalidDataException("El tipo de donación no puede estar vacío.");
-        if (healthStatus == null || healthStatus.trim().isEmpty())
-            throw new InvalidDataException("El estado de salud no puede estar vacío.");
+        lanzarSiInvalida(validarDonacion(donationType, healthStatus, new Validacion()));
 
-        this.donationType = donationType;
+        asignarTipoDonacion(donationType);
         this.healthStatus = healthStatus;
         this.eligibility = eligibility;
-        this.organo = organo != null ? organo.trim() : "";
+        asignarOrgano(organo != null ? organo.trim() : "");
     }
 
     // Método helper para validar edad en tiempo de invocación del constructor padre.
     private static byte checkEdadValida(byte age) throws DonanteMenorEdadException {
         if (age < 18) {
-            throw new DonanteMenorEdadException("El donante debe ser mayor de 18 años.");
+            throw new DonanteMenorEdadException(MENSAJE_MENOR_DE_EDAD);
         }
         return age;
     }
 
+    /**
+     * Valida todos los datos de un donante sin lanzar excepciones.
+     * @return La misma validación recibida, con todas las violaciones encontradas.
+     */
+    public static Validacion validar(String name, byte age, String id, String bloodType,
+                                     String donationType, String healthStatus, Validacion v) {
+        if (age < 18) v.agregar(Validacion.Codigo.MENOR_DE_EDAD, "edad", MENSAJE_MENOR_DE_EDAD);
+        Persona.validar(name, age, id, bloodType, v);
+        return validarDonacion(donationType, healthStatus, v);
+    }
+
+    private static Validacion validarDonacion(String donationType, String healthStatus, Validacion v) {
+        v.requerir(donationType, "tipoDonacion", "El tipo de donación no puede estar vacío.");
+        v.requerir(healthStatus, "estadoSalud", "El estado de salud no puede estar vacío.");
+        return v;
+    }
+
     // --- Getters y setters ---
-    public String getDonationType() { return donationType; }
+    public String getDonationType() {
+        return donationTypeTexto != null || tipoDonacion == null ? donationTypeTexto : tipoDonacion.toString();
+    }
     public void setDonationType(String donationType) throws InvalidDataException {
         if (donationType == null || donationType.trim().isEmpty())
             throw new InvalidDataException("El tipo de donación no puede estar vacío.");
-        this.donationType = donationType;
+        asignarTipoDonacion(donationType);
     }
 
+    /** @return el tipo de donación interpretado, o null si el texto no se reconoce */
+    public TipoDonacion getTipoDonacion() { return tipoDonacion; }
+
     public String getHealthStatus() { return healthStatus; }
     public void setHealthStatus(String healthStatus) throws InvalidDataException {
         if (healthStatus == null || healthStatus.trim().isEmpty())
@@ -64,8 +88,23 @@ public class Donante  extends Persona {
     public boolean isEligibility() { return eligibility; }
     public void setEligibility(boolean eligibility) { this.eligibility = eligibility; }
 
-    public String getOrgano() { return organo; }
-    public void setOrgano(String organo) { this.organo = organo; }
+    public String getOrgano() {
+        return organoTexto != null || organo == null ? organoTexto : organo.toString();
+    }
+    public void setOrgano(String organo) { asignarOrgano(organo); }
+
+    /** @return el órgano interpretado, o null si no hay órgano o el texto no se reconoce */
+    public Organo getOrganoTipo() { return organo; }
+
+    private void asignarTipoDonacion(String texto) {
+        this.tipoDonacion = TipoDonacion.desde(texto);
+        this.donationTypeTexto = tipoDonacion != null && tipoDonacion.toString().equals(texto) ? null : texto;
+    }
+
+    private void asignarOrgano(String texto) {
+        this.organo = Organo.desde(texto);
+        this.organoTexto = organo != null && organo.toString().equals(texto) ? null : texto;
+    }
 
     public static List<String> getOrganosDisponibles() {
         return ORGANOS_DISPONIBLES;
@@ -78,54 +117,83 @@ public class Donante  extends Persona {
         // Validar invariantes de la superclase
         super.checkInvariant();
 
+        String donationType = getDonationType();
         if (donationType == null || donationType.trim().isEmpty())
             throw new InvariantViolationException("Tipo de donación no puede ser nulo o vacío.");
         if (healthStatus == null || healthStatus.trim().isEmpty())
             throw new InvariantViolationException("Estado de salud no puede ser nulo o vacío.");
         // Si se especifica un órgano, debe estar en la lista de disponibles
-        if (organo != null && !organo.trim().isEmpty() && !ORGANOS_DISPONIBLES.contains(organo.trim()))
-            throw new InvariantViolationException("Órgano especificado no es válido: " + organo);
+        String textoOrgano = getOrgano();
+        if (textoOrgano != null && !textoOrgano.trim().isEmpty() && !ORGANOS_DISPONIBLES.contains(textoOrgano.trim()))
+            throw new InvariantViolationException("Órgano especificado no es válido: " + textoOrgano);
     }
 
     // --- Métodos de archivo ---
     public String toArchivo() {
         return getName() + ";" + getAge() + ";" + getId() + ";" + getBloodType() + ";" +
                 getAddress() + ";" + getPhone() + ";" + getDonationType() + ";" +
-                getHealthStatus() + ";" + (isEligibility() ? "1" : "0") + ";" + organo;
+                getHealthStatus() + ";" + (isEligibility() ? "1" : "0") + ";" + getOrgano();
     }
 
+    /**
+     * Interpreta una línea del archivo sin informar el motivo del rechazo; para
+     * conocerlo usar {@link #fromArchivo(String, Validacion)}.
+     * @param linea línea en formato de archivo
+     * @return el donante o null si la línea es inválida
+     */
     public static Donante fromArchivo(String linea) {
         if (linea == null || linea.trim().isEmpty())
             return null;
+        return fromArchivo(linea, new Validacion());
+    }
 
-        try {
-            String[] parts = linea.split(";");
-            if (parts.length < 10)
-                return null;
-
-            String name = parts[0];
-            byte age = Byte.parseByte(parts[1]);
-            String id = parts[2];
-            String bloodType = parts[3];
-            String address = parts[4];
-            String phone = parts[5];
-            String donationType = parts[6];
-            String healthStatus = parts[7];
-            boolean eligibility = parts[8].equals("1");
-            String organo = parts[9];
+    /**
+     * Interpreta una línea del archivo sin lanzar excepciones.
+     * @param linea línea en formato de archivo
+     * @param v validación donde se acumulan todas las violaciones de la línea
+     * @return el donante o null si la línea es inválida
+     */
+    public static Donante fromArchivo(String linea, Validacion v) {
+        if (linea == null || linea.trim().isEmpty()) {
+            v.agregar(Validacion.Codigo.CAMPO_VACIO, "linea", "Línea vacía.");
+            return null;
+        }
+        LectorCampos campos = new LectorCampos(linea);
+        if (campos.contarCampos() < 10) {
+            v.agregar(Validacion.Codigo.CAMPOS_INSUFICIENTES, "linea", "Se esperaban al menos 10 campos.");
+            return null;
+        }
 
+        String name = campos.siguiente();
+        byte age = campos.siguienteByteSeguro();
+        if (campos.hayErrorNumerico()) v.agregar(Validacion.Codigo.NUMERO_INVALIDO, "edad", "La edad no es un número válido.");
+        String id = campos.siguiente();
+        String bloodType = campos.siguiente();
+        String address = campos.siguiente();
+        String phone = campos.siguiente();
+        String donationType = campos.siguiente();
+        String healthStatus = campos.siguiente();
+        boolean eligibility = campos.siguienteEs("1");
+        String organo = campos.siguiente();
+
+        validar(name, age, id, bloodType, donationType, healthStatus, v);
+        if (!v.esValida()) return null;
+        try {
             return new Donante(name, age, id, bloodType, address, phone, donationType, healthStatus, eligibility, organo);
-        } catch (Exception e) {
-            System.err.println("Error al parsear donante: " + e.getMessage());
+        } catch (InvalidDataException | DonanteMenorEdadException e) {
+            // No ocurre: los mismos datos ya se validaron
+            v.agregar(Validacion.Codigo.CAMPO_VACIO, "donante", e.getMessage());
             return null;
         }
     }
 
     @Override
     public String toString() {
-        String tipoDonacion = (donationType == null || donationType.trim().isEmpty()) ? "Sangre" : donationType.trim();
-        String detalle = tipoDonacion.equalsIgnoreCase("Órganos") && organo != null && !organo.trim().isEmpty()
-                ? organo : tipoDonacion;
+        String donationType = getDonationType();
+        String tipo = (donationType == null || donationType.trim().isEmpty()) ? "Sangre" : donationType.trim();
+        String textoOrgano = getOrgano();
+        String detalle = tipoDonacion == TipoDonacion.ORGANOS && textoOrgano != null && !textoOrgano.trim().isEmpty()
+                ? textoOrgano : tipo;
         return String.format("%s (ID: %s) | Sangre: %s | Dona: %s",
                 getName(), getId(), getBloodType(), detalle);
     }
@@ -0,0 +1,36 @@
+package model;
+
+/**
+ * Estados de una cita. "COMPLETADA" se lee como {@link #APROBADA}, igual que la
+ * normalización que hacía CitaLoader.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public enum EstadoCita {
+    PENDIENTE("Pendiente"), APROBADA("Aprobada"), CANCELADA("Cancelada");
+
+    private final String etiqueta;
+
+    EstadoCita(String etiqueta) {
+        this.etiqueta = etiqueta;
+    }
+
+    /** @return la etiqueta guardada en archivo, por ejemplo "Pendiente" */
+    @Override
+    public String toString() { return etiqueta; }
+
+    /**
+     * Interpreta un estado sin distinguir mayúsculas ni espacios extremos.
+     * @param texto estado leído
+     * @return el estado o null si no se reconoce
+     */
+    public static EstadoCita desde(String texto) {
+        if (texto == null) return null;
+        String t = texto.trim();
+        if (t.equalsIgnoreCase("Pendiente")) return PENDIENTE;
+        if (t.equalsIgnoreCase("Aprobada") || t.equalsIgnoreCase("Completada")) return APROBADA;
+        if (t.equalsIgnoreCase("Cancelada")) return CANCELADA;
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package model;
+
+/**
+ * Estados de un trasplante. Se conserva "Cancelada" como etiqueta porque es el
+ * texto que ya se guarda al cancelar un trasplante.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public enum EstadoTrasplante {
+    PENDIENTE("Pendiente"), APROBADO("Aprobado"), RECHAZADO("Rechazado"), CANCELADO("Cancelada");
+
+    private final String etiqueta;
+
+    EstadoTrasplante(String etiqueta) {
+        this.etiqueta = etiqueta;
+    }
+
+    /** @return la etiqueta guardada en archivo, por ejemplo "Aprobado" */
+    @Override
+    public String toString() { return etiqueta; }
+
+    /**
+     * Interpreta un estado sin distinguir mayúsculas ni espacios extremos
+     * (acepta "Cancelado" y "Cancelada").
+     * @param texto estado leído
+     * @return el estado o null si no se reconoce
+     */
+    public static EstadoTrasplante desde(String texto) {
+        if (texto == null) return null;
+        String t = texto.trim();
+        if (t.equalsIgnoreCase("Pendiente")) return PENDIENTE;
+        if (t.equalsIgnoreCase("Aprobado")) return APROBADO;
+        if (t.equalsIgnoreCase("Rechazado")) return RECHAZADO;
+        if (t.equalsIgnoreCase("Cancelada") || t.equalsIgnoreCase("Cancelado")) return CANCELADO;
+        return null;
+    }
+}
@@ -0,0 +1,100 @@
+package model;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Identificador canónico de pacientes, donantes, citas y trasplantes (P001, D011, C001, T001).
+ * El texto se normaliza una sola vez (sin espacios extremos y en mayúsculas) y cada
+ * valor se interna: dos IDs que solo difieren en mayúsculas comparten la misma instancia,
+ * de modo que {@code equals} es una comparación de referencias y el hash ya está calculado.
+ * Así los índices pueden usar mapas hash conservando la semántica {@code equalsIgnoreCase}.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class Identificador implements Comparable<Identificador> {
+
+    private static final ConcurrentHashMap<String, Identificador> INTERNADOS = new ConcurrentHashMap<>();
+
+    private final String valor;
+    private final int hash;
+
+    private Identificador(String valor) {
+        this.valor = valor;
+        this.hash = valor.hashCode();
+    }
+
+    /**
+     * Obtiene el identificador canónico de un texto, creándolo si es la primera vez.
+     * @param texto ID tal como se lee del archivo o de la UI
+     * @return el identificador internado, o null si el texto es null o está en blanco
+     */
+    public static Identificador de(String texto) {
+        String valor = canonico(texto);
+        if (valor == null) return null;
+        Identificador id = INTERNADOS.get(valor);
+        return id != null ? id : INTERNADOS.computeIfAbsent(valor, Identificador::new);
+    }
+
+    /**
+     * Busca el identificador de un texto sin crearlo. Sirve para consultas: si el ID
+     * nunca se creó, ningún registro lo tiene y la búsqueda puede terminar de inmediato.
+     * @param texto ID a buscar
+     * @return el identificador internado o null si no existe
+     */
+    public static Identificador buscar(String texto) {
+        String valor = canonico(texto);
+        return valor == null ? null : INTERNADOS.get(valor);
+    }
+
+    /**
+     * @param a primer ID
+     * @param b segundo ID
+     * @return true si ambos textos representan el mismo identificador
+     */
+    public static boolean iguales(String a, String b) {
+        String ca = canonico(a);
+        return ca != null && ca.equals(canonico(b));
+    }
+
+    /**
+     * Normaliza un ID sin internarlo, para índices externos al heap que no deben
+     * llenar la tabla de identificadores con cada registro que consultan.
+     * @param texto ID a normalizar
+     * @return el ID sin espacios extremos y en mayúsculas, o null si está en blanco
+     */
+    public static String normalizar(String texto) {
+        return canonico(texto);
+    }
+
+    // Sin espacios extremos y en mayúsculas; evita copiar si el texto ya es canónico
+    private static String canonico(String texto) {
+        if (texto == null) return null;
+        String t = texto.trim();
+        if (t.isEmpty()) return null;
+        for (int i = 0; i < t.length(); i++) {
+            char c = t.charAt(i);
+            if (c > 0x7F || (c >= 'a' && c <= 'z')) return t.toUpperCase(Locale.ROOT);
+        }
+        return t;
+    }
+
+    /** @return el ID normalizado (por ejemplo "P001") */
+    public String getValor() { return valor; }
+
+    @Override
+    public boolean equals(Object obj) {
+        // Los identificadores están internados: mismo valor implica misma instancia
+        return this == obj;
+    }
+
+    @Override
+    public int hashCode() { return hash; }
+
+    @Override
+    public int compareTo(Identificador otro) { return valor.compareTo(otro.valor); }
+
+    @Override
+    public String toString() { return valor; }
+}
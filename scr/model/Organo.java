@@ -0,0 +1,61 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import util.Textos;
+
+/**
+ * Órganos que se pueden donar. La etiqueta es el texto que se guarda en los archivos
+ * y se muestra en la UI; la clave es la etiqueta normalizada (sin tildes, en minúsculas).
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public enum Organo {
+    CORAZON("Corazón"), RINON("Riñón"), HIGADO("Hígado"), PULMON("Pulmón"), PANCREAS("Páncreas");
+
+    private static final Organo[] VALORES = values();
+    private static final List<String> ETIQUETAS;
+
+    static {
+        List<String> etiquetas = new ArrayList<>();
+        for (Organo o : VALORES) etiquetas.add(o.etiqueta);
+        ETIQUETAS = Collections.unmodifiableList(etiquetas);
+    }
+
+    private final String etiqueta;
+    private final String clave;
+
+    Organo(String etiqueta) {
+        this.etiqueta = etiqueta;
+        this.clave = Textos.normalizar(etiqueta);
+    }
+
+    /** @return la etiqueta normalizada, por ejemplo "rinon" */
+    public String clave() { return clave; }
+
+    /** @return la etiqueta, por ejemplo "Riñón" */
+    @Override
+    public String toString() { return etiqueta; }
+
+    /** @return las etiquetas en el orden del enum */
+    public static List<String> etiquetas() { return ETIQUETAS; }
+
+    /**
+     * Interpreta un órgano sin distinguir tildes, mayúsculas ni espacios extremos.
+     * @param texto órgano leído ("Riñón", "rinon"...)
+     * @return el órgano o null si no se reconoce
+     */
+    public static Organo desde(String texto) {
+        if (texto == null) return null;
+        for (Organo o : VALORES) {
+            if (o.etiqueta.equals(texto)) return o; // caso habitual: texto del archivo
+        }
+        String clave = Textos.normalizar(texto);
+        for (Organo o : VALORES) {
+            if (o.clave.equals(clave)) return o;
+        }
+        return null;
+    }
+}
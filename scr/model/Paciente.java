@@ -4,6 +4,7 @@ import excepciones.InvalidDataException;
 import excepciones.InvariantViolationException;
 import java.util.ArrayList;
 import java.util.List;
+import util.LectorCampos;
 
 
 /**
@@ -27,8 +28,7 @@ public class Paciente extends Persona {
         super(nombre, edad, id, tipoSangre, direccion, telefono);
 
         // validaciones: lanzar, no capturar
-        if (peso < 0) throw new InvalidDataException("El peso no puede ser negativo.");
-        if (altura < 0) throw new InvalidDataException("La altura no puede ser negativa.");
+        lanzarSiInvalida(validarMedidas(peso, altura, new Validacion()));
 
         this.weight = peso;
         this.height = altura;
@@ -37,6 +37,22 @@ public class Paciente extends Persona {
         this.citas = (citas == null) ? new java.util.ArrayList<>() : new java.util.ArrayList<>(citas);
     }
 
+    /**
+     * Valida todos los datos de un paciente sin lanzar excepciones.
+     * @return La misma validación recibida, con todas las violaciones encontradas.
+     */
+    public static Validacion validar(String nombre, byte edad, String id, String tipoSangre,
+                                     double peso, double altura, Validacion v) {
+        Persona.validar(nombre, edad, id, tipoSangre, v);
+        return validarMedidas(peso, altura, v);
+    }
+
+    private static Validacion validarMedidas(double peso, double altura, Validacion v) {
+        if (peso < 0) v.agregar(Validacion.Codigo.VALOR_NEGATIVO, "peso", "El peso no puede ser negativo.");
+        if (altura < 0) v.agregar(Validacion.Codigo.VALOR_NEGATIVO, "altura", "La altura no puede ser negativa.");
+        return v;
+    }
+
     /**
      * Verifica las invariantes de Paciente.
      */
@@ -105,34 +121,55 @@ public class Paciente extends Persona {
                String.join(",", getAllergies());
     }
 
+    /**
+     * Interpreta una línea del archivo sin informar el motivo del rechazo; para
+     * conocerlo usar {@link #fromArchivo(String, Validacion)}.
+     * @param linea línea en formato de archivo
+     * @return el paciente o null si la línea es inválida
+     */
     public static Paciente fromArchivo(String linea) {
         if (linea == null || linea.trim().isEmpty()) return null;
+        return fromArchivo(linea, new Validacion());
+    }
 
+    /**
+     * Interpreta una línea del archivo sin lanzar excepciones.
+     * @param linea línea en formato de archivo
+     * @param v validación donde se acumulan todas las violaciones de la línea
+     * @return el paciente o null si la línea es inválida
+     */
+    public static Paciente fromArchivo(String linea, Validacion v) {
+        if (linea == null || linea.trim().isEmpty()) {
+            v.agregar(Validacion.Codigo.CAMPO_VACIO, "linea", "Línea vacía.");
+            return null;
+        }
+        LectorCampos campos = new LectorCampos(linea);
+        if (campos.contarCampos() < 8) {
+            v.agregar(Validacion.Codigo.CAMPOS_INSUFICIENTES, "linea", "Se esperaban al menos 8 campos.");
+            return null;
+        }
+
+        String name = campos.siguiente();
+        byte age = campos.siguienteByteSeguro();
+        if (campos.hayErrorNumerico()) v.agregar(Validacion.Codigo.NUMERO_INVALIDO, "edad", "La edad no es un número válido.");
+        String id = campos.siguiente();
+        String bloodType = campos.siguiente();
+        String address = campos.siguiente();
+        String phone = campos.siguiente();
+        double weight = campos.siguienteDoubleSeguro();
+        if (campos.hayErrorNumerico()) v.agregar(Validacion.Codigo.NUMERO_INVALIDO, "peso", "El peso no es un número válido.");
+        double height = campos.siguienteDoubleSeguro();
+        if (campos.hayErrorNumerico()) v.agregar(Validacion.Codigo.NUMERO_INVALIDO, "altura", "La altura no es un número válido.");
+
+        validar(name, age, id, bloodType, weight, height, v);
+        if (!v.esValida()) return null;
+
+        List<String> allergies = campos.hayMas() ? campos.siguienteLista(',') : new ArrayList<>();
         try {
-            String[] parts = linea.split(";");
-            if (parts.length < 8) return null;
-
-            String name = parts[0];
-            byte age = Byte.parseByte(parts[1]);
-            String id = parts[2];
-            String bloodType = parts[3];
-            String address = parts[4];
-            String phone = parts[5];
-            double weight = Double.parseDouble(parts[6]);
-            double height = Double.parseDouble(parts[7]);
-
-            List<String> allergies = new ArrayList<>();
-            if (parts.length > 8 && !parts[8].isEmpty()) {
-                for (String a : parts[8].split(",")) allergies.add(a.trim());
-            }
-
-            // ahora el constructor puede lanzar InvalidDataException y será capturado abajo
             return new Paciente(name, age, id, bloodType, address, phone, weight, height, allergies, new ArrayList<>());
         } catch (InvalidDataException e) {
-            System.err.println("Línea de paciente inválida (se omitirá): " + e.getMessage() + " -> " + linea);
-            return null;
-        } catch (Exception e) {
-            System.err.println("Error al parsear paciente: " + e.getMessage() + " -> " + linea);
+            // No ocurre: los mismos datos ya se validaron
+            v.agregar(Validacion.Codigo.CAMPO_VACIO, "paciente", e.getMessage());
             return null;
         }
     }
@@ -2,6 +2,7 @@ package model;
 
 import excepciones.InvalidDataException;
 import excepciones.InvariantViolationException;
+import util.Textos;
 
 /**
  * Clase base para personas en el sistema EPS.
@@ -14,9 +15,15 @@ public class Persona {
     private String name;
     private byte age;
     private String id;
-    private String bloodType;
+    // ID canónico (internado): equals/hashCode no distinguen mayúsculas
+    private Identificador identificador;
+    private TipoSangre tipoSangre;
+    // Texto original del tipo de sangre, solo si no coincide con la etiqueta de tipoSangre
+    private String bloodTypeTexto;
     private String address;
     private String phone;
+    // Nombre sin tildes y en minúsculas, calculado una vez al asignar el nombre
+    private String nombreNormalizado;
     
     /**
      * Constructor de Persona.
@@ -31,23 +38,43 @@ public class Persona {
     public Persona(String name, byte age, String id, String bloodType, String address, String phone)
             throws InvalidDataException {
         // Invariantes básicas: validaciones explícitas -> lanzar, no capturar.
-        if (name == null || name.trim().isEmpty())
-            throw new InvalidDataException("El nombre no puede estar vacío.");
-        if (age < 0)
-            throw new InvalidDataException("La edad no puede ser negativa.");
-        if (id == null || id.trim().isEmpty())
-            throw new InvalidDataException("El ID no puede estar vacío.");
-        if (bloodType == null || bloodType.trim().isEmpty())
-            throw new InvalidDataException("El tipo de sangre no puede estar vacío.");
+        lanzarSiInvalida(validar(name, age, id, bloodType, new Validacion()));
 
         this.name = name;
+        this.nombreNormalizado = Textos.normalizar(name);
         this.age = age;
         this.id = id;
-        this.bloodType = bloodType;
+        this.identificador = Identificador.de(id);
+        asignarTipoSangre(bloodType);
         this.address = address;
         this.phone = phone;
     }
 
+    /**
+     * Valida los datos básicos de una persona sin lanzar excepciones.
+     * @param name Nombre.
+     * @param age Edad.
+     * @param id Identificación.
+     * @param bloodType Tipo de sangre.
+     * @param v Validación donde se acumulan las violaciones.
+     * @return La misma validación recibida.
+     */
+    public static Validacion validar(String name, byte age, String id, String bloodType, Validacion v) {
+        v.requerir(name, "nombre", "El nombre no puede estar vacío.");
+        if (age < 0) v.agregar(Validacion.Codigo.EDAD_INVALIDA, "edad", "La edad no puede ser negativa.");
+        v.requerir(id, "id", "El ID no puede estar vacío.");
+        v.requerir(bloodType, "tipoSangre", "El tipo de sangre no puede estar vacío.");
+        return v;
+    }
+
+    /**
+     * Lanza la primera violación de una validación como InvalidDataException.
+     * @param v Validación a comprobar.
+     */
+    protected static void lanzarSiInvalida(Validacion v) throws InvalidDataException {
+        if (!v.esValida()) throw new InvalidDataException(v.primera().getMensaje());
+    }
+
     /**
      * Obtiene el nombre de la persona.
      * @return El nombre.
@@ -58,7 +85,17 @@ public class Persona {
      * Establece el nombre de la persona.
      * @param name El nuevo nombre.
      */
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) {
+        this.name = name;
+        this.nombreNormalizado = Textos.normalizar(name);
+    }
+
+    /**
+     * Obtiene el nombre normalizado (sin tildes, en minúsculas, sin espacios extremos),
+     * usado para buscar por nombre sin recalcularlo en cada comparación.
+     * @return El nombre normalizado.
+     */
+    public String getNombreNormalizado() { return nombreNormalizado; }
 
     /**
      * Obtiene la edad de la persona.
@@ -87,13 +124,36 @@ public class Persona {
      * Establece la identificación de la persona.
      * @param id La nueva identificación.
      */
-    public void setId(String id) { this.id = id; }
+    public void setId(String id) {
+        this.id = id;
+        this.identificador = Identificador.de(id);
+    }
+
+    /**
+     * Obtiene el identificador canónico de la persona.
+     * @return El identificador (mismas mayúsculas y espacios ignorados que en los loaders).
+     */
+    public Identificador getIdentificador() { return identificador; }
 
     /**
      * Obtiene el tipo de sangre de la persona.
      * @return El tipo de sangre.
      */
-    public String getBloodType() { return bloodType; }
+    public String getBloodType() {
+        return bloodTypeTexto != null || tipoSangre == null ? bloodTypeTexto : tipoSangre.toString();
+    }
+
+    /**
+     * Obtiene el tipo de sangre ya interpretado, para comparar sin procesar texto.
+     * @return El tipo de sangre o null si el texto no se reconoce.
+     */
+    public TipoSangre getTipoSangre() { return tipoSangre; }
+
+    // Guarda el enum y, solo si difiere de su etiqueta, el texto original
+    private void asignarTipoSangre(String texto) {
+        this.tipoSangre = TipoSangre.desde(texto);
+        this.bloodTypeTexto = tipoSangre != null && tipoSangre.toString().equals(texto) ? null : texto;
+    }
     
     /**
      * Establece el tipo de sangre de la persona.
@@ -103,17 +163,10 @@ public class Persona {
         if (bloodType == null) {
             throw new InvalidDataException("Tipo de sangre nulo");
         }
-        String bt = bloodType.trim().toUpperCase();
-        switch (bt) {
-            case "A+": case "A-":
-            case "B+": case "B-":
-            case "AB+": case "AB-":
-            case "O+": case "O-":
-                this.bloodType = bt;
-                return;
-            default:
-                throw new InvalidDataException("Tipo de sangre inválido: " + bloodType);
-        }
+        TipoSangre tipo = TipoSangre.desdeEtiqueta(bloodType);
+        if (tipo == null) throw new InvalidDataException("Tipo de sangre inválido: " + bloodType);
+        this.tipoSangre = tipo;
+        this.bloodTypeTexto = null;
     }
 
     /**
@@ -148,7 +201,7 @@ public class Persona {
         return "Nombre: " + name +
                ", ID: " + id +
                ", Edad: " + age +
-               ", Tipo de sangre: " + bloodType +
+               ", Tipo de sangre: " + getBloodType() +
                ", Direccion: " + address +
                ", Telefono: " + phone;
     }
@@ -183,13 +236,14 @@ public class Persona {
             throw new InvariantViolationException("Edad no puede ser negativa.");
         if (id == null || id.trim().isEmpty())
             throw new InvariantViolationException("ID no puede ser nulo o vacío.");
-        if (bloodType == null || bloodType.trim().isEmpty())
+        if (tipoSangre == null && (bloodTypeTexto == null || bloodTypeTexto.trim().isEmpty()))
             throw new InvariantViolationException("Tipo de sangre no puede ser nulo o vacío.");
     }
 
      /**
      * Redefine el método equals para comparar objetos Persona basándose en su ID.
-     * Dos objetos Persona son considerados iguales si tienen el mismo ID.
+     * Dos objetos Persona son considerados iguales si tienen el mismo ID, sin
+     * distinguir mayúsculas (se comparan los identificadores canónicos).
      * Autor: Andrés Rojas.
      * @param obj El objeto a comparar.
      * @return {@code true} si el objeto es una Persona con el mismo ID, {@code false} en caso contrario.
@@ -199,7 +253,7 @@ public class Persona {
         if (this == obj) return true; 
         if (obj == null || getClass() != obj.getClass()) return false;
         Persona persona = (Persona) obj;
-        return id.equals(persona.id); 
+        return identificador == persona.identificador;
     }
 
     /**
@@ -210,6 +264,6 @@ public class Persona {
      */
     @Override
     public int hashCode() {
-        return id.hashCode();
+        return identificador != null ? identificador.hashCode() : 0;
     }
 }
\ No newline at end of file
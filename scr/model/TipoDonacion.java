@@ -0,0 +1,39 @@
+package model;
+
+import util.Textos;
+
+/**
+ * Tipos de donación de un donante.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public enum TipoDonacion {
+    SANGRE("Sangre"), ORGANOS("Órganos");
+
+    private final String etiqueta;
+
+    TipoDonacion(String etiqueta) {
+        this.etiqueta = etiqueta;
+    }
+
+    /** @return la etiqueta guardada en archivo, por ejemplo "Órganos" */
+    @Override
+    public String toString() { return etiqueta; }
+
+    /**
+     * Interpreta el tipo de donación sin distinguir tildes ni mayúsculas
+     * ("Órganos", "organos" y "Órgano" son {@link #ORGANOS}).
+     * @param texto tipo leído
+     * @return el tipo o null si no se reconoce
+     */
+    public static TipoDonacion desde(String texto) {
+        if (texto == null) return null;
+        if (texto.equals(SANGRE.etiqueta)) return SANGRE;
+        if (texto.equals(ORGANOS.etiqueta)) return ORGANOS;
+        String t = Textos.normalizar(texto);
+        if (t.equals("sangre")) return SANGRE;
+        if (t.equals("organos") || t.equals("organo")) return ORGANOS;
+        return null;
+    }
+}
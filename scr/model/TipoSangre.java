@@ -0,0 +1,132 @@
+package model;
+
+import java.util.Locale;
+
+/**
+ * Tipos de sangre (grupo ABO y factor Rh) con su compatibilidad precalculada
+ * como máscara de 8 bits: el bit {@code ordinal()} de cada tipo.
+ * Igual que la regla original de {@link Trasplante}, la compatibilidad solo
+ * considera el grupo ABO (O es donante universal, AB receptor universal).
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public enum TipoSangre {
+    O_NEG("O-"), O_POS("O+"), A_NEG("A-"), A_POS("A+"),
+    B_NEG("B-"), B_POS("B+"), AB_NEG("AB-"), AB_POS("AB+");
+
+    private static final TipoSangre[] VALORES = values();
+    // Máscaras por grupo ABO (ambos Rh)
+    private static final int GRUPO_O = 0b0000_0011;
+    private static final int GRUPO_A = 0b0000_1100;
+    private static final int GRUPO_B = 0b0011_0000;
+    private static final int GRUPO_AB = 0b1100_0000;
+
+    private final String etiqueta;
+    private int receptores; // tipos que pueden recibir de este
+    private int donantes;   // tipos de los que puede recibir este
+
+    static {
+        for (TipoSangre t : VALORES) {
+            switch (t.grupo()) {
+                case GRUPO_O: t.receptores = 0xFF; break;
+                case GRUPO_A: t.receptores = GRUPO_A | GRUPO_AB; break;
+                case GRUPO_B: t.receptores = GRUPO_B | GRUPO_AB; break;
+                default: t.receptores = GRUPO_AB;
+            }
+        }
+        for (TipoSangre r : VALORES) {
+            for (TipoSangre d : VALORES) {
+                if ((d.receptores & r.bit()) != 0) r.donantes |= d.bit();
+            }
+        }
+    }
+
+    TipoSangre(String etiqueta) {
+        this.etiqueta = etiqueta;
+    }
+
+    /** @return el bit de este tipo dentro de una máscara */
+    public int bit() { return 1 << ordinal(); }
+
+    /** @return máscara de los tipos que pueden recibir de un donante de este tipo */
+    public int mascaraReceptores() { return receptores; }
+
+    /** @return máscara de los tipos de donante compatibles con un receptor de este tipo */
+    public int mascaraDonantes() { return donantes; }
+
+    /** @return máscara del grupo ABO de este tipo (sus dos factores Rh) */
+    public int grupo() { return 0b11 << (ordinal() & ~1); }
+
+    /**
+     * @param receptor tipo del receptor
+     * @return true si un receptor de ese tipo puede recibir de este
+     */
+    public boolean puedeDonarA(TipoSangre receptor) {
+        return (receptores & receptor.bit()) != 0;
+    }
+
+    /** @return el tipo en formato de archivo, por ejemplo "AB+" */
+    @Override
+    public String toString() { return etiqueta; }
+
+    /**
+     * @param bit posición 0-7
+     * @return el tipo correspondiente
+     */
+    public static TipoSangre deBit(int bit) { return VALORES[bit]; }
+
+    /**
+     * Interpreta un tipo de sangre con las mismas reglas tolerantes que la
+     * comprobación original: se toma el grupo por prefijo y el Rh negativo si aparece '-'.
+     * @param texto tipo leído ("O+", "ab-", "A"...)
+     * @return el tipo o null si no se reconoce el grupo
+     */
+    public static TipoSangre desde(String texto) {
+        if (texto == null) return null;
+        String s = texto.trim().toUpperCase(Locale.ROOT);
+        boolean negativo = s.indexOf('-') >= 0;
+        if (s.startsWith("O")) return negativo ? O_NEG : O_POS;
+        if (s.startsWith("AB")) return negativo ? AB_NEG : AB_POS;
+        if (s.startsWith("A")) return negativo ? A_NEG : A_POS;
+        if (s.startsWith("B")) return negativo ? B_NEG : B_POS;
+        return null;
+    }
+
+    /**
+     * Interpreta un tipo de sangre escrito exactamente como su etiqueta ("O+", "ab-"),
+     * sin distinguir mayúsculas ni espacios extremos.
+     * @param texto tipo leído
+     * @return el tipo o null si no es una etiqueta válida
+     */
+    public static TipoSangre desdeEtiqueta(String texto) {
+        if (texto == null) return null;
+        String s = texto.trim();
+        int n = s.length();
+        if (n < 2 || n > 3) return null;
+        char rh = s.charAt(n - 1);
+        if (rh != '+' && rh != '-') return null;
+        boolean negativo = rh == '-';
+        char g = Character.toUpperCase(s.charAt(0));
+        if (n == 3) {
+            return g == 'A' && Character.toUpperCase(s.charAt(1)) == 'B' ? (negativo ? AB_NEG : AB_POS) : null;
+        }
+        switch (g) {
+            case 'O': return negativo ? O_NEG : O_POS;
+            case 'A': return negativo ? A_NEG : A_POS;
+            case 'B': return negativo ? B_NEG : B_POS;
+            default: return null;
+        }
+    }
+
+    /**
+     * @param donante tipo del donante (texto)
+     * @param receptor tipo del receptor (texto)
+     * @return true si son compatibles; false si alguno no se reconoce
+     */
+    public static boolean compatibles(String donante, String receptor) {
+        TipoSangre d = desde(donante);
+        TipoSangre r = desde(receptor);
+        return d != null && r != null && d.puedeDonarA(r);
+    }
+}
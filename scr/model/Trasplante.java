@@ -16,10 +16,12 @@ import java.util.Date;
 public class Trasplante {
 
     private String id;
+    private Identificador identificador; // ID canónico, sin distinguir mayúsculas
     private String organType;
     private Donante donor;
     private Paciente receiver;
-    private String estado;
+    private EstadoTrasplante estado;
+    private String estadoTexto; // solo si el estado no coincide con la etiqueta del enum
     private String historialClinico;
     private String rejectionReason;
     private Date fecha;
@@ -39,10 +41,11 @@ public class Trasplante {
     public Trasplante(String id, String organType, Donante donor, Paciente receiver,
                         String estado, String historialClinico, String rejectionReason, Date fecha) {
         this.id = id;
+        this.identificador = Identificador.de(id);
         this.organType = organType;
         this.donor = donor;
         this.receiver = receiver;
-        this.estado = estado;
+        setEstado(estado);
         this.historialClinico = historialClinico;
         this.rejectionReason = rejectionReason;
         this.fecha = fecha;
@@ -50,13 +53,28 @@ public class Trasplante {
 
     // --- Getters y Setters ---
     public String getId() { return id; }
-    public void setId(String id) { this.id = id; }
+    public void setId(String id) {
+        this.id = id;
+        this.identificador = Identificador.de(id);
+    }
+    public Identificador getIdentificador() { return identificador; }
 
     public String getOrganType() { return organType; }
     public Donante getDonor() { return donor; }
     public Paciente getReceiver() { return receiver; }
-    public String getEstado() { return estado; }
-    public void setEstado(String estado) { this.estado = estado; }
+    public String getEstado() {
+        return estadoTexto != null || estado == null ? estadoTexto : estado.toString();
+    }
+    public void setEstado(String estado) {
+        this.estado = EstadoTrasplante.desde(estado);
+        this.estadoTexto = this.estado != null && this.estado.toString().equals(estado) ? null : estado;
+    }
+    public void setEstado(EstadoTrasplante estado) {
+        this.estado = estado;
+        this.estadoTexto = null;
+    }
+    /** @return el estado interpretado, o null si el texto no se reconoce */
+    public EstadoTrasplante getEstadoTrasplante() { return estado; }
     public String getHistorialClinico() { return historialClinico; }
     public String getRejectionReason() { return rejectionReason; }
     public Date getFecha() { return fecha; }
@@ -65,7 +83,7 @@ public class Trasplante {
     @Override
     public String toString() {
         return String.format("Trasplante ID: %s | Órgano: %s | Donante: %s (%s) | Receptor: %s (%s) | Estado: %s",
-                id, organType, donor.getName(), donor.getId(), receiver.getName(), receiver.getId(), estado);
+                id, organType, donor.getName(), donor.getId(), receiver.getName(), receiver.getId(), getEstado());
     }
 
     /**
@@ -73,47 +91,63 @@ public class Trasplante {
      */
     // Nota: la presentación (resumen legible) se gestiona en la capa UI (PanelTrasplante).
 
-    // Helper interno: extrae grupo ABO básico desde un tipo de sangre como "O+", "A-", "AB+"...
-    private static String aboGroup(String bloodType) {
-        if (bloodType == null) return "";
-        String s = bloodType.trim().toUpperCase();
-        if (s.startsWith("O")) return "O";
-        if (s.startsWith("AB")) return "AB";
-        if (s.startsWith("A")) return "A";
-        if (s.startsWith("B")) return "B";
-        return "";
-    }
-
-    // Helper interno: lógica básica de compatibilidad ABO (donante -> receptor)
-    private static boolean sangreCompatible(String donorBlood, String receiverBlood) {
-        String d = aboGroup(donorBlood);
-        String r = aboGroup(receiverBlood);
-        if (d.isEmpty() || r.isEmpty()) return false;
-        switch (d) {
-            case "O": return true; // donante O universal
-            case "A": return r.equals("A") || r.equals("AB");
-            case "B": return r.equals("B") || r.equals("AB");
-            case "AB": return r.equals("AB");
-            default: return false;
-        }
-    }
-
     /**
      * Verifica invariantes del trasplante y la compatibilidad sanguínea.
      * Lanza SangreIncompatibleException si hay incompatibilidad ABO.
      */
     public void checkInvariant() throws SangreIncompatibleException {
-        if (id == null || id.trim().isEmpty())
-            throw new InvariantViolationException("ID del trasplante no puede ser nulo o vacío.");
-        if (organType == null || organType.trim().isEmpty())
-            throw new InvariantViolationException("Tipo de órgano no puede ser nulo o vacío.");
-        if (donor == null) throw new InvariantViolationException("Donante no puede ser null.");
-        if (receiver == null) throw new InvariantViolationException("Receptor no puede ser null.");
-        if (fecha == null) throw new InvariantViolationException("La fecha del trasplante no puede ser null.");
+        Validacion v = validar();
+        if (v.esValida()) return;
+        Validacion.Violacion primera = v.primera();
+        if (primera.getCodigo() == Validacion.Codigo.SANGRE_INCOMPATIBLE) {
+            throw new SangreIncompatibleException(primera.getMensaje());
+        }
+        throw new InvariantViolationException(primera.getMensaje());
+    }
 
-        if (!sangreCompatible(donor.getBloodType(), receiver.getBloodType())) {
-            throw new SangreIncompatibleException(
+    /**
+     * Revisa las mismas invariantes que {@link #checkInvariant()} sin lanzar excepciones,
+     * acumulando todas las violaciones encontradas.
+     * @return la validación con las violaciones (vacía si el trasplante es válido)
+     */
+    public Validacion validar() {
+        Validacion v = new Validacion();
+        v.requerir(id, "id", "ID del trasplante no puede ser nulo o vacío.");
+        v.requerir(organType, "organo", "Tipo de órgano no puede ser nulo o vacío.");
+        if (donor == null) v.agregar(Validacion.Codigo.CAMPO_VACIO, "donante", "Donante no puede ser null.");
+        if (receiver == null) v.agregar(Validacion.Codigo.CAMPO_VACIO, "receptor", "Receptor no puede ser null.");
+        if (fecha == null) v.agregar(Validacion.Codigo.CAMPO_VACIO, "fecha", "La fecha del trasplante no puede ser null.");
+
+        if (donor != null && receiver != null && !esSangreCompatible()) {
+            v.agregar(Validacion.Codigo.SANGRE_INCOMPATIBLE, "tipoSangre",
                 "Sangre incompatible: donante " + donor.getBloodType() + " -> receptor " + receiver.getBloodType());
         }
+        return v;
+    }
+
+    /**
+     * @return true si la sangre del donante es compatible (ABO) con la del receptor
+     */
+    public boolean esSangreCompatible() {
+        if (donor == null || receiver == null) return false;
+        TipoSangre d = donor.getTipoSangre();
+        TipoSangre r = receiver.getTipoSangre();
+        return d != null && r != null && d.puedeDonarA(r);
+    }
+
+    /**
+     * Dos trasplantes son iguales si tienen el mismo ID, sin distinguir mayúsculas.
+     * Sin ID se comparan por referencia.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        return identificador != null && identificador == ((Trasplante) obj).identificador;
+    }
+
+    @Override
+    public int hashCode() {
+        return identificador != null ? identificador.hashCode() : System.identityHashCode(this);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de validar un registro sin lanzar excepciones.
+ * Acumula todas las violaciones encontradas (código, campo y mensaje) para que los
+ * loaders puedan descartar líneas inválidas con el mismo costo que las válidas.
+ * Los constructores del modelo usan las mismas reglas y lanzan la primera violación.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class Validacion {
+
+    /** Tipos de violación. */
+    public enum Codigo {
+        CAMPOS_INSUFICIENTES,
+        CAMPO_VACIO,
+        NUMERO_INVALIDO,
+        FECHA_INVALIDA,
+        EDAD_INVALIDA,
+        MENOR_DE_EDAD,
+        VALOR_NEGATIVO,
+        REFERENCIA_NO_ENCONTRADA,
+        SANGRE_INCOMPATIBLE
+    }
+
+    /** Una violación concreta. */
+    public static final class Violacion {
+        private final Codigo codigo;
+        private final String campo;
+        private final String mensaje;
+
+        Violacion(Codigo codigo, String campo, String mensaje) {
+            this.codigo = codigo;
+            this.campo = campo;
+            this.mensaje = mensaje;
+        }
+
+        public Codigo getCodigo() { return codigo; }
+        public String getCampo() { return campo; }
+        public String getMensaje() { return mensaje; }
+
+        @Override
+        public String toString() { return codigo + " [" + campo + "]: " + mensaje; }
+    }
+
+    private List<Violacion> violaciones; // se crea con la primera violación
+
+    /**
+     * Registra una violación.
+     * @param codigo tipo de violación
+     * @param campo campo afectado
+     * @param mensaje descripción legible
+     * @return esta misma validación
+     */
+    public Validacion agregar(Codigo codigo, String campo, String mensaje) {
+        if (violaciones == null) violaciones = new ArrayList<>(2);
+        violaciones.add(new Violacion(codigo, campo, mensaje));
+        return this;
+    }
+
+    /**
+     * Registra una violación de campo vacío si el texto es null o está en blanco.
+     * @param valor texto a comprobar
+     * @param campo campo afectado
+     * @param mensaje descripción legible
+     * @return true si el valor no está vacío
+     */
+    public boolean requerir(String valor, String campo, String mensaje) {
+        if (valor != null && !valor.trim().isEmpty()) return true;
+        agregar(Codigo.CAMPO_VACIO, campo, mensaje);
+        return false;
+    }
+
+    /** @return true si no hay violaciones */
+    public boolean esValida() { return violaciones == null; }
+
+    /** @return número de violaciones */
+    public int cantidad() { return violaciones == null ? 0 : violaciones.size(); }
+
+    /** @return las violaciones en el orden en que se detectaron */
+    public List<Violacion> getViolaciones() {
+        return violaciones == null ? Collections.emptyList() : Collections.unmodifiableList(violaciones);
+    }
+
+    /** @return la primera violación o null si es válida */
+    public Violacion primera() {
+        return violaciones == null ? null : violaciones.get(0);
+    }
+
+    /** @return los mensajes separados por "; " ("" si es válida) */
+    public String resumen() {
+        if (violaciones == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (Violacion v : violaciones) {
+            if (sb.length() > 0) sb.append("; ");
+            sb.append(v.getMensaje());
+        }
+        return sb.toString();
+    }
+
+    /** Descarta las violaciones para reutilizar el objeto en la siguiente línea. */
+    public void limpiar() {
+        violaciones = null;
+    }
+
+    @Override
+    public String toString() {
+        return esValida() ? "válida" : getViolaciones().toString();
+    }
+}
@@ -88,4 +88,17 @@ class CitaTest {
         assertEquals(pacientePrueba, citaPrueba.getPaciente(), "El paciente debe coincidir");
         assertEquals("Dr. García", citaPrueba.getDoctor(), "El doctor debe coincidir");
     }
-}
\ No newline at end of file
+
+    /**
+     * Punto 2: Métodos de verificación
+     * Verifica la regla de expiración: solo una cita Pendiente vencida pasa a Aprobada
+     */
+    @Test
+    void testAplicarExpiracion() {
+        Date despues = new Date(fechaFin.getTime() + 3600000);
+        assertFalse(citaPrueba.aplicarExpiracion(fechaInicio), "Una cita futura no debe expirar");
+        assertTrue(citaPrueba.aplicarExpiracion(despues), "Una cita vencida debe expirar");
+        assertEquals("Aprobada", citaPrueba.getEstado(), "El estado debe pasar a Aprobada");
+        assertFalse(citaPrueba.aplicarExpiracion(despues), "No debe volver a cambiar");
+    }
+}
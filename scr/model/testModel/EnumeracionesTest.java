@@ -0,0 +1,83 @@
+package model.testModel;
+
+import java.util.ArrayList;
+import java.util.Date;
+import excepciones.InvalidDataException;
+import model.Cita;
+import model.Donante;
+import model.EstadoCita;
+import model.EstadoTrasplante;
+import model.Organo;
+import model.Paciente;
+import model.TipoDonacion;
+import model.TipoSangre;
+import model.Trasplante;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para los enums del modelo (órgano, tipo de donación, estados y
+ * tipo de sangre) y su compatibilidad con el texto de los archivos.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+class EnumeracionesTest {
+
+    /**
+     * Verifica la interpretación tolerante de los textos.
+     */
+    @Test
+    void testDesdeTexto() {
+        assertEquals(Organo.RINON, Organo.desde("Riñón"));
+        assertEquals(Organo.RINON, Organo.desde(" rinon "));
+        assertNull(Organo.desde("Bazo"));
+        assertEquals(TipoDonacion.ORGANOS, TipoDonacion.desde("organos"));
+        assertEquals(EstadoCita.APROBADA, EstadoCita.desde("COMPLETADA"));
+        assertEquals(EstadoTrasplante.CANCELADO, EstadoTrasplante.desde("Cancelada"));
+        assertEquals(TipoSangre.AB_NEG, TipoSangre.desdeEtiqueta(" ab- "));
+        assertNull(TipoSangre.desdeEtiqueta("XY"));
+        assertNull(TipoSangre.desdeEtiqueta("A"), "La etiqueta exacta requiere el factor Rh");
+    }
+
+    /**
+     * Verifica que los getters de texto devuelvan exactamente lo leído, aunque no sea la etiqueta.
+     */
+    @Test
+    void testTextoOriginalSeConserva() throws Exception {
+        Donante d = new Donante("Luis", (byte)25, "D001", "o+", "Calle", "300", "organos", "Bueno", true, "Bazo");
+        assertEquals("o+", d.getBloodType());
+        assertEquals(TipoSangre.O_POS, d.getTipoSangre());
+        assertEquals("organos", d.getDonationType());
+        assertEquals(TipoDonacion.ORGANOS, d.getTipoDonacion());
+        assertEquals("Bazo", d.getOrgano(), "Un órgano desconocido se guarda como texto");
+        assertNull(d.getOrganoTipo());
+
+        d.setOrgano("Hígado");
+        assertEquals(Organo.HIGADO, d.getOrganoTipo());
+        assertEquals("Hígado", d.getOrgano());
+        assertTrue(d.toArchivo().endsWith(";Hígado"));
+    }
+
+    /**
+     * Verifica los estados de cita y trasplante como enum y como texto.
+     */
+    @Test
+    void testEstados() throws InvalidDataException {
+        Paciente p = new Paciente("Ana", (byte)30, "P001", "A+", "Calle", "300", 60.0, 1.6,
+                new ArrayList<>(), new ArrayList<>());
+        Cita c = new Cita("C001", new Date(), new Date(), "Sede", p, "Dr. Ruiz");
+        assertEquals(EstadoCita.PENDIENTE, c.getEstadoCita());
+        c.setEstado("PENDIENTE");
+        assertEquals("PENDIENTE", c.getEstado());
+        assertEquals(EstadoCita.PENDIENTE, c.getEstadoCita());
+        c.cancelar();
+        assertEquals("Cancelada", c.getEstado());
+
+        Trasplante t = new Trasplante("T001", "Riñón", null, p, "Completado", "", "", new Date());
+        assertNull(t.getEstadoTrasplante());
+        assertEquals("Completado", t.getEstado());
+        t.setEstado(EstadoTrasplante.APROBADO);
+        assertEquals("Aprobado", t.getEstado());
+    }
+}
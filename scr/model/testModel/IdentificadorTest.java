@@ -0,0 +1,67 @@
+package model.testModel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import excepciones.InvalidDataException;
+import model.Identificador;
+import model.Paciente;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para Identificador.
+ * Verifica la normalización, el internado y la igualdad sin distinguir mayúsculas.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+class IdentificadorTest {
+
+    /**
+     * Verifica que IDs equivalentes compartan la misma instancia.
+     */
+    @Test
+    void testInternado() {
+        Identificador a = Identificador.de(" p001 ");
+        Identificador b = Identificador.de("P001");
+        assertSame(a, b, "Los IDs equivalentes deben internarse en la misma instancia");
+        assertEquals("P001", a.getValor());
+        assertEquals("P001".hashCode(), a.hashCode());
+        assertNull(Identificador.de("   "), "Un ID en blanco no tiene identificador");
+        assertNull(Identificador.de(null));
+    }
+
+    /**
+     * Verifica que buscar no cree identificadores nuevos.
+     */
+    @Test
+    void testBuscarNoCrea() {
+        assertNull(Identificador.buscar("ID-QUE-NUNCA-SE-CREO"));
+        Identificador creado = Identificador.de("id-nuevo-7");
+        assertSame(creado, Identificador.buscar("ID-NUEVO-7"));
+        assertTrue(Identificador.iguales("t001", " T001"));
+        assertFalse(Identificador.iguales("T001", null));
+    }
+
+    /**
+     * Verifica que Persona use el identificador canónico en equals y hashCode.
+     */
+    @Test
+    void testPersonaIgualdadSinMayusculas() throws InvalidDataException {
+        Paciente a = new Paciente("Ana", (byte)30, "P050", "O+", "Calle", "300", 60.0, 1.6,
+                new ArrayList<>(), new ArrayList<>());
+        Paciente b = new Paciente("Ana", (byte)30, "p050", "O+", "Calle", "300", 60.0, 1.6,
+                new ArrayList<>(), new ArrayList<>());
+        assertEquals(a, b, "Los IDs deben compararse sin distinguir mayúsculas");
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals("p050", b.getId(), "El ID original se conserva para mostrar y guardar");
+
+        Set<Paciente> conjunto = new HashSet<>();
+        conjunto.add(a);
+        assertTrue(conjunto.contains(b));
+
+        b.setId("P051");
+        assertNotEquals(a, b);
+    }
+}
@@ -0,0 +1,115 @@
+package model.testModel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import model.Donante;
+import model.Paciente;
+import model.Trasplante;
+import model.Validacion;
+import org.junit.jupiter.api.Test;
+import util.Fechas;
+import util.LectorCampos;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clase de pruebas para Validacion y la lectura de registros sin excepciones.
+ * Verifica que se acumulen todas las violaciones de un registro y que las
+ * líneas inválidas se descarten devolviendo null.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+class ValidacionTest {
+
+    /**
+     * Verifica que una línea con varios errores reporte todos, no solo el primero.
+     */
+    @Test
+    void testPacienteAcumulaViolaciones() {
+        Validacion v = new Validacion();
+        Paciente p = Paciente.fromArchivo(";abc;P001;O+;Calle;300;-70;x;", v);
+        assertNull(p, "Una línea inválida debe retornar null");
+        assertEquals(4, v.cantidad(), "Debe reportar edad, peso, altura y nombre: " + v.resumen());
+        assertEquals(Validacion.Codigo.NUMERO_INVALIDO, v.primera().getCodigo());
+        assertTrue(v.getViolaciones().stream().anyMatch(x -> x.getCampo().equals("nombre")));
+    }
+
+    /**
+     * Verifica que las líneas válidas no registren violaciones.
+     */
+    @Test
+    void testPacienteValido() {
+        Validacion v = new Validacion();
+        Paciente p = Paciente.fromArchivo("Ana;30;P001;O+;Calle;300;70.5;1.65;Polen", v);
+        assertNotNull(p);
+        assertTrue(v.esValida(), v.resumen());
+        assertEquals(70.5, p.getWeight(), 0.0001);
+    }
+
+    /**
+     * Verifica los códigos de campos insuficientes y de donante menor de edad.
+     */
+    @Test
+    void testDonanteCodigos() {
+        Validacion corta = new Validacion();
+        assertNull(Donante.fromArchivo("Luis;25;D001", corta));
+        assertEquals(Validacion.Codigo.CAMPOS_INSUFICIENTES, corta.primera().getCodigo());
+
+        Validacion menor = new Validacion();
+        assertNull(Donante.fromArchivo("Luis;15;D001;O+;Calle;300;Órganos;Bueno;1;Riñón", menor));
+        assertEquals(Validacion.Codigo.MENOR_DE_EDAD, menor.primera().getCodigo());
+    }
+
+    /**
+     * Verifica que el trasplante reporte la incompatibilidad sanguínea sin lanzar.
+     */
+    @Test
+    void testTrasplanteValidar() throws Exception {
+        Donante d = new Donante("Luis", (byte)25, "D001", "AB+", "Calle", "300", "Órganos", "Bueno", true, "Riñón");
+        Paciente p = new Paciente("Ana", (byte)30, "P001", "O-", "Calle", "300", 70.0, 1.7,
+                new ArrayList<>(), new ArrayList<>());
+        Trasplante t = new Trasplante("T1", "Riñón", d, p, "Pendiente", "", "", null);
+        Validacion v = t.validar();
+        assertFalse(t.esSangreCompatible());
+        assertEquals(2, v.cantidad(), "Falta la fecha y la sangre es incompatible: " + v.resumen());
+        assertEquals(Validacion.Codigo.SANGRE_INCOMPATIBLE, v.getViolaciones().get(1).getCodigo());
+    }
+
+    /**
+     * Verifica que las variantes sin Validacion descarten la línea sin imprimir nada:
+     * el motivo se informa solo a quien lo pide.
+     */
+    @Test
+    void testLineaInvalidaSinImprimir() {
+        PrintStream original = System.err;
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(salida));
+        try {
+            assertNull(Paciente.fromArchivo(";abc;P001;O+;Calle;300;-70;x;"));
+            assertNull(Donante.fromArchivo("Luis;15;D001;O+;Calle;300;Órganos;Bueno;1;Riñón"));
+        } finally {
+            System.setErr(original);
+        }
+        assertEquals(0, salida.size(), "No debe imprimirse nada por línea: " + salida);
+    }
+
+    /**
+     * Verifica los lectores numéricos y de fecha seguros.
+     */
+    @Test
+    void testLectoresSeguros() {
+        LectorCampos campos = new LectorCampos("12;NaN;3.5");
+        assertEquals(12, campos.siguienteByteSeguro());
+        assertFalse(campos.hayErrorNumerico());
+        campos.siguienteDoubleSeguro();
+        assertTrue(campos.hayErrorNumerico(), "NaN no es notación decimal");
+        assertEquals(3.5, campos.siguienteDoubleSeguro(), 0.0001);
+        assertFalse(campos.hayErrorNumerico());
+
+        assertNull(Fechas.fechaSegura("31/2/2024"), "Una fecha inexistente debe retornar null");
+        assertNull(Fechas.fechaSegura("hoy"));
+        assertNotNull(Fechas.fechaSegura("29/2/2024"));
+        assertNull(Fechas.horaSegura("25:00"));
+    }
+}
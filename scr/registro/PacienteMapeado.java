@@ -0,0 +1,107 @@
+package registro;
+
+import java.util.ArrayList;
+import java.util.List;
+import excepciones.InvalidDataException;
+import excepciones.InvariantViolationException;
+import model.Paciente;
+import model.TipoSangre;
+import util.LectorCampos;
+
+/**
+ * Vista de solo lectura sobre una fila de {@link RegistroPacientes}. Solo guarda el
+ * registro y el número de fila: cada getter lee el valor del archivo mapeado en el
+ * momento, y {@link #mover(long)} reposiciona la misma vista sobre otra fila.
+ *
+ * <p>Ofrece los mismos getters que {@link Paciente}. No hereda de él porque el
+ * constructor de {@code Paciente} valida y copia todos los campos al heap; cuando se
+ * necesita un objeto del modelo (por ejemplo para editarlo) se usa {@link #aPaciente()}.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class PacienteMapeado {
+
+    private static final TipoSangre[] TIPOS = TipoSangre.values();
+
+    private final RegistroPacientes registro;
+    private long fila = -1;
+
+    PacienteMapeado(RegistroPacientes registro) {
+        this.registro = registro;
+    }
+
+    /**
+     * Reposiciona la vista.
+     * @param fila número de fila entre 0 y {@link RegistroPacientes#tamaño()} - 1
+     * @return esta misma vista
+     */
+    public PacienteMapeado mover(long fila) {
+        if (fila < 0 || fila >= registro.tamaño()) {
+            throw new IndexOutOfBoundsException("Fila fuera del registro: " + fila);
+        }
+        this.fila = fila;
+        return this;
+    }
+
+    /** @return fila sobre la que está la vista */
+    public long getFila() { return fila; }
+
+    /** @return true si el paciente de esta fila fue dado de baja */
+    public boolean estaBorrado() { return registro.estaBorrado(fila); }
+
+    public String getName() { return registro.texto(fila, RegistroPacientes.NOMBRE); }
+    public byte getAge() { return registro.leerByte(fila, RegistroPacientes.EDAD); }
+    public String getId() { return registro.texto(fila, RegistroPacientes.ID); }
+    public String getAddress() { return registro.texto(fila, RegistroPacientes.DIRECCION); }
+    public String getPhone() { return registro.texto(fila, RegistroPacientes.TELEFONO); }
+    public double getWeight() { return registro.leerDouble(fila, RegistroPacientes.PESO); }
+    public double getHeight() { return registro.leerDouble(fila, RegistroPacientes.ALTURA); }
+
+    /** @return tipo de sangre o null si el texto guardado no se reconoce */
+    public TipoSangre getTipoSangre() {
+        byte codigo = registro.leerByte(fila, RegistroPacientes.TIPO_SANGRE);
+        return codigo < 0 ? null : TIPOS[codigo];
+    }
+
+    /** @return el texto original del tipo de sangre, igual que {@link Paciente#getBloodType()} */
+    public String getBloodType() {
+        String texto = registro.texto(fila, RegistroPacientes.SANGRE_TEXTO);
+        if (texto != null) return texto;
+        TipoSangre tipo = getTipoSangre();
+        return tipo == null ? null : tipo.toString();
+    }
+
+    /** @return una lista nueva con las alergias */
+    public List<String> getAllergies() {
+        String texto = registro.texto(fila, RegistroPacientes.ALERGIAS);
+        // Se separan igual que al importar (LectorCampos), no con split: recorta espacios
+        return texto == null ? new ArrayList<>() : new LectorCampos(texto).siguienteLista(',');
+    }
+
+    /**
+     * Copia la fila a un objeto del modelo, sin citas.
+     * @return un paciente nuevo con los mismos datos
+     */
+    public Paciente aPaciente() {
+        try {
+            return new Paciente(getName(), getAge(), getId(), getBloodType(), getAddress(), getPhone(),
+                    getWeight(), getHeight(), getAllergies(), new ArrayList<>());
+        } catch (InvalidDataException e) {
+            // No ocurre: los datos se validaron al construir el paciente que se guardó
+            throw new InvariantViolationException("Fila " + fila + " del registro inválida: " + e.getMessage());
+        }
+    }
+
+    /** @return la fila en el formato de Paciente.txt */
+    public String toArchivo() {
+        return getName() + ";" + getAge() + ";" + getId() + ";" + getBloodType() + ";" +
+               getAddress() + ";" + getPhone() + ";" + getWeight() + ";" + getHeight() + ";" +
+               String.join(",", getAllergies());
+    }
+
+    @Override
+    public String toString() {
+        return "Paciente: " + getName() + " (ID: " + getId() + ")";
+    }
+}
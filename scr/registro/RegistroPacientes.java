@@ -0,0 +1,390 @@
+package registro;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import loaders.ReporteCarga;
+import model.Identificador;
+import model.Paciente;
+import model.TipoSangre;
+import model.Validacion;
+import util.LectorCampos;
+
+/**
+ * Registro de pacientes fuera del heap, pensado para despliegues de millones de filas.
+ * Los datos viven en tres archivos mapeados en memoria:
+ * <ul>
+ *   <li>{@code <base>.reg}: una cabecera y una ranura de ancho fijo ({@value #RANURA} bytes)
+ *       por paciente con edad, peso, altura, tipo de sangre y referencias a los textos.</li>
+ *   <li>{@code <base>.heap}: los textos (nombre, ID, dirección, teléfono, alergias) en UTF-8,
+ *       cada uno precedido por su longitud.</li>
+ *   <li>{@code <base>.idx}: tabla hash de direccionamiento abierto de ID a fila.</li>
+ * </ul>
+ *
+ * <p>Los registros se leen con vistas {@link PacienteMapeado} que solo guardan el número
+ * de fila; un mismo cursor puede recorrer todo el registro, así que el uso de heap no
+ * depende del tamaño del registro. Es opcional: la aplicación sigue usando las listas de
+ * los loaders y este registro se construye a partir de ellas o de Paciente.txt.</p>
+ *
+ * <p>Admite un solo escritor ({@link #agregar}, {@link #eliminar} están sincronizados).
+ * Las búsquedas por ID toman el mismo candado, porque el índice se reconstruye en su
+ * lugar cuando crece; las vistas y {@link #recorrer} leen sin candados las filas ya
+ * publicadas. Las bajas solo marcan la ranura.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class RegistroPacientes implements AutoCloseable {
+
+    /** Ancho de cada ranura en bytes; divide exactamente a un segmento. */
+    public static final int RANURA = 64;
+
+    private static final int MAGIA = 0x45505352; // "EPSR"
+    private static final int VERSION = 1;
+    private static final long CABECERA_HEAP = 16;
+    private static final long CABECERA_INDICE = 16;
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    // Desplazamientos dentro de la ranura
+    static final int PESO = 0;
+    static final int ALTURA = 8;
+    static final int EDAD = 16;
+    static final int TIPO_SANGRE = 17;
+    static final int BANDERAS = 18;
+    static final int NOMBRE = 20;
+    static final int ID = 26;
+    static final int SANGRE_TEXTO = 32;
+    static final int DIRECCION = 38;
+    static final int TELEFONO = 44;
+    static final int ALERGIAS = 50;
+
+    static final byte BORRADO = 1;
+    private static final byte SIN_TIPO = -1;
+
+    private final Segmentos ranuras;
+    private final Segmentos heap;
+    private final Segmentos indice;
+    private volatile long filas;
+    private long activos;
+    private long heapUsado;
+    private int capacidadIndice;
+    private int usadosIndice;
+
+    // Campos de una fila tal como se escriben en la ranura y el heap
+    private static final class Fila {
+        final String nombre;
+        final byte edad;
+        final String id;
+        final String sangre;
+        final String direccion;
+        final String telefono;
+        final double peso;
+        final double altura;
+        final String alergias;
+
+        Fila(String nombre, byte edad, String id, String sangre, String direccion, String telefono,
+             double peso, double altura, List<String> alergias) {
+            this.nombre = nombre;
+            this.edad = edad;
+            this.id = id;
+            this.sangre = sangre;
+            this.direccion = direccion;
+            this.telefono = telefono;
+            this.peso = peso;
+            this.altura = altura;
+            this.alergias = alergias.isEmpty() ? null : String.join(",", alergias);
+        }
+    }
+
+    private RegistroPacientes(File base) throws IOException {
+        ranuras = new Segmentos(new File(base.getPath() + ".reg"));
+        heap = new Segmentos(new File(base.getPath() + ".heap"));
+        indice = new Segmentos(new File(base.getPath() + ".idx"));
+        if (ranuras.getInt(0) == MAGIA) {
+            comprobarVersion(ranuras.getInt(4));
+            filas = ranuras.getLong(8);
+            activos = ranuras.getLong(16);
+            heapUsado = heap.getLong(8);
+            capacidadIndice = indice.getInt(8);
+            usadosIndice = indice.getInt(12);
+        } else {
+            ranuras.putInt(0, MAGIA);
+            ranuras.putInt(4, VERSION);
+            heap.putInt(0, MAGIA);
+            heap.putInt(4, VERSION);
+            indice.putInt(0, MAGIA);
+            indice.putInt(4, VERSION);
+            heapUsado = CABECERA_HEAP;
+            capacidadIndice = CAPACIDAD_INICIAL;
+            indice.asegurar(CABECERA_INDICE + 4L * capacidadIndice);
+            guardarCabeceras();
+        }
+    }
+
+    private static void comprobarVersion(int version) throws IOException {
+        if (version != VERSION) throw new IOException("Versión de registro no soportada: " + version);
+    }
+
+    /**
+     * Abre el registro o lo crea vacío si no existe.
+     * @param base ruta sin extensión (por ejemplo "Pacientes" crea Pacientes.reg, .heap e .idx)
+     * @return el registro abierto
+     */
+    public static RegistroPacientes abrir(File base) throws IOException {
+        return new RegistroPacientes(base);
+    }
+
+    /**
+     * Agrega al registro los pacientes válidos de un archivo con el formato de Paciente.txt,
+     * leyendo línea a línea sin construir la lista completa ni un {@link Paciente} por línea:
+     * los campos se validan con {@link Paciente#validar} y se copian directo a la ranura, así
+     * los IDs importados no quedan internados en {@link Identificador}. No aplica la bitácora
+     * de cambios: conviene compactar antes ({@link loaders.PacienteLoader#compactar()}).
+     * @param archivo archivo de pacientes
+     * @param reporte informe donde se anotan las líneas inválidas
+     * @return pacientes agregados (los IDs repetidos se omiten)
+     */
+    public long importar(File archivo, ReporteCarga reporte) throws IOException {
+        long agregados = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(archivo, StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                Fila f = reporte.interpretar(linea, RegistroPacientes::leerFila);
+                if (f != null && agregar(f)) agregados++;
+            }
+        }
+        return agregados;
+    }
+
+    /**
+     * Copia un paciente al registro.
+     * @param p paciente a agregar
+     * @return false si ya hay un paciente activo con el mismo ID
+     */
+    public boolean agregar(Paciente p) throws IOException {
+        return agregar(new Fila(p.getName(), p.getAge(), p.getId(), p.getBloodType(), p.getAddress(),
+                p.getPhone(), p.getWeight(), p.getHeight(), p.getAllergies()));
+    }
+
+    private synchronized boolean agregar(Fila f) throws IOException {
+        String clave = Identificador.normalizar(f.id);
+        if (clave == null || buscarFila(clave) >= 0) return false;
+
+        long fila = filas;
+        long pos = posicion(fila);
+        ranuras.asegurar(pos + RANURA);
+        ranuras.putDouble(pos + PESO, f.peso);
+        ranuras.putDouble(pos + ALTURA, f.altura);
+        ranuras.put(pos + EDAD, f.edad);
+        TipoSangre tipo = TipoSangre.desde(f.sangre);
+        ranuras.put(pos + TIPO_SANGRE, tipo != null ? (byte) tipo.ordinal() : SIN_TIPO);
+        ranuras.put(pos + BANDERAS, (byte) 0);
+        boolean sangreExacta = tipo != null && tipo.toString().equals(f.sangre);
+        referenciar(pos + NOMBRE, f.nombre);
+        referenciar(pos + ID, f.id);
+        referenciar(pos + SANGRE_TEXTO, sangreExacta ? null : f.sangre);
+        referenciar(pos + DIRECCION, f.direccion);
+        referenciar(pos + TELEFONO, f.telefono);
+        referenciar(pos + ALERGIAS, f.alergias);
+
+        if ((usadosIndice + 1) * 2 > capacidadIndice) redimensionarIndice(capacidadIndice * 2);
+        insertarEnIndice(clave, fila);
+        filas = fila + 1;
+        activos++;
+        guardarCabeceras();
+        return true;
+    }
+
+    /**
+     * Marca como borrado al paciente activo con el ID dado. La ranura no se reutiliza.
+     * @param id ID del paciente
+     * @return true si se encontró y se marcó
+     */
+    public synchronized boolean eliminar(String id) {
+        long fila = buscarFila(id);
+        if (fila < 0) return false;
+        long pos = posicion(fila) + BANDERAS;
+        ranuras.put(pos, (byte) (ranuras.get(pos) | BORRADO));
+        activos--;
+        guardarCabeceras();
+        return true;
+    }
+
+    /** @return número de ranuras ocupadas, incluidas las borradas */
+    public long tamaño() { return filas; }
+
+    /** @return número de pacientes activos */
+    public synchronized long activos() { return activos; }
+
+    /**
+     * @param fila número de fila entre 0 y {@link #tamaño()} - 1
+     * @return una vista nueva sobre esa fila
+     */
+    public PacienteMapeado vista(long fila) {
+        return cursor().mover(fila);
+    }
+
+    /**
+     * @return una vista sin posicionar, para recorrer muchas filas con un solo objeto
+     *         mediante {@link PacienteMapeado#mover(long)}
+     */
+    public PacienteMapeado cursor() {
+        return new PacienteMapeado(this);
+    }
+
+    /**
+     * Busca un paciente activo por su ID, sin distinguir mayúsculas.
+     * @param id ID a buscar
+     * @return una vista sobre la fila, o null si no existe
+     */
+    public synchronized PacienteMapeado buscarPorId(String id) {
+        long fila = buscarFila(id);
+        return fila < 0 ? null : vista(fila);
+    }
+
+    /**
+     * @param id ID a buscar
+     * @return la fila del paciente activo con ese ID, o -1 si no existe
+     */
+    public synchronized long buscarFila(String id) {
+        String clave = Identificador.normalizar(id);
+        if (clave == null) return -1;
+        int mascara = capacidadIndice - 1;
+        for (int i = dispersar(clave) & mascara; ; i = (i + 1) & mascara) {
+            int entrada = indice.getInt(CABECERA_INDICE + 4L * i);
+            if (entrada == 0) return -1;
+            long fila = Integer.toUnsignedLong(entrada) - 1;
+            if (!estaBorrado(fila) && clave.equals(Identificador.normalizar(texto(fila, ID)))) return fila;
+        }
+    }
+
+    /**
+     * Recorre las filas activas con una sola vista reutilizada. La vista no debe
+     * conservarse fuera de la acción: en la siguiente iteración apunta a otra fila.
+     * @param accion acción a ejecutar por cada paciente activo
+     */
+    public void recorrer(Consumer<PacienteMapeado> accion) {
+        PacienteMapeado cursor = cursor();
+        long n = filas;
+        for (long fila = 0; fila < n; fila++) {
+            if (!estaBorrado(fila)) accion.accept(cursor.mover(fila));
+        }
+    }
+
+    /** Escribe a disco todos los cambios pendientes. */
+    public synchronized void forzar() {
+        ranuras.forzar();
+        heap.forzar();
+        indice.forzar();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        ranuras.close();
+        heap.close();
+        indice.close();
+    }
+
+    // --- Acceso para las vistas ---
+
+    // La ranura 0 es la cabecera del archivo
+    static long posicion(long fila) {
+        return (fila + 1) * RANURA;
+    }
+
+    byte leerByte(long fila, int campo) { return ranuras.get(posicion(fila) + campo); }
+
+    double leerDouble(long fila, int campo) { return ranuras.getDouble(posicion(fila) + campo); }
+
+    boolean estaBorrado(long fila) { return (leerByte(fila, BANDERAS) & BORRADO) != 0; }
+
+    String texto(long fila, int campo) {
+        long pos = posicion(fila) + campo;
+        long ref = ((ranuras.getShort(pos) & 0xFFFFL) << 32) | (ranuras.getInt(pos + 2) & 0xFFFFFFFFL);
+        if (ref == 0) return null;
+        byte[] bytes = new byte[heap.getInt(ref)];
+        heap.leer(ref + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --- Escritura ---
+
+    // Igual que Paciente.fromArchivo(String, Validacion), pero sin construir el paciente
+    private static Fila leerFila(String linea, Validacion v) {
+        LectorCampos campos = new LectorCampos(linea);
+        if (campos.contarCampos() < 8) {
+            v.agregar(Validacion.Codigo.CAMPOS_INSUFICIENTES, "linea", "Se esperaban al menos 8 campos.");
+            return null;
+        }
+        String nombre = campos.siguiente();
+        byte edad = campos.siguienteByteSeguro();
+        if (campos.hayErrorNumerico()) v.agregar(Validacion.Codigo.NUMERO_INVALIDO, "edad", "La edad no es un número válido.");
+        String id = campos.siguiente();
+        String sangre = campos.siguiente();
+        String direccion = campos.siguiente();
+        String telefono = campos.siguiente();
+        double peso = campos.siguienteDoubleSeguro();
+        if (campos.hayErrorNumerico()) v.agregar(Validacion.Codigo.NUMERO_INVALIDO, "peso", "El peso no es un número válido.");
+        double altura = campos.siguienteDoubleSeguro();
+        if (campos.hayErrorNumerico()) v.agregar(Validacion.Codigo.NUMERO_INVALIDO, "altura", "La altura no es un número válido.");
+
+        Paciente.validar(nombre, edad, id, sangre, peso, altura, v);
+        if (!v.esValida()) return null;
+        return new Fila(nombre, edad, id, sangre, direccion, telefono, peso, altura,
+                campos.hayMas() ? campos.siguienteLista(',') : List.of());
+    }
+
+    // Escribe el texto en el heap y su referencia de 48 bits en la ranura (0 = null)
+    private void referenciar(long pos, String valor) throws IOException {
+        long ref = 0;
+        if (valor != null) {
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            long largo = 4L + bytes.length;
+            // Un texto nunca cruza el límite entre dos segmentos
+            if (largo > Segmentos.restante(heapUsado)) heapUsado += Segmentos.restante(heapUsado);
+            heap.asegurar(heapUsado + largo);
+            heap.putInt(heapUsado, bytes.length);
+            heap.escribir(heapUsado + 4, bytes);
+            ref = heapUsado;
+            heapUsado += largo;
+        }
+        ranuras.putShort(pos, (short) (ref >>> 32));
+        ranuras.putInt(pos + 2, (int) ref);
+    }
+
+    private void insertarEnIndice(String clave, long fila) {
+        int mascara = capacidadIndice - 1;
+        int i = dispersar(clave) & mascara;
+        while (indice.getInt(CABECERA_INDICE + 4L * i) != 0) i = (i + 1) & mascara;
+        indice.putInt(CABECERA_INDICE + 4L * i, (int) (fila + 1));
+        usadosIndice++;
+    }
+
+    // Reconstruye la tabla con los IDs de las ranuras activas; las borradas se descartan
+    private void redimensionarIndice(int capacidad) throws IOException {
+        indice.asegurar(CABECERA_INDICE + 4L * capacidad);
+        for (int i = 0; i < capacidadIndice; i++) indice.putInt(CABECERA_INDICE + 4L * i, 0);
+        capacidadIndice = capacidad;
+        usadosIndice = 0;
+        for (long fila = 0; fila < filas; fila++) {
+            if (!estaBorrado(fila)) insertarEnIndice(Identificador.normalizar(texto(fila, ID)), fila);
+        }
+    }
+
+    private static int dispersar(String clave) {
+        int h = clave.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private void guardarCabeceras() {
+        ranuras.putLong(8, filas);
+        ranuras.putLong(16, activos);
+        heap.putLong(8, heapUsado);
+        indice.putInt(8, capacidadIndice);
+        indice.putInt(12, usadosIndice);
+    }
+}
@@ -0,0 +1,116 @@
+package registro;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Archivo mapeado en memoria por segmentos de 1 GB, para superar el límite de 2 GB
+ * de un {@link MappedByteBuffer}. Las posiciones son {@code long}; quien escribe debe
+ * cuidar que ningún valor cruce el límite entre dos segmentos (ver {@link #restante(long)}).
+ *
+ * <p>El archivo crece duplicando su tamaño hasta un segmento y luego de a un segmento.
+ * Al crecer se vuelve a mapear solo el último segmento; los lectores que todavía usan
+ * el mapa anterior ven los mismos datos porque ambos mapas comparten las páginas del archivo.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+final class Segmentos implements AutoCloseable {
+
+    static final int BITS = 30;
+    static final long SEGMENTO = 1L << BITS;
+    private static final long MINIMO = 1L << 16;
+
+    private final RandomAccessFile archivo;
+    private final FileChannel canal;
+    private volatile MappedByteBuffer[] mapas = new MappedByteBuffer[0];
+    private long capacidad;
+
+    Segmentos(File ruta) throws IOException {
+        archivo = new RandomAccessFile(ruta, "rw");
+        canal = archivo.getChannel();
+        mapear(ajustar(Math.max(canal.size(), MINIMO)));
+    }
+
+    // Potencia de dos hasta un segmento; después, múltiplo de segmento
+    private static long ajustar(long n) {
+        if (n > SEGMENTO) return (n + SEGMENTO - 1) & -SEGMENTO;
+        return Long.highestOneBit(n - 1) << 1;
+    }
+
+    private void mapear(long nueva) throws IOException {
+        int n = (int) ((nueva + SEGMENTO - 1) >>> BITS);
+        MappedByteBuffer[] nuevos = Arrays.copyOf(mapas, n);
+        for (int i = 0; i < n; i++) {
+            long inicio = (long) i << BITS;
+            long tamaño = Math.min(SEGMENTO, nueva - inicio);
+            if (nuevos[i] == null || nuevos[i].capacity() != tamaño) {
+                nuevos[i] = canal.map(FileChannel.MapMode.READ_WRITE, inicio, tamaño);
+            }
+        }
+        capacidad = nueva;
+        mapas = nuevos;
+    }
+
+    /**
+     * Garantiza que el archivo tenga al menos {@code fin} bytes mapeados.
+     * @param fin posición final (exclusiva) que se va a escribir
+     */
+    void asegurar(long fin) throws IOException {
+        if (fin <= capacidad) return;
+        long nueva = capacidad;
+        while (nueva < fin) nueva = nueva < SEGMENTO ? nueva * 2 : nueva + SEGMENTO;
+        mapear(nueva);
+    }
+
+    long capacidad() { return capacidad; }
+
+    /** @return bytes que quedan desde {@code pos} hasta el final de su segmento */
+    static long restante(long pos) { return SEGMENTO - desplazamiento(pos); }
+
+    private ByteBuffer mapa(long pos) { return mapas[(int) (pos >>> BITS)]; }
+
+    private static int desplazamiento(long pos) { return (int) (pos & (SEGMENTO - 1)); }
+
+    byte get(long pos) { return mapa(pos).get(desplazamiento(pos)); }
+    short getShort(long pos) { return mapa(pos).getShort(desplazamiento(pos)); }
+    int getInt(long pos) { return mapa(pos).getInt(desplazamiento(pos)); }
+    long getLong(long pos) { return mapa(pos).getLong(desplazamiento(pos)); }
+    double getDouble(long pos) { return mapa(pos).getDouble(desplazamiento(pos)); }
+
+    void put(long pos, byte v) { mapa(pos).put(desplazamiento(pos), v); }
+    void putShort(long pos, short v) { mapa(pos).putShort(desplazamiento(pos), v); }
+    void putInt(long pos, int v) { mapa(pos).putInt(desplazamiento(pos), v); }
+    void putLong(long pos, long v) { mapa(pos).putLong(desplazamiento(pos), v); }
+    void putDouble(long pos, double v) { mapa(pos).putDouble(desplazamiento(pos), v); }
+
+    void leer(long pos, byte[] destino) {
+        ByteBuffer b = mapa(pos).duplicate();
+        b.position(desplazamiento(pos));
+        b.get(destino);
+    }
+
+    void escribir(long pos, byte[] origen) {
+        ByteBuffer b = mapa(pos).duplicate();
+        b.position(desplazamiento(pos));
+        b.put(origen);
+    }
+
+    /** Escribe a disco las páginas modificadas. */
+    void forzar() {
+        for (MappedByteBuffer m : mapas) m.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        forzar();
+        mapas = new MappedByteBuffer[0];
+        canal.close();
+        archivo.close();
+    }
+}
@@ -0,0 +1,138 @@
+package registro.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import excepciones.InvalidDataException;
+import loaders.ReporteCarga;
+import model.Identificador;
+import model.Paciente;
+import model.TipoSangre;
+import model.Validacion;
+import registro.PacienteMapeado;
+import registro.RegistroPacientes;
+
+/**
+ * Clase de pruebas unitarias para RegistroPacientes y PacienteMapeado.
+ * Verifica la ida y vuelta de los datos, la búsqueda por ID, las bajas y la reapertura.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class RegistroPacientesTest {
+
+    private final File base = new File("RegistroPacientesTest");
+
+    /**
+     * Elimina los archivos del registro.
+     */
+    @AfterEach
+    public void tearDown() {
+        for (String ext : new String[] {".reg", ".heap", ".idx", ".txt"}) new File(base.getPath() + ext).delete();
+    }
+
+    private static Paciente paciente(int i, String sangre) throws InvalidDataException {
+        return new Paciente("Paciente Ñandú " + i, (byte) (20 + i % 60), "P" + i, sangre, "Calle " + i, "300" + i,
+                50 + i % 40, 1.6, i % 2 == 0 ? Arrays.asList("Polen", "Maní") : new ArrayList<>(), new ArrayList<>());
+    }
+
+    /**
+     * Verifica que la vista devuelva exactamente lo que se guardó.
+     */
+    @Test
+    public void testIdaYVuelta() throws Exception {
+        try (RegistroPacientes r = RegistroPacientes.abrir(base)) {
+            Paciente a = paciente(2, "AB-");
+            Paciente b = paciente(3, "o+");
+            assertTrue(r.agregar(a));
+            assertTrue(r.agregar(b));
+            assertFalse(r.agregar(paciente(2, "A+")), "Un ID repetido no se agrega");
+
+            PacienteMapeado v = r.buscarPorId("p2");
+            assertNotNull(v, "La búsqueda no distingue mayúsculas");
+            assertEquals(a.toArchivo(), v.toArchivo());
+            assertEquals(TipoSangre.AB_NEG, v.getTipoSangre());
+            assertEquals(Arrays.asList("Polen", "Maní"), v.getAllergies());
+
+            PacienteMapeado w = r.buscarPorId("P3");
+            assertEquals("o+", w.getBloodType(), "El texto original del tipo de sangre se conserva");
+            assertEquals(TipoSangre.O_POS, w.getTipoSangre());
+            assertTrue(w.getAllergies().isEmpty());
+            assertEquals(b.toArchivo(), w.aPaciente().toArchivo());
+            assertNull(r.buscarPorId("P99"));
+
+            Paciente c = new Paciente("Con Espacios", (byte) 40, "P4", "A+", "Calle 4", "3004", 60, 1.7,
+                    Arrays.asList(" Polen ", "Maní "), new ArrayList<>());
+            assertTrue(r.agregar(c));
+            assertEquals(Paciente.fromArchivo(c.toArchivo()).getAllergies(), r.buscarPorId("P4").getAllergies(),
+                    "Las alergias se separan igual que al leer Paciente.txt");
+        }
+    }
+
+    /**
+     * Verifica que importar copie las líneas válidas, anote las inválidas y no interne
+     * los IDs importados.
+     */
+    @Test
+    public void testImportar() throws Exception {
+        File archivo = new File(base.getPath() + ".txt");
+        String valida = paciente(7, "b-").toArchivo();
+        Files.write(archivo.toPath(), String.join("\n",
+                valida,
+                "Sin Edad;x;IMP-X;O+;Calle;300;70;1.7;",
+                "Corta;30;IMP-Y",
+                "Ana Ñúñez;30;IMP-1;O+;Calle 1;300;70.5;1.65;Polen, Maní").getBytes(StandardCharsets.UTF_8));
+        try (RegistroPacientes r = RegistroPacientes.abrir(base)) {
+            ReporteCarga reporte = new ReporteCarga(archivo.getName());
+            assertEquals(2, r.importar(archivo, reporte));
+            assertEquals(2, reporte.getOmitidas());
+            assertEquals(1, reporte.contar(Validacion.Codigo.CAMPOS_INSUFICIENTES));
+
+            assertEquals(valida, r.buscarPorId("P7").toArchivo());
+            PacienteMapeado ana = r.buscarPorId("imp-1");
+            assertEquals("Ana Ñúñez", ana.getName());
+            assertEquals(Arrays.asList("Polen", "Maní"), ana.getAllergies());
+            assertEquals(TipoSangre.O_POS, ana.getTipoSangre());
+            assertNull(Identificador.buscar("IMP-1"), "Importar no debe internar los IDs");
+        }
+    }
+
+    /**
+     * Verifica que un cursor recorra miles de filas, con crecimiento de los archivos y del índice,
+     * y que los datos sigan al reabrir.
+     */
+    @Test
+    public void testCrecimientoYReapertura() throws Exception {
+        int n = 5000;
+        try (RegistroPacientes r = RegistroPacientes.abrir(base)) {
+            for (int i = 0; i < n; i++) assertTrue(r.agregar(paciente(i, "A+")));
+            assertTrue(r.eliminar("P10"));
+            assertFalse(r.eliminar("P10"));
+            assertNull(r.buscarPorId("P10"));
+        }
+        try (RegistroPacientes r = RegistroPacientes.abrir(base)) {
+            assertEquals(n, r.tamaño());
+            assertEquals(n - 1, r.activos());
+            for (int i = 0; i < n; i += 97) {
+                if (i == 10) continue;
+                assertEquals("Calle " + i, r.buscarPorId("P" + i).getAddress());
+            }
+            long[] suma = new long[2];
+            PacienteMapeado[] primera = new PacienteMapeado[1];
+            r.recorrer(v -> {
+                if (primera[0] == null) primera[0] = v;
+                assertSame(primera[0], v, "El recorrido reutiliza una sola vista");
+                suma[0]++;
+                suma[1] += v.getAge();
+            });
+            assertEquals(n - 1, suma[0]);
+            assertTrue(r.agregar(paciente(10, "B+")), "Un ID dado de baja puede volver a agregarse");
+            assertEquals(n, r.buscarPorId("P10").getFila());
+        }
+    }
+}
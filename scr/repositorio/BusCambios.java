@@ -0,0 +1,62 @@
+package repositorio;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Canal de avisos de cambio de una entidad. Los repositorios publican cada alta,
+ * modificación y baja con el ID afectado, y las vistas suscritas actualizan solo
+ * esas filas en lugar de volver a leer la lista completa.
+ *
+ * <p>El bus sobrevive a {@link Repositorios#recargar()}: los suscriptores reciben un
+ * {@link Cambio.Tipo#RECARGADO} y siguen suscritos a los repositorios nuevos.</p>
+ *
+ * <p>Los avisos se entregan en el hilo que hizo el cambio (que puede no ser el de
+ * Swing) y mientras el repositorio está bloqueado, así que un suscriptor no debe
+ * hacer trabajo largo: lo habitual es reenviar el aviso con
+ * {@code SwingUtilities.invokeLater}.</p>
+ *
+ * @param <T> tipo de entidad
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class BusCambios<T> {
+
+    private final List<Consumer<? super Cambio<T>>> suscriptores = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param suscriptor receptor de los avisos
+     */
+    public void suscribir(Consumer<? super Cambio<T>> suscriptor) {
+        suscriptores.add(suscriptor);
+    }
+
+    /**
+     * @param suscriptor receptor registrado con {@link #suscribir}
+     */
+    public void desuscribir(Consumer<? super Cambio<T>> suscriptor) {
+        suscriptores.remove(suscriptor);
+    }
+
+    /** @return número de suscriptores */
+    public int suscritos() {
+        return suscriptores.size();
+    }
+
+    void agregado(String id, T elemento) { publicar(new Cambio<>(Cambio.Tipo.AGREGADO, id, elemento)); }
+    void actualizado(String id, T elemento) { publicar(new Cambio<>(Cambio.Tipo.ACTUALIZADO, id, elemento)); }
+    void eliminado(String id) { publicar(new Cambio<>(Cambio.Tipo.ELIMINADO, id, null)); }
+    void recargado() { publicar(new Cambio<>(Cambio.Tipo.RECARGADO, null, null)); }
+
+    // Un suscriptor que falla no impide avisar a los demás ni deshace el cambio ya persistido
+    private void publicar(Cambio<T> cambio) {
+        for (Consumer<? super Cambio<T>> s : suscriptores) {
+            try {
+                s.accept(cambio);
+            } catch (RuntimeException e) {
+                System.err.println("Error al avisar " + cambio + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package repositorio;
+
+/**
+ * Aviso de un cambio en un repositorio, publicado por su {@link BusCambios}
+ * después de persistir la modificación.
+ *
+ * @param <T> tipo de entidad
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class Cambio<T> {
+
+    /** Clase de cambio. */
+    public enum Tipo {
+        /** Alta de un elemento nuevo. */
+        AGREGADO,
+        /** Modificación de un elemento existente (mismo ID). */
+        ACTUALIZADO,
+        /** Baja de un elemento; el aviso no trae el elemento. */
+        ELIMINADO,
+        /** Se volvieron a leer los archivos: cualquier vista debe recargarse completa. */
+        RECARGADO
+    }
+
+    private final Tipo tipo;
+    private final String id;
+    private final T elemento;
+
+    Cambio(Tipo tipo, String id, T elemento) {
+        this.tipo = tipo;
+        this.id = id;
+        this.elemento = elemento;
+    }
+
+    public Tipo getTipo() { return tipo; }
+
+    /** @return ID afectado, o null en {@link Tipo#RECARGADO} */
+    public String getId() { return id; }
+
+    /** @return el elemento tal como quedó, o null en {@link Tipo#ELIMINADO} y {@link Tipo#RECARGADO} */
+    public T getElemento() { return elemento; }
+
+    @Override
+    public String toString() {
+        return tipo + (id != null ? " " + id : "");
+    }
+}
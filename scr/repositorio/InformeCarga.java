@@ -0,0 +1,36 @@
+package repositorio;
+
+import loaders.ReporteCarga;
+
+/**
+ * Programa de consola que carga los archivos de datos y muestra el informe de
+ * calidad de cada uno (líneas leídas, registros, líneas omitidas y su detalle).
+ * Uso: {@code java repositorio.InformeCarga [máximo de detalles por archivo]}
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class InformeCarga {
+
+    private static final int DETALLES_POR_DEFECTO = 50;
+
+    private InformeCarga() {}
+
+    public static void main(String[] args) {
+        int max = DETALLES_POR_DEFECTO;
+        if (args.length > 0) {
+            try {
+                max = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                System.err.println("Máximo de detalles inválido: " + args[0]);
+                return;
+            }
+        }
+        boolean errores = false;
+        for (ReporteCarga r : Repositorios.reportesCarga()) {
+            System.out.println(r.detalle(max));
+            errores |= r.hayErrores();
+        }
+        if (errores) System.exit(1);
+    }
+}
@@ -0,0 +1,145 @@
+package repositorio;
+
+import excepciones.InvalidDataException;
+import excepciones.NotFoundException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import model.Identificador;
+
+/**
+ * Repositorio en memoria con persistencia inmediata (write-through).
+ * Los elementos se cargan una sola vez; las lecturas se sirven desde memoria
+ * y cada modificación se anota en la bitácora del archivo en el mismo momento.
+ * Después de persistirla se avisa por el {@link BusCambios} del repositorio.
+ *
+ * @param <T> tipo de entidad almacenada
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public abstract class Repositorio<T> {
+
+    // Clave: ID canónico, conserva la semántica equalsIgnoreCase de los loaders
+    private final Map<Identificador, T> elementos = new LinkedHashMap<>();
+    private final String entidad;
+    private final BusCambios<T> cambios;
+
+    /**
+     * @param entidad nombre de la entidad, usado en los mensajes de error
+     * @param iniciales elementos ya cargados desde archivo
+     */
+    protected Repositorio(String entidad, List<T> iniciales) {
+        this(entidad, iniciales, new BusCambios<>());
+    }
+
+    /**
+     * @param entidad nombre de la entidad, usado en los mensajes de error
+     * @param iniciales elementos ya cargados desde archivo
+     * @param cambios bus por el que se avisan los cambios
+     */
+    protected Repositorio(String entidad, List<T> iniciales, BusCambios<T> cambios) {
+        this.entidad = entidad;
+        this.cambios = cambios;
+        if (iniciales != null) {
+            for (T e : iniciales) {
+                if (e != null) elementos.putIfAbsent(clave(idDe(e)), e);
+            }
+        }
+    }
+
+    /** @return el ID del elemento */
+    protected abstract String idDe(T elemento);
+
+    /** Persiste el alta de un elemento. */
+    protected abstract void persistirAlta(T elemento);
+
+    /** Persiste la modificación de un elemento existente. */
+    protected abstract void persistirCambio(T elemento);
+
+    /** Persiste la baja del elemento con el ID dado. */
+    protected abstract void persistirBaja(String id);
+
+    /** @return bus por el que se avisan las altas, modificaciones y bajas */
+    public BusCambios<T> getCambios() {
+        return cambios;
+    }
+
+    /** @return copia de los elementos en orden de inserción */
+    public synchronized List<T> listar() {
+        return new ArrayList<>(elementos.values());
+    }
+
+    /** @return número de elementos */
+    public synchronized int tamaño() {
+        return elementos.size();
+    }
+
+    /**
+     * @param id identificación (sin distinguir mayúsculas)
+     * @return true si existe un elemento con ese ID
+     */
+    public synchronized boolean existe(String id) {
+        return elementos.containsKey(Identificador.buscar(id));
+    }
+
+    /**
+     * Busca un elemento por ID sin acceder al archivo.
+     * @param id identificación (sin distinguir mayúsculas)
+     * @return el elemento
+     * @throws NotFoundException si no existe
+     */
+    public synchronized T buscarPorId(String id) {
+        T e = elementos.get(Identificador.buscar(id));
+        if (e == null) throw new NotFoundException(entidad + " con ID '" + id + "' no encontrado.");
+        return e;
+    }
+
+    /**
+     * Agrega un elemento nuevo y lo persiste.
+     * @param elemento elemento a agregar
+     * @throws InvalidDataException si es null o ya existe su ID
+     */
+    public synchronized void agregar(T elemento) throws InvalidDataException {
+        if (elemento == null) throw new InvalidDataException("No se puede añadir un " + entidad.toLowerCase(Locale.ROOT) + " null.");
+        String id = idDe(elemento);
+        if (elementos.containsKey(clave(id)))
+            throw new InvalidDataException("Ya existe un " + entidad.toLowerCase(Locale.ROOT) + " con el ID: " + id);
+        elementos.put(clave(id), elemento);
+        persistirAlta(elemento);
+        cambios.agregado(id, elemento);
+    }
+
+    /**
+     * Reemplaza un elemento existente (mismo ID) y lo persiste.
+     * @param elemento elemento modificado
+     * @throws NotFoundException si no existe su ID
+     */
+    public synchronized void actualizar(T elemento) {
+        String id = elemento != null ? idDe(elemento) : null;
+        if (!elementos.containsKey(clave(id)))
+            throw new NotFoundException(entidad + " con ID '" + id + "' no encontrado.");
+        elementos.put(clave(id), elemento);
+        persistirCambio(elemento);
+        cambios.actualizado(id, elemento);
+    }
+
+    /**
+     * Elimina un elemento por ID y persiste el cambio.
+     * @param id identificación
+     * @return true si se eliminó, false si no existía
+     */
+    public synchronized boolean eliminar(String id) {
+        boolean eliminado = elementos.remove(Identificador.buscar(id)) != null;
+        if (eliminado) {
+            persistirBaja(id);
+            cambios.eliminado(id);
+        }
+        return eliminado;
+    }
+
+    protected static Identificador clave(String id) {
+        return Identificador.de(id);
+    }
+}
@@ -0,0 +1,71 @@
+package repositorio;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import loaders.CitaLoader;
+import model.Cita;
+import model.EstadoCita;
+
+/**
+ * Repositorio en memoria de citas, persistido en Cita.txt.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class RepositorioCitas extends Repositorio<Cita> {
+
+    public RepositorioCitas(List<Cita> iniciales) {
+        super("Cita", iniciales);
+    }
+
+    /**
+     * @param iniciales elementos ya cargados desde archivo
+     * @param cambios bus por el que se avisan los cambios
+     */
+    public RepositorioCitas(List<Cita> iniciales, BusCambios<Cita> cambios) {
+        super("Cita", iniciales, cambios);
+    }
+
+    @Override
+    protected String idDe(Cita c) { return c.getId(); }
+
+    @Override
+    protected void persistirAlta(Cita e) { CitaLoader.anotarAlta(e); }
+
+    @Override
+    protected void persistirCambio(Cita e) { CitaLoader.anotarCambio(e); }
+
+    @Override
+    protected void persistirBaja(String id) { CitaLoader.anotarBaja(id); }
+
+    /**
+     * Aplica la regla de expiración en memoria y persiste solo las citas que cambian,
+     * con una sola escritura en la bitácora; si hay que compactar se guarda la lista en memoria.
+     * @param ahora instante de referencia
+     * @return número de citas que pasaron de Pendiente a Aprobada
+     */
+    public synchronized int aplicarExpiraciones(Date ahora) {
+        List<Cita> expiradas = new ArrayList<>();
+        for (Cita c : listar()) {
+            if (c.aplicarExpiracion(ahora)) expiradas.add(c);
+        }
+        CitaLoader.anotarCambios(expiradas, this::listar);
+        for (Cita c : expiradas) getCambios().actualizado(c.getId(), c);
+        return expiradas.size();
+    }
+
+    /**
+     * Marca una cita como Cancelada (misma semántica que {@link CitaLoader#eliminarCitaPorId}).
+     * @param id ID de la cita
+     * @return true si se canceló, false si no existe o ya estaba cancelada
+     */
+    public synchronized boolean cancelar(String id) {
+        if (!existe(id)) return false;
+        Cita c = buscarPorId(id);
+        if (c.getEstadoCita() == EstadoCita.CANCELADA) return false;
+        c.setEstado(EstadoCita.CANCELADA);
+        actualizar(c);
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+package repositorio;
+
+import java.util.List;
+import loaders.DonanteLoader;
+import model.Donante;
+
+/**
+ * Repositorio en memoria de donantes, persistido en Donante.txt.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class RepositorioDonantes extends Repositorio<Donante> {
+
+    public RepositorioDonantes(List<Donante> iniciales) {
+        super("Donante", iniciales);
+    }
+
+    /**
+     * @param iniciales elementos ya cargados desde archivo
+     * @param cambios bus por el que se avisan los cambios
+     */
+    public RepositorioDonantes(List<Donante> iniciales, BusCambios<Donante> cambios) {
+        super("Donante", iniciales, cambios);
+    }
+
+    @Override
+    protected String idDe(Donante d) { return d.getId(); }
+
+    @Override
+    protected void persistirAlta(Donante e) { DonanteLoader.anotarAlta(e); }
+
+    @Override
+    protected void persistirCambio(Donante e) { DonanteLoader.anotarCambio(e); }
+
+    @Override
+    protected void persistirBaja(String id) { DonanteLoader.anotarBaja(id); }
+}
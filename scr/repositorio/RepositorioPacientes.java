@@ -0,0 +1,38 @@
+package repositorio;
+
+import java.util.List;
+import loaders.PacienteLoader;
+import model.Paciente;
+
+/**
+ * Repositorio en memoria de pacientes, persistido en Paciente.txt.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class RepositorioPacientes extends Repositorio<Paciente> {
+
+    public RepositorioPacientes(List<Paciente> iniciales) {
+        super("Paciente", iniciales);
+    }
+
+    /**
+     * @param iniciales elementos ya cargados desde archivo
+     * @param cambios bus por el que se avisan los cambios
+     */
+    public RepositorioPacientes(List<Paciente> iniciales, BusCambios<Paciente> cambios) {
+        super("Paciente", iniciales, cambios);
+    }
+
+    @Override
+    protected String idDe(Paciente p) { return p.getId(); }
+
+    @Override
+    protected void persistirAlta(Paciente e) { PacienteLoader.anotarAlta(e); }
+
+    @Override
+    protected void persistirCambio(Paciente e) { PacienteLoader.anotarCambio(e); }
+
+    @Override
+    protected void persistirBaja(String id) { PacienteLoader.anotarBaja(id); }
+}
@@ -0,0 +1,52 @@
+package repositorio;
+
+import java.util.List;
+import loaders.TrasplanteLoader;
+import model.EstadoTrasplante;
+import model.Trasplante;
+
+/**
+ * Repositorio en memoria de trasplantes, persistido en Trasplante.txt.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class RepositorioTrasplantes extends Repositorio<Trasplante> {
+
+    public RepositorioTrasplantes(List<Trasplante> iniciales) {
+        super("Trasplante", iniciales);
+    }
+
+    /**
+     * @param iniciales elementos ya cargados desde archivo
+     * @param cambios bus por el que se avisan los cambios
+     */
+    public RepositorioTrasplantes(List<Trasplante> iniciales, BusCambios<Trasplante> cambios) {
+        super("Trasplante", iniciales, cambios);
+    }
+
+    @Override
+    protected String idDe(Trasplante t) { return t.getId(); }
+
+    @Override
+    protected void persistirAlta(Trasplante e) { TrasplanteLoader.anotarAlta(e); }
+
+    @Override
+    protected void persistirCambio(Trasplante e) { TrasplanteLoader.anotarCambio(e); }
+
+    @Override
+    protected void persistirBaja(String id) { TrasplanteLoader.anotarBaja(id); }
+
+    /**
+     * Marca un trasplante como Cancelada.
+     * @param id ID del trasplante
+     * @return true si existía
+     */
+    public synchronized boolean cancelar(String id) {
+        if (!existe(id)) return false;
+        Trasplante t = buscarPorId(id);
+        t.setEstado(EstadoTrasplante.CANCELADO);
+        actualizar(t);
+        return true;
+    }
+}
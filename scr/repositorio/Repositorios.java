@@ -0,0 +1,149 @@
+package repositorio;
+
+import agenda.Agenda;
+import loaders.CitaLoader;
+import loaders.DonanteLoader;
+import loaders.IndicePersonas;
+import loaders.PacienteLoader;
+import loaders.ReporteCarga;
+import loaders.TrasplanteLoader;
+import model.Cita;
+import model.Donante;
+import model.Paciente;
+import model.Trasplante;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Punto de acceso a los repositorios de la aplicación.
+ * La primera llamada carga los cuatro archivos una sola vez; pacientes y donantes
+ * se leen primero y sus índices se reutilizan para resolver citas y trasplantes.
+ * Las líneas inválidas no se imprimen: quedan en los informes de {@link #reportesCarga()}.
+ * Al cerrar, {@link #cerrar()} deja al día las instantáneas binarias para el siguiente inicio.
+ * Los buses de cambios ({@link #cambiosPacientes()}, etc.) existen desde el principio y
+ * no disparan la carga, así que una vista puede suscribirse antes de que termine.
+ * La {@link #agenda()} de citas se construye al pedirla y se mantiene al día con
+ * los avisos de citas.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class Repositorios {
+
+    private static RepositorioPacientes pacientes;
+    private static RepositorioDonantes donantes;
+    private static RepositorioCitas citas;
+    private static RepositorioTrasplantes trasplantes;
+    private static List<ReporteCarga> reportes = Collections.emptyList();
+    private static volatile Agenda agenda;
+
+    private static final BusCambios<Paciente> CAMBIOS_PACIENTES = new BusCambios<>();
+    private static final BusCambios<Donante> CAMBIOS_DONANTES = new BusCambios<>();
+    private static final BusCambios<Cita> CAMBIOS_CITAS = new BusCambios<>();
+    private static final BusCambios<Trasplante> CAMBIOS_TRASPLANTES = new BusCambios<>();
+
+    private Repositorios() {}
+
+    /**
+     * Carga los repositorios si aún no se han cargado.
+     */
+    public static synchronized void inicializar() {
+        if (pacientes == null) recargar();
+    }
+
+    /**
+     * Descarta el estado en memoria y vuelve a leer los archivos.
+     * Si ya había repositorios cargados, los suscriptores reciben {@link Cambio.Tipo#RECARGADO}.
+     */
+    public static synchronized void recargar() {
+        boolean habiaDatos = pacientes != null;
+        ReporteCarga repPacientes = new ReporteCarga("Paciente.txt");
+        ReporteCarga repDonantes = new ReporteCarga("Donante.txt");
+        ReporteCarga repCitas = new ReporteCarga("Cita.txt");
+        ReporteCarga repTrasplantes = new ReporteCarga(TrasplanteLoader.RUTA);
+
+        pacientes = new RepositorioPacientes(PacienteLoader.cargarPacientes(repPacientes), CAMBIOS_PACIENTES);
+        donantes = new RepositorioDonantes(DonanteLoader.cargarDonantes(repDonantes), CAMBIOS_DONANTES);
+
+        IndicePersonas<Paciente> indicePacientes = new IndicePersonas<>(pacientes.listar());
+        IndicePersonas<Donante> indiceDonantes = new IndicePersonas<>(donantes.listar());
+        citas = new RepositorioCitas(CitaLoader.cargarCitas(indicePacientes, repCitas), CAMBIOS_CITAS);
+        trasplantes = new RepositorioTrasplantes(
+                TrasplanteLoader.cargarTrasplantes(indiceDonantes, indicePacientes, repTrasplantes), CAMBIOS_TRASPLANTES);
+        reportes = Collections.unmodifiableList(Arrays.asList(repPacientes, repDonantes, repCitas, repTrasplantes));
+        if (habiaDatos) {
+            CAMBIOS_PACIENTES.recargado();
+            CAMBIOS_DONANTES.recargado();
+            CAMBIOS_CITAS.recargado();
+            CAMBIOS_TRASPLANTES.recargado();
+        }
+    }
+
+    /**
+     * Escribe las instantáneas binarias de los archivos que cambiaron desde la última,
+     * para que el siguiente inicio no tenga que interpretar el texto. Se invoca al cerrar
+     * la aplicación; si los repositorios no se cargaron no hace nada.
+     */
+    public static synchronized void cerrar() {
+        if (pacientes == null) return;
+        PacienteLoader.escribirInstantanea();
+        DonanteLoader.escribirInstantanea();
+        // Los repositorios reflejan cada archivo con su bitácora aplicada
+        IndicePersonas<Paciente> indicePacientes = new IndicePersonas<>(pacientes.listar());
+        CitaLoader.escribirInstantanea(indicePacientes);
+        TrasplanteLoader.escribirInstantanea(new IndicePersonas<>(donantes.listar()), indicePacientes);
+    }
+
+    /**
+     * @return informes de la última carga (pacientes, donantes, citas y trasplantes)
+     */
+    public static synchronized List<ReporteCarga> reportesCarga() {
+        inicializar();
+        return reportes;
+    }
+
+    public static synchronized RepositorioPacientes pacientes() { inicializar(); return pacientes; }
+    public static synchronized RepositorioDonantes donantes() { inicializar(); return donantes; }
+    public static synchronized RepositorioCitas citas() { inicializar(); return citas; }
+    public static synchronized RepositorioTrasplantes trasplantes() { inicializar(); return trasplantes; }
+
+    /**
+     * Agenda de las citas registradas. Se construye con el repositorio de citas
+     * bloqueado y queda suscrita a sus avisos, así que no pierde cambios.
+     * @return la agenda compartida
+     */
+    public static synchronized Agenda agenda() {
+        inicializar();
+        if (agenda == null) {
+            synchronized (citas) {
+                agenda = new Agenda(citas.listar());
+                CAMBIOS_CITAS.suscribir(Repositorios::actualizarAgenda);
+            }
+        }
+        return agenda;
+    }
+
+    // Se ejecuta en el hilo que modificó las citas; no toma el candado de esta clase
+    private static void actualizarAgenda(Cambio<Cita> cambio) {
+        switch (cambio.getTipo()) {
+            case AGREGADO:
+            case ACTUALIZADO:
+                agenda.agregar(cambio.getElemento());
+                break;
+            case ELIMINADO:
+                agenda.eliminar(cambio.getId());
+                break;
+            case RECARGADO:
+                // llega desde recargar(), con las citas nuevas ya asignadas
+                agenda.reconstruir(citas.listar());
+                break;
+        }
+    }
+
+    // Los buses no requieren sincronización ni disparan la carga
+    public static BusCambios<Paciente> cambiosPacientes() { return CAMBIOS_PACIENTES; }
+    public static BusCambios<Donante> cambiosDonantes() { return CAMBIOS_DONANTES; }
+    public static BusCambios<Cita> cambiosCitas() { return CAMBIOS_CITAS; }
+    public static BusCambios<Trasplante> cambiosTrasplantes() { return CAMBIOS_TRASPLANTES; }
+}
@@ -0,0 +1,110 @@
+package repositorio.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import model.Paciente;
+import repositorio.BusCambios;
+import repositorio.Cambio;
+import repositorio.RepositorioPacientes;
+import excepciones.InvalidDataException;
+
+/**
+ * Clase de pruebas para {@link BusCambios}: avisos de alta, modificación y baja
+ * publicados por un repositorio después de persistir.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class BusCambiosTest {
+
+    private final BusCambios<Paciente> bus = new BusCambios<>();
+    private final List<Cambio<Paciente>> recibidos = new ArrayList<>();
+    private RepositorioPacientes repositorio;
+    private Paciente paciente;
+    private byte[] pacientesOriginales;
+
+    /**
+     * Respalda Paciente.txt y crea un repositorio vacío suscrito al bus.
+     */
+    @BeforeEach
+    public void setUp() throws InvalidDataException, IOException {
+        File archivo = new File("Paciente.txt");
+        pacientesOriginales = archivo.exists() ? Files.readAllBytes(archivo.toPath()) : null;
+        paciente = new Paciente("Sofía Ramírez", (byte)40, "P001", "A+", "Calle 10", "3001234567",
+                65.0, 1.68, new ArrayList<>(), new ArrayList<>());
+        repositorio = new RepositorioPacientes(new ArrayList<>(), bus);
+        bus.suscribir(recibidos::add);
+    }
+
+    /**
+     * Restaura Paciente.txt y borra la bitácora generada.
+     */
+    @AfterEach
+    public void tearDown() throws IOException {
+        File archivo = new File("Paciente.txt");
+        if (pacientesOriginales != null) Files.write(archivo.toPath(), pacientesOriginales);
+        else archivo.delete();
+        new File("Paciente.journal").delete();
+    }
+
+    /**
+     * Verifica el tipo, el ID y el elemento de cada aviso.
+     */
+    @Test
+    public void testAvisosDelRepositorio() throws InvalidDataException {
+        assertSame(bus, repositorio.getCambios());
+
+        repositorio.agregar(paciente);
+        repositorio.actualizar(paciente);
+        repositorio.eliminar("p001");
+        repositorio.eliminar("p001");
+
+        assertEquals(3, recibidos.size(), "Una baja que no ocurrió no se avisa");
+        assertEquals(Cambio.Tipo.AGREGADO, recibidos.get(0).getTipo());
+        assertSame(paciente, recibidos.get(0).getElemento());
+        assertEquals(Cambio.Tipo.ACTUALIZADO, recibidos.get(1).getTipo());
+        assertEquals("P001", recibidos.get(1).getId());
+        assertEquals(Cambio.Tipo.ELIMINADO, recibidos.get(2).getTipo());
+        assertEquals("p001", recibidos.get(2).getId());
+        assertNull(recibidos.get(2).getElemento());
+    }
+
+    /**
+     * Verifica que una operación rechazada no produzca aviso.
+     */
+    @Test
+    public void testOperacionRechazadaNoAvisa() throws InvalidDataException {
+        repositorio.agregar(paciente);
+        assertThrows(InvalidDataException.class, () -> repositorio.agregar(paciente));
+        assertEquals(1, recibidos.size());
+    }
+
+    /**
+     * Verifica que un suscriptor que falla no impida avisar a los demás ni el cambio,
+     * y que al desuscribirse deje de recibir avisos.
+     */
+    @Test
+    public void testSuscriptorQueFallaYDesuscribir() throws InvalidDataException {
+        Consumer<Cambio<Paciente>> defectuoso = c -> { throw new IllegalStateException("falla"); };
+        BusCambios<Paciente> otro = new BusCambios<>();
+        List<Cambio<Paciente>> vistos = new ArrayList<>();
+        otro.suscribir(defectuoso);
+        otro.suscribir(vistos::add);
+        RepositorioPacientes conFallo = new RepositorioPacientes(new ArrayList<>(), otro);
+
+        conFallo.agregar(paciente);
+        assertEquals(1, vistos.size());
+        assertTrue(conFallo.existe("P001"), "El cambio se conserva aunque un suscriptor falle");
+
+        otro.desuscribir(defectuoso);
+        assertEquals(1, otro.suscritos());
+    }
+}
@@ -0,0 +1,91 @@
+package repositorio.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import loaders.PacienteLoader;
+import model.Paciente;
+import repositorio.RepositorioPacientes;
+import excepciones.InvalidDataException;
+import excepciones.NotFoundException;
+
+/**
+ * Clase de pruebas unitarias para RepositorioPacientes.
+ * Verifica que las lecturas se sirvan desde memoria y que los cambios
+ * se persistan inmediatamente en Paciente.txt.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class RepositorioPacientesTest {
+
+    private RepositorioPacientes repositorio;
+    private Paciente paciente;
+
+    /**
+     * Crea un repositorio vacío y un paciente de prueba.
+     */
+    @BeforeEach
+    public void setUp() throws InvalidDataException {
+        paciente = new Paciente("Sofía Ramírez", (byte)40, "P001", "A+", "Calle 10", "3001234567",
+                65.0, 1.68, new ArrayList<>(), new ArrayList<>());
+        repositorio = new RepositorioPacientes(new ArrayList<>());
+    }
+
+    /**
+     * Verifica que agregar persista en archivo y que la búsqueda ignore mayúsculas.
+     */
+    @Test
+    public void testAgregarPersisteYBusca() throws InvalidDataException {
+        repositorio.agregar(paciente);
+
+        assertSame(paciente, repositorio.buscarPorId("p001"), "Debe servir la misma instancia desde memoria");
+        List<Paciente> enArchivo = PacienteLoader.cargarPacientes();
+        assertEquals(1, enArchivo.size(), "El paciente debe estar persistido");
+        assertEquals("P001", enArchivo.get(0).getId(), "El ID persistido debe mantenerse");
+    }
+
+    /**
+     * Verifica que no se permitan IDs duplicados.
+     */
+    @Test
+    public void testAgregarDuplicadoLanzaExcepcion() throws InvalidDataException {
+        repositorio.agregar(paciente);
+        assertThrows(InvalidDataException.class, () -> repositorio.agregar(paciente),
+                "Debe rechazar un ID duplicado");
+        assertThrows(InvalidDataException.class, () -> repositorio.agregar(null),
+                "Debe rechazar un paciente null");
+    }
+
+    /**
+     * Verifica que eliminar actualice memoria y archivo.
+     */
+    @Test
+    public void testEliminar() throws InvalidDataException {
+        repositorio.agregar(paciente);
+        assertTrue(repositorio.eliminar("P001"), "Debe eliminar el paciente existente");
+        assertFalse(repositorio.eliminar("P001"), "No debe eliminar dos veces");
+        assertThrows(NotFoundException.class, () -> repositorio.buscarPorId("P001"),
+                "El paciente eliminado no debe encontrarse");
+        assertTrue(PacienteLoader.cargarPacientes().isEmpty(), "El archivo debe quedar vacío");
+    }
+
+    /**
+     * Limpieza de archivos generados.
+     */
+    @AfterEach
+    public void tearDown() {
+        File archivo = new File("Paciente.txt");
+        if (archivo.exists()) {
+            archivo.delete();
+        }
+        File bitacora = new File("Paciente.journal");
+        if (bitacora.exists()) {
+            bitacora.delete();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package util;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.util.Date;
+
+/**
+ * Conversión entre texto y fechas para los formatos de archivo dd/MM/yyyy y HH:mm.
+ * Es inmutable y segura entre hilos (a diferencia de SimpleDateFormat). La escritura
+ * sigue {@link #FECHA} y {@link #HORA} (siempre con dos dígitos). La lectura se hace a
+ * mano y, como SimpleDateFormat, acepta también día, mes y hora de un dígito
+ * ("5/3/2026", "8:05"); los textos inválidos no generan excepciones internas.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class Fechas {
+
+    /** Formato de fecha de los archivos (dd/MM/yyyy). Para leer, ver {@link #fechaSegura}. */
+    public static final DateTimeFormatter FECHA =
+            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+    /** Formato de hora de los archivos (HH:mm). Para leer, ver {@link #horaSegura}. */
+    public static final DateTimeFormatter HORA =
+            DateTimeFormatter.ofPattern("HH:mm").withResolverStyle(ResolverStyle.STRICT);
+
+    // Las horas se guardan como Date del 01/01/1970, igual que SimpleDateFormat("HH:mm")
+    private static final LocalDate DIA_BASE_HORA = LocalDate.of(1970, 1, 1);
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+    private Fechas() {}
+
+    /**
+     * @param fecha fecha a formatear
+     * @return texto dd/MM/yyyy
+     */
+    public static String formatearFecha(Date fecha) {
+        LocalDate d = LocalDate.ofInstant(Instant.ofEpochMilli(fecha.getTime()), ZONA);
+        int anio = d.getYear();
+        if (anio < 0 || anio > 9999) return FECHA.format(d);
+        char[] c = new char[10];
+        dosDigitos(c, 0, d.getDayOfMonth());
+        c[2] = '/';
+        dosDigitos(c, 3, d.getMonthValue());
+        c[5] = '/';
+        dosDigitos(c, 6, anio / 100);
+        dosDigitos(c, 8, anio % 100);
+        return new String(c);
+    }
+
+    /**
+     * @param hora hora a formatear
+     * @return texto HH:mm
+     */
+    public static String formatearHora(Date hora) {
+        LocalTime t = LocalTime.ofInstant(Instant.ofEpochMilli(hora.getTime()), ZONA);
+        char[] c = new char[5];
+        dosDigitos(c, 0, t.getHour());
+        c[2] = ':';
+        dosDigitos(c, 3, t.getMinute());
+        return new String(c);
+    }
+
+    /**
+     * Lee una fecha dd/MM/yyyy (se aceptan también día y mes de un dígito).
+     * @param texto texto a leer
+     * @return la fecha a medianoche en la zona local
+     * @throws ParseException si el texto no es una fecha válida
+     */
+    public static Date parsearFecha(String texto) throws ParseException {
+        return aDate(leerFecha(texto));
+    }
+
+    /**
+     * Lee una hora HH:mm.
+     * @param texto texto a leer
+     * @return la hora sobre el día 01/01/1970 en la zona local
+     * @throws ParseException si el texto no es una hora válida
+     */
+    public static Date parsearHora(String texto) throws ParseException {
+        return aDate(leerHora(texto));
+    }
+
+    /**
+     * @param texto texto dd/MM/yyyy
+     * @return la fecha leída
+     * @throws ParseException si el texto no es una fecha válida
+     */
+    public static LocalDate leerFecha(String texto) throws ParseException {
+        LocalDate d = fechaSegura(texto);
+        if (d == null) throw new ParseException("Unparseable date: \"" + texto + "\"", 0);
+        return d;
+    }
+
+    /**
+     * @param texto texto HH:mm
+     * @return la hora leída
+     * @throws ParseException si el texto no es una hora válida
+     */
+    public static LocalTime leerHora(String texto) throws ParseException {
+        LocalTime t = horaSegura(texto);
+        if (t == null) throw new ParseException("Unparseable date: \"" + texto + "\"", 0);
+        return t;
+    }
+
+    /**
+     * Lee una fecha sin lanzar excepciones (para cargas masivas con datos sucios).
+     * @param texto texto d/M/yyyy
+     * @return la fecha o null si el texto no es una fecha válida
+     */
+    public static LocalDate fechaSegura(String texto) {
+        if (texto == null) return null;
+        int barra1 = texto.indexOf('/');
+        int barra2 = barra1 < 0 ? -1 : texto.indexOf('/', barra1 + 1);
+        if (barra1 < 1 || barra1 > 2 || barra2 - barra1 < 2 || barra2 - barra1 > 3 || texto.length() - barra2 != 5) {
+            return null;
+        }
+        int dia = digitos(texto, 0, barra1);
+        int mes = digitos(texto, barra1 + 1, barra2);
+        int anio = digitos(texto, barra2 + 1, texto.length());
+        if (dia < 1 || mes < 1 || mes > 12 || anio < 0) return null;
+        if (dia > Month.of(mes).length(Year.isLeap(anio))) return null;
+        return LocalDate.of(anio, mes, dia);
+    }
+
+    /**
+     * Lee una hora sin lanzar excepciones.
+     * @param texto texto H:mm
+     * @return la hora o null si el texto no es una hora válida
+     */
+    public static LocalTime horaSegura(String texto) {
+        if (texto == null) return null;
+        int dosPuntos = texto.indexOf(':');
+        if (dosPuntos < 1 || dosPuntos > 2 || texto.length() - dosPuntos != 3) return null;
+        int h = digitos(texto, 0, dosPuntos);
+        int m = digitos(texto, dosPuntos + 1, texto.length());
+        if (h < 0 || h > 23 || m < 0 || m > 59) return null;
+        return LocalTime.of(h, m);
+    }
+
+    /**
+     * @param fecha fecha local
+     * @return la fecha a medianoche en la zona local
+     */
+    public static Date aDate(LocalDate fecha) {
+        return Date.from(fecha.atStartOfDay(ZONA).toInstant());
+    }
+
+    /**
+     * @param fecha fecha a convertir
+     * @return el día en la zona local, el mismo que escribe {@link #formatearFecha(Date)}
+     */
+    public static LocalDate aFechaLocal(Date fecha) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(fecha.getTime()), ZONA);
+    }
+
+    /**
+     * @param hora hora a convertir
+     * @return la hora en la zona local truncada a minutos, como la escribe {@link #formatearHora(Date)}
+     */
+    public static LocalTime aHoraLocal(Date hora) {
+        LocalTime t = LocalTime.ofInstant(Instant.ofEpochMilli(hora.getTime()), ZONA);
+        return LocalTime.of(t.getHour(), t.getMinute());
+    }
+
+    /**
+     * @param hora hora local
+     * @return la hora sobre el día 01/01/1970 en la zona local
+     */
+    public static Date aDate(LocalTime hora) {
+        return Date.from(LocalDateTime.of(DIA_BASE_HORA, hora).atZone(ZONA).toInstant());
+    }
+
+    // Valor decimal de texto[desde, hasta) o -1 si hay algún carácter que no es dígito
+    private static int digitos(CharSequence texto, int desde, int hasta) {
+        int v = 0;
+        for (int i = desde; i < hasta; i++) {
+            char ch = texto.charAt(i);
+            if (ch < '0' || ch > '9') return -1;
+            v = v * 10 + (ch - '0');
+        }
+        return v;
+    }
+
+    private static void dosDigitos(char[] c, int pos, int v) {
+        c[pos] = (char) ('0' + v / 10);
+        c[pos + 1] = (char) ('0' + v % 10);
+    }
+}
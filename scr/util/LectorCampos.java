@@ -0,0 +1,345 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector secuencial de campos separados por un carácter (por defecto ';').
+ * Recorre la línea una sola vez sin expresiones regulares ni arreglos intermedios:
+ * los campos numéricos se interpretan sobre el texto original y solo se crean
+ * cadenas para los campos que se piden con {@link #siguiente()}.
+ *
+ * <p>A diferencia de {@code String.split}, los campos vacíos al final de la línea
+ * sí se cuentan.</p>
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class LectorCampos {
+
+    // 10^0 .. 10^22 son exactos en double
+    private static final double[] POTENCIAS_10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final long SIN_VALOR = Long.MIN_VALUE;
+
+    private final CharSequence texto;
+    private final char separador;
+    private final int fin;
+    private int pos;
+    private boolean agotado;
+    private boolean errorNumerico;
+
+    /**
+     * @param texto línea a leer (String, StringBuilder, CharBuffer...)
+     */
+    public LectorCampos(CharSequence texto) {
+        this(texto, ';');
+    }
+
+    /**
+     * @param texto línea a leer
+     * @param separador carácter que separa los campos
+     */
+    public LectorCampos(CharSequence texto, char separador) {
+        this.texto = texto;
+        this.separador = separador;
+        this.fin = texto.length();
+    }
+
+    /**
+     * @return número total de campos de la línea, incluidos los vacíos
+     */
+    public int contarCampos() {
+        int n = 1;
+        for (int i = 0; i < fin; i++) {
+            if (texto.charAt(i) == separador) n++;
+        }
+        return n;
+    }
+
+    /** @return true si quedan campos por leer */
+    public boolean hayMas() { return !agotado; }
+
+    /**
+     * @return el siguiente campo como cadena
+     * @throws IllegalStateException si no quedan campos
+     */
+    public String siguiente() {
+        int inicio = pos;
+        int hasta = avanzar();
+        return texto.subSequence(inicio, hasta).toString();
+    }
+
+    /** Descarta el siguiente campo sin crear la cadena. */
+    public void saltar() {
+        avanzar();
+    }
+
+    /**
+     * @param valor texto esperado
+     * @return true si el siguiente campo es exactamente {@code valor}
+     */
+    public boolean siguienteEs(String valor) {
+        int inicio = pos;
+        int hasta = avanzar();
+        if (hasta - inicio != valor.length()) return false;
+        for (int i = 0; i < valor.length(); i++) {
+            if (texto.charAt(inicio + i) != valor.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Lee el siguiente campo como entero con las mismas reglas que {@link Integer#parseInt}.
+     * @return el valor leído
+     * @throws NumberFormatException si el campo no es un entero válido
+     */
+    public int siguienteEntero() {
+        int inicio = pos;
+        int hasta = avanzar();
+        long v = entero(inicio, hasta);
+        if (v == SIN_VALOR) throw formatoInvalido(inicio, hasta);
+        return (int) v;
+    }
+
+    /**
+     * Lee el siguiente campo como byte con las mismas reglas que {@link Byte#parseByte}.
+     * @return el valor leído
+     * @throws NumberFormatException si el campo no es un byte válido
+     */
+    public byte siguienteByte() {
+        int inicio = pos;
+        int hasta = avanzar();
+        long v = entero(inicio, hasta);
+        if (v == SIN_VALOR) throw formatoInvalido(inicio, hasta);
+        if (v < Byte.MIN_VALUE || v > Byte.MAX_VALUE) {
+            throw new NumberFormatException("Value out of range. Value:\"" + texto.subSequence(inicio, hasta) + "\" Radix:10");
+        }
+        return (byte) v;
+    }
+
+    /**
+     * Igual que {@link #siguienteByte()} pero sin lanzar excepciones: si el campo no
+     * es un byte válido devuelve 0 y {@link #hayErrorNumerico()} pasa a ser true.
+     * @return el valor leído o 0
+     */
+    public byte siguienteByteSeguro() {
+        int inicio = pos;
+        int hasta = avanzar();
+        long v = entero(inicio, hasta);
+        errorNumerico = v == SIN_VALOR || v < Byte.MIN_VALUE || v > Byte.MAX_VALUE;
+        return errorNumerico ? 0 : (byte) v;
+    }
+
+    /**
+     * Lee el siguiente campo como double. Los decimales simples (como "70.5") se
+     * calculan directamente; el resto se delega en {@link Double#parseDouble}, por
+     * lo que el resultado es siempre idéntico.
+     * @return el valor leído
+     * @throws NumberFormatException si el campo no es un número válido
+     */
+    public double siguienteDouble() {
+        int inicio = pos;
+        int hasta = avanzar();
+        double v = decimalSimple(inicio, hasta);
+        if (!Double.isNaN(v)) return v;
+        return Double.parseDouble(texto.subSequence(inicio, hasta).toString());
+    }
+
+    /**
+     * Igual que {@link #siguienteDouble()} pero sin lanzar excepciones. Solo acepta
+     * notación decimal (con exponente opcional y espacios alrededor); si el campo no
+     * la cumple devuelve 0 y {@link #hayErrorNumerico()} pasa a ser true.
+     * @return el valor leído o 0
+     */
+    public double siguienteDoubleSeguro() {
+        int inicio = pos;
+        int hasta = avanzar();
+        double v = decimalSimple(inicio, hasta);
+        errorNumerico = false;
+        if (!Double.isNaN(v)) return v;
+        if (!esDecimal(inicio, hasta)) {
+            errorNumerico = true;
+            return 0;
+        }
+        return Double.parseDouble(texto.subSequence(inicio, hasta).toString());
+    }
+
+    /**
+     * @return true si la última lectura "segura" encontró un número inválido
+     */
+    public boolean hayErrorNumerico() { return errorNumerico; }
+
+    /**
+     * Lee el siguiente campo como lista separada por {@code sep}, con cada elemento
+     * recortado. Equivale a {@code campo.split(sep)} más {@code trim()}; un campo
+     * vacío produce una lista vacía.
+     * @param sep separador interno de la lista
+     * @return lista nueva con los elementos
+     */
+    public List<String> siguienteLista(char sep) {
+        int inicio = pos;
+        int hasta = avanzar();
+        List<String> lista = new ArrayList<>();
+        if (inicio == hasta) return lista;
+        int desde = inicio;
+        int ultimoNoVacio = 0; // como split, se descartan los elementos vacíos del final
+        for (int i = inicio; i <= hasta; i++) {
+            if (i == hasta || texto.charAt(i) == sep) {
+                lista.add(texto.subSequence(desde, i).toString().trim());
+                if (i > desde) ultimoNoVacio = lista.size();
+                desde = i + 1;
+            }
+        }
+        while (lista.size() > ultimoNoVacio) lista.remove(lista.size() - 1);
+        return lista;
+    }
+
+    /**
+     * Escapa un texto libre para guardarlo como un solo campo: la barra invertida se
+     * duplica, ';' pasa a "\p" y los saltos de línea a "\n" y "\r".
+     * @param texto texto original (null se escribe como "")
+     * @return texto sin separadores ni saltos de línea
+     */
+    public static String escapar(String texto) {
+        if (texto == null) return "";
+        StringBuilder sb = null;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            String reemplazo;
+            switch (c) {
+                case '\\': reemplazo = "\\\\"; break;
+                case ';': reemplazo = "\\p"; break;
+                case '\n': reemplazo = "\\n"; break;
+                case '\r': reemplazo = "\\r"; break;
+                default: reemplazo = null;
+            }
+            if (reemplazo == null) {
+                if (sb != null) sb.append(c);
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder(texto.length() + 8).append(texto, 0, i);
+            sb.append(reemplazo);
+        }
+        return sb == null ? texto : sb.toString();
+    }
+
+    /**
+     * Revierte {@link #escapar(String)}.
+     * @param texto campo leído del archivo
+     * @return texto original
+     */
+    public static String desescapar(String texto) {
+        if (texto.indexOf('\\') < 0) return texto;
+        StringBuilder sb = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c != '\\' || i + 1 == texto.length()) {
+                sb.append(c);
+                continue;
+            }
+            char sig = texto.charAt(++i);
+            switch (sig) {
+                case 'p': sb.append(';'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                default: sb.append(sig);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Avanza hasta el final del campo actual y devuelve su límite (exclusivo)
+    private int avanzar() {
+        if (agotado) throw new IllegalStateException("No quedan campos por leer");
+        int i = pos;
+        while (i < fin && texto.charAt(i) != separador) i++;
+        if (i == fin) agotado = true;
+        pos = i + 1;
+        return i;
+    }
+
+    // Entero con las reglas de Integer.parseInt, o SIN_VALOR si no es válido
+    private long entero(int inicio, int hasta) {
+        if (inicio == hasta) return SIN_VALOR;
+        int i = inicio;
+        boolean negativo = false;
+        char primero = texto.charAt(i);
+        if (primero == '-' || primero == '+') {
+            negativo = primero == '-';
+            i++;
+            if (i == hasta) return SIN_VALOR;
+        }
+        long v = 0;
+        for (; i < hasta; i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') return SIN_VALOR;
+            v = v * 10 + (c - '0');
+            if (v > (long) Integer.MAX_VALUE + 1) return SIN_VALOR;
+        }
+        v = negativo ? -v : v;
+        return v > Integer.MAX_VALUE ? SIN_VALOR : v;
+    }
+
+    // Decimal sin exponente de hasta 15 dígitos, o NaN si hay que delegar en Double.parseDouble
+    private double decimalSimple(int inicio, int hasta) {
+        int i = inicio;
+        boolean negativo = false;
+        if (i < hasta && (texto.charAt(i) == '-' || texto.charAt(i) == '+')) {
+            negativo = texto.charAt(i) == '-';
+            i++;
+        }
+        long mantisa = 0;
+        int digitos = 0;
+        int decimales = -1; // -1: aún sin punto
+        for (; i < hasta; i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantisa = mantisa * 10 + (c - '0');
+                digitos++;
+                if (decimales >= 0) decimales++;
+            } else if (c == '.' && decimales < 0) {
+                decimales = 0;
+            } else {
+                break;
+            }
+        }
+        // Con hasta 15 dígitos la mantisa y la potencia son exactas y la división
+        // queda correctamente redondeada, igual que Double.parseDouble
+        if (i == hasta && digitos > 0 && digitos <= 15 && decimales <= 22) {
+            double v = decimales > 0 ? mantisa / POTENCIAS_10[decimales] : mantisa;
+            return negativo ? -v : v;
+        }
+        return Double.NaN;
+    }
+
+    // [espacios] [signo] dígitos [. dígitos] [(e|E) [signo] dígitos] [espacios], con al menos un dígito
+    private boolean esDecimal(int inicio, int hasta) {
+        int i = inicio;
+        while (i < hasta && texto.charAt(i) <= ' ') i++;
+        while (hasta > i && texto.charAt(hasta - 1) <= ' ') hasta--;
+        if (i < hasta && (texto.charAt(i) == '-' || texto.charAt(i) == '+')) i++;
+        int digitos = 0;
+        while (i < hasta && texto.charAt(i) >= '0' && texto.charAt(i) <= '9') { i++; digitos++; }
+        if (i < hasta && texto.charAt(i) == '.') {
+            i++;
+            while (i < hasta && texto.charAt(i) >= '0' && texto.charAt(i) <= '9') { i++; digitos++; }
+        }
+        if (digitos == 0) return false;
+        if (i < hasta && (texto.charAt(i) == 'e' || texto.charAt(i) == 'E')) {
+            i++;
+            if (i < hasta && (texto.charAt(i) == '-' || texto.charAt(i) == '+')) i++;
+            int exp = 0;
+            while (i < hasta && texto.charAt(i) >= '0' && texto.charAt(i) <= '9') { i++; exp++; }
+            if (exp == 0) return false;
+        }
+        return i == hasta;
+    }
+
+    private NumberFormatException formatoInvalido(int inicio, int hasta) {
+        return new NumberFormatException("For input string: \"" + texto.subSequence(inicio, hasta) + "\"");
+    }
+}
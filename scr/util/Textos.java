@@ -0,0 +1,56 @@
+package util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utilidades de comparación de texto (nombres sin tildes, separación en palabras).
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public final class Textos {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}");
+
+    private Textos() {}
+
+    /**
+     * Normaliza un texto para comparar: sin tildes, en minúsculas y sin espacios extremos.
+     * Los textos solo ASCII no pasan por {@link Normalizer}.
+     * @param s texto original
+     * @return texto normalizado ("" si es null)
+     */
+    public static String normalizar(String s) {
+        if (s == null) return "";
+        boolean ascii = true;
+        for (int i = 0; i < s.length() && ascii; i++) {
+            ascii = s.charAt(i) < 0x80;
+        }
+        String base = ascii ? s : MARCAS.matcher(Normalizer.normalize(s, Normalizer.Form.NFD)).replaceAll("");
+        return base.toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Separa un texto en palabras usando los espacios en blanco.
+     * @param s texto (normalmente ya normalizado)
+     * @return palabras no vacías en orden
+     */
+    public static String[] palabras(String s) {
+        List<String> lista = new ArrayList<>();
+        int inicio = -1;
+        for (int i = 0; i <= s.length(); i++) {
+            boolean espacio = i == s.length() || Character.isWhitespace(s.charAt(i));
+            if (!espacio && inicio < 0) {
+                inicio = i;
+            } else if (espacio && inicio >= 0) {
+                lista.add(s.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return lista.toArray(new String[0]);
+    }
+}
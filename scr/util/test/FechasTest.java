@@ -0,0 +1,62 @@
+package util.test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import util.Fechas;
+
+/**
+ * Clase de pruebas unitarias para Fechas.
+ * Compara el resultado con SimpleDateFormat, que era el formato usado antes.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class FechasTest {
+
+    /**
+     * Verifica que leer y escribir fechas coincida con SimpleDateFormat.
+     */
+    @Test
+    public void testFechaEquivalenteASimpleDateFormat() throws ParseException {
+        SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
+        Date esperada = sdf.parse("05/03/2026");
+        assertEquals(esperada, Fechas.parsearFecha("05/03/2026"), "Debe leer la misma fecha");
+        assertEquals(esperada, Fechas.parsearFecha("5/3/2026"), "Debe aceptar día y mes de un dígito");
+        assertEquals("05/03/2026", Fechas.formatearFecha(esperada), "Debe escribir dd/MM/yyyy");
+    }
+
+    /**
+     * Verifica que leer y escribir horas coincida con SimpleDateFormat.
+     */
+    @Test
+    public void testHoraEquivalenteASimpleDateFormat() throws ParseException {
+        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm");
+        Date esperada = sdf.parse("08:05");
+        assertEquals(esperada, Fechas.parsearHora("08:05"), "Debe leer la misma hora");
+        assertEquals(esperada, Fechas.parsearHora("8:05"), "Debe aceptar la hora de un dígito");
+        assertEquals("08:05", Fechas.formatearHora(esperada), "Debe escribir HH:mm");
+    }
+
+    /**
+     * Verifica que los formatos públicos escriban con dos dígitos, igual que los archivos.
+     */
+    @Test
+    public void testFormatosConDosDigitos() {
+        assertEquals("05/03/2026", Fechas.FECHA.format(java.time.LocalDate.of(2026, 3, 5)));
+        assertEquals("08:05", Fechas.HORA.format(java.time.LocalTime.of(8, 5)));
+    }
+
+    /**
+     * Verifica que los textos inválidos lancen ParseException.
+     */
+    @Test
+    public void testTextoInvalido() {
+        assertThrows(ParseException.class, () -> Fechas.parsearFecha("FECHA_INVALIDA"));
+        assertThrows(ParseException.class, () -> Fechas.parsearFecha("31/02/2026"));
+        assertThrows(ParseException.class, () -> Fechas.parsearHora("25:00"));
+        assertThrows(ParseException.class, () -> Fechas.parsearHora(null));
+    }
+}
@@ -0,0 +1,90 @@
+package util.test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import util.LectorCampos;
+
+/**
+ * Clase de pruebas unitarias para LectorCampos.
+ * Verifica que la lectura campo a campo coincida con split y los parse de Java.
+ *
+ * @author Juan Cogua
+ * @version 1.0
+ */
+public class LectorCamposTest {
+
+    /**
+     * Verifica la lectura de una línea de paciente completa.
+     */
+    @Test
+    public void testLeerLineaPaciente() {
+        LectorCampos campos = new LectorCampos("Juan Pérez;30;P001;O+;Calle 123;300;70.5;1.75;Polen, Penicilina");
+        assertEquals(9, campos.contarCampos());
+        assertEquals("Juan Pérez", campos.siguiente());
+        assertEquals(30, campos.siguienteByte());
+        campos.saltar();
+        assertTrue(campos.siguienteEs("O+"));
+        campos.saltar();
+        campos.saltar();
+        assertEquals(70.5, campos.siguienteDouble());
+        assertEquals(1.75, campos.siguienteDouble());
+        assertEquals(Arrays.asList("Polen", "Penicilina"), campos.siguienteLista(','));
+        assertFalse(campos.hayMas(), "No deben quedar campos");
+    }
+
+    /**
+     * Verifica que los campos vacíos al final se cuenten y que funcione sobre CharBuffer.
+     */
+    @Test
+    public void testCamposVaciosAlFinal() {
+        LectorCampos campos = new LectorCampos(CharBuffer.wrap("a;b;;"));
+        assertEquals(4, campos.contarCampos(), "Los campos vacíos finales también cuentan");
+        campos.saltar();
+        campos.saltar();
+        assertEquals("", campos.siguiente());
+        assertTrue(campos.siguienteLista(',').isEmpty(), "Un campo vacío produce lista vacía");
+        assertThrows(IllegalStateException.class, campos::siguiente);
+    }
+
+    /**
+     * Verifica que los números coincidan con Double.parseDouble y Byte.parseByte.
+     */
+    @Test
+    public void testNumerosEquivalentes() {
+        String[] dobles = {"0.1", "70.5", "-3.25", "1e3", " 2.5 ", "123456789012345678", ".5", "0.30000000000000004"};
+        for (String d : dobles) {
+            assertEquals(Double.parseDouble(d), new LectorCampos(d).siguienteDouble(), "Valor distinto para " + d);
+        }
+        assertEquals(Byte.parseByte("-128"), new LectorCampos("-128").siguienteByte());
+        assertThrows(NumberFormatException.class, () -> new LectorCampos("128").siguienteByte());
+        assertThrows(NumberFormatException.class, () -> new LectorCampos("3x").siguienteEntero());
+        assertThrows(NumberFormatException.class, () -> new LectorCampos("abc").siguienteDouble());
+    }
+
+    /**
+     * Verifica que escapar y desescapar sean inversos y eliminen separadores.
+     */
+    @Test
+    public void testEscapar() {
+        String original = "a;b\\c\nd\r;";
+        String escapado = LectorCampos.escapar(original);
+        assertEquals(-1, escapado.indexOf(';'), "No debe quedar el separador");
+        assertEquals(-1, escapado.indexOf('\n'), "No deben quedar saltos de línea");
+        assertEquals(original, LectorCampos.desescapar(escapado));
+        assertEquals("sin cambios", LectorCampos.escapar("sin cambios"));
+        assertEquals("", LectorCampos.escapar(null));
+    }
+
+    /**
+     * Verifica que la lista interna descarte los vacíos finales igual que split.
+     */
+    @Test
+    public void testListaComoSplit() {
+        String campo = "a,,b, ,";
+        String[] esperado = campo.split(",");
+        for (int i = 0; i < esperado.length; i++) esperado[i] = esperado[i].trim();
+        assertEquals(Arrays.asList(esperado), new LectorCampos(campo).siguienteLista(','));
+    }
+}